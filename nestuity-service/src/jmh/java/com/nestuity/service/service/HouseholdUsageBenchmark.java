@@ -0,0 +1,71 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.SupplyUsageEstimate;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the learned daily usage on the days-left path.
+ * {@code normCacheHit} and {@code learnedCacheHit} are what a request pays: a cache hit, then days left and the
+ * recommended purchase from the cached {@link HouseholdUsage}. {@code normCompute} and {@code learnedCompute} are
+ * the in-memory part of a cache miss, without the queries; the learned one adds
+ * {@link SupplyUsageEstimator#dailyUsageOn}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HouseholdUsageBenchmark {
+
+    private final HouseholdUsageCache cache = new HouseholdUsageCache(Duration.ofHours(1));
+    private SupplyUsageEstimate estimate;
+    private LocalDate today;
+
+    @Setup
+    public void setUp() {
+        today = LocalDate.now();
+        estimate = new SupplyUsageEstimate();
+        estimate.setStartedOn(today.minusDays(30));
+        estimate.setCurrentDay(today.minusDays(1));
+        estimate.setCurrentDayTotal(11.0);
+        estimate.setDailyUsage(9.5);
+        estimate.setObservedDays(28);
+        cache.get(1L, "diapers", this::normUsage);
+        cache.get(2L, "diapers", this::learnedUsage);
+    }
+
+    @Benchmark
+    public int normCacheHit() {
+        HouseholdUsage usage = cache.get(1L, "diapers", this::normUsage);
+        return usage.daysLeft() + usage.recommendedPurchase();
+    }
+
+    @Benchmark
+    public int learnedCacheHit() {
+        HouseholdUsage usage = cache.get(2L, "diapers", this::learnedUsage);
+        return usage.daysLeft() + usage.recommendedPurchase();
+    }
+
+    @Benchmark
+    public int normCompute() {
+        HouseholdUsage usage = normUsage();
+        return usage.daysLeft() + usage.recommendedPurchase();
+    }
+
+    @Benchmark
+    public int learnedCompute() {
+        HouseholdUsage usage = learnedUsage();
+        return usage.daysLeft() + usage.recommendedPurchase();
+    }
+
+    private HouseholdUsage normUsage() {
+        return new HouseholdUsage(1L, "diapers", true, 120, 8, 40, 14, 1);
+    }
+
+    private HouseholdUsage learnedUsage() {
+        double dailyUsage = SupplyUsageEstimator.dailyUsageOn(estimate, today).orElse(8);
+        return new HouseholdUsage(2L, "diapers", true, 120, dailyUsage, 40, 14, 1);
+    }
+}
@@ -0,0 +1,81 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.Baby;
+import com.nestuity.service.entity.BabyReminder;
+import com.nestuity.service.entity.User;
+import com.nestuity.service.entity.UserPreferences;
+import com.nestuity.service.type.Frequency;
+import com.nestuity.service.type.ReminderType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-reminder cost of next-due evaluation, and how much of it is resolving the baby's DOB, zone and "today".
+ * {@code contextPerReminder} builds a new evaluation context for every reminder; {@code sharedContext} builds one
+ * per baby, as the service does, and only does epoch-day arithmetic per reminder. Neither runs the evaluation
+ * the service used before contexts existed. Scores are per operation, i.e. per reminder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NextDueBenchmark {
+
+    private static final int REMINDERS = 512;
+
+    private final BabyReminderService service = new BabyReminderService(null, null, null, null);
+    private List<BabyReminder> reminders;
+    private Baby baby;
+
+    @Setup
+    public void setUp() {
+        UserPreferences preferences = new UserPreferences();
+        preferences.setTimezone("America/Edmonton");
+        User user = new User();
+        user.setPreferences(preferences);
+
+        baby = new Baby();
+        baby.setId(1L);
+        baby.setUser(user);
+        baby.setDob(Date.from(LocalDate.now().minusDays(200).atStartOfDay(ZoneId.systemDefault()).toInstant()));
+
+        ReminderType[] types = ReminderType.values();
+        Frequency[] frequencies = Frequency.values();
+        reminders = new ArrayList<>(REMINDERS);
+        for (int i = 0; i < REMINDERS; i++) {
+            BabyReminder reminder = new BabyReminder();
+            reminder.setBaby(baby);
+            reminder.setType(types[i % types.length]);
+            reminder.setFrequency(frequencies[i % frequencies.length]);
+            reminder.setOccurrence(i * 7);
+            if (i % 3 == 0) {
+                reminder.setCompletedOn(LocalDateTime.now().minusDays(i % 40));
+            }
+            reminders.add(reminder);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REMINDERS)
+    public void contextPerReminder(Blackhole bh) {
+        for (BabyReminder reminder : reminders) {
+            bh.consume(service.estimateNextDue(reminder, ReminderEvaluationContext.forBaby(reminder.getBaby())));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REMINDERS)
+    public void sharedContext(Blackhole bh) {
+        ReminderEvaluationContext ctx = ReminderEvaluationContext.forBaby(baby);
+        for (BabyReminder reminder : reminders) {
+            bh.consume(service.estimateNextDue(reminder, ctx));
+        }
+    }
+}
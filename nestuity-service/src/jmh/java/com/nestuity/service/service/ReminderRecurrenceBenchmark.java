@@ -0,0 +1,48 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.type.Frequency;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Last-completed computation for task start dates far in the past.
+ * {@code steppingLoop} is the previous implementation (one interval per iteration);
+ * {@code closedForm} is {@link ReminderRecurrence#lastOccurrenceOnOrBefore}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReminderRecurrenceBenchmark {
+
+    @Param({"1", "10"})
+    private int startYearsAgo;
+
+    @Param({"DAILY", "MONTHLY"})
+    private Frequency frequency;
+
+    private LocalDateTime start;
+    private LocalDateTime now;
+
+    @Setup
+    public void setUp() {
+        now = LocalDateTime.of(2026, 10, 18, 9, 30);
+        start = now.minusYears(startYearsAgo).withHour(7);
+    }
+
+    @Benchmark
+    public LocalDateTime steppingLoop() {
+        LocalDateTime next = start;
+        while (!next.isAfter(now)) {
+            next = ReminderRecurrence.occurrence(next, frequency, 1);
+        }
+        return ReminderRecurrence.occurrence(next, frequency, -1).truncatedTo(ChronoUnit.DAYS);
+    }
+
+    @Benchmark
+    public LocalDateTime closedForm() {
+        return ReminderRecurrence.lastOccurrenceOnOrBefore(start, frequency, now);
+    }
+}
@@ -0,0 +1,31 @@
+package com.nestuity.service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class SchedulerConfig {
+
+    /**
+     * Bounded pool for composing and sending weekly summary emails. When the queue is full the
+     * submitting (paging) thread runs the task itself, which throttles paging to the send rate.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor weeklySummaryExecutor(
+            @Value("${reminders.weekly-summary.workers:8}") int workers,
+            @Value("${reminders.weekly-summary.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("weekly-summary-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
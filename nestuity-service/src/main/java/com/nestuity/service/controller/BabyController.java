@@ -17,6 +17,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/babies")
@@ -146,12 +147,17 @@ public class BabyController {
         
         return babyRepository.findById(id)
                 .map(existingBaby -> {
+                    boolean dobChanged = !Objects.equals(existingBaby.getDob(), updatedBaby.getDob());
                     existingBaby.setName(updatedBaby.getName());
                     existingBaby.setDob(updatedBaby.getDob());
                     existingBaby.setWeight(updatedBaby.getWeight());
                     existingBaby.setDiaperSize(updatedBaby.getDiaperSize());
                     existingBaby.setDailyUsage(newDailyUsage);
                     Baby savedBaby = babyRepository.save(existingBaby);
+                    // Reminder due dates are anchored on the date of birth
+                    if (dobChanged) {
+                        babyReminderService.refreshNextDueForBaby(savedBaby.getId());
+                    }
                     return ResponseEntity.ok(new BabyResponse(savedBaby));
                 })
                 .orElse(ResponseEntity.notFound().build());
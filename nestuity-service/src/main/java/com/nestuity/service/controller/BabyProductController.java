@@ -1,5 +1,6 @@
 package com.nestuity.service.controller;
 
+import com.nestuity.service.dto.BabyProductPage;
 import com.nestuity.service.dto.BabyProductResponse;
 import com.nestuity.service.dto.CreateBabyProductRequest;
 import com.nestuity.service.dto.UpdateBabyProductRequest;
@@ -46,6 +47,24 @@ public class BabyProductController {
         return ResponseEntity.ok(products);
     }
 
+    // Cursor-paginated catalogue with optional filters; prices=latest (default) or prices=all
+    @GetMapping("/catalogue")
+    public ResponseEntity<BabyProductPage> getCatalogue(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + BabyProductService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = "latest") String prices) {
+        boolean allPrices = switch (prices) {
+            case "latest" -> false;
+            case "all" -> true;
+            default -> throw new IllegalArgumentException("prices must be 'latest' or 'all'");
+        };
+        BabyProductPage page = babyProductService.findCatalogue(category, brand, inStock, cursor, limit, allPrices);
+        return ResponseEntity.ok(page);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteBabyProduct(@PathVariable Long id) {
         babyProductService.deleteById(id);
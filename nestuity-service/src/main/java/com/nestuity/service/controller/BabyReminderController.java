@@ -1,8 +1,12 @@
 package com.nestuity.service.controller;
 
 import com.nestuity.service.dto.BabyReminderDto;
+import com.nestuity.service.dto.BulkReminderRequest;
+import com.nestuity.service.dto.BulkReminderResponse;
+import com.nestuity.service.dto.ReminderDashboardDto;
 import com.nestuity.service.entity.BabyReminder;
 import com.nestuity.service.service.BabyReminderService;
+import com.nestuity.service.service.ReminderProvisioningService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,10 +19,13 @@ import java.util.Optional;
 public class BabyReminderController {
 
     private final BabyReminderService reminderService;
+    private final ReminderProvisioningService provisioningService;
 
     @Autowired
-    public BabyReminderController(BabyReminderService reminderService) {
+    public BabyReminderController(BabyReminderService reminderService,
+                                  ReminderProvisioningService provisioningService) {
         this.reminderService = reminderService;
+        this.provisioningService = provisioningService;
     }
 
     // Create a set of baseline reminders for a baby (loads from JSON and attaches baby)
@@ -28,6 +35,12 @@ public class BabyReminderController {
         return ResponseEntity.ok().build();
     }
 
+    // Create baseline reminders for many babies in one call (migrations / imports), with per-baby results
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkReminderResponse> createRemindersForBabies(@RequestBody BulkReminderRequest request) {
+        return ResponseEntity.ok(provisioningService.provision(request.babyIds()));
+    }
+
     // Get a specific reminder by its ID
     @GetMapping("/{id}")
     public ResponseEntity<BabyReminderDto> getReminderById(@PathVariable Long id) {
@@ -103,6 +116,12 @@ public class BabyReminderController {
         return ResponseEntity.noContent().build();
     }
 
+    // Upcoming buckets, medical, overdue and current milestone in one response (one reminder fetch)
+    @GetMapping("/baby/{babyId}/dashboard")
+    public ResponseEntity<ReminderDashboardDto> getDashboard(@PathVariable Long babyId) {
+        return ResponseEntity.ok(reminderService.getDashboard(babyId));
+    }
+
     @GetMapping("/baby/{babyId}/current")
     public ResponseEntity<BabyReminderDto> getCurrentMilestone(@PathVariable Long babyId) {
         BabyReminderDto milestone = reminderService.getCurrentMilestone(babyId)
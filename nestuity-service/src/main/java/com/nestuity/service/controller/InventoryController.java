@@ -1,11 +1,17 @@
 package com.nestuity.service.controller;
 
+import com.nestuity.service.dto.InventorySummaryResponse;
+import com.nestuity.service.dto.UsageEventRequest;
+import com.nestuity.service.dto.UsageEventResponse;
 import com.nestuity.service.entity.Inventory;
 import com.nestuity.service.entity.User;
+import com.nestuity.service.repository.InventoryRepository.UpdatedItem;
 import com.nestuity.service.service.InventoryService;
+import com.nestuity.service.service.UsageEventService;
 import com.nestuity.service.service.UserService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -17,10 +23,13 @@ public class InventoryController {
 
     private final InventoryService inventoryService;
     private final UserService userService;
+    private final UsageEventService usageEventService;
 
-    public InventoryController(InventoryService inventoryService, UserService userService) {
+    public InventoryController(InventoryService inventoryService, UserService userService,
+                               UsageEventService usageEventService) {
         this.inventoryService = inventoryService;
         this.userService = userService;
+        this.usageEventService = usageEventService;
     }
 
     // ==================== CREATE ====================
@@ -43,6 +52,16 @@ public class InventoryController {
         return ResponseEntity.ok(saved);
     }
 
+    // Report supply usage events in bulk; they are applied to inventory at the next periodic flush
+    @PostMapping("/usage-events")
+    public ResponseEntity<UsageEventResponse> recordUsageEvents(@RequestBody UsageEventRequest request) {
+        if (request == null || request.events() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        UsageEventResponse response = usageEventService.record(request.events());
+        return ResponseEntity.accepted().body(response);
+    }
+
     // ==================== READ ====================
 
     // Get all inventory items
@@ -73,6 +92,18 @@ public class InventoryController {
         }
     }
 
+    // Get every inventory item of a user with its days left. The ETag is the user's inventory version, read before
+    // the summary, so a poll with a matching If-None-Match gets a 304 without the summary being computed
+    @GetMapping("/user/{userId}/summary")
+    public ResponseEntity<InventorySummaryResponse> getInventorySummary(@PathVariable Long userId, WebRequest request) {
+        String version = inventoryService.getSummaryVersion(userId);
+        // Writes the ETag header either way, and the 304 status when it matches
+        if (request.checkNotModified(version)) {
+            return null;
+        }
+        return ResponseEntity.ok(inventoryService.getInventorySummary(userId));
+    }
+
     // Get a specific inventory item for a user by supply name
     @GetMapping("/user/{userId}/{supplyName}")
     public ResponseEntity<Inventory> getUserInventoryItem(
@@ -153,7 +184,7 @@ public class InventoryController {
 
     // Update a user's inventory item SINGLE quantity by supply name
     @PutMapping("/user/{userId}/{supplyName}/single-quantity")
-    public ResponseEntity<Inventory> updateSingleQuantity(
+    public ResponseEntity<UpdatedItem> updateSingleQuantity(
             @PathVariable Long userId,
             @PathVariable String supplyName,
             @RequestBody Map<String, Double> body // Expects { "totalSingleQuantity": 42.0 }
@@ -169,16 +200,36 @@ public class InventoryController {
         }
 
         try {
-            Inventory updatedItem = inventoryService.updateSingleItemQuantity(userId, supplyName, newQuantity);
+            UpdatedItem updatedItem = inventoryService.updateSingleItemQuantity(userId, supplyName, newQuantity);
             return ResponseEntity.ok(updatedItem);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
-    // Update a user's inventory item SINGLE quantity by supply name
+    // Add to / take from a user's inventory item SINGLE quantity by supply name, atomically
+    @PatchMapping("/user/{userId}/{supplyName}/single-quantity")
+    public ResponseEntity<UpdatedItem> adjustSingleQuantity(
+            @PathVariable Long userId,
+            @PathVariable String supplyName,
+            @RequestBody Map<String, Double> body // Expects { "delta": -3.0 }
+    ) {
+        Double delta = body.get("delta");
+        if (delta == null || delta.isNaN() || delta.isInfinite()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            UpdatedItem updatedItem = inventoryService.adjustSingleItemQuantity(userId, supplyName, delta);
+            return ResponseEntity.ok(updatedItem);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Update a user's inventory item UNIT quantity by supply name
     @PutMapping("/user/{userId}/{supplyName}/unit-quantity")
-    public ResponseEntity<Inventory> updateUnitQuantity(
+    public ResponseEntity<UpdatedItem> updateUnitQuantity(
             @PathVariable Long userId,
             @PathVariable String supplyName,
             @RequestBody Map<String, Double> body // Expects { "totalUnitQuantity": 4.0 }
@@ -194,7 +245,7 @@ public class InventoryController {
         }
 
         try {
-            Inventory updatedItem = inventoryService.updateUnitItemQuantity(userId, supplyName, newUnitQuantity);
+            UpdatedItem updatedItem = inventoryService.updateUnitItemQuantity(userId, supplyName, newUnitQuantity);
             return ResponseEntity.ok(updatedItem);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
@@ -1,14 +1,26 @@
 package com.nestuity.service.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nestuity.service.dto.PriceUpdateBatchResponse;
 import com.nestuity.service.dto.PriceUpdateRequest;
 import com.nestuity.service.dto.PriceUpdateResponse;
 import com.nestuity.service.service.PriceUpdateService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Controller for handling price updates from the scraper service.
  */
@@ -17,10 +29,14 @@ import org.springframework.web.bind.annotation.*;
 public class PriceUpdateController {
     private static final Logger log = LoggerFactory.getLogger(PriceUpdateController.class);
 
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     private final PriceUpdateService priceUpdateService;
+    private final ObjectMapper objectMapper;
 
-    public PriceUpdateController(PriceUpdateService priceUpdateService) {
+    public PriceUpdateController(PriceUpdateService priceUpdateService, ObjectMapper objectMapper) {
         this.priceUpdateService = priceUpdateService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -45,6 +61,56 @@ public class PriceUpdateController {
         }
     }
 
+    /**
+     * Endpoint to receive a whole scrape run's price updates at once, as a JSON array.
+     * Each update has its own result; invalid or failed updates do not stop the others.
+     *
+     * @param requests Price update requests from scraper, in scrape order
+     * @return Counts and per-update results, in request order
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PriceUpdateBatchResponse> updatePrices(@RequestBody List<PriceUpdateRequest> requests) {
+        log.info("Received batch of {} price update(s)", requests.size());
+        return ResponseEntity.ok(priceUpdateService.processPriceUpdates(requests));
+    }
+
+    /**
+     * Same as {@link #updatePrices}, with one JSON update per line (NDJSON), so the scraper can stream a run.
+     * A line that is not a valid update gets an error result; blank lines are skipped.
+     *
+     * @param body NDJSON stream of price update requests
+     * @return Counts and per-update results, in line order
+     */
+    @PostMapping(value = "/batch", consumes = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<PriceUpdateBatchResponse> updatePricesNdjson(InputStream body) throws IOException {
+        List<PriceUpdateRequest> requests = readNdjson(body);
+        log.info("Received NDJSON batch of {} price update(s)", requests.size());
+        return ResponseEntity.ok(priceUpdateService.processPriceUpdates(requests));
+    }
+
+    // Malformed lines become null updates, which the service reports as invalid
+    private List<PriceUpdateRequest> readNdjson(InputStream body) throws IOException {
+        List<PriceUpdateRequest> requests = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (requests.size() == PriceUpdateService.MAX_UPDATES_PER_BATCH) {
+                // Stops reading rather than buffering an oversized stream
+                throw new IllegalArgumentException(
+                        "At most " + PriceUpdateService.MAX_UPDATES_PER_BATCH + " price updates per batch");
+            }
+            try {
+                requests.add(objectMapper.readValue(line, PriceUpdateRequest.class));
+            } catch (JsonProcessingException e) {
+                requests.add(null);
+            }
+        }
+        return requests;
+    }
+
     /**
      * Health check endpoint to verify the price update service is running.
      *
@@ -0,0 +1,9 @@
+package com.nestuity.service.dto;
+
+import java.util.List;
+
+/**
+ * One page of the product catalogue. {@code nextCursor} fetches the following page and is null on the last one.
+ */
+public record BabyProductPage(List<BabyProductResponse> items, String nextCursor) {
+}
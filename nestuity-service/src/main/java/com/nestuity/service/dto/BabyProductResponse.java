@@ -15,6 +15,7 @@ public class BabyProductResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private List<PriceHistoryDTO> priceHistory = new ArrayList<>();
+    private List<PriceSummaryDTO> priceSummary = new ArrayList<>();
 
     // Constructors
     public BabyProductResponse() {}
@@ -30,6 +31,7 @@ public class BabyProductResponse {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public List<PriceHistoryDTO> getPriceHistory() { return priceHistory; }
+    public List<PriceSummaryDTO> getPriceSummary() { return priceSummary; }
 
     // Setters
     public void setId(Long id) { this.id = id; }
@@ -42,5 +44,6 @@ public class BabyProductResponse {
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     public void setPriceHistory(List<PriceHistoryDTO> priceHistory) { this.priceHistory = priceHistory; }
+    public void setPriceSummary(List<PriceSummaryDTO> priceSummary) { this.priceSummary = priceSummary; }
 }
 
@@ -0,0 +1,9 @@
+package com.nestuity.service.dto;
+
+import java.util.List;
+
+/**
+ * Request body for provisioning baseline reminders for many babies at once.
+ */
+public record BulkReminderRequest(List<Long> babyIds) {
+}
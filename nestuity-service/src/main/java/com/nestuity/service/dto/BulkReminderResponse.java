@@ -0,0 +1,13 @@
+package com.nestuity.service.dto;
+
+import java.util.List;
+
+/**
+ * Totals plus per-baby outcomes of a bulk reminder provisioning run.
+ */
+public record BulkReminderResponse(
+        int babiesProvisioned,
+        int remindersCreated,
+        List<ReminderProvisioningResult> results
+) {
+}
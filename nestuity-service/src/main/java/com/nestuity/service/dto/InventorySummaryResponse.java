@@ -0,0 +1,22 @@
+package com.nestuity.service.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Every inventory item of a user with the household's daily usage and days left for it, as of {@code asOf}.
+ */
+public record InventorySummaryResponse(Long userId, LocalDate asOf, List<Item> items) {
+
+    public record Item(Long inventoryId,
+                       String supplyName,
+                       Integer supplyTypeId,
+                       double totalSingleQuantity,
+                       double totalUnitQuantity,
+                       double unitConversion,
+                       int preferredSupplyMin,
+                       double dailyUsage,
+                       int daysLeft,
+                       int recommendedPurchase) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.nestuity.service.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class PriceSummaryDTO {
+    private String retailer;
+    private String productUrl;
+    private BigDecimal latestPrice;
+    private LocalDateTime latestPriceAt;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private BigDecimal averagePrice30d;
+
+    // Constructors
+    public PriceSummaryDTO() {}
+
+    // Getters
+    public String getRetailer() { return retailer; }
+    public String getProductUrl() { return productUrl; }
+    public BigDecimal getLatestPrice() { return latestPrice; }
+    public LocalDateTime getLatestPriceAt() { return latestPriceAt; }
+    public BigDecimal getMinPrice() { return minPrice; }
+    public BigDecimal getMaxPrice() { return maxPrice; }
+    public BigDecimal getAveragePrice30d() { return averagePrice30d; }
+
+    // Setters
+    public void setRetailer(String retailer) { this.retailer = retailer; }
+    public void setProductUrl(String productUrl) { this.productUrl = productUrl; }
+    public void setLatestPrice(BigDecimal latestPrice) { this.latestPrice = latestPrice; }
+    public void setLatestPriceAt(LocalDateTime latestPriceAt) { this.latestPriceAt = latestPriceAt; }
+    public void setMinPrice(BigDecimal minPrice) { this.minPrice = minPrice; }
+    public void setMaxPrice(BigDecimal maxPrice) { this.maxPrice = maxPrice; }
+    public void setAveragePrice30d(BigDecimal averagePrice30d) { this.averagePrice30d = averagePrice30d; }
+}
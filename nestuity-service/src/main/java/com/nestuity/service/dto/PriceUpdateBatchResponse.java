@@ -0,0 +1,23 @@
+package com.nestuity.service.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch of price updates: counts, and one result per update in request order.
+ */
+public record PriceUpdateBatchResponse(int received, int created, int updated, int failed,
+                                       List<PriceUpdateResponse> results) {
+
+    public static PriceUpdateBatchResponse of(List<PriceUpdateResponse> results) {
+        int created = 0;
+        int updated = 0;
+        for (PriceUpdateResponse result : results) {
+            if (result.isSuccess()) {
+                if (result.isNewProduct()) created++;
+                else updated++;
+            }
+        }
+        return new PriceUpdateBatchResponse(results.size(), created, updated, results.size() - created - updated,
+                results);
+    }
+}
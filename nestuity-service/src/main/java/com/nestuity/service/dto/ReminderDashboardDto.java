@@ -0,0 +1,19 @@
+package com.nestuity.service.dto;
+
+import com.nestuity.service.type.ReminderRange;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single-response view of a baby's reminder dashboard.
+ * {@code upcoming} always contains every {@link ReminderRange} key, with an empty list when nothing falls in it.
+ */
+public record ReminderDashboardDto(
+        Long babyId,
+        Map<ReminderRange, List<BabyReminderDto>> upcoming,
+        List<BabyReminderDto> medical,
+        List<BabyReminderDto> overdue,
+        BabyReminderDto currentMilestone
+) {
+}
@@ -0,0 +1,28 @@
+package com.nestuity.service.dto;
+
+import com.nestuity.service.type.ProvisioningStatus;
+
+/**
+ * Outcome of provisioning baseline reminders for a single baby.
+ */
+public record ReminderProvisioningResult(
+        Long babyId,
+        ProvisioningStatus status,
+        int remindersCreated,
+        String message
+) {
+
+    public static ReminderProvisioningResult created(Long babyId, int remindersCreated) {
+        return remindersCreated > 0
+                ? new ReminderProvisioningResult(babyId, ProvisioningStatus.CREATED, remindersCreated, null)
+                : new ReminderProvisioningResult(babyId, ProvisioningStatus.ALREADY_PROVISIONED, 0, null);
+    }
+
+    public static ReminderProvisioningResult notFound(Long babyId) {
+        return new ReminderProvisioningResult(babyId, ProvisioningStatus.NOT_FOUND, 0, "Baby not found with id " + babyId);
+    }
+
+    public static ReminderProvisioningResult failed(Long babyId, String message) {
+        return new ReminderProvisioningResult(babyId, ProvisioningStatus.FAILED, 0, message);
+    }
+}
@@ -0,0 +1,23 @@
+package com.nestuity.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Request body for reporting supply usage events (diaper changes, wipes used) in bulk.
+ */
+public record UsageEventRequest(List<UsageEvent> events) {
+
+    /**
+     * One usage of a supply by a household; {@code quantity} defaults to 1 when omitted. {@code occurredAt} carries
+     * the device's UTC offset, so the usage counts towards the household's local day; it defaults to the time the
+     * event is received.
+     */
+    public record UsageEvent(Long userId, String supplyName, Double quantity,
+                             // Keep the device's offset rather than normalising to UTC, which can change the date
+                             @JsonFormat(without = JsonFormat.Feature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE)
+                             OffsetDateTime occurredAt) {
+    }
+}
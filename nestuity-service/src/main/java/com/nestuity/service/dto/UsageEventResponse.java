@@ -0,0 +1,7 @@
+package com.nestuity.service.dto;
+
+/**
+ * Counts of usage events queued for the next inventory flush and of events rejected as invalid.
+ */
+public record UsageEventResponse(int accepted, int rejected) {
+}
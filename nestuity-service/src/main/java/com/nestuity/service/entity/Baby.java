@@ -1,6 +1,7 @@
 package com.nestuity.service.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.nestuity.service.service.HouseholdUsageInvalidator;
 import jakarta.persistence.*;
 
 import java.util.Date;
@@ -8,6 +9,8 @@ import java.util.Date;
 
 @Entity
 @Table(name = "baby")
+// Cached household usage depends on every baby's daily usage
+@EntityListeners(HouseholdUsageInvalidator.class)
 public class Baby {
     // Attributes
     @Id
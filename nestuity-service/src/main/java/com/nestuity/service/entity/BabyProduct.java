@@ -1,12 +1,19 @@
 package com.nestuity.service.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "baby_product")
+@Table(name = "baby_product", indexes = {
+        // Catalogue keyset pages: each filter is an equality prefix followed by the id order
+        @Index(name = "idx_baby_product_category_id", columnList = "category, id"),
+        @Index(name = "idx_baby_product_brand_id", columnList = "brand, id"),
+        @Index(name = "idx_baby_product_in_stock_id", columnList = "in_stock, id")
+})
 public class BabyProduct {
 
     @Id
@@ -35,7 +42,9 @@ public class BabyProduct {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    // Listing products initializes the histories of up to 100 of them per query instead of one query each
     @OneToMany(mappedBy = "babyProduct", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     private List<PriceHistory> priceHistory = new ArrayList<>();
 
     // Triggers before the entity is stored for the first time
@@ -10,7 +10,8 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "baby_reminder")
+@Table(name = "baby_reminder",
+        indexes = @Index(name = "idx_baby_reminder_baby_next_due", columnList = "baby_id, next_due"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -50,6 +51,9 @@ public class BabyReminder {
     @Column(name = "completed_on")
     private LocalDateTime completedOn; // tracks when the task was completed
 
+    @Column(name = "next_due")
+    private LocalDateTime nextDue; // persisted copy of the computed due date so reads can filter in the DB
+
     @Column(name = "user_created", nullable = false)
     private boolean userCreated = false;
 }
@@ -1,6 +1,7 @@
 package com.nestuity.service.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.nestuity.service.service.HouseholdUsageInvalidator;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -10,7 +11,10 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name="Inventory")
+@Table(name="Inventory",
+        indexes = @Index(name = "idx_inventory_user_supply_type", columnList = "user_id, supply_type_id"))
+// Cached household usage depends on the inventory quantities
+@EntityListeners(HouseholdUsageInvalidator.class)
 public class Inventory {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,6 +29,10 @@ public class Inventory {
     @Column(nullable = false)
     private String supplyName;
 
+    // SupplyType of supplyName, set by InventoryService; rows from before supply types are backfilled at startup
+    @Column(name = "supply_type_id")
+    private Integer supplyTypeId;
+
     // Individual units - # of individual diapers
     @Column(nullable = false)
     private Double totalSingleQuantity;
@@ -40,4 +48,10 @@ public class Inventory {
     // Preferred Supply minimum
     @Column(nullable = false)
     private Integer preferredSupplyMin = 14;
+
+    // Optimistic lock: a save based on a stale read fails instead of overwriting a concurrent change.
+    // Native quantity updates bump it as well
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0 not null")
+    private long version;
 }
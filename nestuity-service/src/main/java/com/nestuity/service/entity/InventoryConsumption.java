@@ -0,0 +1,42 @@
+package com.nestuity.service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One day of a household's supply consumption that has been taken off its inventory. The unique key on
+ * (user, supply, date) makes the nightly decrement apply at most once per day, however often the job runs.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "inventory_consumption",
+        uniqueConstraints = @UniqueConstraint(name = "uk_inventory_consumption_user_supply_date",
+                columnNames = {"user_id", "supply_name", "consumption_date"}))
+public class InventoryConsumption {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "supply_name", nullable = false)
+    private String supplyName;
+
+    // The household's local date the consumption belongs to
+    @Column(name = "consumption_date", nullable = false)
+    private LocalDate consumptionDate;
+
+    // Singles actually taken off (the daily usage, capped at what was left)
+    @Column(nullable = false)
+    private Double amount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
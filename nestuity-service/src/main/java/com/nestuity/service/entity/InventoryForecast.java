@@ -0,0 +1,63 @@
+package com.nestuity.service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Projected depletion of one household supply and the next date its days left reaches a reminder threshold.
+ * Recomputed only when the household's inventory or usage changes (which marks the row stale), so the nightly
+ * notifier reads the crossings due today from the index on {@code next_crossing_date}.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "inventory_forecast",
+        uniqueConstraints = @UniqueConstraint(name = "uk_inventory_forecast_user_supply",
+                columnNames = {"user_id", "supply_name"}),
+        indexes = {
+                @Index(name = "idx_inventory_forecast_next_crossing", columnList = "next_crossing_date"),
+                @Index(name = "idx_inventory_forecast_stale", columnList = "stale")
+        })
+public class InventoryForecast {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    // Lower-cased supply name
+    @Column(name = "supply_name", nullable = false)
+    private String supplyName;
+
+    // Household-local date the supply runs out; null when nothing is being used
+    @Column(name = "depletion_date")
+    private LocalDate depletionDate;
+
+    // Next date days left reaches a reminder threshold, and that threshold; null when no reminder is ahead
+    @Column(name = "next_crossing_date")
+    private LocalDate nextCrossingDate;
+
+    @Column(name = "next_crossing_days")
+    private Integer nextCrossingDays;
+
+    // Date of the last reminder sent for this supply
+    @Column(name = "notified_on")
+    private LocalDate notifiedOn;
+
+    // Set when inventory or usage changed after the projection was computed
+    @Column(nullable = false)
+    private boolean stale;
+
+    // Bumped by every change, so a projection computed before the latest change is not stored
+    @Column(nullable = false)
+    private long revision;
+
+    @Column(name = "computed_at")
+    private LocalDateTime computedAt;
+}
@@ -0,0 +1,45 @@
+package com.nestuity.service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one run of a batch job, so a restarted run resumes after the last processed id
+ * instead of starting over.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "job_checkpoint",
+        uniqueConstraints = @UniqueConstraint(name = "uk_job_checkpoint_job_run", columnNames = {"job_name", "run_key"}))
+public class JobCheckpoint {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_name", nullable = false)
+    private String jobName;
+
+    // Identifies the run, e.g. the scheduled date
+    @Column(name = "run_key", nullable = false)
+    private String runKey;
+
+    @Column(name = "last_processed_id", nullable = false)
+    private long lastProcessedId;
+
+    @Column(name = "processed_count", nullable = false)
+    private long processedCount;
+
+    private boolean completed;
+
+    private LocalDateTime updatedAt;
+
+    public JobCheckpoint(String jobName, String runKey) {
+        this.jobName = jobName;
+        this.runKey = runKey;
+        this.updatedAt = LocalDateTime.now();
+    }
+}
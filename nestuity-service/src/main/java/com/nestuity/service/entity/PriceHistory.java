@@ -6,7 +6,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "price_history")
+@Table(name = "price_history", indexes = {
+        // A product's prices at one retailer, newest first: price summaries read their latest entry and 30-day range
+        @Index(name = "idx_price_history_product_retailer_date", columnList = "baby_product_id, retailer, date DESC")
+})
 public class PriceHistory {
 
     @Id
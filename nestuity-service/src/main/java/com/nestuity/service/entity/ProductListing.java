@@ -0,0 +1,66 @@
+package com.nestuity.service.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * A retailer page a product is scraped from, keyed by the SHA-256 of its normalised URL so a scrape finds its
+ * product with one unique-index lookup however long the price history grows. A URL belongs to one product;
+ * a product can have several. Written only through the native insert in {@code ProductListingRepository}.
+ */
+@Entity
+@Table(name = "product_listing",
+        uniqueConstraints = @UniqueConstraint(name = "uk_product_listing_url_hash", columnNames = "url_hash"),
+        indexes = @Index(name = "idx_product_listing_product", columnList = "baby_product_id"))
+public class ProductListing {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "baby_product_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private BabyProduct babyProduct;
+
+    @Column(name = "baby_product_id", insertable = false, updatable = false)
+    private Long productId;
+
+    // Hex SHA-256 of productUrl
+    @Column(name = "url_hash", nullable = false, length = 64)
+    private String urlHash;
+
+    // Normalised, as hashed
+    @Column(name = "product_url", nullable = false, length = 2048)
+    private String productUrl;
+
+    @Column(nullable = false)
+    private String retailer;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public ProductListing() {}
+
+    // Getters
+    public Long getId() { return id; }
+    public BabyProduct getBabyProduct() { return babyProduct; }
+    public Long getProductId() { return productId; }
+    public String getUrlHash() { return urlHash; }
+    public String getProductUrl() { return productUrl; }
+    public String getRetailer() { return retailer; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    // Setters
+    public void setId(Long id) { this.id = id; }
+    public void setBabyProduct(BabyProduct babyProduct) { this.babyProduct = babyProduct; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    public void setUrlHash(String urlHash) { this.urlHash = urlHash; }
+    public void setProductUrl(String productUrl) { this.productUrl = productUrl; }
+    public void setRetailer(String retailer) { this.retailer = retailer; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,88 @@
+package com.nestuity.service.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Price statistics of one product at one retailer, kept up to date as prices are recorded, so current and lowest
+ * price views read one row per retailer instead of the whole price history. Written only through native upserts
+ * in {@code ProductPriceSummaryRepository}; removed with its product.
+ */
+@Entity
+@Table(name = "product_price_summary",
+        uniqueConstraints = @UniqueConstraint(name = "uk_product_price_summary_product_retailer",
+                columnNames = {"baby_product_id", "retailer"}))
+public class ProductPriceSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "baby_product_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private BabyProduct babyProduct;
+
+    @Column(name = "baby_product_id", insertable = false, updatable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private String retailer;
+
+    // The most recent price point
+    @Column(name = "latest_price", nullable = false, precision = 10, scale = 2)
+    private BigDecimal latestPrice;
+
+    @Column(name = "latest_product_url", length = 2048)
+    private String latestProductUrl;
+
+    @Column(name = "latest_price_at", nullable = false)
+    private LocalDateTime latestPriceAt;
+
+    // Over the whole history
+    @Column(name = "min_price", nullable = false, precision = 10, scale = 2)
+    private BigDecimal minPrice;
+
+    @Column(name = "max_price", nullable = false, precision = 10, scale = 2)
+    private BigDecimal maxPrice;
+
+    // Average of the prices dated in the 30 days up to latestPriceAt
+    @Column(name = "avg_price_30d", nullable = false, precision = 10, scale = 2)
+    private BigDecimal avgPrice30d;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ProductPriceSummary() {}
+
+    // Getters
+    public Long getId() { return id; }
+    public BabyProduct getBabyProduct() { return babyProduct; }
+    public Long getProductId() { return productId; }
+    public String getRetailer() { return retailer; }
+    public BigDecimal getLatestPrice() { return latestPrice; }
+    public String getLatestProductUrl() { return latestProductUrl; }
+    public LocalDateTime getLatestPriceAt() { return latestPriceAt; }
+    public BigDecimal getMinPrice() { return minPrice; }
+    public BigDecimal getMaxPrice() { return maxPrice; }
+    public BigDecimal getAvgPrice30d() { return avgPrice30d; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    // Setters
+    public void setId(Long id) { this.id = id; }
+    public void setBabyProduct(BabyProduct babyProduct) { this.babyProduct = babyProduct; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    public void setRetailer(String retailer) { this.retailer = retailer; }
+    public void setLatestPrice(BigDecimal latestPrice) { this.latestPrice = latestPrice; }
+    public void setLatestProductUrl(String latestProductUrl) { this.latestProductUrl = latestProductUrl; }
+    public void setLatestPriceAt(LocalDateTime latestPriceAt) { this.latestPriceAt = latestPriceAt; }
+    public void setMinPrice(BigDecimal minPrice) { this.minPrice = minPrice; }
+    public void setMaxPrice(BigDecimal maxPrice) { this.maxPrice = maxPrice; }
+    public void setAvgPrice30d(BigDecimal avgPrice30d) { this.avgPrice30d = avgPrice30d; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,30 @@
+package com.nestuity.service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Lease on a scheduled job (or one shard of it), so that with several service instances running
+ * only the holder executes it. A lease that is not released expires at {@code lockedUntil}.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "scheduler_lock")
+public class SchedulerLock {
+    // Job name, or "job:shard" for one partition of a job
+    @Id
+    private String name;
+
+    @Column(name = "locked_by", nullable = false)
+    private String lockedBy;
+
+    @Column(name = "locked_at", nullable = false)
+    private Instant lockedAt;
+
+    @Column(name = "locked_until", nullable = false)
+    private Instant lockedUntil;
+}
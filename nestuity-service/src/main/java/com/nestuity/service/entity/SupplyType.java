@@ -0,0 +1,38 @@
+package com.nestuity.service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A kind of supply households keep in inventory (diapers, wipes, formula, ...). Inventory rows reference it by
+ * integer key, so lookups by supply go through the (user, supply type) index instead of comparing names.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "supply_type",
+        uniqueConstraints = @UniqueConstraint(name = "uk_supply_type_name", columnNames = "name"))
+public class SupplyType {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    // Trimmed, lower-cased key, e.g. "diapers"
+    @Column(nullable = false)
+    private String name;
+
+    @Column(name = "display_name", nullable = false)
+    private String displayName;
+
+    // Singles one baby uses per day when the household has not reported enough usage yet; null when there is
+    // no sensible default (diapers use the baby's weight-based usage instead)
+    @Column(name = "default_daily_usage")
+    private Double defaultDailyUsage;
+
+    public SupplyType(String name, String displayName, Double defaultDailyUsage) {
+        this.name = name;
+        this.displayName = displayName;
+        this.defaultDailyUsage = defaultDailyUsage;
+    }
+}
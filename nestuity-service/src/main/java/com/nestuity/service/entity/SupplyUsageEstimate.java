@@ -0,0 +1,55 @@
+package com.nestuity.service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A household's learned daily consumption of a supply: an exponentially weighted moving average of the daily
+ * totals of its reported usage events, plus the running total of the day still in progress. Updated in place by
+ * every usage event flush; see {@code SupplyUsageEstimator} for how it is read.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "supply_usage_estimate",
+        uniqueConstraints = @UniqueConstraint(name = "uk_supply_usage_estimate_user_supply",
+                columnNames = {"user_id", "supply_name"}))
+public class SupplyUsageEstimate {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    // Lower-cased supply name
+    @Column(name = "supply_name", nullable = false)
+    private String supplyName;
+
+    // First day usage was reported; it is usually partial and never counted
+    @Column(name = "started_on", nullable = false)
+    private LocalDate startedOn;
+
+    // The day still accumulating, and its total so far
+    @Column(name = "current_day", nullable = false)
+    private LocalDate currentDay;
+
+    @Column(name = "current_day_total", nullable = false)
+    private Double currentDayTotal;
+
+    // Average over the closed days, null until the first full day has closed
+    @Column(name = "daily_usage")
+    private Double dailyUsage;
+
+    // Closed days folded into dailyUsage, including days without usage
+    @Column(name = "observed_days", nullable = false)
+    private Integer observedDays;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
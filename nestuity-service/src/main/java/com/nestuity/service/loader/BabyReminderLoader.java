@@ -2,38 +2,91 @@ package com.nestuity.service.loader;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nestuity.service.entity.BabyReminder;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
 import java.io.InputStream;
-import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Holds the baseline reminder catalogue. The JSON is parsed once at startup and kept as an
+ * immutable list of {@link ReminderTemplate}s; callers get fresh {@link BabyReminder} copies.
+ * The source file is polled and the catalogue is swapped in when it changes.
+ */
 @Slf4j
 @Service
 public class BabyReminderLoader {
 
     private final ObjectMapper objectMapper;
+    private final Resource resource;
 
-    public BabyReminderLoader(ObjectMapper objectMapper) {
+    // Swapped atomically on reload; readers never see a half-built catalogue
+    private volatile List<ReminderTemplate> templates;
+    private volatile long lastModified;
+
+    public BabyReminderLoader(ObjectMapper objectMapper,
+                              ResourceLoader resourceLoader,
+                              @Value("${reminders.template.location:classpath:baby_reminders.json}") String location) {
         this.objectMapper = objectMapper;
+        this.resource = resourceLoader.getResource(location);
+        reload();
     }
 
+    // Fresh, unsaved reminders (one per template) ready to be attached to a baby
     public List<BabyReminder> loadReminders() {
-        try {
-            ClassPathResource resource = new ClassPathResource("baby_reminders.json");
+        return templates.stream()
+                .map(ReminderTemplate::toReminder)
+                .toList();
+    }
 
-            if (!resource.exists()) {
-                throw new RuntimeException("baby_reminders.json NOT found on classpath!");
-            }
+    public List<ReminderTemplate> getTemplates() {
+        return templates;
+    }
+
+    /**
+     * Re-parses the catalogue if the underlying file changed since the last load.
+     * A broken edit keeps the previous catalogue in place.
+     */
+    @Scheduled(fixedDelayString = "${reminders.template.reload-interval-ms:60000}")
+    public void reloadIfChanged() {
+        long modified = currentLastModified();
+        if (modified <= 0 || modified == lastModified) {
+            return;
+        }
+        try {
+            reload();
+            log.info("Reloaded {} reminder templates from {}", templates.size(), resource.getDescription());
+        } catch (RuntimeException e) {
+            // keep serving the old catalogue, and don't retry until the file changes again
+            lastModified = modified;
+        }
+    }
 
-            try (InputStream inputStream = resource.getInputStream()) {
-                return Arrays.asList(objectMapper.readValue(inputStream, BabyReminder[].class));
-            }
+    public final synchronized void reload() {
+        if (!resource.exists()) {
+            throw new RuntimeException(resource.getDescription() + " NOT found!");
+        }
+        long modified = currentLastModified();
+        try (InputStream inputStream = resource.getInputStream()) {
+            templates = List.of(objectMapper.readValue(inputStream, ReminderTemplate[].class));
+            lastModified = modified;
         } catch (Exception e) {
             log.error("❌ Failed to load baby reminders JSON: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to load baby reminders JSON", e);
         }
     }
+
+    private long currentLastModified() {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            // e.g. resources nested inside a jar that cannot report a timestamp
+            return 0L;
+        }
+    }
 }
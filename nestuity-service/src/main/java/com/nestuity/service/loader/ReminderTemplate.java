@@ -0,0 +1,34 @@
+package com.nestuity.service.loader;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.nestuity.service.entity.BabyReminder;
+import com.nestuity.service.type.Frequency;
+import com.nestuity.service.type.ReminderType;
+
+/**
+ * Immutable, pre-parsed entry of the baseline reminder catalogue (baby_reminders.json).
+ * Templates are shared between babies; {@link #toReminder()} hands out a fresh entity each time.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ReminderTemplate(
+        ReminderType type,
+        String title,
+        String description,
+        Frequency frequency,
+        Integer occurrence,
+        Boolean requiresAction,
+        String notes
+) {
+
+    public BabyReminder toReminder() {
+        BabyReminder reminder = new BabyReminder();
+        reminder.setType(type);
+        reminder.setTitle(title);
+        reminder.setDescription(description);
+        reminder.setFrequency(frequency);
+        reminder.setOccurrence(occurrence);
+        reminder.setRequiresAction(requiresAction);
+        reminder.setNotes(notes);
+        return reminder;
+    }
+}
@@ -0,0 +1,24 @@
+package com.nestuity.service.repository;
+
+import com.nestuity.service.entity.BabyProduct;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC batch writes of products for batch price ingestion. BabyProduct ids are IDENTITY columns, which Hibernate
+ * never batches on insert, so new products are written through JdbcTemplate instead.
+ */
+public interface BabyProductBatchRepository {
+
+    // What a scrape may change on a product it found; null or empty fields keep the stored value
+    record ScrapeDetails(Long productId, String brand, String category, String description, Boolean inStock) {
+    }
+
+    // Inserts the products in JDBC batches of price-updates.jdbc-batch-size rows and sets their ids and timestamps.
+    // The products stay detached; their price history is not written
+    void batchInsert(List<BabyProduct> products);
+
+    // Same update as BabyProductRepository.applyScrape, in JDBC batches
+    void batchApplyScrapes(List<ScrapeDetails> scrapes, LocalDateTime updatedAt);
+}
@@ -0,0 +1,94 @@
+package com.nestuity.service.repository;
+
+import com.nestuity.service.entity.BabyProduct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public class BabyProductBatchRepositoryImpl implements BabyProductBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO baby_product " +
+            "(name, brand, category, description, currency, in_stock, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String APPLY_SCRAPE_SQL = """
+            UPDATE baby_product SET
+                brand = COALESCE(NULLIF(CAST(? AS VARCHAR), ''), brand),
+                category = COALESCE(NULLIF(CAST(? AS VARCHAR), ''), category),
+                description = COALESCE(NULLIF(CAST(? AS TEXT), ''), description),
+                in_stock = COALESCE(CAST(? AS BOOLEAN), in_stock),
+                updated_at = ?
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public BabyProductBatchRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                          @Value("${price-updates.jdbc-batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void batchInsert(List<BabyProduct> products) {
+        LocalDateTime now = LocalDateTime.now();
+        // The generated ids come back per batch, so the batches are cut here rather than by JdbcTemplate
+        for (int from = 0; from < products.size(); from += batchSize) {
+            List<BabyProduct> batch = products.subList(from, Math.min(from + batchSize, products.size()));
+            GeneratedKeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            BabyProduct product = batch.get(i);
+                            ps.setString(1, product.getName());
+                            ps.setString(2, product.getBrand());
+                            ps.setString(3, product.getCategory());
+                            ps.setString(4, product.getDescription());
+                            ps.setString(5, product.getCurrency());
+                            ps.setObject(6, product.getInStock(), Types.BOOLEAN);
+                            ps.setTimestamp(7, Timestamp.valueOf(now));
+                            ps.setTimestamp(8, Timestamp.valueOf(now));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    }, keys);
+            List<Map<String, Object>> rows = keys.getKeyList();
+            for (int i = 0; i < batch.size(); i++) {
+                BabyProduct product = batch.get(i);
+                product.setId(((Number) rows.get(i).get("id")).longValue());
+                product.setCreatedAt(now);
+                product.setUpdatedAt(now);
+            }
+        }
+    }
+
+    @Override
+    public void batchApplyScrapes(List<ScrapeDetails> scrapes, LocalDateTime updatedAt) {
+        if (scrapes.isEmpty()) {
+            return;
+        }
+        Timestamp timestamp = Timestamp.valueOf(updatedAt);
+        jdbcTemplate.batchUpdate(APPLY_SCRAPE_SQL, scrapes, batchSize, (ps, scrape) -> {
+            ps.setString(1, scrape.brand());
+            ps.setString(2, scrape.category());
+            ps.setString(3, scrape.description());
+            ps.setObject(4, scrape.inStock(), Types.BOOLEAN);
+            ps.setTimestamp(5, timestamp);
+            ps.setLong(6, scrape.productId());
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package com.nestuity.service.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keyset pages of the product catalogue. The SQL only carries the filters that are set, so each combination
+ * is planned against its own composite (filter, id) index instead of a catch-all {@code :x IS NULL OR ...}.
+ */
+public interface BabyProductCatalogueRepository {
+
+    // Exact-match filters; null means "any"
+    record CatalogueFilter(String category, String brand, Boolean inStock) {
+    }
+
+    // A product's columns without its price history
+    record CatalogueProduct(Long id, String name, String brand, String category, String description,
+                            String currency, Boolean inStock, LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+
+    // Up to :limit products matching the filter with an id above :afterId, in id order
+    List<CatalogueProduct> findCataloguePage(CatalogueFilter filter, long afterId, int limit);
+}
@@ -0,0 +1,58 @@
+package com.nestuity.service.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BabyProductCatalogueRepositoryImpl implements BabyProductCatalogueRepository {
+
+    private static final String SELECT_PRODUCTS = "SELECT id, name, brand, category, description, currency, in_stock, " +
+            "created_at, updated_at FROM baby_product WHERE id > ?";
+
+    private static final RowMapper<CatalogueProduct> PRODUCT_MAPPER = (rs, rowNum) -> new CatalogueProduct(
+            rs.getLong("id"),
+            rs.getString("name"),
+            rs.getString("brand"),
+            rs.getString("category"),
+            rs.getString("description"),
+            rs.getString("currency"),
+            rs.getObject("in_stock", Boolean.class),
+            toLocalDateTime(rs.getTimestamp("created_at")),
+            toLocalDateTime(rs.getTimestamp("updated_at")));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BabyProductCatalogueRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<CatalogueProduct> findCataloguePage(CatalogueFilter filter, long afterId, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_PRODUCTS);
+        List<Object> args = new ArrayList<>();
+        args.add(afterId);
+        if (filter.category() != null) {
+            sql.append(" AND category = ?");
+            args.add(filter.category());
+        }
+        if (filter.brand() != null) {
+            sql.append(" AND brand = ?");
+            args.add(filter.brand());
+        }
+        if (filter.inStock() != null) {
+            sql.append(" AND in_stock = ?");
+            args.add(filter.inStock());
+        }
+        sql.append(" ORDER BY id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), PRODUCT_MAPPER, args.toArray());
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
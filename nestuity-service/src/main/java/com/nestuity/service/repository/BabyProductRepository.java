@@ -6,18 +6,29 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
-public interface BabyProductRepository extends JpaRepository<BabyProduct, Long> {
+public interface BabyProductRepository extends JpaRepository<BabyProduct, Long>, BabyProductCatalogueRepository,
+        BabyProductBatchRepository {
 
-    /**
-     * Find a BabyProduct by a product URL in its price history.
-     * This allows us to update existing products when scraping by URL.
-     *
-     * @param productUrl The product URL to search for
-     * @return Optional containing the BabyProduct if found
-     */
-    @Query("SELECT DISTINCT bp FROM BabyProduct bp JOIN bp.priceHistory ph WHERE ph.productUrl = :productUrl")
-    Optional<BabyProduct> findByPriceHistoryProductUrl(@Param("productUrl") String productUrl);
+    // Applies a scrape to a product without loading it: the details the scraper sent (null or empty keeps the
+    // stored value) and updated_at, in one statement. Returns the product's name, or empty when it is gone
+    @Query(value = """
+            UPDATE baby_product SET
+                brand = COALESCE(NULLIF(CAST(:brand AS VARCHAR), ''), brand),
+                category = COALESCE(NULLIF(CAST(:category AS VARCHAR), ''), category),
+                description = COALESCE(NULLIF(CAST(:description AS TEXT), ''), description),
+                in_stock = COALESCE(CAST(:inStock AS BOOLEAN), in_stock),
+                updated_at = :updatedAt
+            WHERE id = :id
+            RETURNING name
+            """, nativeQuery = true)
+    Optional<String> applyScrape(@Param("id") Long id,
+                                 @Param("brand") String brand,
+                                 @Param("category") String category,
+                                 @Param("description") String description,
+                                 @Param("inStock") Boolean inStock,
+                                 @Param("updatedAt") LocalDateTime updatedAt);
 }
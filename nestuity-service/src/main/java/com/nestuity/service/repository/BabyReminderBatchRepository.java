@@ -0,0 +1,15 @@
+package com.nestuity.service.repository;
+
+import com.nestuity.service.entity.BabyReminder;
+
+import java.util.List;
+
+/**
+ * JDBC batch insert for reminders. BabyReminder ids are IDENTITY columns, which Hibernate never
+ * batches on insert, so bulk provisioning writes through JdbcTemplate instead.
+ */
+public interface BabyReminderBatchRepository {
+
+    // Inserts the reminders in JDBC batches of hibernate.jdbc.batch_size rows; ids are not populated
+    void batchInsert(List<BabyReminder> reminders);
+}
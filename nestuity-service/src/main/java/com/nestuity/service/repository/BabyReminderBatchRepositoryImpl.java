@@ -0,0 +1,44 @@
+package com.nestuity.service.repository;
+
+import com.nestuity.service.entity.BabyReminder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.List;
+
+public class BabyReminderBatchRepositoryImpl implements BabyReminderBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO baby_reminder " +
+            "(baby_id, type, title, description, frequency, occurrence, requires_action, notes, " +
+            "completed_on, next_due, user_created) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public BabyReminderBatchRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                           @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void batchInsert(List<BabyReminder> reminders) {
+        if (reminders.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, reminders, batchSize, (ps, reminder) -> {
+            ps.setLong(1, reminder.getBaby().getId());
+            ps.setString(2, reminder.getType().name());
+            ps.setString(3, reminder.getTitle());
+            ps.setString(4, reminder.getDescription());
+            ps.setString(5, reminder.getFrequency().name());
+            ps.setObject(6, reminder.getOccurrence(), Types.INTEGER);
+            ps.setObject(7, reminder.getRequiresAction(), Types.BOOLEAN);
+            ps.setString(8, reminder.getNotes());
+            ps.setObject(9, reminder.getCompletedOn(), Types.TIMESTAMP);
+            ps.setObject(10, reminder.getNextDue(), Types.TIMESTAMP);
+            ps.setBoolean(11, reminder.isUserCreated());
+        });
+    }
+}
@@ -1,14 +1,104 @@
 package com.nestuity.service.repository;
 
 import com.nestuity.service.entity.BabyReminder;
+import com.nestuity.service.type.Frequency;
+import com.nestuity.service.type.ReminderType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface BabyReminderRepository extends JpaRepository<BabyReminder, Long> {
+public interface BabyReminderRepository extends JpaRepository<BabyReminder, Long>, BabyReminderBatchRepository {
+
+    interface BabyIdAndTitle {
+        Long getBabyId();
+        String getTitle();
+    }
 
     List<BabyReminder> findByBabyId(Long babyId);
 
-}
\ No newline at end of file
+    boolean existsByBabyId(Long babyId);
+
+    // Title projection used for duplicate detection when provisioning baseline reminders
+    @Query("SELECT r.title FROM BabyReminder r WHERE r.baby.id = :babyId AND r.title IS NOT NULL")
+    List<String> findTitlesByBabyId(@Param("babyId") Long babyId);
+
+    // Same projection for a chunk of babies at once (bulk provisioning)
+    @Query("SELECT r.baby.id AS babyId, r.title AS title FROM BabyReminder r " +
+            "WHERE r.baby.id IN :babyIds AND r.title IS NOT NULL")
+    List<BabyIdAndTitle> findTitlesByBabyIdIn(@Param("babyIds") Collection<Long> babyIds);
+
+    // Reminders due strictly before the given instant (uses the (baby_id, next_due) index)
+    List<BabyReminder> findByBabyIdAndNextDueBefore(Long babyId, LocalDateTime before);
+
+    // Reminders due in the half-open window [from, to), excluding one reminder type. Recurring reminders of
+    // rolledType/rolledFrequency (DAILY tasks) whose stored date is before :from are due today but may not have
+    // been rolled forward yet, so they are included too
+    @Query("SELECT r FROM BabyReminder r WHERE r.baby.id = :babyId " +
+            "AND r.nextDue < :to AND r.type <> :excludedType " +
+            "AND (r.nextDue >= :from OR (r.type = :rolledType AND r.frequency = :rolledFrequency))")
+    List<BabyReminder> findDueBetweenExcludingType(@Param("babyId") Long babyId,
+                                                   @Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to,
+                                                   @Param("excludedType") ReminderType excludedType,
+                                                   @Param("rolledType") ReminderType rolledType,
+                                                   @Param("rolledFrequency") Frequency rolledFrequency);
+
+    // Reminders of one type due in the half-open window [from, to)
+    @Query("SELECT r FROM BabyReminder r WHERE r.baby.id = :babyId " +
+            "AND r.type = :type AND r.nextDue >= :from AND r.nextDue < :to")
+    List<BabyReminder> findDueBetweenByType(@Param("babyId") Long babyId,
+                                            @Param("type") ReminderType type,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to);
+
+    // Fields the weekly summary needs from a past-due reminder
+    interface PastDueReminder {
+        Long getBabyId();
+        ReminderType getType();
+        Frequency getFrequency();
+        String getTitle();
+        LocalDateTime getNextDue();
+        LocalDateTime getCompletedOn();
+    }
+
+    // Past-due reminders of the given types for a page of babies, served by the (baby_id, next_due) index
+    @Query("SELECT r.baby.id AS babyId, r.type AS type, r.frequency AS frequency, r.title AS title, " +
+            "r.nextDue AS nextDue, r.completedOn AS completedOn FROM BabyReminder r " +
+            "WHERE r.baby.id IN :babyIds AND r.nextDue < :now AND r.type IN :types")
+    List<PastDueReminder> findPastDueByBabyIdIn(@Param("babyIds") Collection<Long> babyIds,
+                                                @Param("now") LocalDateTime now,
+                                                @Param("types") Collection<ReminderType> types);
+
+    // Rows that predate the next_due column (or could not be computed), walked in id order.
+    // The baby, its owner and the owner's preferences are fetched with the page so each baby's timezone is resolved
+    // without extra queries.
+    @EntityGraph(attributePaths = {"baby", "baby.user", "baby.user.preferences"})
+    List<BabyReminder> findByNextDueIsNullAndIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Recurring tasks of the given frequency whose stored due date has slipped into the past are due
+     * again "today" - this mirrors estimateNextDue for DAILY tasks without loading any rows. Only babies
+     * whose owner's timezone is in {@code timezones} (or unset, with {@code includeUnset}) are touched,
+     * since "today" is the date in that timezone.
+     */
+    @Modifying
+    @Query("UPDATE BabyReminder r SET r.nextDue = :today " +
+            "WHERE r.type = :type AND r.frequency = :frequency AND r.nextDue < :today " +
+            "AND r.baby.id IN (SELECT b.id FROM Baby b LEFT JOIN b.user u LEFT JOIN u.preferences p " +
+            "WHERE p.timezone IN :timezones " +
+            "OR (:includeUnset = true AND (p.id IS NULL OR p.timezone IS NULL OR p.timezone = '')))")
+    int rollForwardNextDue(@Param("type") ReminderType type,
+                           @Param("frequency") Frequency frequency,
+                           @Param("today") LocalDateTime today,
+                           @Param("timezones") Collection<String> timezones,
+                           @Param("includeUnset") boolean includeUnset);
+}
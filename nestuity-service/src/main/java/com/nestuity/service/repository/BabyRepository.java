@@ -1,9 +1,14 @@
 package com.nestuity.service.repository;
 
 import com.nestuity.service.entity.Baby;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +16,42 @@ import java.util.Optional;
 public interface BabyRepository extends JpaRepository<Baby, Long> {
     // TODO: If need be you can add custom queries here if needed, e.g. findByName, findByDob, etc.
     List<Baby> findByUserId(Long userId);
+
+    // Loads the owner and its preferences alongside each baby, for timezone-aware batch work. The preferences are
+    // in the graph because an EAGER association left out of it is loaded with one extra select per owner
+    @EntityGraph(attributePaths = {"user", "user.preferences"})
+    List<Baby> findWithUserByIdIn(Collection<Long> ids);
+
+    // Same for a single baby, to resolve its owner's "today" before its reminders are queried
+    @EntityGraph(attributePaths = {"user", "user.preferences"})
+    Optional<Baby> findWithUserById(Long id);
+
+    // Parent contact details for the weekly summary, without hydrating Baby/User entities
+    interface WeeklySummaryRecipient {
+        Long getBabyId();
+        String getEmail();
+        String getFirstName();
+        String getTimezone();
+    }
+
+    // Keyset page of babies whose parent has email notifications enabled, in id order
+    @Query("SELECT b.id AS babyId, u.email AS email, u.firstName AS firstName, p.timezone AS timezone " +
+            "FROM Baby b JOIN b.user u JOIN u.preferences p " +
+            "WHERE b.id > :afterId AND p.emailNotificationsEnabled = true " +
+            "AND (p.timezone IN :timezones OR (:includeUnset = true AND (p.timezone IS NULL OR p.timezone = ''))) " +
+            "ORDER BY b.id")
+    List<WeeklySummaryRecipient> findWeeklySummaryRecipientsAfter(@Param("afterId") Long afterId,
+                                                                  @Param("timezones") Collection<String> timezones,
+                                                                  @Param("includeUnset") boolean includeUnset,
+                                                                  Limit limit);
+
+    // Number of babies and their summed daily usage for one parent
+    interface HouseholdDailyUsage {
+        long getBabyCount();
+        long getDailyUsage();
+    }
+
+    @Query("SELECT COUNT(b) AS babyCount, COALESCE(SUM(b.dailyUsage), 0) AS dailyUsage " +
+            "FROM Baby b WHERE b.user.id = :userId")
+    HouseholdDailyUsage sumDailyUsageByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,19 @@
+package com.nestuity.service.repository;
+
+import java.util.List;
+
+/**
+ * JDBC batch updates for inventory quantities, used to apply coalesced usage events in a few round trips
+ * instead of one statement per household and supply.
+ */
+public interface InventoryBatchRepository {
+
+    // One pending change: add :delta singles (negative to consume) to a user's row of a supply type; supplyName is
+    // the type's name, which keys the learned usage
+    record SingleQuantityDelta(Long userId, Integer supplyTypeId, String supplyName, double delta) {
+    }
+
+    // Applies each delta like InventoryRepository.addSingleQuantity, in JDBC batches of hibernate.jdbc.batch_size;
+    // returns how many deltas matched an inventory row
+    int batchAddSingleQuantity(List<SingleQuantityDelta> deltas);
+}
@@ -0,0 +1,46 @@
+package com.nestuity.service.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+public class InventoryBatchRepositoryImpl implements InventoryBatchRepository {
+
+    private static final String ADD_SINGLE_QUANTITY_SQL = "UPDATE inventory " +
+            "SET total_single_quantity = GREATEST(0, total_single_quantity + ?), " +
+            "total_unit_quantity = CASE WHEN unit_conversion > 0 " +
+            "THEN GREATEST(0, total_single_quantity + ?) / unit_conversion ELSE 0 END, " +
+            "version = version + 1 " +
+            "WHERE id = (SELECT MIN(id) FROM inventory WHERE user_id = ? AND supply_type_id = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public InventoryBatchRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                        @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public int batchAddSingleQuantity(List<SingleQuantityDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(ADD_SINGLE_QUANTITY_SQL, deltas, batchSize, (ps, delta) -> {
+            ps.setDouble(1, delta.delta());
+            ps.setDouble(2, delta.delta());
+            ps.setLong(3, delta.userId());
+            ps.setInt(4, delta.supplyTypeId());
+        });
+        int matched = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // The driver may report SUCCESS_NO_INFO (-2) instead of a row count
+                if (count != 0) matched++;
+            }
+        }
+        return matched;
+    }
+}
@@ -0,0 +1,137 @@
+package com.nestuity.service.repository;
+
+import com.nestuity.service.entity.InventoryForecast;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InventoryForecastRepository extends JpaRepository<InventoryForecast, Long> {
+
+    // Marks every forecast of the users stale, and adds stale rows for supplies they stock that have none yet.
+    // Rows of supplies no longer stocked are marked too, so the refresh can remove them
+    @Modifying
+    @Transactional
+    @Query(value = """
+            WITH marked AS (
+                UPDATE inventory_forecast SET stale = true, revision = revision + 1
+                WHERE user_id IN (:userIds)
+                RETURNING id
+            )
+            INSERT INTO inventory_forecast (user_id, supply_name, stale, revision)
+            SELECT DISTINCT i.user_id, st.name, true, 1
+            FROM inventory i
+            JOIN supply_type st ON st.id = i.supply_type_id
+            WHERE i.user_id IN (:userIds)
+            ON CONFLICT (user_id, supply_name) DO NOTHING
+            """, nativeQuery = true)
+    int markStale(@Param("userIds") Collection<Long> userIds);
+
+    // Adds a stale row for every stocked supply without a forecast; one pass over inventory
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO inventory_forecast (user_id, supply_name, stale, revision)
+            SELECT DISTINCT i.user_id, st.name, true, 1
+            FROM inventory i
+            JOIN supply_type st ON st.id = i.supply_type_id
+            ON CONFLICT (user_id, supply_name) DO NOTHING
+            """, nativeQuery = true)
+    int seedMissing();
+
+    // A forecast waiting to be recomputed, with the owner's timezone to date it in
+    interface StaleForecast {
+        Long getId();
+        Long getUserId();
+        String getSupplyName();
+        long getRevision();
+        LocalDate getNotifiedOn();
+        String getTimezone();
+    }
+
+    @Query(value = """
+            SELECT f.id AS "id", f.user_id AS "userId", f.supply_name AS "supplyName", f.revision AS "revision",
+                   f.notified_on AS "notifiedOn", p.timezone AS "timezone"
+            FROM inventory_forecast f
+            JOIN nestuity_user u ON u.id = f.user_id
+            LEFT JOIN user_preferences p ON p.id = u.preferences_id
+            WHERE f.stale = true
+            ORDER BY f.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<StaleForecast> findStale(@Param("limit") int limit);
+
+    // Stores a recomputed projection unless the row changed again since it was read; returns 1 when stored
+    @Modifying
+    @Transactional
+    @Query("UPDATE InventoryForecast f SET f.depletionDate = :depletionDate, f.nextCrossingDate = :nextCrossingDate, " +
+            "f.nextCrossingDays = :nextCrossingDays, f.stale = false, f.computedAt = CURRENT_TIMESTAMP " +
+            "WHERE f.id = :id AND f.revision = :revision")
+    int storeProjection(@Param("id") Long id,
+                        @Param("revision") long revision,
+                        @Param("depletionDate") LocalDate depletionDate,
+                        @Param("nextCrossingDate") LocalDate nextCrossingDate,
+                        @Param("nextCrossingDays") Integer nextCrossingDays);
+
+    // Removes the forecast of a supply that is no longer stocked, unless it changed again since it was read
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM InventoryForecast f WHERE f.id = :id AND f.revision = :revision")
+    int deleteIfUnchanged(@Param("id") Long id, @Param("revision") long revision);
+
+    // A household whose diaper supply reached a reminder threshold
+    interface DueCrossing {
+        Long getForecastId();
+        Long getUserId();
+        String getEmail();
+        String getFirstName();
+        String getLastName();
+        LocalDate getDepletionDate();
+        LocalDate getNextCrossingDate();
+        Integer getDaysLeft();
+        // Email notifications on and at least one baby with a weight, as the usage needs
+        boolean getNotify();
+    }
+
+    // Crossings of one supply type due on or before :localDate for one timezone partition: a range scan of the
+    // crossing index. Missing preferences count as an unset timezone
+    @Query(value = """
+            SELECT f.id AS "forecastId", f.user_id AS "userId", u.email AS "email", u.first_name AS "firstName",
+                   u.last_name AS "lastName", f.depletion_date AS "depletionDate",
+                   f.next_crossing_date AS "nextCrossingDate",
+                   CAST(GREATEST(0, f.depletion_date - :localDate) AS integer) AS "daysLeft",
+                   (COALESCE(p.email_notifications_enabled, false)
+                       AND EXISTS (SELECT 1 FROM baby b WHERE b.user_id = f.user_id AND b.weight > 0)) AS "notify"
+            FROM inventory_forecast f
+            JOIN nestuity_user u ON u.id = f.user_id
+            LEFT JOIN user_preferences p ON p.id = u.preferences_id
+            WHERE f.next_crossing_date <= :localDate
+              AND f.supply_name = (SELECT st.name FROM supply_type st WHERE st.id = :supplyTypeId)
+              AND (p.timezone IN (:timezones)
+                   OR (:includeUnset = true AND (p.id IS NULL OR p.timezone IS NULL OR p.timezone = '')))
+            ORDER BY f.id
+            """, nativeQuery = true)
+    List<DueCrossing> findDueCrossings(@Param("supplyTypeId") Integer supplyTypeId,
+                                       @Param("timezones") Collection<String> timezones,
+                                       @Param("includeUnset") boolean includeUnset,
+                                       @Param("localDate") LocalDate localDate);
+
+    // Claims a due crossing by moving it to the next threshold; returns 0 when another run claimed it first
+    @Modifying
+    @Transactional
+    @Query("UPDATE InventoryForecast f SET f.nextCrossingDate = :nextCrossingDate, " +
+            "f.nextCrossingDays = :nextCrossingDays, f.notifiedOn = :notifiedOn " +
+            "WHERE f.id = :id AND f.nextCrossingDate = :dueDate")
+    int advanceCrossing(@Param("id") Long id,
+                        @Param("dueDate") LocalDate dueDate,
+                        @Param("nextCrossingDate") LocalDate nextCrossingDate,
+                        @Param("nextCrossingDays") Integer nextCrossingDays,
+                        @Param("notifiedOn") LocalDate notifiedOn);
+}
@@ -2,20 +2,259 @@ package com.nestuity.service.repository;
 
 import com.nestuity.service.entity.Inventory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface InventoryRepository extends JpaRepository<Inventory, Long> {
+public interface InventoryRepository extends JpaRepository<Inventory, Long>, InventoryBatchRepository {
     // Handles all DB operations for Inventory
 
     // Find all the items in the User's Inventory
     List<Inventory> findByUserId(Long id);
 
-    // Find a User's specific item (ex. diapers, wipes, etc) by supply name & user ID
-    Optional<Inventory> findByUserIdAndSupplyNameIgnoreCase(Long userId, String supplyName);
+    // Find a User's specific item (ex. diapers, wipes, etc) by supply type & user ID; lowest id if there are several
+    Optional<Inventory> findFirstByUserIdAndSupplyTypeIdOrderByIdAsc(Long userId, Integer supplyTypeId);
 
+    // Inputs of a user's inventory summary, one row per item: the item, its supply type, the household's learned usage
+    // of the supply (null when none) and the summed usage of the user's babies
+    interface SummaryRow {
+        Long getInventoryId();
+        String getSupplyName();
+        Integer getSupplyTypeId();
+        String getSupplyType();
+        Double getDefaultDailyUsage();
+        Double getTotalSingleQuantity();
+        Double getTotalUnitQuantity();
+        Double getUnitConversion();
+        Integer getPreferredSupplyMin();
+        long getBabyCount();
+        long getBabiesDailyUsage();
+        LocalDate getEstimateStartedOn();
+        LocalDate getEstimateCurrentDay();
+        Double getEstimateCurrentDayTotal();
+        Double getEstimateDailyUsage();
+        Integer getEstimateObservedDays();
+    }
 
+    @Query(value = """
+            SELECT i.id AS "inventoryId", i.supply_name AS "supplyName", i.supply_type_id AS "supplyTypeId",
+                   st.name AS "supplyType", st.default_daily_usage AS "defaultDailyUsage",
+                   i.total_single_quantity AS "totalSingleQuantity", i.total_unit_quantity AS "totalUnitQuantity",
+                   i.unit_conversion AS "unitConversion", i.preferred_supply_min AS "preferredSupplyMin",
+                   b.baby_count AS "babyCount", b.daily_usage AS "babiesDailyUsage",
+                   e.started_on AS "estimateStartedOn", e.current_day AS "estimateCurrentDay",
+                   e.current_day_total AS "estimateCurrentDayTotal", e.daily_usage AS "estimateDailyUsage",
+                   e.observed_days AS "estimateObservedDays"
+            FROM inventory i
+            LEFT JOIN supply_type st ON st.id = i.supply_type_id
+            LEFT JOIN supply_usage_estimate e ON e.user_id = i.user_id AND e.supply_name = st.name
+            CROSS JOIN (SELECT COUNT(*) AS baby_count, CAST(COALESCE(SUM(daily_usage), 0) AS bigint) AS daily_usage
+                        FROM baby WHERE user_id = :userId) b
+            WHERE i.user_id = :userId
+            ORDER BY i.id
+            """, nativeQuery = true)
+    List<SummaryRow> findSummaryRows(@Param("userId") Long userId);
+
+    // Aggregates that change whenever anything a user's summary is computed from changes: items added or removed
+    // (count, id sum), quantities changed (version sum, bumped by every write) and babies or reported usage changed
+    // (forecast revisions, bumped when a household is marked stale). Empty when the user does not exist
+    interface SummaryVersion {
+        long getItemCount();
+        long getIdSum();
+        long getVersionSum();
+        long getForecastRevisionSum();
+    }
+
+    @Query(value = """
+            SELECT CAST(COUNT(i.id) AS bigint) AS "itemCount",
+                   CAST(COALESCE(SUM(i.id), 0) AS bigint) AS "idSum",
+                   CAST(COALESCE(SUM(i.version), 0) AS bigint) AS "versionSum",
+                   (SELECT CAST(COALESCE(SUM(f.revision), 0) AS bigint)
+                    FROM inventory_forecast f WHERE f.user_id = u.id) AS "forecastRevisionSum"
+            FROM nestuity_user u
+            LEFT JOIN inventory i ON i.user_id = u.id
+            WHERE u.id = :userId
+            GROUP BY u.id
+            """, nativeQuery = true)
+    Optional<SummaryVersion> findSummaryVersion(@Param("userId") Long userId);
+
+    // Sets the supply type of up to :limit rows that have none, from their supply name; returns the rows updated.
+    // Rows whose name has no type yet are skipped, so repeated calls always finish
+    @Query(value = """
+            UPDATE inventory i
+            SET supply_type_id = st.id, version = i.version + 1
+            FROM supply_type st
+            WHERE st.name = LOWER(TRIM(i.supply_name))
+              AND i.id IN (SELECT x.id FROM inventory x
+                           JOIN supply_type s ON s.name = LOWER(TRIM(x.supply_name))
+                           WHERE x.supply_type_id IS NULL
+                           ORDER BY x.id
+                           LIMIT :limit)
+            """, nativeQuery = true)
+    @Modifying
+    @Transactional
+    int assignSupplyTypes(@Param("limit") int limit);
+
+    // A row as a native quantity update left it. Read from RETURNING rather than mapped onto Inventory, which would
+    // hand back the persistence context's managed instance with its stale quantities
+    interface UpdatedItem {
+        Long getId();
+        String getSupplyName();
+        Integer getSupplyTypeId();
+        Double getTotalSingleQuantity();
+        Double getTotalUnitQuantity();
+        Double getUnitConversion();
+        Integer getPreferredSupplyMin();
+        Long getVersion();
+    }
+
+    // Adds :delta singles (negative to consume) to a user's supply row in one statement: never below zero, box count
+    // recomputed, version bumped. Lowest id if the user has several rows for the supply; empty when there is none
+    @Query(value = """
+            UPDATE inventory
+            SET total_single_quantity = GREATEST(0, total_single_quantity + :delta),
+                total_unit_quantity = CASE WHEN unit_conversion > 0
+                    THEN GREATEST(0, total_single_quantity + :delta) / unit_conversion
+                    ELSE 0 END,
+                version = version + 1
+            WHERE id = (SELECT MIN(id) FROM inventory WHERE user_id = :userId AND supply_type_id = :supplyTypeId)
+            RETURNING id AS "id", supply_name AS "supplyName", supply_type_id AS "supplyTypeId",
+                      total_single_quantity AS "totalSingleQuantity", total_unit_quantity AS "totalUnitQuantity",
+                      unit_conversion AS "unitConversion", preferred_supply_min AS "preferredSupplyMin",
+                      version AS "version"
+            """, nativeQuery = true)
+    @Transactional
+    Optional<UpdatedItem> addSingleQuantity(@Param("userId") Long userId,
+                                            @Param("supplyTypeId") Integer supplyTypeId,
+                                            @Param("delta") double delta);
+
+    // Sets a user's supply row to :quantity singles in one statement, recomputing the box count and bumping the version
+    @Query(value = """
+            UPDATE inventory
+            SET total_single_quantity = :quantity,
+                total_unit_quantity = CASE WHEN unit_conversion > 0 THEN :quantity / unit_conversion ELSE 0 END,
+                version = version + 1
+            WHERE id = (SELECT MIN(id) FROM inventory WHERE user_id = :userId AND supply_type_id = :supplyTypeId)
+            RETURNING id AS "id", supply_name AS "supplyName", supply_type_id AS "supplyTypeId",
+                      total_single_quantity AS "totalSingleQuantity", total_unit_quantity AS "totalUnitQuantity",
+                      unit_conversion AS "unitConversion", preferred_supply_min AS "preferredSupplyMin",
+                      version AS "version"
+            """, nativeQuery = true)
+    @Transactional
+    Optional<UpdatedItem> setSingleQuantity(@Param("userId") Long userId,
+                                            @Param("supplyTypeId") Integer supplyTypeId,
+                                            @Param("quantity") double quantity);
+
+    // Sets a user's supply row to :quantity units in one statement, recomputing the singles and bumping the version
+    @Query(value = """
+            UPDATE inventory
+            SET total_unit_quantity = :quantity,
+                total_single_quantity = CASE WHEN unit_conversion > 0 THEN :quantity * unit_conversion ELSE 0 END,
+                version = version + 1
+            WHERE id = (SELECT MIN(id) FROM inventory WHERE user_id = :userId AND supply_type_id = :supplyTypeId)
+            RETURNING id AS "id", supply_name AS "supplyName", supply_type_id AS "supplyTypeId",
+                      total_single_quantity AS "totalSingleQuantity", total_unit_quantity AS "totalUnitQuantity",
+                      unit_conversion AS "unitConversion", preferred_supply_min AS "preferredSupplyMin",
+                      version AS "version"
+            """, nativeQuery = true)
+    @Transactional
+    Optional<UpdatedItem> setUnitQuantity(@Param("userId") Long userId,
+                                          @Param("supplyTypeId") Integer supplyTypeId,
+                                          @Param("quantity") double quantity);
+
+    // Nightly diaper decrement for one timezone partition in one statement. A parent's daily usage is the household's
+    // learned estimate as of :consumptionDate once it is established (the same fold and limits as
+    // SupplyUsageEstimator.dailyUsageOn, passed in as :alpha, :minObservedDays and :maxIdleDays), and otherwise the
+    // summed daily usage of their babies. It is recorded in the consumption ledger for :consumptionDate, and only for
+    // ledger rows that were new taken off the parent's row of the diaper type :supplyTypeId (lowest id if there are
+    // several) without going below zero, recomputing the box count. Households whose diaper estimate has reached
+    // :consumptionDate reported that day's usage as events, which already came off their inventory: they are skipped.
+    // A day that was already applied (a rerun, or another instance) conflicts in the ledger and changes nothing.
+    // The decremented households' diaper forecasts are marked stale in the same statement, since the amount taken off
+    // and the clamp at zero can move their depletion date.
+    // Returns how many households were decremented. Missing preferences count as an unset timezone.
+    @Query(value = """
+            WITH usage AS (
+                SELECT b.user_id, SUM(COALESCE(b.daily_usage, 0)) AS daily_usage
+                FROM baby b
+                JOIN nestuity_user u ON u.id = b.user_id
+                LEFT JOIN user_preferences p ON p.id = u.preferences_id
+                WHERE p.timezone IN (:timezones)
+                   OR (:includeUnset = true AND (p.id IS NULL OR p.timezone IS NULL OR p.timezone = ''))
+                GROUP BY b.user_id
+            ),
+            learned AS (
+                SELECT e.user_id,
+                       CASE WHEN e.current_day < :consumptionDate AND e.current_day <> e.started_on
+                           THEN COALESCE(:alpha * e.current_day_total + (1 - :alpha) * e.daily_usage,
+                                         e.current_day_total)
+                                * POWER(1 - :alpha, :consumptionDate - e.current_day - 1)
+                           ELSE e.daily_usage END AS daily_usage,
+                       e.observed_days
+                           + CASE WHEN e.current_day < :consumptionDate AND e.current_day <> e.started_on
+                               THEN :consumptionDate - e.current_day ELSE 0 END AS observed_days,
+                       e.current_day
+                FROM supply_usage_estimate e
+                JOIN usage ON usage.user_id = e.user_id
+                JOIN supply_type st ON st.name = e.supply_name
+                WHERE st.id = :supplyTypeId
+                  AND :consumptionDate - e.current_day <= :maxIdleDays
+            ),
+            target AS (
+                SELECT DISTINCT ON (i.user_id) i.id AS inventory_id, i.user_id, st.name AS supply_name,
+                       i.total_single_quantity,
+                       COALESCE(CASE WHEN l.observed_days >= :minObservedDays THEN l.daily_usage END,
+                                usage.daily_usage) AS daily_usage
+                FROM inventory i
+                JOIN usage ON usage.user_id = i.user_id
+                JOIN supply_type st ON st.id = i.supply_type_id
+                LEFT JOIN learned l ON l.user_id = i.user_id
+                WHERE i.supply_type_id = :supplyTypeId
+                  AND (l.current_day IS NULL OR l.current_day < :consumptionDate)
+                ORDER BY i.user_id, i.id
+            ),
+            ledger AS (
+                INSERT INTO inventory_consumption (user_id, supply_name, consumption_date, amount, created_at)
+                SELECT t.user_id, t.supply_name, :consumptionDate,
+                       LEAST(t.daily_usage, GREATEST(0, t.total_single_quantity)), now()
+                FROM target t
+                ON CONFLICT (user_id, supply_name, consumption_date) DO NOTHING
+                RETURNING user_id
+            ),
+            updated AS (
+                UPDATE inventory i
+                SET total_single_quantity = GREATEST(0, i.total_single_quantity - t.daily_usage),
+                    total_unit_quantity = CASE WHEN i.unit_conversion > 0
+                        THEN GREATEST(0, i.total_single_quantity - t.daily_usage) / i.unit_conversion
+                        ELSE 0 END,
+                    version = i.version + 1
+                FROM target t
+                JOIN ledger l ON l.user_id = t.user_id
+                WHERE i.id = t.inventory_id
+                RETURNING i.user_id, t.supply_name
+            ),
+            marked AS (
+                UPDATE inventory_forecast f SET stale = true, revision = f.revision + 1
+                FROM updated u
+                WHERE f.user_id = u.user_id AND f.supply_name = u.supply_name
+                RETURNING f.id
+            )
+            SELECT CAST(COUNT(*) AS integer) FROM updated
+            """, nativeQuery = true)
+    @Transactional
+    int consumeDailyDiapers(@Param("supplyTypeId") Integer supplyTypeId,
+                            @Param("timezones") Collection<String> timezones,
+                            @Param("includeUnset") boolean includeUnset,
+                            @Param("consumptionDate") LocalDate consumptionDate,
+                            @Param("alpha") double alpha,
+                            @Param("minObservedDays") int minObservedDays,
+                            @Param("maxIdleDays") int maxIdleDays);
 }
@@ -0,0 +1,16 @@
+package com.nestuity.service.repository;
+
+import com.nestuity.service.entity.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, Long> {
+    Optional<JobCheckpoint> findByJobNameAndRunKey(String jobName, String runKey);
+
+    List<JobCheckpoint> findByJobNameAndCompletedFalseAndUpdatedAtAfterOrderByIdAsc(String jobName, LocalDateTime since);
+}
@@ -0,0 +1,19 @@
+package com.nestuity.service.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC batch insert of scraped prices. PriceHistory ids are IDENTITY columns, which Hibernate never batches on
+ * insert, so batch ingestion writes through JdbcTemplate instead.
+ */
+public interface PriceHistoryBatchRepository {
+
+    // One price of one product at one retailer
+    record NewPrice(Long productId, String retailer, String productUrl, BigDecimal price, LocalDateTime date) {
+    }
+
+    // Inserts the prices in JDBC batches of price-updates.jdbc-batch-size rows
+    void batchInsert(List<NewPrice> prices);
+}
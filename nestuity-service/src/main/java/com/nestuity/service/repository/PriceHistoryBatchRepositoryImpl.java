@@ -0,0 +1,36 @@
+package com.nestuity.service.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+public class PriceHistoryBatchRepositoryImpl implements PriceHistoryBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO price_history (baby_product_id, retailer, product_url, price, date) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public PriceHistoryBatchRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                           @Value("${price-updates.jdbc-batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void batchInsert(List<NewPrice> prices) {
+        if (prices.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, prices, batchSize, (ps, price) -> {
+            ps.setLong(1, price.productId());
+            ps.setString(2, price.retailer());
+            ps.setString(3, price.productUrl());
+            ps.setBigDecimal(4, price.price());
+            ps.setTimestamp(5, Timestamp.valueOf(price.date()));
+        });
+    }
+}
@@ -2,12 +2,35 @@ package com.nestuity.service.repository;
 
 import com.nestuity.service.entity.PriceHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface PriceHistoryRepository extends JpaRepository<PriceHistory, Long> {
+public interface PriceHistoryRepository extends JpaRepository<PriceHistory, Long>, PriceHistoryBatchRepository {
     List<PriceHistory> findByBabyProductIdOrderByDateAsc(Long productId);
-}
 
+    // A price without its product, so reading prices for a page of products loads nothing else
+    interface ProductPrice {
+        Long getProductId();
+        String getRetailer();
+        String getProductUrl();
+        BigDecimal getPrice();
+        LocalDateTime getDate();
+    }
+
+    // Every price of the products, oldest first
+    @Query(value = """
+            SELECT ph.baby_product_id AS "productId", ph.retailer AS "retailer", ph.product_url AS "productUrl",
+                   ph.price AS "price", ph.date AS "date"
+            FROM price_history ph
+            WHERE ph.baby_product_id IN (:productIds)
+            ORDER BY ph.baby_product_id, ph.date, ph.id
+            """, nativeQuery = true)
+    List<ProductPrice> findAllByProductIds(@Param("productIds") Collection<Long> productIds);
+}
@@ -0,0 +1,17 @@
+package com.nestuity.service.repository;
+
+import java.util.List;
+
+/**
+ * JDBC batch insert of product listings for batch price ingestion.
+ */
+public interface ProductListingBatchRepository {
+
+    // A URL to claim for a product; urlHash is the SHA-256 of the normalised productUrl
+    record NewListing(Long productId, String urlHash, String productUrl, String retailer) {
+    }
+
+    // Claims each URL for its product unless another product already has it, in JDBC batches of
+    // price-updates.jdbc-batch-size rows. Which claims won is read back by hash
+    void batchInsertIfAbsent(List<NewListing> listings);
+}
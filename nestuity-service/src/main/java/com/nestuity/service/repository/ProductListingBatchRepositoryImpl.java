@@ -0,0 +1,37 @@
+package com.nestuity.service.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+public class ProductListingBatchRepositoryImpl implements ProductListingBatchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO product_listing (baby_product_id, url_hash, product_url, retailer, created_at)
+            VALUES (?, ?, ?, ?, now())
+            ON CONFLICT (url_hash) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public ProductListingBatchRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                             @Value("${price-updates.jdbc-batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void batchInsertIfAbsent(List<NewListing> listings) {
+        if (listings.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, listings, batchSize, (ps, listing) -> {
+            ps.setLong(1, listing.productId());
+            ps.setString(2, listing.urlHash());
+            ps.setString(3, listing.productUrl());
+            ps.setString(4, listing.retailer());
+        });
+    }
+}
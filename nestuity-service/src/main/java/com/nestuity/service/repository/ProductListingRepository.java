@@ -0,0 +1,67 @@
+package com.nestuity.service.repository;
+
+import com.nestuity.service.entity.ProductListing;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProductListingRepository extends JpaRepository<ProductListing, Long>, ProductListingBatchRepository {
+
+    // One lookup on uk_product_listing_url_hash
+    @Query("SELECT l.productId FROM ProductListing l WHERE l.urlHash = :urlHash")
+    Optional<Long> findProductIdByUrlHash(@Param("urlHash") String urlHash);
+
+    // A listed URL's product and its name
+    interface ListedProduct {
+        String getUrlHash();
+        Long getProductId();
+        String getProductName();
+    }
+
+    // The products of many URLs in one query on uk_product_listing_url_hash
+    @Query("""
+            SELECT l.urlHash AS urlHash, p.id AS productId, p.name AS productName
+            FROM ProductListing l JOIN l.babyProduct p
+            WHERE l.urlHash IN :urlHashes
+            """)
+    List<ListedProduct> findListedByUrlHashIn(@Param("urlHashes") Collection<String> urlHashes);
+
+    // Claims the URL for the product; 0 when another product already has it
+    @Query(value = """
+            INSERT INTO product_listing (baby_product_id, url_hash, product_url, retailer, created_at)
+            VALUES (:productId, :urlHash, :productUrl, :retailer, now())
+            ON CONFLICT (url_hash) DO NOTHING
+            """, nativeQuery = true)
+    @Modifying
+    @Transactional
+    int insertIfAbsent(@Param("productId") Long productId,
+                       @Param("urlHash") String urlHash,
+                       @Param("productUrl") String productUrl,
+                       @Param("retailer") String retailer);
+
+    // A price history URL for the listing backfill
+    interface ListingSource {
+        Long getId();
+        Long getProductId();
+        String getRetailer();
+        String getProductUrl();
+    }
+
+    // Price history rows with a URL, in id order after afterId
+    @Query("""
+            SELECT ph.id AS id, ph.babyProduct.id AS productId, ph.retailer AS retailer, ph.productUrl AS productUrl
+            FROM PriceHistory ph
+            WHERE ph.id > :afterId AND ph.productUrl IS NOT NULL
+            ORDER BY ph.id
+            """)
+    List<ListingSource> findListingSourcesAfter(@Param("afterId") long afterId, Limit limit);
+}
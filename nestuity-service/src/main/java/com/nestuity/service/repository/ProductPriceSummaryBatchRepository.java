@@ -0,0 +1,16 @@
+package com.nestuity.service.repository;
+
+import com.nestuity.service.repository.PriceHistoryBatchRepository.NewPrice;
+
+import java.util.List;
+
+/**
+ * JDBC batch upsert of the price summaries, one statement per recorded price.
+ */
+public interface ProductPriceSummaryBatchRepository {
+
+    // Folds each price into its (product, retailer) summary, in order: latest follows the newest date, min and
+    // max widen, and the 30-day average is recomputed over the (product, retailer, date) index range it covers.
+    // The prices must already be written to price_history. In JDBC batches of price-updates.jdbc-batch-size
+    void batchRecordPrices(List<NewPrice> prices);
+}
@@ -0,0 +1,60 @@
+package com.nestuity.service.repository;
+
+import com.nestuity.service.repository.PriceHistoryBatchRepository.NewPrice;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+public class ProductPriceSummaryBatchRepositoryImpl implements ProductPriceSummaryBatchRepository {
+
+    private static final String RECORD_PRICE_SQL = """
+            INSERT INTO product_price_summary AS s
+                (baby_product_id, retailer, latest_price, latest_product_url, latest_price_at,
+                 min_price, max_price, avg_price_30d, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, now())
+            ON CONFLICT (baby_product_id, retailer) DO UPDATE SET
+                latest_price = CASE WHEN EXCLUDED.latest_price_at >= s.latest_price_at
+                                    THEN EXCLUDED.latest_price ELSE s.latest_price END,
+                latest_product_url = CASE WHEN EXCLUDED.latest_price_at >= s.latest_price_at
+                                          THEN EXCLUDED.latest_product_url ELSE s.latest_product_url END,
+                latest_price_at = GREATEST(s.latest_price_at, EXCLUDED.latest_price_at),
+                min_price = LEAST(s.min_price, EXCLUDED.min_price),
+                max_price = GREATEST(s.max_price, EXCLUDED.max_price),
+                avg_price_30d = (SELECT AVG(ph.price) FROM price_history ph
+                                 WHERE ph.baby_product_id = EXCLUDED.baby_product_id
+                                   AND ph.retailer = EXCLUDED.retailer
+                                   AND ph.date > GREATEST(s.latest_price_at, EXCLUDED.latest_price_at) - INTERVAL '30 days'
+                                   AND ph.date <= GREATEST(s.latest_price_at, EXCLUDED.latest_price_at)),
+                updated_at = now()
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public ProductPriceSummaryBatchRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                                  @Value("${price-updates.jdbc-batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void batchRecordPrices(List<NewPrice> prices) {
+        if (prices.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(RECORD_PRICE_SQL, prices, batchSize, (ps, price) -> {
+            Timestamp date = Timestamp.valueOf(price.date());
+            ps.setLong(1, price.productId());
+            ps.setString(2, price.retailer());
+            ps.setBigDecimal(3, price.price());
+            ps.setString(4, price.productUrl());
+            ps.setTimestamp(5, date);
+            // A new summary starts with min, max and average all at this price
+            ps.setBigDecimal(6, price.price());
+            ps.setBigDecimal(7, price.price());
+            ps.setBigDecimal(8, price.price());
+        });
+    }
+}
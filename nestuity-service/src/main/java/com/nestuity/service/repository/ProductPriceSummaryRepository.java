@@ -0,0 +1,80 @@
+package com.nestuity.service.repository;
+
+import com.nestuity.service.entity.ProductPriceSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductPriceSummaryRepository extends JpaRepository<ProductPriceSummary, Long>,
+        ProductPriceSummaryBatchRepository {
+
+    List<ProductPriceSummary> findByProductIdInOrderByProductIdAscRetailerAsc(Collection<Long> productIds);
+
+    // Recomputes a product's summaries from its full price history, e.g. after its history was replaced
+    @Query(value = """
+            WITH latest AS (
+                SELECT DISTINCT ON (retailer) baby_product_id, retailer, price, product_url, date
+                FROM price_history
+                WHERE baby_product_id = :productId
+                ORDER BY retailer, date DESC, id DESC
+            )
+            INSERT INTO product_price_summary
+                (baby_product_id, retailer, latest_price, latest_product_url, latest_price_at,
+                 min_price, max_price, avg_price_30d, updated_at)
+            SELECT l.baby_product_id, l.retailer, l.price, l.product_url, l.date, MIN(ph.price), MAX(ph.price),
+                   AVG(ph.price) FILTER (WHERE ph.date > l.date - INTERVAL '30 days' AND ph.date <= l.date), now()
+            FROM latest l
+            JOIN price_history ph ON ph.baby_product_id = l.baby_product_id AND ph.retailer = l.retailer
+            GROUP BY l.baby_product_id, l.retailer, l.price, l.product_url, l.date
+            ON CONFLICT (baby_product_id, retailer) DO UPDATE SET
+                latest_price = EXCLUDED.latest_price,
+                latest_product_url = EXCLUDED.latest_product_url,
+                latest_price_at = EXCLUDED.latest_price_at,
+                min_price = EXCLUDED.min_price,
+                max_price = EXCLUDED.max_price,
+                avg_price_30d = EXCLUDED.avg_price_30d,
+                updated_at = now()
+            """, nativeQuery = true)
+    @Modifying
+    @Transactional
+    int rebuildForProduct(@Param("productId") Long productId);
+
+    // Drops the summaries of retailers the product no longer has any price from
+    @Query(value = """
+            DELETE FROM product_price_summary s
+            WHERE s.baby_product_id = :productId
+              AND NOT EXISTS (SELECT 1 FROM price_history ph
+                              WHERE ph.baby_product_id = s.baby_product_id AND ph.retailer = s.retailer)
+            """, nativeQuery = true)
+    @Modifying
+    @Transactional
+    int deleteRetailersWithoutPrices(@Param("productId") Long productId);
+
+    // Builds the summaries of every (product, retailer) that has prices but no summary yet; one pass over history
+    @Query(value = """
+            WITH latest AS (
+                SELECT DISTINCT ON (baby_product_id, retailer) baby_product_id, retailer, price, product_url, date
+                FROM price_history
+                ORDER BY baby_product_id, retailer, date DESC, id DESC
+            )
+            INSERT INTO product_price_summary
+                (baby_product_id, retailer, latest_price, latest_product_url, latest_price_at,
+                 min_price, max_price, avg_price_30d, updated_at)
+            SELECT l.baby_product_id, l.retailer, l.price, l.product_url, l.date, MIN(ph.price), MAX(ph.price),
+                   AVG(ph.price) FILTER (WHERE ph.date > l.date - INTERVAL '30 days' AND ph.date <= l.date), now()
+            FROM latest l
+            JOIN price_history ph ON ph.baby_product_id = l.baby_product_id AND ph.retailer = l.retailer
+            GROUP BY l.baby_product_id, l.retailer, l.price, l.product_url, l.date
+            ON CONFLICT (baby_product_id, retailer) DO NOTHING
+            """, nativeQuery = true)
+    @Modifying
+    @Transactional
+    int insertMissing();
+}
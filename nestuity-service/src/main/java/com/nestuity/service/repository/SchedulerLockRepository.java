@@ -0,0 +1,33 @@
+package com.nestuity.service.repository;
+
+import com.nestuity.service.entity.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    // Takes the lease if it is free, expired or already ours; returns 1 when acquired. Times come from the
+    // database clock so instances with skewed clocks agree on expiry.
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO scheduler_lock (name, locked_by, locked_at, locked_until)
+            VALUES (:name, :owner, now(), now() + make_interval(secs => :leaseSeconds))
+            ON CONFLICT (name) DO UPDATE
+                SET locked_by = EXCLUDED.locked_by, locked_at = EXCLUDED.locked_at, locked_until = EXCLUDED.locked_until
+                WHERE scheduler_lock.locked_until <= now() OR scheduler_lock.locked_by = EXCLUDED.locked_by
+            """, nativeQuery = true)
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner, @Param("leaseSeconds") long leaseSeconds);
+
+    // Ends our lease early so the next run does not have to wait for it to expire
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE scheduler_lock SET locked_until = now() WHERE name = :name AND locked_by = :owner",
+            nativeQuery = true)
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
@@ -0,0 +1,30 @@
+package com.nestuity.service.repository;
+
+import com.nestuity.service.entity.SupplyType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface SupplyTypeRepository extends JpaRepository<SupplyType, Integer> {
+
+    // Names are stored trimmed and lower-cased
+    Optional<SupplyType> findByName(String name);
+
+    // Creates a supply type for every supply name found on inventory rows that have none yet
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO supply_type (name, display_name)
+            SELECT LOWER(TRIM(supply_name)), MIN(supply_name)
+            FROM inventory
+            WHERE supply_type_id IS NULL
+            GROUP BY LOWER(TRIM(supply_name))
+            ON CONFLICT (name) DO NOTHING
+            """, nativeQuery = true)
+    int insertMissingFromInventory();
+}
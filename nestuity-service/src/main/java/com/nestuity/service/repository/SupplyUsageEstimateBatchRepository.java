@@ -0,0 +1,17 @@
+package com.nestuity.service.repository;
+
+import com.nestuity.service.repository.InventoryBatchRepository.SingleQuantityDelta;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * JDBC batch upsert of the learned usage estimates, run alongside the inventory batch of a usage event flush.
+ */
+public interface SupplyUsageEstimateBatchRepository {
+
+    // Adds each delta's used quantity (-delta) to its household's total for :day, first folding any closed days
+    // into the moving average with smoothing factor :alpha; deltas without an inventory row are skipped.
+    // In JDBC batches of hibernate.jdbc.batch_size
+    void batchRecordUsage(List<SingleQuantityDelta> deltas, LocalDate day, double alpha);
+}
@@ -0,0 +1,74 @@
+package com.nestuity.service.repository;
+
+import com.nestuity.service.repository.InventoryBatchRepository.SingleQuantityDelta;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+public class SupplyUsageEstimateBatchRepositoryImpl implements SupplyUsageEstimateBatchRepository {
+
+    // Same fold as SupplyUsageEstimator.dailyUsageOn: when the day moves on, the closed day's total enters the
+    // average (or seeds it) and every skipped day counts as a day without usage; the first, partial day is dropped.
+    // Usage for a day the estimate has already closed is dropped too: that day is in the average and is not
+    // reopened, and adding it to the current day would overstate the next one. SupplyUsageEstimator.recordUsage is
+    // the reference for these rules. Only supplies the household keeps in inventory are learned, so an unknown user
+    // or supply inserts nothing
+    private static final String RECORD_USAGE_SQL = """
+            INSERT INTO supply_usage_estimate AS e
+                (user_id, supply_name, started_on, current_day, current_day_total, daily_usage, observed_days, updated_at)
+            SELECT ?, ?, ?, ?, ?, NULL, 0, now()
+            WHERE EXISTS (SELECT 1 FROM inventory i WHERE i.user_id = ? AND i.supply_type_id = ?)
+            ON CONFLICT (user_id, supply_name) DO UPDATE SET
+                daily_usage = CASE
+                    WHEN EXCLUDED.current_day <= e.current_day THEN e.daily_usage
+                    WHEN e.current_day = e.started_on THEN NULL
+                    ELSE COALESCE(CAST(? AS double precision) * e.current_day_total
+                                  + (1 - CAST(? AS double precision)) * e.daily_usage, e.current_day_total)
+                         * POWER(1 - CAST(? AS double precision), EXCLUDED.current_day - e.current_day - 1)
+                    END,
+                observed_days = CASE
+                    WHEN EXCLUDED.current_day <= e.current_day THEN e.observed_days
+                    WHEN e.current_day = e.started_on THEN 0
+                    ELSE e.observed_days + (EXCLUDED.current_day - e.current_day)
+                    END,
+                current_day_total = CASE
+                    WHEN EXCLUDED.current_day = e.current_day THEN e.current_day_total + EXCLUDED.current_day_total
+                    WHEN EXCLUDED.current_day < e.current_day THEN e.current_day_total
+                    ELSE EXCLUDED.current_day_total
+                    END,
+                current_day = GREATEST(e.current_day, EXCLUDED.current_day),
+                updated_at = now()
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public SupplyUsageEstimateBatchRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                                  @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void batchRecordUsage(List<SingleQuantityDelta> deltas, LocalDate day, double alpha) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Date sqlDay = Date.valueOf(day);
+        jdbcTemplate.batchUpdate(RECORD_USAGE_SQL, deltas, batchSize, (ps, delta) -> {
+            ps.setLong(1, delta.userId());
+            ps.setString(2, delta.supplyName());
+            ps.setDate(3, sqlDay);
+            ps.setDate(4, sqlDay);
+            ps.setDouble(5, -delta.delta());
+            ps.setLong(6, delta.userId());
+            ps.setInt(7, delta.supplyTypeId());
+            ps.setDouble(8, alpha);
+            ps.setDouble(9, alpha);
+            ps.setDouble(10, alpha);
+        });
+    }
+}
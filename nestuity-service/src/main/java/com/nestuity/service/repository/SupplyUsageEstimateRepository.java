@@ -0,0 +1,15 @@
+package com.nestuity.service.repository;
+
+import com.nestuity.service.entity.SupplyUsageEstimate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface SupplyUsageEstimateRepository
+        extends JpaRepository<SupplyUsageEstimate, Long>, SupplyUsageEstimateBatchRepository {
+
+    // Supply names are stored lower-cased
+    Optional<SupplyUsageEstimate> findByUserIdAndSupplyName(Long userId, String supplyName);
+}
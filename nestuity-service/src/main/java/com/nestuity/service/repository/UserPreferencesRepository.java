@@ -2,12 +2,18 @@ package com.nestuity.service.repository;
 
 import com.nestuity.service.entity.UserPreferences;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserPreferencesRepository extends JpaRepository<UserPreferences, Long> {
     Optional<UserPreferences> findById(Long id);
     void deleteById(Long id);
+
+    // Timezone values in use, to work out which users are at local midnight
+    @Query("SELECT DISTINCT p.timezone FROM UserPreferences p WHERE p.timezone IS NOT NULL")
+    List<String> findDistinctTimezones();
 }
\ No newline at end of file
@@ -2,8 +2,12 @@ package com.nestuity.service.repository;
 
 import com.nestuity.service.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -28,4 +32,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    interface UserTimezone {
+        Long getUserId();
+        String getTimezone();
+    }
+
+    // Timezone preference of each user (null when unset), to date their usage in their own local day
+    @Query("SELECT u.id AS userId, p.timezone AS timezone FROM User u LEFT JOIN u.preferences p WHERE u.id IN :userIds")
+    List<UserTimezone> findTimezonesByIdIn(@Param("userIds") Collection<Long> userIds);
 }
\ No newline at end of file
@@ -1,81 +1,59 @@
 package com.nestuity.service.scheduler;
 
-import com.nestuity.service.entity.Baby;
-import com.nestuity.service.entity.Inventory;
-import com.nestuity.service.entity.User;
+import com.nestuity.service.repository.InventoryForecastRepository.DueCrossing;
 import com.nestuity.service.service.*;
 
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
-import java.util.Set;
 
 @Component
 public class CalculatorScheduler {
 
-    private final BabyService babyService;
     private final EmailService emailService;
-    private final DiaperUsageCalculatorService diaperUsageCalculatorService;
-    private final InventoryService inventoryService;
-
-    // Only send reminders when daysLeft matches one of these values
-    private static final Set<Integer> REMINDER_DAYS = Set.of(7, 5, 3, 2, 1, 0);
+    private final DiaperConsumptionService diaperConsumptionService;
+    private final InventoryForecastService inventoryForecastService;
+    private final TimezoneCohorts timezoneCohorts;
 
     @Autowired
-    public CalculatorScheduler(BabyService babyService,
-                               EmailService emailService,
-                               InventoryService inventoryService,
-                               DiaperUsageCalculatorService diaperUsageCalculatorService) {
-        this.babyService = babyService;
+    public CalculatorScheduler(EmailService emailService,
+                               DiaperConsumptionService diaperConsumptionService,
+                               InventoryForecastService inventoryForecastService,
+                               TimezoneCohorts timezoneCohorts) {
         this.emailService = emailService;
-        this.diaperUsageCalculatorService = diaperUsageCalculatorService;
-        this.inventoryService = inventoryService;
+        this.diaperConsumptionService = diaperConsumptionService;
+        this.inventoryForecastService = inventoryForecastService;
+        this.timezoneCohorts = timezoneCohorts;
     }
 
-    @Scheduled(cron = "0 0 0 * * *") // 00:00:00 everyday (midnight) 
-    @Transactional
+    static final String WINDOW_CURSOR = "calculator-windows";
+
+    // Every cohort window; each user's diapers are counted down at their own local midnight. Windows missed by a
+    // late or skipped tick are caught up from the cursor; the consumption ledger makes a replayed window a no-op
+    @Scheduled(cron = "0 */15 * * * *")
     public void runTask() {
-        List<Baby> babies = babyService.getAllBabies();
-        for (Baby baby: babies) {
-            User parent = baby.getUser();
-            // Grab baby's daily usage
-            int dailyUsage = baby.getDailyUsage();
-            // Grab diaper inventory for this user
-            Inventory diaperInventory = inventoryService.getInventoryItemByUserAndSupplyName(parent.getId(), "diapers");
-            // Update the total single quantity
-            double remainingSingles = diaperInventory.getTotalSingleQuantity() - dailyUsage;
-            remainingSingles = Math.max(0, remainingSingles); // prevent negative
-            diaperInventory.setTotalSingleQuantity(remainingSingles);
+        timezoneCohorts.forEachWindow(WINDOW_CURSOR, Instant.now(), null, this::runWindow);
+    }
 
-            // Recalculate total boxes
-            double unitConversion = diaperInventory.getUnitConversion(); // singles per box
-            double remainingBoxes = unitConversion > 0 ? remainingSingles / unitConversion : 0;
-            diaperInventory.setTotalUnitQuantity(remainingBoxes);
+    private void runWindow(TimezoneCohorts.Cohort cohort) {
+        // Runs even for an empty cohort so partitions left unfinished by an earlier run are picked up
+        diaperConsumptionService.consume(cohort);
 
-            // Save changes to inventory
-            inventoryService.updateInventory(diaperInventory.getId(), diaperInventory);
+        // Reminders come from the forecast's threshold crossings due today, not from re-deriving every household
+        List<DueCrossing> lowSupply = inventoryForecastService.dueReminders(cohort);
 
-            // Check if a reminder is needed
-            var usageResponse = diaperUsageCalculatorService.calculateUsage(baby.getId());
-            int daysLeft = usageResponse.getDaysLeft();
-            // Skip if notifications OFF OR daysLeft not in reminder list
-            if (parent.getPreferences() == null
-                    || !parent.getPreferences().isEmailNotificationsEnabled()
-                    || !REMINDER_DAYS.contains(daysLeft)) {
-                continue;
-            }
+        for (DueCrossing household : lowSupply) {
             try {
-                String fullName = parent.getFirstName() + " " + parent.getLastName();
-                emailService.sendDiaperReminderEmail(parent.getEmail(), fullName, daysLeft);
-                System.out.println("Reminder sent to: " + parent.getEmail());
+                String fullName = household.getFirstName() + " " + household.getLastName();
+                emailService.sendDiaperReminderEmail(household.getEmail(), fullName, household.getDaysLeft());
+                System.out.println("Reminder sent to: " + household.getEmail());
             } catch (IOException e) {
                 // exception ignored
             }
-
         }
     }
 }
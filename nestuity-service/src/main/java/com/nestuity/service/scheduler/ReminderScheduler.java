@@ -1,95 +1,69 @@
 package com.nestuity.service.scheduler;
 
-import com.nestuity.service.dto.BabyReminderDto;
-import com.nestuity.service.entity.Baby;
-import com.nestuity.service.entity.User;
-import com.nestuity.service.service.*;
-import com.nestuity.service.type.Frequency;
-import com.nestuity.service.type.ReminderType;
+import com.nestuity.service.service.BabyReminderService;
+import com.nestuity.service.service.SchedulerLockService;
+import com.nestuity.service.service.TimezoneCohorts;
+import com.nestuity.service.service.WeeklySummaryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
 
 @Component
 public class ReminderScheduler {
 
-    private final BabyService babyService;
-    private final EmailService emailService;
     private final BabyReminderService babyReminderService;
+    private final WeeklySummaryService weeklySummaryService;
+    private final TimezoneCohorts timezoneCohorts;
+    private final SchedulerLockService schedulerLock;
+
+    static final String ROLL_FORWARD_LOCK = "next-due-roll-forward";
+    static final String WEEKLY_SUMMARY_LOCK = "weekly-summary";
+    static final String WEEKLY_SUMMARY_CURSOR = "weekly-summary-windows";
+    // Longer than either job's longest run; released as soon as the run ends
+    private static final Duration LEASE = Duration.ofHours(1);
 
     @Autowired
-    public ReminderScheduler(BabyService babyService,
-                             EmailService emailService,
-                             BabyReminderService babyReminderService) {
-        this.babyService = babyService;
+    public ReminderScheduler(BabyReminderService babyReminderService,
+                             WeeklySummaryService weeklySummaryService,
+                             TimezoneCohorts timezoneCohorts,
+                             SchedulerLockService schedulerLock) {
         this.babyReminderService = babyReminderService;
-        this.emailService = emailService;
+        this.weeklySummaryService = weeklySummaryService;
+        this.timezoneCohorts = timezoneCohorts;
+        this.schedulerLock = schedulerLock;
     }
 
-    @Scheduled(cron = "0 0 0 * * 0") // Every Sunday at 00:00
-    @Transactional
-    public void sendWeeklyReport() {
-        List<Baby> babies = babyService.getAllBabies();
-        LocalDateTime now = LocalDateTime.now();
-
-        for (Baby baby : babies) {
-            User parent = baby.getUser();
-            if (parent == null ||
-                    parent.getPreferences() == null ||
-                    !parent.getPreferences().isEmailNotificationsEnabled()) {
-                continue;
-            }
-
-            try {
-                List<BabyReminderDto> reminders = babyReminderService.getRemindersByBabyId(baby.getId());
-
-                // --- ONLY OVERDUE TASKS ---
-                List<Map<String, String>> overdueTasks = reminders.stream()
-                        .filter(r -> r.getType() == ReminderType.TASK)
-                        .filter(r -> r.getNextDue() != null)
-                        .filter(r -> r.getFrequency() != Frequency.DAILY) // skip daily tasks
-                        .filter(r -> r.getNextDue().isBefore(now)) // only past due dates
-                        .map(r -> {
-                            Map<String, String> task = new HashMap<>();
-                            task.put("taskName", r.getTitle());
-                            long daysOverdue = ChronoUnit.DAYS.between(r.getNextDue(), now);
-                            task.put("daysOverdue", String.valueOf(daysOverdue));
-                            return task;
-                        })
-                        .collect(Collectors.toList());
-
-                // --- ONLY OVERDUE VACCINATIONS ---
-                List<Map<String, String>> vaccinationsOverdue = reminders.stream()
-                        .filter(r -> r.getType() == ReminderType.VACCINATION)
-                        .filter(r -> r.getNextDue() != null && r.getNextDue().isBefore(now) && r.getCompletedOn() == null)
-                        .map(r -> {
-                            long daysOverdue = ChronoUnit.DAYS.between(r.getNextDue(), now);
-                            return Map.of(
-                                    "vaccinationName", r.getTitle(),
-                                    "daysOverdue", String.valueOf(daysOverdue)
-                            );
-                        })
-                        .collect(Collectors.toList());
+    // Also run once on startup so rows created before the next_due column existed are backfilled
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 0 0 * * *") // 00:00:00 everyday (midnight)
+    public void rollForwardNextDue() {
+        // One instance per cluster; the others skip while it runs
+        schedulerLock.runExclusively(ROLL_FORWARD_LOCK, LEASE, babyReminderService::rollForwardNextDue);
+    }
 
-                // --- SEND EMAIL ---
-                emailService.sendWeeklySummaryEmail(
-                        parent.getEmail(),
-                        parent.getFirstName(),
-                        overdueTasks,
-                        vaccinationsOverdue
-                );
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+    // Every cohort window; each timezone is picked up at its own local Sunday 00:00, including windows a late or
+    // skipped tick missed
+    @Scheduled(cron = "0 */15 * * * *")
+    public void sendWeeklyReport() {
+        timezoneCohorts.forEachWindow(WEEKLY_SUMMARY_CURSOR, Instant.now(), DayOfWeek.SUNDAY, this::sendWeeklyReport);
+        // The cursor moves past a window whose lock another instance held; if that instance died mid-run, its
+        // checkpoint stays open and is picked up here once the lease has lapsed
+        for (String runKey : weeklySummaryService.unfinishedRuns()) {
+            sendWeeklyReport(timezoneCohorts.forRunKey(runKey, DayOfWeek.SUNDAY));
         }
     }
+
+    private void sendWeeklyReport(TimezoneCohorts.Cohort cohort) {
+        if (cohort.isEmpty()) return;
+        // Paged and checkpointed per cohort; no transaction spans the whole run. Locked per cohort run so a slow
+        // run does not hold back the next window's cohort
+        schedulerLock.runExclusively(SchedulerLockService.shardName(WEEKLY_SUMMARY_LOCK, cohort.runKey()), LEASE,
+                () -> weeklySummaryService.sendWeeklySummaries(cohort));
+    }
 }
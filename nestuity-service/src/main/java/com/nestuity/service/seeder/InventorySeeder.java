@@ -3,6 +3,7 @@ package com.nestuity.service.seeder;
 import com.nestuity.service.entity.Inventory;
 import com.nestuity.service.entity.User;
 import com.nestuity.service.repository.InventoryRepository;
+import com.nestuity.service.service.SupplyTypeService;
 import com.nestuity.service.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,10 +21,13 @@ public class InventorySeeder implements CommandLineRunner {
 
     private final UserService userService;
     private final InventoryRepository inventoryRepository;
+    private final SupplyTypeService supplyTypeService;
 
-    public InventorySeeder(UserService userService, InventoryRepository inventoryRepository) {
+    public InventorySeeder(UserService userService, InventoryRepository inventoryRepository,
+                           SupplyTypeService supplyTypeService) {
         this.userService = userService;
         this.inventoryRepository = inventoryRepository;
+        this.supplyTypeService = supplyTypeService;
     }
 
     @Override
@@ -39,7 +43,8 @@ public class InventorySeeder implements CommandLineRunner {
         if (inventoryRepository.findByUserId(user.getId()).isEmpty()) {
             Inventory inventory = new Inventory();
             inventory.setUser(user);
-            inventory.setSupplyName("diapers");
+            inventory.setSupplyName(SupplyTypeService.DIAPERS);
+            inventory.setSupplyTypeId(supplyTypeService.resolve(SupplyTypeService.DIAPERS).getId());
             inventory.setTotalSingleQuantity(50.0);
             inventory.setTotalUnitQuantity(5.0);
             inventory.setUnitConversion(10.0);
@@ -1,27 +1,49 @@
 package com.nestuity.service.service;
 
+import com.nestuity.service.dto.BabyProductPage;
 import com.nestuity.service.dto.BabyProductResponse;
 import com.nestuity.service.dto.CreateBabyProductRequest;
 import com.nestuity.service.dto.PriceHistoryDTO;
+import com.nestuity.service.dto.PriceSummaryDTO;
 import com.nestuity.service.dto.UpdateBabyProductRequest;
 import com.nestuity.service.entity.BabyProduct;
 import com.nestuity.service.entity.PriceHistory;
+import com.nestuity.service.entity.ProductPriceSummary;
 import com.nestuity.service.exception.ResourceNotFoundException;
+import com.nestuity.service.repository.BabyProductCatalogueRepository.CatalogueFilter;
+import com.nestuity.service.repository.BabyProductCatalogueRepository.CatalogueProduct;
 import com.nestuity.service.repository.BabyProductRepository;
+import com.nestuity.service.repository.PriceHistoryRepository;
+import com.nestuity.service.repository.PriceHistoryRepository.ProductPrice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class BabyProductService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final BabyProductRepository babyProductRepository;
+    private final PriceHistoryRepository priceHistoryRepository;
+    private final ProductPriceSummaryService priceSummaryService;
+    private final ProductListingService listingService;
 
-    public BabyProductService(BabyProductRepository babyProductRepository) {
+    public BabyProductService(BabyProductRepository babyProductRepository,
+                              PriceHistoryRepository priceHistoryRepository,
+                              ProductPriceSummaryService priceSummaryService,
+                              ProductListingService listingService) {
         this.babyProductRepository = babyProductRepository;
+        this.priceHistoryRepository = priceHistoryRepository;
+        this.priceSummaryService = priceSummaryService;
+        this.listingService = listingService;
     }
 
     // ==================== CRUD Operations ====================
@@ -55,6 +77,9 @@ public class BabyProductService {
         }
 
         BabyProduct saved = babyProductRepository.save(entity);
+        if (request.getPriceHistory() != null && !request.getPriceHistory().isEmpty()) {
+            syncPrices(saved.getId(), request.getPriceHistory());
+        }
         return toResponse(saved);
     }
 
@@ -101,6 +126,9 @@ public class BabyProductService {
                     }
 
                     BabyProduct updated = babyProductRepository.save(existing);
+                    if (request.getPriceHistory() != null) {
+                        syncPrices(updated.getId(), request.getPriceHistory());
+                    }
                     return toResponse(updated);
                 })
                 .orElseThrow(() -> new ResourceNotFoundException("BabyProduct not found with id " + id));
@@ -109,9 +137,13 @@ public class BabyProductService {
     // Get one product by its ID
     @Transactional(readOnly = true)
     public BabyProductResponse findById(Long id) {
-        return babyProductRepository.findById(id)
+        BabyProductResponse response = babyProductRepository.findById(id)
                 .map(this::toResponse)
                 .orElseThrow(() -> new ResourceNotFoundException("BabyProduct not found with id " + id));
+        response.setPriceSummary(priceSummaryService.forProducts(List.of(id)).getOrDefault(id, List.of()).stream()
+                .map(this::toPriceSummaryDTO)
+                .collect(Collectors.toList()));
+        return response;
     }
 
     // Get all products
@@ -122,6 +154,41 @@ public class BabyProductService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * One page of the catalogue, in id order after {@code cursor} (the first page when null). Each page costs two
+     * queries whatever its size or the catalogue's: the products, then their price summaries, one row per retailer.
+     * Prices are each retailer's latest, from the summaries, unless {@code allPrices} asks for the full history,
+     * which costs a third query.
+     */
+    @Transactional(readOnly = true)
+    public BabyProductPage findCatalogue(String category, String brand, Boolean inStock, String cursor, int limit,
+                                         boolean allPrices) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // One extra row tells whether another page follows
+        List<CatalogueProduct> products = babyProductRepository.findCataloguePage(
+                new CatalogueFilter(blankToNull(category), blankToNull(brand), inStock), decodeCursor(cursor), limit + 1);
+        boolean hasMore = products.size() > limit;
+        if (hasMore) {
+            products = products.subList(0, limit);
+        }
+
+        List<Long> ids = products.stream().map(CatalogueProduct::id).toList();
+        Map<Long, List<ProductPriceSummary>> summaries = priceSummaryService.forProducts(ids);
+        Map<Long, List<PriceHistoryDTO>> history = (allPrices && !ids.isEmpty()) ? historyByProduct(ids) : Map.of();
+        List<BabyProductResponse> items = products.stream()
+                .map(product -> {
+                    List<ProductPriceSummary> productSummaries = summaries.getOrDefault(product.id(), List.of());
+                    List<PriceHistoryDTO> prices = allPrices
+                            ? history.getOrDefault(product.id(), List.of())
+                            : productSummaries.stream().map(this::toLatestPriceDTO).collect(Collectors.toList());
+                    return toResponse(product, prices, productSummaries);
+                })
+                .collect(Collectors.toList());
+        return new BabyProductPage(items, hasMore ? encodeCursor(products.getLast().id()) : null);
+    }
+
     // Get entity by ID (for internal use, returns entity not DTO)
     @Transactional(readOnly = true)
     public BabyProduct findEntityById(Long id) {
@@ -199,6 +266,48 @@ public class BabyProductService {
         }
     }
 
+    // ==================== Catalogue Helpers ====================
+
+    // The product's history was replaced wholesale, so its summaries are recomputed rather than folded into.
+    // Its URLs are listed too, so the scraper adds to this product rather than creating another
+    private void syncPrices(Long productId, List<PriceHistoryDTO> prices) {
+        babyProductRepository.flush();
+        for (PriceHistoryDTO price : prices) {
+            if (price.getProductUrl() != null && !price.getProductUrl().isBlank()) {
+                listingService.register(productId, price.getRetailer(), price.getProductUrl());
+            }
+        }
+        priceSummaryService.rebuild(productId);
+    }
+
+    private Map<Long, List<PriceHistoryDTO>> historyByProduct(List<Long> ids) {
+        return priceHistoryRepository.findAllByProductIds(ids).stream().collect(Collectors.groupingBy(ProductPrice::getProductId,
+                Collectors.mapping(price -> new PriceHistoryDTO(price.getRetailer(), price.getProductUrl(),
+                        price.getPrice(), price.getDate()), Collectors.toList())));
+    }
+
+    // Cursors are opaque to clients: the last id of the previous page, base64url-encoded
+    static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            // Also covers NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return (value == null || value.isBlank()) ? null : value;
+    }
+
     // ==================== Mapper Methods ====================
 
     private BabyProductResponse toResponse(BabyProduct entity) {
@@ -224,6 +333,23 @@ public class BabyProductService {
         return response;
     }
 
+    private BabyProductResponse toResponse(CatalogueProduct product, List<PriceHistoryDTO> prices,
+                                           List<ProductPriceSummary> summaries) {
+        BabyProductResponse response = new BabyProductResponse();
+        response.setId(product.id());
+        response.setName(product.name());
+        response.setBrand(product.brand());
+        response.setCategory(product.category());
+        response.setDescription(product.description());
+        response.setCurrency(product.currency());
+        response.setInStock(product.inStock());
+        response.setCreatedAt(product.createdAt());
+        response.setUpdatedAt(product.updatedAt());
+        response.setPriceHistory(prices);
+        response.setPriceSummary(summaries.stream().map(this::toPriceSummaryDTO).collect(Collectors.toList()));
+        return response;
+    }
+
     private PriceHistoryDTO toPriceHistoryDTO(PriceHistory entity) {
         PriceHistoryDTO dto = new PriceHistoryDTO();
         dto.setRetailer(entity.getRetailer());
@@ -232,4 +358,21 @@ public class BabyProductService {
         dto.setDate(entity.getDate());
         return dto;
     }
+
+    private PriceHistoryDTO toLatestPriceDTO(ProductPriceSummary summary) {
+        return new PriceHistoryDTO(summary.getRetailer(), summary.getLatestProductUrl(), summary.getLatestPrice(),
+                summary.getLatestPriceAt());
+    }
+
+    private PriceSummaryDTO toPriceSummaryDTO(ProductPriceSummary summary) {
+        PriceSummaryDTO dto = new PriceSummaryDTO();
+        dto.setRetailer(summary.getRetailer());
+        dto.setProductUrl(summary.getLatestProductUrl());
+        dto.setLatestPrice(summary.getLatestPrice());
+        dto.setLatestPriceAt(summary.getLatestPriceAt());
+        dto.setMinPrice(summary.getMinPrice());
+        dto.setMaxPrice(summary.getMaxPrice());
+        dto.setAveragePrice30d(summary.getAvgPrice30d());
+        return dto;
+    }
 }
@@ -1,17 +1,21 @@
 package com.nestuity.service.service;
 
 import com.nestuity.service.dto.BabyReminderDto;
+import com.nestuity.service.dto.ReminderDashboardDto;
 import com.nestuity.service.entity.Baby;
 import com.nestuity.service.entity.BabyReminder;
 import com.nestuity.service.entity.UserPreferences;
 import com.nestuity.service.loader.BabyReminderLoader;
+import com.nestuity.service.loader.ReminderTemplate;
 import com.nestuity.service.repository.BabyReminderRepository;
 import com.nestuity.service.repository.BabyRepository;
+import com.nestuity.service.repository.UserPreferencesRepository;
 import com.nestuity.service.type.Frequency;
 import com.nestuity.service.type.ReminderRange;
 import com.nestuity.service.type.ReminderType;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +25,7 @@ import java.time.*;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -29,53 +34,59 @@ public class BabyReminderService {
     private final BabyReminderRepository reminderRepository;
     private final BabyRepository babyRepository;
     private final BabyReminderLoader babyReminderLoader;
+    private final UserPreferencesRepository preferencesRepository;
+
+    // Page size used when backfilling reminders that have no stored nextDue yet
+    private static final int NEXT_DUE_BACKFILL_BATCH = 500;
+    // Days ahead covered by the medical reminders list
+    private static final int MEDICAL_WINDOW_DAYS = 30;
 
     @Autowired
-    public BabyReminderService(BabyReminderRepository reminderRepository, BabyReminderLoader babyReminderLoader, BabyRepository babyRepository) {
+    public BabyReminderService(BabyReminderRepository reminderRepository, BabyReminderLoader babyReminderLoader, BabyRepository babyRepository,
+                               UserPreferencesRepository preferencesRepository) {
         this.reminderRepository = reminderRepository;
         this.babyReminderLoader = babyReminderLoader;
         this.babyRepository = babyRepository;
+        this.preferencesRepository = preferencesRepository;
     }
 
     @Transactional
     public void createReminder(Long babyId) {
         Baby baby = babyRepository.findById(babyId)
                 .orElseThrow(() -> new RuntimeException("Baby not found with id " + babyId));
-        List<BabyReminder> reminders;
-        reminders = babyReminderLoader.loadReminders();
-        reminders.forEach(reminder -> reminder.setBaby(baby));
-        List<String> existingReminders = reminderRepository.findByBabyId(babyId).stream()
-                .map(BabyReminder::getTitle)
-                .filter(Objects::nonNull)
-                .toList();
+        // Titles only - no need to hydrate full reminder entities for the duplicate check
+        Set<String> existingTitles = new HashSet<>(reminderRepository.findTitlesByBabyId(babyId));
 
+        List<BabyReminder> toSave = buildMissingReminders(baby, existingTitles);
+        if (!toSave.isEmpty()) {
+            reminderRepository.saveAll(toSave);
+        }
+    }
+
+    /**
+     * Copies every catalogue template whose title is not in {@code existingTitles} into a new reminder
+     * for the baby. Titles are added to the set as they are used, so duplicates are skipped too.
+     */
+    List<BabyReminder> buildMissingReminders(Baby baby, Set<String> existingTitles) {
+        ReminderEvaluationContext ctx = ReminderEvaluationContext.forBaby(baby);
         List<BabyReminder> toSave = new ArrayList<>();
-        LocalDate today = LocalDate.now();
-        for (BabyReminder reminder : reminders) {
-            if (existingReminders.contains(reminder.getTitle())) {
+        for (ReminderTemplate template : babyReminderLoader.getTemplates()) {
+            if (template.title() == null || !existingTitles.add(template.title())) {
                 continue;
             }
+            BabyReminder reminder = template.toReminder();
+            reminder.setBaby(baby);
 
-            if (reminder.getType() == ReminderType.TASK && baby.getDob() != null) {
-                LocalDate dob;
-                if (baby.getDob() instanceof java.sql.Date sqlDate) {
-                    dob = sqlDate.toLocalDate();
-                } else {
-                    dob = baby.getDob().toInstant()
-                            .atZone(ZoneId.systemDefault())
-                            .toLocalDate();
-                }
-                LocalDate lastCompletion = null;
-                lastCompletion = computeLastCompletionDate(dob, today, reminder);
-                if (lastCompletion != null && !lastCompletion.isAfter(today)) {
+            if (reminder.getType() == ReminderType.TASK && ctx.hasDob()) {
+                LocalDate lastCompletion = computeLastCompletionDate(reminder, ctx);
+                if (lastCompletion != null) {
                     reminder.setCompletedOn(lastCompletion.atStartOfDay());
                 }
             }
+            refreshNextDue(reminder, ctx);
             toSave.add(reminder);
         }
-        if (!toSave.isEmpty()) {
-            reminderRepository.saveAll(toSave);
-        }
+        return toSave;
     }
 
     public Optional<BabyReminderDto> getReminderById(Long id) {
@@ -83,16 +94,16 @@ public class BabyReminderService {
     }
 
     public List<BabyReminderDto> getRemindersByBabyId(Long babyId) {
-        return reminderRepository.findByBabyId(babyId).stream()
-                .map(this::toDtoWithNextDue)
-                .collect(Collectors.toList());
+        return toDtos(reminderRepository.findByBabyId(babyId)).collect(Collectors.toList());
     }
 
     // Today's pending reminders
     public List<BabyReminderDto> getRemindersForToday(Long babyId) {
-        LocalDate today = LocalDate.now();
+        ReminderEvaluationContext ctx = contextFor(babyId);
+        LocalDate today = ctx.today();
+        LocalDateTime now = LocalDateTime.now(ctx.zone());
 
-        return getRemindersByBabyId(babyId).stream()
+        return toDtos(reminderRepository.findByBabyIdAndNextDueBefore(babyId, today.plusDays(1).atStartOfDay()), ctx)
                 .filter(dto -> {
                     if (dto.nextDue == null) return false;
 
@@ -103,7 +114,7 @@ public class BabyReminderService {
                     // 1. It's due today or earlier (normal case), OR
                     // 2. It's a daily recurring task (always repeats)
                     return (isDueTodayOrEarlier || isDailyRecurring)
-                            && !isCompletedAndNotDue(dto);
+                            && !isCompletedAndNotDue(dto, now);
                 })
                 .collect(Collectors.toList());
     }
@@ -114,40 +125,25 @@ public class BabyReminderService {
         if (babyId == null) {
             throw new IllegalArgumentException("babyId cannot be null");
         }
-        // Fetch reminders for this baby
-        List<BabyReminderDto> reminders = getRemindersByBabyId(babyId); // reuse your existing method
-        if (reminders == null || reminders.isEmpty()) {
+        ReminderEvaluationContext ctx = contextFor(babyId);
+        LocalDate today = ctx.today();
+        LocalDate endDate = (daysAhead != null && daysAhead >= 0) ? today.plusDays(daysAhead) : null;
+
+        // With a window, let the (baby_id, next_due) index do the date filtering
+        List<BabyReminderDto> reminders = toDtos((endDate == null)
+                ? reminderRepository.findByBabyId(babyId)
+                : reminderRepository.findDueBetweenExcludingType(babyId, today.atStartOfDay(),
+                        endDate.plusDays(1).atStartOfDay(), ReminderType.MILESTONE,
+                        ReminderType.TASK, Frequency.DAILY), ctx)
+                .collect(Collectors.toList());
+        if (reminders.isEmpty() && (endDate == null || !reminderRepository.existsByBabyId(babyId))) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Baby with ID " + babyId + " not found");
         }
 
-        LocalDate today = LocalDate.now();
-        LocalDate endDate = (daysAhead != null && daysAhead >= 0) ? today.plusDays(daysAhead) : null;
-
         return reminders.stream()
                 .filter(dto -> dto.nextDue != null)  // skip reminders with no due date
                 .filter(dto -> dto.type != ReminderType.MILESTONE) // exclude milestones
-                .peek(dto -> {
-                    LocalDate dueDate = dto.nextDue.toLocalDate();
-                    LocalDate completedOn = dto.completedOn != null ? dto.completedOn.toLocalDate() : null;
-                    ReminderRange tag;
-
-                    if (!dto.isUserCreated() && completedOn != null
-                            && (!dueDate.isAfter(completedOn) || completedOn.isEqual(today))) {
-                        tag = ReminderRange.COMPLETED;
-                    } else if (dueDate.isBefore(today)) {
-                        tag = ReminderRange.OVERDUE;
-                    } else if (dueDate.isEqual(today)) {
-                        tag = ReminderRange.TODAY;
-                    } else if (!dueDate.isAfter(today.plusDays(7))) {
-                        tag = ReminderRange.UPCOMING_WEEK;
-                    } else if (!dueDate.isAfter(today.plusDays(30))) {
-                        tag = ReminderRange.UPCOMING_MONTH;
-                    } else {
-                        tag = ReminderRange.FUTURE;
-                    }
-
-                    dto.setRange(tag);
-                })
+                .peek(dto -> dto.setRange(classifyRange(dto, today)))
                 .filter(dto -> {
                     if (endDate == null) return true;
                     LocalDate dueDate = dto.nextDue.toLocalDate();
@@ -158,24 +154,21 @@ public class BabyReminderService {
 
     // Medical reminders (vaccination/checkup) within 30 days
     public List<BabyReminderDto> getMedicalReminders(Long babyId) {
-        LocalDate today = LocalDate.now();
-        LocalDate end = today.plusDays(30);
-        return getRemindersByBabyId(babyId).stream()
-                .filter(dto -> dto.type == ReminderType.VACCINATION)
-                .filter(dto -> dto.nextDue != null)
-                .filter(dto -> {
-                    LocalDate d = dto.nextDue.toLocalDate();
-                    return (d.isAfter(today) || d.isEqual(today)) && d.isBefore(end.plusDays(1));
-                })
+        ReminderEvaluationContext ctx = contextFor(babyId);
+        LocalDate today = ctx.today();
+        LocalDate end = today.plusDays(MEDICAL_WINDOW_DAYS);
+        return toDtos(reminderRepository.findDueBetweenByType(babyId, ReminderType.VACCINATION,
+                        today.atStartOfDay(), end.plusDays(1).atStartOfDay()), ctx)
+                .filter(dto -> isMedicalDue(dto, today))
                 .collect(Collectors.toList());
     }
 
     // Overdue recurring tasks: recurrence computed and nextDue < now and not completed (or completed but nextDue <= now)
     public List<BabyReminderDto> getOverdueRecurring(Long babyId) {
-        LocalDateTime now = LocalDateTime.now();
-        return getRemindersByBabyId(babyId).stream()
-                .filter(dto -> dto.frequency != Frequency.DAILY || dto.type != ReminderType.MILESTONE)
-                .filter(dto -> dto.nextDue != null && dto.nextDue.isBefore(now))
+        ReminderEvaluationContext ctx = contextFor(babyId);
+        LocalDateTime now = LocalDateTime.now(ctx.zone());
+        return toDtos(reminderRepository.findByBabyIdAndNextDueBefore(babyId, now), ctx)
+                .filter(dto -> isOverdue(dto, now))
                 .collect(Collectors.toList());
     }
 
@@ -183,23 +176,57 @@ public class BabyReminderService {
         // Fetch baby and reminders
         Baby baby = babyRepository.findById(babyId)
                 .orElseThrow(() -> new RuntimeException("Baby not found with id " + babyId));
-        LocalDate dob = baby.getDob()
-                .toInstant()
-                .atZone(ZoneId.systemDefault())
-                .toLocalDate();
-        long babyAgeDays = Duration.between(dob.atStartOfDay(), LocalDate.now().atStartOfDay()).toDays();
-        // Get all milestone reminders
-        List<BabyReminder> milestones = reminderRepository.findByBabyId(babyId).stream()
-                .filter(r -> r.getType() == ReminderType.MILESTONE)
-                .toList();
-        if (milestones.isEmpty()) return Optional.empty();
-        // Find the milestone with occurrence <= babyAgeDays (closest to current age)
-        BabyReminder current = milestones.stream()
-                .filter(r -> r.getOccurrence() != null && r.getOccurrence() <= babyAgeDays)
-                .max((a, b) -> Integer.compare(a.getOccurrence(), b.getOccurrence()))
-                .orElse(null);
-        if (current == null) return Optional.empty();
-        return Optional.of(toDtoWithNextDue(current));
+        ReminderEvaluationContext ctx = ReminderEvaluationContext.forBaby(baby);
+        if (!ctx.hasDob()) return Optional.empty();
+        return findCurrentMilestone(reminderRepository.findByBabyId(babyId), ctx.ageInDays())
+                .map(r -> toDtoWithNextDue(r, ctx));
+    }
+
+    /**
+     * Everything the reminder dashboard shows, derived from a single fetch of the baby's reminders:
+     * the upcoming reminders bucketed by {@link ReminderRange}, medical items due within 30 days,
+     * overdue items and the current milestone. Each reminder's nextDue is computed once.
+     */
+    public ReminderDashboardDto getDashboard(Long babyId) {
+        if (babyId == null) {
+            throw new IllegalArgumentException("babyId cannot be null");
+        }
+        List<BabyReminder> reminders = reminderRepository.findByBabyId(babyId);
+        // The reminders already reference the baby; only look it up when there are none
+        Baby baby = reminders.isEmpty()
+                ? babyRepository.findById(babyId).orElseThrow(() ->
+                        new ResponseStatusException(HttpStatus.NOT_FOUND, "Baby with ID " + babyId + " not found"))
+                : reminders.get(0).getBaby();
+
+        ReminderEvaluationContext ctx = ReminderEvaluationContext.forBaby(baby);
+        LocalDateTime now = LocalDateTime.now(ctx.zone());
+        LocalDate today = ctx.today();
+
+        Map<ReminderRange, List<BabyReminderDto>> upcoming = new EnumMap<>(ReminderRange.class);
+        for (ReminderRange range : ReminderRange.values()) {
+            upcoming.put(range, new ArrayList<>());
+        }
+        List<BabyReminderDto> medical = new ArrayList<>();
+        List<BabyReminderDto> overdue = new ArrayList<>();
+        Map<BabyReminder, BabyReminderDto> dtos = new IdentityHashMap<>();
+
+        for (BabyReminder reminder : reminders) {
+            BabyReminderDto dto = toDtoWithNextDue(reminder, ctx);
+            dtos.put(reminder, dto);
+            if (dto.nextDue != null && dto.type != ReminderType.MILESTONE) {
+                dto.setRange(classifyRange(dto, today));
+                upcoming.get(dto.getRange()).add(dto);
+            }
+            if (isMedicalDue(dto, today)) medical.add(dto);
+            if (isOverdue(dto, now)) overdue.add(dto);
+        }
+
+        BabyReminderDto currentMilestone = null;
+        if (ctx.hasDob()) {
+            currentMilestone = findCurrentMilestone(reminders, ctx.ageInDays()).map(dtos::get).orElse(null);
+        }
+
+        return new ReminderDashboardDto(babyId, upcoming, medical, overdue, currentMilestone);
     }
 
     @Transactional
@@ -222,6 +249,7 @@ public class BabyReminderService {
         reminder.setRequiresAction(true);
         reminder.setNotes(newTaskReminder.notes);
         reminder.setUserCreated(true);
+        refreshNextDue(reminder);
         BabyReminder saved = reminderRepository.save(reminder);
 
         // Handle start date and completedOn logic
@@ -231,7 +259,7 @@ public class BabyReminderService {
                 Date dob = baby.getDob();
                 LocalDateTime startDateTime = newTaskReminder.getStartDate();
                 if (dob != null && startDateTime != null) {
-                    LocalDate dobLocal = dob.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+                    LocalDate dobLocal = ReminderEvaluationContext.dateOf(dob);
                     LocalDate startDate = startDateTime.toLocalDate();
                     long daysSinceBirth = ChronoUnit.DAYS.between(dobLocal, startDate);
                     reminder.setOccurrence((int) daysSinceBirth);
@@ -246,22 +274,20 @@ public class BabyReminderService {
                     LocalDateTime lastCompleted = computeLastCompletedBeforeNowFromStart(
                             newTaskReminder.getStartDate(),
                             newTaskReminder.getFrequency(),
-                            safeZone(timezone)
+                            ReminderEvaluationContext.zoneFor(timezone)
                     );
                     if (newTaskReminder.getFrequency() != Frequency.ONCE) {
                         reminder.setCompletedOn(lastCompleted);
                     } else {
-                        Date dob = baby.getDob();
-                        LocalDate localDob = dob.toInstant()
-                                .atZone(ZoneId.systemDefault())
-                                .toLocalDate();
+                        LocalDate localDob = ReminderEvaluationContext.dateOf(baby.getDob());
                         LocalDate startDate = newTaskReminder.getStartDate().toLocalDate();
                         int daysBetween = (int) ChronoUnit.DAYS.between(localDob, startDate);
                         reminder.setOccurrence(daysBetween);
                     }
-                    reminderRepository.save(reminder);
                 }
             }
+            refreshNextDue(reminder);
+            reminderRepository.save(reminder);
         }
 
         return toDtoWithNextDue(reminder);
@@ -289,7 +315,7 @@ public class BabyReminderService {
                         Date dob = existing.getBaby().getDob();
                         LocalDateTime startDateTime = updated.getStartDate();
                         if (dob != null && startDateTime != null) {
-                            LocalDate dobLocal = dob.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+                            LocalDate dobLocal = ReminderEvaluationContext.dateOf(dob);
                             LocalDate startDate = startDateTime.toLocalDate();
                             long daysSinceBirth = ChronoUnit.DAYS.between(dobLocal, startDate);
                             existing.setOccurrence((int) daysSinceBirth);
@@ -304,21 +330,21 @@ public class BabyReminderService {
                             LocalDateTime lastCompleted = computeLastCompletedBeforeNowFromStart(
                                     start,
                                     updated.frequency,
-                                    safeZone(timezone)
+                                    ReminderEvaluationContext.zoneFor(timezone)
                             );
                             // For ONCE we typically don't set a completedOn (single due date).
                             existing.setCompletedOn(lastCompleted);
                         }
                         // Compute occurrence as days from baby's DOB to startDate
                         if (updated.frequency == Frequency.ONCE) {
-                            LocalDate dob = existing.getBaby().getDob().toInstant()
-                                    .atZone(ZoneId.systemDefault()).toLocalDate();
+                            LocalDate dob = ReminderEvaluationContext.dateOf(existing.getBaby().getDob());
                             LocalDate start = updated.startDate.toLocalDate();
                             int daysBetween = (int) ChronoUnit.DAYS.between(dob, start);
                             existing.setOccurrence(daysBetween);
                         }
                     }
                     existing.setUserCreated(true);
+                    refreshNextDue(existing);
                     return reminderRepository.save(existing);
                 })
                 .orElseThrow(() -> new RuntimeException("Reminder not found with id " + id));
@@ -344,16 +370,94 @@ public class BabyReminderService {
         if (onlyTasks && reminder.getType() != ReminderType.TASK) {
             throw new IllegalStateException("Only reminders of type TASK can perform this action.");
         }
-        // set completed timestamp
-        LocalDateTime now = LocalDateTime.now();
-        reminder.setCompletedOn(now);
+        // set completed timestamp, in the owner's timezone like every other date of the reminder
+        ReminderEvaluationContext ctx = ReminderEvaluationContext.forBaby(reminder.getBaby());
+        reminder.setCompletedOn(LocalDateTime.now(ctx.zone()));
         reminder.setUserCreated(false);
+        refreshNextDue(reminder, ctx);
 
         reminderRepository.save(reminder);
     }
 
-    // conversion helper
+    /**
+     * Recomputes the stored nextDue of every reminder for a baby, e.g. after its date of birth changed.
+     */
+    @Transactional
+    public void refreshNextDueForBaby(Long babyId) {
+        List<BabyReminder> reminders = reminderRepository.findByBabyId(babyId);
+        if (reminders.isEmpty()) return;
+        ReminderEvaluationContext ctx = ReminderEvaluationContext.forBaby(reminders.get(0).getBaby());
+        reminders.forEach(reminder -> refreshNextDue(reminder, ctx));
+        reminderRepository.saveAll(reminders);
+    }
+
+    /**
+     * Nightly maintenance of the stored nextDue column.
+     * DAILY tasks are the only reminders whose due date moves with the calendar, so they are rolled
+     * forward to "today" in their owner's timezone, with one UPDATE per distinct local date (at most a
+     * few, however many timezones are in use); rows that have no stored value yet are backfilled in batches.
+     *
+     * @return number of reminders touched
+     */
+    @Transactional
+    public int rollForwardNextDue() {
+        LocalDate unsetToday = LocalDate.now(ReminderEvaluationContext.zoneFor(null));
+        Map<LocalDate, List<String>> timezonesByToday = new TreeMap<>();
+        timezonesByToday.put(unsetToday, new ArrayList<>());
+        for (String timezone : preferencesRepository.findDistinctTimezones()) {
+            LocalDate today = LocalDate.now(ReminderEvaluationContext.zoneFor(timezone));
+            timezonesByToday.computeIfAbsent(today, d -> new ArrayList<>()).add(timezone);
+        }
+        int touched = 0;
+        for (Map.Entry<LocalDate, List<String>> group : timezonesByToday.entrySet()) {
+            // An empty IN list is not valid SQL; no timezone matches the placeholder
+            List<String> timezones = group.getValue().isEmpty() ? List.of("") : group.getValue();
+            touched += reminderRepository.rollForwardNextDue(ReminderType.TASK, Frequency.DAILY,
+                    group.getKey().atStartOfDay(), timezones, group.getKey().equals(unsetToday));
+        }
+
+        long afterId = 0L;
+        List<BabyReminder> batch;
+        do {
+            batch = reminderRepository.findByNextDueIsNullAndIdGreaterThanOrderByIdAsc(
+                    afterId, Limit.of(NEXT_DUE_BACKFILL_BATCH));
+            // One context per baby in the batch, not per reminder
+            Map<Long, ReminderEvaluationContext> contexts = new HashMap<>();
+            for (BabyReminder reminder : batch) {
+                ReminderEvaluationContext ctx = contexts.computeIfAbsent(reminder.getBaby().getId(),
+                        id -> ReminderEvaluationContext.forBaby(reminder.getBaby()));
+                refreshNextDue(reminder, ctx);
+                afterId = reminder.getId();
+            }
+            reminderRepository.saveAll(batch);
+            touched += batch.size();
+        } while (batch.size() == NEXT_DUE_BACKFILL_BATCH);
+
+        log.info("Rolled forward nextDue for {} reminders", touched);
+        return touched;
+    }
+
+    // Converts reminders of a single baby, sharing one evaluation context
+    private Stream<BabyReminderDto> toDtos(List<BabyReminder> reminders) {
+        if (reminders.isEmpty()) return Stream.empty();
+        return toDtos(reminders, ReminderEvaluationContext.forBaby(reminders.get(0).getBaby()));
+    }
+
+    private Stream<BabyReminderDto> toDtos(List<BabyReminder> reminders, ReminderEvaluationContext ctx) {
+        return reminders.stream().map(reminder -> toDtoWithNextDue(reminder, ctx));
+    }
+
+    // Context of a baby whose "today" is needed before its reminders are queried
+    private ReminderEvaluationContext contextFor(Long babyId) {
+        return ReminderEvaluationContext.forBaby(babyRepository.findWithUserById(babyId).orElse(null));
+    }
+
     private BabyReminderDto toDtoWithNextDue(BabyReminder reminder) {
+        return toDtoWithNextDue(reminder, ReminderEvaluationContext.forBaby(reminder.getBaby()));
+    }
+
+    // conversion helper
+    private BabyReminderDto toDtoWithNextDue(BabyReminder reminder, ReminderEvaluationContext ctx) {
         BabyReminderDto dto = new BabyReminderDto();
         dto.id = reminder.getId();
         dto.babyId = reminder.getBaby() != null ? reminder.getBaby().getId() : null;
@@ -365,19 +469,82 @@ public class BabyReminderService {
         dto.requiresAction = reminder.getRequiresAction();
         dto.notes = reminder.getNotes();
         dto.completedOn = reminder.getCompletedOn();
-        dto.nextDue = estimateNextDue(reminder);
+        dto.nextDue = currentNextDue(reminder, ctx);
         dto.userCreated = reminder.isUserCreated();
         return dto;
     }
 
-    private boolean isCompletedAndNotDue(BabyReminderDto dto) {
+    private void refreshNextDue(BabyReminder reminder) {
+        refreshNextDue(reminder, ReminderEvaluationContext.forBaby(reminder.getBaby()));
+    }
+
+    private void refreshNextDue(BabyReminder reminder, ReminderEvaluationContext ctx) {
+        reminder.setNextDue(estimateNextDue(reminder, ctx));
+    }
+
+    // Prefer the stored value; DAILY tasks that the nightly roll-forward has not reached yet are due today
+    private LocalDateTime currentNextDue(BabyReminder reminder, ReminderEvaluationContext ctx) {
+        LocalDateTime stored = reminder.getNextDue();
+        if (stored == null) {
+            return estimateNextDue(reminder, ctx);
+        }
+        if (reminder.getType() == ReminderType.TASK && reminder.getFrequency() == Frequency.DAILY) {
+            LocalDateTime today = ctx.today().atStartOfDay();
+            if (stored.isBefore(today)) {
+                return today;
+            }
+        }
+        return stored;
+    }
+
+    // Mutually exclusive dashboard range of a reminder that has a due date
+    private ReminderRange classifyRange(BabyReminderDto dto, LocalDate today) {
+        LocalDate dueDate = dto.nextDue.toLocalDate();
+        LocalDate completedOn = dto.completedOn != null ? dto.completedOn.toLocalDate() : null;
+
+        if (!dto.isUserCreated() && completedOn != null
+                && (!dueDate.isAfter(completedOn) || completedOn.isEqual(today))) {
+            return ReminderRange.COMPLETED;
+        } else if (dueDate.isBefore(today)) {
+            return ReminderRange.OVERDUE;
+        } else if (dueDate.isEqual(today)) {
+            return ReminderRange.TODAY;
+        } else if (!dueDate.isAfter(today.plusDays(7))) {
+            return ReminderRange.UPCOMING_WEEK;
+        } else if (!dueDate.isAfter(today.plusDays(30))) {
+            return ReminderRange.UPCOMING_MONTH;
+        }
+        return ReminderRange.FUTURE;
+    }
+
+    // Vaccinations due between today and the end of the medical window (inclusive)
+    private boolean isMedicalDue(BabyReminderDto dto, LocalDate today) {
+        if (dto.type != ReminderType.VACCINATION || dto.nextDue == null) return false;
+        LocalDate d = dto.nextDue.toLocalDate();
+        return !d.isBefore(today) && !d.isAfter(today.plusDays(MEDICAL_WINDOW_DAYS));
+    }
+
+    private boolean isOverdue(BabyReminderDto dto, LocalDateTime now) {
+        return (dto.frequency != Frequency.DAILY || dto.type != ReminderType.MILESTONE)
+                && dto.nextDue != null && dto.nextDue.isBefore(now);
+    }
+
+    // The milestone with the largest occurrence not past the baby's age
+    private Optional<BabyReminder> findCurrentMilestone(List<BabyReminder> reminders, long babyAgeDays) {
+        return reminders.stream()
+                .filter(r -> r.getType() == ReminderType.MILESTONE)
+                .filter(r -> r.getOccurrence() != null && r.getOccurrence() <= babyAgeDays)
+                .max(Comparator.comparingInt(BabyReminder::getOccurrence));
+    }
+
+    private boolean isCompletedAndNotDue(BabyReminderDto dto, LocalDateTime now) {
         if (dto.completedOn == null) return false;
         if (dto.nextDue == null) return false;
-        return dto.nextDue.isAfter(LocalDateTime.now());
+        return dto.nextDue.isAfter(now);
     }
 
-    private LocalDate computeLastCompletionDate(LocalDate dob, LocalDate today, BabyReminder reminder) {
-        if (dob == null || today == null || reminder == null) return null;
+    private LocalDate computeLastCompletionDate(BabyReminder reminder, ReminderEvaluationContext ctx) {
+        if (reminder == null || !ctx.hasDob()) return null;
 
         // Use occurrence when present (days). If missing, fall back to defaults.
         int occurrenceDays = (reminder.getOccurrence() != null) ? reminder.getOccurrence() : 0;
@@ -398,7 +565,9 @@ public class BabyReminderService {
 
         if (occurrenceDays <= 0) return null;
 
-        long daysSinceDob = ChronoUnit.DAYS.between(dob, today);
+        long dob = ctx.dobEpochDay();
+        long today = ctx.todayEpochDay();
+        long daysSinceDob = today - dob;
         if (daysSinceDob <= 0) {
             // baby not born yet or born today -> no past completions
             return null;
@@ -412,32 +581,28 @@ public class BabyReminderService {
             return null;
         }
 
-        LocalDate lastCompletion = dob.plusDays(fullCycles * (long) occurrenceDays);
+        long lastCompletion = dob + fullCycles * occurrenceDays;
 
         // Ensure lastCompletion is strictly before today (we want "past" completion)
-        if (!lastCompletion.isBefore(today)) {
+        if (lastCompletion >= today) {
             // If the calculated lastCompletion equals today, step back one cycle
-            lastCompletion = lastCompletion.minusDays(occurrenceDays);
+            lastCompletion -= occurrenceDays;
         }
 
-        // final sanity: lastCompletion must be >= dob
-        if (lastCompletion.isBefore(dob)) return null;
+        // final sanity: lastCompletion must be >= dob and before today
+        if (lastCompletion < dob || lastCompletion >= today) return null;
 
-        // Return lastCompletion only if it's before today
-        return lastCompletion.isBefore(today) ? lastCompletion : null;
+        return LocalDate.ofEpochDay(lastCompletion);
     }
 
-    private LocalDateTime estimateNextDue(BabyReminder reminder) {
+    /**
+     * Computes a reminder's next due date from its baby's context. Package-private for the benchmarks.
+     */
+    LocalDateTime estimateNextDue(BabyReminder reminder, ReminderEvaluationContext ctx) {
         if (reminder == null) return null;
 
-        // Ensure we have the necessary context
-        LocalDate dob = null;
-        if (reminder.getBaby() != null && reminder.getBaby().getDob() != null) {
-            dob = reminder.getBaby().getDob()
-                    .toInstant()
-                    .atZone(ZoneId.systemDefault())
-                    .toLocalDate();
-        }
+        boolean hasDob = ctx.hasDob();
+        long dob = ctx.dobEpochDay();
 
         // Directly read numeric occurrence (default to 0)
         int days = (reminder.getOccurrence() != null) ? reminder.getOccurrence() : 0;
@@ -448,13 +613,13 @@ public class BabyReminderService {
 
             case MILESTONE -> {
                 // Milestone: only one date based on DOB + occurrence
-                if (dob != null)
-                    return LocalDateTime.of(dob.plusDays(days), LocalTime.MIDNIGHT);
+                if (hasDob)
+                    return ReminderEvaluationContext.startOfDay(dob + days);
             }
 
             case VACCINATION -> {
-                if (dob == null) break;
-                LocalDateTime dueDate = LocalDateTime.of(dob.plusDays(days), LocalTime.MIDNIGHT);
+                if (!hasDob) break;
+                LocalDateTime dueDate = ReminderEvaluationContext.startOfDay(dob + days);
                 if (freq == Frequency.ONCE) {
                     // one-time vaccines do not repeat
                     return dueDate;
@@ -468,25 +633,27 @@ public class BabyReminderService {
                 if (freq == null) break;
                 // Daily tasks are based on current date rather than DOB
                 if (freq == Frequency.DAILY) {
-                    LocalDateTime nextDueDateTime;
-                    LocalDate today = LocalDate.now();
-                    if (completed.toLocalDate().isAfter(today) && reminder.isUserCreated()) {
-                        nextDueDateTime = completed.toLocalDate().plusDays(1).atStartOfDay();
+                    long today = ctx.todayEpochDay();
+                    if (completed == null) {
+                        // Never completed (e.g. baby born today) → due today
+                        return ReminderEvaluationContext.startOfDay(today);
                     }
-                    else if (completed.toLocalDate().isEqual(today)) {
+                    long completedDay = completed.toLocalDate().toEpochDay();
+                    if (completedDay > today && reminder.isUserCreated()) {
+                        return ReminderEvaluationContext.startOfDay(completedDay + 1);
+                    }
+                    if (completedDay == today) {
                         // Completed today → next due tomorrow
-                        nextDueDateTime = LocalDateTime.of(today.plusDays(1), LocalTime.MIDNIGHT);
-                    } else {
-                        // Not completed today → next due today
-                        nextDueDateTime = LocalDateTime.of(today, LocalTime.MIDNIGHT);
+                        return ReminderEvaluationContext.startOfDay(today + 1);
                     }
-                    return nextDueDateTime;
+                    // Not completed today → next due today
+                    return ReminderEvaluationContext.startOfDay(today);
                 }
 
                 // For other repeating frequencies, use DOB + occurrence
-                LocalDateTime base = (dob != null)
-                        ? LocalDateTime.of(dob.plusDays(days), LocalTime.MIDNIGHT)
-                        : LocalDateTime.now().plusDays(days);
+                LocalDateTime base = hasDob
+                        ? ReminderEvaluationContext.startOfDay(dob + days)
+                        : LocalDateTime.now(ctx.zone()).plusDays(days);
 
                 // One-time tasks (Frequency.ONCE) shouldn't repeat
                 if (freq == Frequency.ONCE) {
@@ -511,37 +678,10 @@ public class BabyReminderService {
      * If frequency == ONCE this returns null (no repeating history).
      */
     private LocalDateTime computeLastCompletedBeforeNowFromStart(LocalDateTime start, Frequency freq, ZoneId zoneId) {
-        if (start == null || freq == null || freq == Frequency.ONCE) return null;
-
-        // Use the chosen timezone for "now"
-        ZonedDateTime nowZoned = ZonedDateTime.now(zoneId);
-        LocalDateTime now = nowZoned.toLocalDateTime();
-        LocalDateTime nextOccurrence = start;
-
-        // advance until nextOccurrence is strictly after now
-        while (!nextOccurrence.isAfter(now)) {
-            nextOccurrence = addInterval(nextOccurrence, freq, 1);
-        }
-
-        // lastCompleted = previous occurrence
-        LocalDateTime lastCompleted = addInterval(nextOccurrence, freq, -1);
-
-        // normalize to start of day
-        return lastCompleted.withHour(0).withMinute(0).withSecond(0).withNano(0);
+        // Use the chosen timezone for "now"; the series position is computed directly, not stepped
+        return ReminderRecurrence.lastOccurrenceOnOrBefore(start, freq, LocalDateTime.now(zoneId));
     }
 
-
-    /** addInterval supports negative steps too (so subtraction works). */
-    private LocalDateTime addInterval(LocalDateTime dt, Frequency freq, long step) {
-        return switch (freq) {
-            case DAILY -> dt.plusDays(step);
-            case WEEKLY -> dt.plusWeeks(step);
-            case MONTHLY -> dt.plusMonths(step);
-            case QUARTERLY -> dt.plusMonths(step * 3);
-            case ANNUAL -> dt.plusYears(step);
-            default -> dt;
-        };
-    }
     /**
      * Apply frequency-based offset to a base date (usually completedOn).
      */
@@ -555,13 +695,4 @@ public class BabyReminderService {
             default -> base;
         };
     }
-
-    private ZoneId safeZone(String timezone) {
-        try {
-            return (timezone != null && !timezone.isBlank()) ? ZoneId.of(timezone)
-                    : ZoneId.of("America/Edmonton");
-        } catch (DateTimeException e) {
-            return ZoneId.of("America/Edmonton");
-        }
-    }
 }
@@ -0,0 +1,126 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.JobCheckpoint;
+import com.nestuity.service.entity.SupplyType;
+import com.nestuity.service.repository.InventoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Nightly diaper decrement, split into one partition per timezone value and local date.
+ * <p>
+ * At each cohort's local midnight the day that just ended is consumed, so a household that reported that day's
+ * diaper usage as events (see {@link UsageEventService}) can be told apart and is not decremented a second time.
+ * <p>
+ * Each partition is a single statement that writes the day into the consumption ledger and decrements only the
+ * households whose ledger row was new, committed together with the partition's checkpoint. A rerun or a second
+ * instance therefore never decrements a day twice, and a crash loses only the partition in flight: every run
+ * first registers its partitions, then works through all unfinished ones, including those a failed run left.
+ * Partitions are leased one at a time through {@link SchedulerLockService}, so several instances share the work.
+ */
+@Slf4j
+@Service
+public class DiaperConsumptionService {
+
+    public static final String JOB_NAME = "diaper-consumption";
+
+    // How far back unfinished partitions are picked up again
+    static final Duration RESUME_WINDOW = Duration.ofDays(2);
+
+    // One partition is a single statement; the lease only has to outlive that
+    static final Duration PARTITION_LEASE = Duration.ofMinutes(10);
+
+    private static final String KEY_SEPARATOR = "|";
+
+    private final InventoryRepository inventoryRepository;
+    private final JobCheckpointService checkpointService;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLockService schedulerLock;
+    private final HouseholdUsageCache householdUsageCache;
+    private final SupplyTypeService supplyTypeService;
+
+    public DiaperConsumptionService(InventoryRepository inventoryRepository,
+                                    JobCheckpointService checkpointService,
+                                    TransactionTemplate transactionTemplate,
+                                    SchedulerLockService schedulerLock,
+                                    HouseholdUsageCache householdUsageCache,
+                                    SupplyTypeService supplyTypeService) {
+        this.inventoryRepository = inventoryRepository;
+        this.checkpointService = checkpointService;
+        this.transactionTemplate = transactionTemplate;
+        this.schedulerLock = schedulerLock;
+        this.householdUsageCache = householdUsageCache;
+        this.supplyTypeService = supplyTypeService;
+    }
+
+    /**
+     * Applies the consumption of the day that just ended for the cohort, and any unfinished partitions of earlier
+     * runs.
+     *
+     * @return households decremented by this call
+     */
+    public int consume(TimezoneCohorts.Cohort cohort) {
+        for (String timezone : cohort.timezones()) {
+            checkpointService.start(JOB_NAME, runKey(cohort.localDate(timezone).minusDays(1), timezone));
+        }
+        if (cohort.includeUnset()) {
+            checkpointService.start(JOB_NAME, runKey(cohort.localDate("").minusDays(1), ""));
+        }
+
+        int consumed = 0;
+        for (JobCheckpoint checkpoint : checkpointService.unfinished(JOB_NAME, LocalDateTime.now().minus(RESUME_WINDOW))) {
+            // Each partition is its own shard: instances ticking together split the partitions between them
+            String lockName = SchedulerLockService.shardName(JOB_NAME, checkpoint.getRunKey());
+            if (!schedulerLock.tryAcquire(lockName, PARTITION_LEASE)) {
+                continue;
+            }
+            try {
+                consumed += transactionTemplate.execute(status -> consumePartition(checkpoint));
+                // The statement bypasses the entity listeners, and does not say which households it touched
+                householdUsageCache.evictAll();
+            } catch (RuntimeException e) {
+                // Rolled back on its own; the checkpoint stays open and the next tick retries it
+                log.error("Diaper consumption partition {} failed: {}", checkpoint.getRunKey(), e.getMessage(), e);
+            } finally {
+                schedulerLock.release(lockName);
+            }
+        }
+        return consumed;
+    }
+
+    private int consumePartition(JobCheckpoint checkpoint) {
+        String runKey = checkpoint.getRunKey();
+        int separator = runKey.indexOf(KEY_SEPARATOR);
+        LocalDate date = LocalDate.parse(runKey.substring(0, separator));
+        String timezone = runKey.substring(separator + 1);
+
+        // Without a diaper type nobody stocks diapers, and the partition has nothing to take off
+        Integer diapers = supplyTypeService.find(SupplyTypeService.DIAPERS).map(SupplyType::getId).orElse(null);
+        int consumed = 0;
+        if (diapers != null) {
+            consumed = timezone.isEmpty()
+                    ? consumeDailyDiapers(diapers, List.of(""), true, date)
+                    : consumeDailyDiapers(diapers, List.of(timezone), false, date);
+        }
+        checkpointService.complete(checkpoint);
+        log.info("Diaper consumption {} applied to {} household(s)", runKey, consumed);
+        return consumed;
+    }
+
+    // Households that report usage are decremented by their learned daily usage, the others by their babies' norms
+    private int consumeDailyDiapers(Integer diapers, List<String> timezones, boolean includeUnset, LocalDate date) {
+        return inventoryRepository.consumeDailyDiapers(diapers, timezones, includeUnset, date,
+                SupplyUsageEstimator.ALPHA, SupplyUsageEstimator.MIN_OBSERVED_DAYS, SupplyUsageEstimator.MAX_IDLE_DAYS);
+    }
+
+    // e.g. "2026-10-18|America/Edmonton", or "2026-10-18|" for users without a timezone
+    static String runKey(LocalDate date, String timezone) {
+        return date + KEY_SEPARATOR + timezone;
+    }
+}
@@ -0,0 +1,39 @@
+package com.nestuity.service.service;
+
+/**
+ * One household's consumption of a supply: the parent's inventory row against the household's daily usage, learned
+ * from reported usage when there is enough of it and otherwise the summed daily usage of all their babies. Twins
+ * share one diaper row, so days left is only correct at this level.
+ *
+ * @param hasInventory      whether the parent has a row for the supply; the quantities are zero when not
+ * @param remainingSingles  singles left in the inventory row
+ * @param dailyUsage        learned daily usage, or the summed daily usage of every baby of the parent
+ * @param unitConversion    singles per box
+ * @param preferredSupplyMin days of supply the parent wants to keep on hand
+ * @param babyCount         babies counted in {@code dailyUsage}
+ */
+public record HouseholdUsage(Long userId,
+                             String supplyName,
+                             boolean hasInventory,
+                             double remainingSingles,
+                             double dailyUsage,
+                             double unitConversion,
+                             int preferredSupplyMin,
+                             int babyCount) {
+
+    // Total # of diapers / # of diapers the household uses daily
+    public int daysLeft() {
+        return dailyUsage > 0 && remainingSingles > 0
+                ? (int) Math.floor(remainingSingles / dailyUsage)
+                : 0;
+    }
+
+    // (Min days of supply - days left) * household daily usage / singles per box, rounded up to whole boxes
+    public int recommendedPurchase() {
+        if (preferredSupplyMin <= 0 || unitConversion <= 0) {
+            return 0;
+        }
+        int boxes = (int) Math.ceil(((double) (preferredSupplyMin - daysLeft()) * dailyUsage) / unitConversion);
+        return Math.max(0, boxes);
+    }
+}
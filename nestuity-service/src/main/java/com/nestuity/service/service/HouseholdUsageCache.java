@@ -0,0 +1,73 @@
+package com.nestuity.service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Computed {@link HouseholdUsage} per (user, supply). Entries are evicted when the household's babies or
+ * inventory change (see {@link HouseholdUsageInvalidator}); the TTL bounds staleness for changes made by
+ * other instances or by bulk statements that bypass the entity lifecycle.
+ * <p>
+ * Has no dependencies of its own so the JPA entity listener can use it without a cycle through the
+ * entity manager factory.
+ */
+@Component
+public class HouseholdUsageCache {
+
+    static final int MAX_ENTRIES = 10_000;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final Clock clock;
+
+    public HouseholdUsageCache(@Value("${inventory.household-usage.cache-ttl:PT5M}") Duration ttl) {
+        this(ttl, Clock.systemUTC());
+    }
+
+    HouseholdUsageCache(Duration ttl, Clock clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public HouseholdUsage get(Long userId, String supplyName, Supplier<HouseholdUsage> loader) {
+        Key key = new Key(userId, supplyName.toLowerCase(Locale.ROOT));
+        Instant now = clock.instant();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt().isAfter(now)) {
+            return entry.usage();
+        }
+        HouseholdUsage usage = loader.get();
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.values().removeIf(e -> !e.expiresAt().isAfter(now));
+        }
+        entries.put(key, new Entry(usage, now.plus(ttl)));
+        return usage;
+    }
+
+    // Every supply of one household
+    public void evictUser(Long userId) {
+        entries.keySet().removeIf(key -> key.userId().equals(userId));
+    }
+
+    public void evictAll() {
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private record Key(Long userId, String supplyName) {
+    }
+
+    private record Entry(HouseholdUsage usage, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.Baby;
+import com.nestuity.service.entity.Inventory;
+import com.nestuity.service.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * JPA entity listener on {@link Baby} and {@link Inventory}: any insert, update or delete evicts the owning
+ * household from the {@link HouseholdUsageCache} and marks its inventory forecasts stale. Native statements call
+ * {@link #evictAfterCommit} themselves. Registered as a bean so Hibernate's Spring bean container injects the cache.
+ * <p>
+ * Eviction waits for the commit when a transaction is active, so a concurrent read cannot re-cache the
+ * pre-commit values. The forecast service is looked up lazily: it depends on repositories, which the entity
+ * manager factory creating this listener cannot wait for.
+ */
+@Component
+public class HouseholdUsageInvalidator {
+
+    private final HouseholdUsageCache cache;
+    private final ObjectProvider<InventoryForecastService> forecastService;
+
+    public HouseholdUsageInvalidator(HouseholdUsageCache cache, ObjectProvider<InventoryForecastService> forecastService) {
+        this.cache = cache;
+        this.forecastService = forecastService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        User owner = switch (entity) {
+            case Baby baby -> baby.getUser();
+            case Inventory inventory -> inventory.getUser();
+            default -> null;
+        };
+        if (owner != null && owner.getId() != null) {
+            evictAfterCommit(owner.getId());
+        }
+    }
+
+    // For writes that bypass the entity lifecycle, e.g. native UPDATE statements
+    public void evictAfterCommit(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    householdChanged(userId);
+                }
+            });
+        } else {
+            householdChanged(userId);
+        }
+    }
+
+    private void householdChanged(Long userId) {
+        cache.evictUser(userId);
+        forecastService.ifAvailable(forecasts -> forecasts.markStale(List.of(userId)));
+    }
+}
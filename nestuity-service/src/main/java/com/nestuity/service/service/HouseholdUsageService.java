@@ -0,0 +1,75 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.Inventory;
+import com.nestuity.service.entity.SupplyType;
+import com.nestuity.service.entity.SupplyUsageEstimate;
+import com.nestuity.service.repository.BabyRepository;
+import com.nestuity.service.repository.InventoryRepository;
+import com.nestuity.service.repository.SupplyUsageEstimateRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Household-level supply usage: days left and recommended purchase per (user, supply), computed once and cached
+ * until the babies or the inventory change. Daily usage is the household's learned consumption (see
+ * {@link SupplyUsageEstimator}) once it reports enough usage, and the supply type's default until then: the summed
+ * daily usage of the parent's babies for diapers, a per-baby rate for other supplies (see
+ * {@link SupplyTypeService#defaultDailyUsage}). Both are resolved on a cache miss, so a request pays nothing extra
+ * for the learned estimate.
+ */
+@Service
+public class HouseholdUsageService {
+
+    private final BabyRepository babyRepository;
+    private final InventoryRepository inventoryRepository;
+    private final SupplyUsageEstimateRepository estimateRepository;
+    private final SupplyTypeService supplyTypeService;
+    private final HouseholdUsageCache cache;
+
+    public HouseholdUsageService(BabyRepository babyRepository,
+                                 InventoryRepository inventoryRepository,
+                                 SupplyUsageEstimateRepository estimateRepository,
+                                 SupplyTypeService supplyTypeService,
+                                 HouseholdUsageCache cache) {
+        this.babyRepository = babyRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.estimateRepository = estimateRepository;
+        this.supplyTypeService = supplyTypeService;
+        this.cache = cache;
+    }
+
+    public HouseholdUsage usageFor(Long userId, String supplyName) {
+        return cache.get(userId, supplyName, () -> compute(userId, supplyName));
+    }
+
+    // Bypasses the cache, which another instance's writes do not evict, for results that are stored
+    public HouseholdUsage load(Long userId, String supplyName) {
+        return compute(userId, supplyName);
+    }
+
+    // Three queries: the babies' summed usage, the supply's inventory row by (user, type) and its learned usage.
+    // The type itself is cached by SupplyTypeService
+    private HouseholdUsage compute(Long userId, String supplyName) {
+        BabyRepository.HouseholdDailyUsage babies = babyRepository.sumDailyUsageByUserId(userId);
+        SupplyType type = supplyTypeService.find(supplyName).orElse(null);
+        Optional<Inventory> inventory = (type != null)
+                ? inventoryRepository.findFirstByUserIdAndSupplyTypeIdOrderByIdAsc(userId, type.getId())
+                : Optional.empty();
+        SupplyUsageEstimate estimate = estimateRepository
+                .findByUserIdAndSupplyName(userId, SupplyTypeService.normalize(supplyName))
+                .orElse(null);
+        double dailyUsage = SupplyUsageEstimator.dailyUsageOn(estimate, LocalDate.now())
+                .orElse(SupplyTypeService.defaultDailyUsage(type, babies.getDailyUsage(), babies.getBabyCount()));
+        return new HouseholdUsage(
+                userId,
+                supplyName,
+                inventory.isPresent(),
+                inventory.map(Inventory::getTotalSingleQuantity).orElse(0.0),
+                dailyUsage,
+                inventory.map(Inventory::getUnitConversion).orElse(0.0),
+                inventory.map(Inventory::getPreferredSupplyMin).orElse(0),
+                (int) babies.getBabyCount());
+    }
+}
@@ -0,0 +1,187 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.SupplyType;
+import com.nestuity.service.repository.InventoryForecastRepository;
+import com.nestuity.service.repository.InventoryForecastRepository.DueCrossing;
+import com.nestuity.service.repository.InventoryForecastRepository.StaleForecast;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps each household supply's projected depletion date and next reminder crossing in {@code inventory_forecast}.
+ * <p>
+ * Changes to a household's babies, inventory or reported usage only mark its forecasts stale; a scheduled refresh
+ * recomputes the stale rows from {@link HouseholdUsageService}. The nightly diaper decrement marks the diaper
+ * forecasts of the households it decremented in the same statement, because what it takes off need not match the
+ * rate the forecast projects with, and it stops at zero. The nightly notifier then reads only the crossings due in
+ * the cohort's local date, and claims each one by moving it to the next threshold, so a reminder goes out once
+ * however many instances run it.
+ */
+@Slf4j
+@Service
+public class InventoryForecastService {
+
+    // Days left that trigger a reminder, largest first
+    public static final List<Integer> REMINDER_DAYS = List.of(7, 5, 3, 2, 1, 0);
+
+    static final String REFRESH_LOCK = "inventory-forecast-refresh";
+    static final Duration REFRESH_LEASE = Duration.ofMinutes(10);
+
+    // Stale rows per page, and pages per run, so one run cannot hold the lease indefinitely
+    static final int REFRESH_BATCH_SIZE = 500;
+    static final int MAX_BATCHES_PER_RUN = 20;
+
+    private final InventoryForecastRepository forecastRepository;
+    private final HouseholdUsageService householdUsageService;
+    private final SchedulerLockService schedulerLock;
+    private final SupplyTypeService supplyTypeService;
+    private final Clock clock;
+
+    public InventoryForecastService(InventoryForecastRepository forecastRepository,
+                                    HouseholdUsageService householdUsageService,
+                                    SchedulerLockService schedulerLock,
+                                    SupplyTypeService supplyTypeService) {
+        this(forecastRepository, householdUsageService, schedulerLock, supplyTypeService, Clock.systemUTC());
+    }
+
+    InventoryForecastService(InventoryForecastRepository forecastRepository,
+                             HouseholdUsageService householdUsageService,
+                             SchedulerLockService schedulerLock,
+                             SupplyTypeService supplyTypeService,
+                             Clock clock) {
+        this.forecastRepository = forecastRepository;
+        this.householdUsageService = householdUsageService;
+        this.schedulerLock = schedulerLock;
+        this.supplyTypeService = supplyTypeService;
+        this.clock = clock;
+    }
+
+    /**
+     * Marks the households' forecasts for recomputation. Runs in its own transaction, so it can be called after
+     * the commit of the change that caused it.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markStale(Collection<Long> userIds) {
+        if (!userIds.isEmpty()) {
+            forecastRepository.markStale(userIds);
+        }
+    }
+
+    // Households that existed before forecasts did get theirs on the first start
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedMissing() {
+        int seeded = forecastRepository.seedMissing();
+        if (seeded > 0) {
+            log.info("Queued {} inventory forecast(s) for their first computation", seeded);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.forecast.refresh-interval-ms:60000}")
+    public void refreshStale() {
+        schedulerLock.runExclusively(REFRESH_LOCK, REFRESH_LEASE, this::refreshBatches);
+    }
+
+    // Recomputes stale forecasts page by page; returns how many were stored or removed
+    int refreshBatches() {
+        int refreshed = 0;
+        for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+            List<StaleForecast> stale = forecastRepository.findStale(REFRESH_BATCH_SIZE);
+            for (StaleForecast forecast : stale) {
+                try {
+                    refreshed += refresh(forecast);
+                } catch (RuntimeException e) {
+                    // Stays stale and is retried by the next run
+                    log.error("Inventory forecast {} refresh failed: {}", forecast.getId(), e.getMessage(), e);
+                }
+            }
+            if (stale.size() < REFRESH_BATCH_SIZE) {
+                break;
+            }
+        }
+        return refreshed;
+    }
+
+    private int refresh(StaleForecast forecast) {
+        HouseholdUsage usage = householdUsageService.load(forecast.getUserId(), forecast.getSupplyName());
+        if (!usage.hasInventory()) {
+            return forecastRepository.deleteIfUnchanged(forecast.getId(), forecast.getRevision());
+        }
+        LocalDate today = LocalDate.now(clock.withZone(ReminderEvaluationContext.zoneFor(forecast.getTimezone())));
+        LocalDate depletion = depletionDate(usage, today);
+        Crossing next = nextCrossing(depletion, today, forecast.getNotifiedOn());
+        return forecastRepository.storeProjection(forecast.getId(), forecast.getRevision(), depletion,
+                next != null ? next.date() : null, next != null ? next.daysLeft() : null);
+    }
+
+    /**
+     * Claims the diaper crossings due in the cohort and returns the households to remind. Crossings of households
+     * without notifications are claimed too, so they do not stay due.
+     */
+    public List<DueCrossing> dueReminders(TimezoneCohorts.Cohort cohort) {
+        List<DueCrossing> reminders = new ArrayList<>();
+        // Nobody has stocked diapers yet, so nobody has a diaper forecast
+        Integer diapers = supplyTypeService.find(SupplyTypeService.DIAPERS).map(SupplyType::getId).orElse(null);
+        if (diapers == null) {
+            return reminders;
+        }
+        for (String timezone : cohort.timezones()) {
+            claim(forecastRepository.findDueCrossings(diapers, List.of(timezone), false, cohort.localDate(timezone)),
+                    cohort.localDate(timezone), reminders);
+        }
+        if (cohort.includeUnset()) {
+            claim(forecastRepository.findDueCrossings(diapers, List.of(""), true, cohort.localDate("")),
+                    cohort.localDate(""), reminders);
+        }
+        return reminders;
+    }
+
+    private void claim(List<DueCrossing> due, LocalDate localDate, List<DueCrossing> reminders) {
+        for (DueCrossing crossing : due) {
+            // Past today's threshold: the next one is the first still ahead tomorrow
+            Crossing next = nextCrossing(crossing.getDepletionDate(), localDate.plusDays(1), null);
+            int claimed = forecastRepository.advanceCrossing(crossing.getForecastId(), crossing.getNextCrossingDate(),
+                    next != null ? next.date() : null, next != null ? next.daysLeft() : null, localDate);
+            if (claimed == 1 && crossing.getNotify()) {
+                reminders.add(crossing);
+            }
+        }
+    }
+
+    // Local date the supply runs out, or null when the household uses none of it
+    static LocalDate depletionDate(HouseholdUsage usage, LocalDate today) {
+        return usage.dailyUsage() > 0 ? today.plusDays(usage.daysLeft()) : null;
+    }
+
+    /**
+     * The earliest threshold crossing on or after {@code from}, skipping one on {@code from} itself when a
+     * reminder already went out that day. Null when nothing is being used or no threshold is ahead.
+     */
+    static Crossing nextCrossing(LocalDate depletion, LocalDate from, LocalDate notifiedOn) {
+        if (depletion == null) {
+            return null;
+        }
+        for (int daysLeft : REMINDER_DAYS) {
+            LocalDate date = depletion.minusDays(daysLeft);
+            if (date.isBefore(from) || (date.equals(from) && from.equals(notifiedOn))) {
+                continue;
+            }
+            return new Crossing(date, daysLeft);
+        }
+        return null;
+    }
+
+    record Crossing(LocalDate date, int daysLeft) {
+    }
+}
@@ -1,22 +1,40 @@
 package com.nestuity.service.service;
 
+import com.nestuity.service.dto.InventorySummaryResponse;
 import com.nestuity.service.entity.Inventory;
+import com.nestuity.service.entity.SupplyType;
 import com.nestuity.service.entity.User;
+import com.nestuity.service.exception.ResourceNotFoundException;
 import com.nestuity.service.repository.InventoryRepository;
+import com.nestuity.service.repository.InventoryRepository.SummaryRow;
+import com.nestuity.service.repository.InventoryRepository.SummaryVersion;
+import com.nestuity.service.repository.InventoryRepository.UpdatedItem;
 import com.nestuity.service.repository.UserRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class InventoryService {
 
     private final InventoryRepository inventoryRepository;
     private final UserRepository userRepository;
+    private final HouseholdUsageInvalidator householdUsageInvalidator;
+    private final SupplyTypeService supplyTypeService;
 
-    public InventoryService(InventoryRepository inventoryRepository, UserRepository userRepository) {
+    public InventoryService(InventoryRepository inventoryRepository, UserRepository userRepository,
+                            HouseholdUsageInvalidator householdUsageInvalidator,
+                            SupplyTypeService supplyTypeService) {
         this.inventoryRepository = inventoryRepository;
         this.userRepository = userRepository;
+        this.householdUsageInvalidator = householdUsageInvalidator;
+        this.supplyTypeService = supplyTypeService;
     }
 
     // ---------------- CREATE ----------------
@@ -25,6 +43,7 @@ public class InventoryService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
         inventory.setUser(user);
+        inventory.setSupplyTypeId(supplyTypeService.resolve(inventory.getSupplyName()).getId());
         return inventoryRepository.save(inventory);
     }
 
@@ -53,39 +72,60 @@ public class InventoryService {
         if (!userRepository.existsById(userId)) {
             throw new RuntimeException("User not found with ID: " + userId);
         }
-        return inventoryRepository.findByUserIdAndSupplyNameIgnoreCase(userId, supplyName)
-                .orElseThrow(() -> new RuntimeException(
-                        "No inventory item found for user ID " + userId + " with supply '" + supplyName + "'"
-                ));
+        return supplyTypeService.find(supplyName)
+                .flatMap(type -> inventoryRepository.findFirstByUserIdAndSupplyTypeIdOrderByIdAsc(userId, type.getId()))
+                .orElseThrow(() -> noSuchItem(userId, supplyName));
+    }
+
+    /**
+     * Version of a user's inventory summary, for use as its ETag: it changes whenever an item, a quantity, a baby
+     * or the household's reported usage changes, and at midnight, when days left move on.
+     */
+    public String getSummaryVersion(Long userId) {
+        SummaryVersion version = inventoryRepository.findSummaryVersion(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        return version.getItemCount() + "-" + version.getIdSum() + "-" + version.getVersionSum() + "-"
+                + version.getForecastRevisionSum() + "-" + LocalDate.now();
+    }
+
+    // Every item of a user with its days left, from one query. Daily usage is worked out as in HouseholdUsageService
+    public InventorySummaryResponse getInventorySummary(Long userId) {
+        LocalDate today = LocalDate.now();
+        List<InventorySummaryResponse.Item> items = inventoryRepository.findSummaryRows(userId).stream()
+                .map(row -> summaryItem(userId, row, today))
+                .toList();
+        return new InventorySummaryResponse(userId, today, items);
+    }
+
+    private static InventorySummaryResponse.Item summaryItem(Long userId, SummaryRow row, LocalDate today) {
+        double dailyUsage = SupplyUsageEstimator.dailyUsageOn(row.getEstimateStartedOn(), row.getEstimateCurrentDay(),
+                        row.getEstimateCurrentDayTotal(), row.getEstimateDailyUsage(), row.getEstimateObservedDays(),
+                        today)
+                .orElse(SupplyTypeService.defaultDailyUsage(row.getSupplyType(), row.getDefaultDailyUsage(),
+                        row.getBabiesDailyUsage(), row.getBabyCount()));
+        HouseholdUsage usage = new HouseholdUsage(userId, row.getSupplyName(), true,
+                row.getTotalSingleQuantity(), dailyUsage, row.getUnitConversion(), row.getPreferredSupplyMin(),
+                (int) row.getBabyCount());
+        return new InventorySummaryResponse.Item(row.getInventoryId(), row.getSupplyName(), row.getSupplyTypeId(),
+                row.getTotalSingleQuantity(), row.getTotalUnitQuantity(), row.getUnitConversion(),
+                row.getPreferredSupplyMin(), dailyUsage, usage.daysLeft(), usage.recommendedPurchase());
     }
 
     // Get a user's total quantity of a specific supply using their USER ID and SUPPLY NAME
     public double getTotalItemQuantity(Long userId, String... supplyNames) {
         List<Inventory> inventoryList = getInventoryByUserId(userId);
+        Set<Integer> supplyTypeIds = supplyTypeIdsOf(supplyNames);
         return inventoryList.stream()
-                .filter(item -> {
-                    for (String name : supplyNames) {
-                        if (item.getSupplyName().equalsIgnoreCase(name)) {
-                            return true;
-                        }
-                    }
-                    return false;
-                })
+                .filter(item -> supplyTypeIds.contains(item.getSupplyTypeId()))
                 .mapToDouble(Inventory::getTotalSingleQuantity)
                 .sum();
     }
     // Get a user's total quantity of a specific supply using their USER ID and SUPPLY NAME
     public double getTotalUnitQuantity(Long userId, String... supplyNames) {
         List<Inventory> inventoryList = getInventoryByUserId(userId);
+        Set<Integer> supplyTypeIds = supplyTypeIdsOf(supplyNames);
         return inventoryList.stream()
-                .filter(item -> {
-                    for (String name : supplyNames) {
-                        if (item.getSupplyName().equalsIgnoreCase(name)) {
-                            return true;
-                        }
-                    }
-                    return false;
-                })
+                .filter(item -> supplyTypeIds.contains(item.getSupplyTypeId()))
                 .mapToDouble(Inventory::getTotalUnitQuantity)
                 .sum();
     }
@@ -93,43 +133,66 @@ public class InventoryService {
     // ---------------- UPDATE ----------------
 
     // Set the quantity of the TOTAL SINGLE QUANTITY
-    public Inventory setSingleItemQuantity(Long userId, String supplyName, double quantity) {
-        Inventory item = getInventoryItemByUserAndSupplyName(userId, supplyName);
-        item.setTotalSingleQuantity(quantity);
-        return inventoryRepository.save(item);
+    @Transactional
+    public UpdatedItem setSingleItemQuantity(Long userId, String supplyName, double quantity) {
+        return updateSingleItemQuantity(userId, supplyName, quantity);
     }
 
     // Set the quantity of the TOTAL UNIT QUANITTY
-    public Inventory setUnitQuantity(Long userId, String supplyName, double quantity) {
-        Inventory item = getInventoryItemByUserAndSupplyName(userId, supplyName);
-        item.setTotalUnitQuantity(quantity);
-        return inventoryRepository.save(item);
+    @Transactional
+    public UpdatedItem setUnitQuantity(Long userId, String supplyName, double quantity) {
+        return updateUnitItemQuantity(userId, supplyName, quantity);
+    }
+
+    // Update the quantity of the TOTAL SINGLE QUANTITY (and the boxes with it) in one statement
+    @Transactional
+    public UpdatedItem updateSingleItemQuantity(Long userId, String supplyName, Double newQuantity) {
+        UpdatedItem item = inventoryRepository.setSingleQuantity(userId, supplyTypeIdOf(userId, supplyName), newQuantity)
+                .orElseThrow(() -> noSuchItem(userId, supplyName));
+        householdUsageInvalidator.evictAfterCommit(userId);
+        return item;
     }
 
-    // Update the quantity of the TOTAL SINGLE QUANTITY
-    public Inventory updateSingleItemQuantity(Long userId, String supplyName, Double newQuantity) {
-        Inventory item = getInventoryItemByUserAndSupplyName(userId, supplyName);
-        // Update the total single quantity
-        item.setTotalSingleQuantity(newQuantity);
-        // Update the boxes as well
-        double unitConversion = item.getUnitConversion();
-        item.setTotalUnitQuantity(unitConversion > 0 ? newQuantity / unitConversion : 0);
+    // Add (or, when negative, take away) single items without reading them first, so concurrent
+    // updates from several devices all count. Never goes below zero; the boxes are recalculated too
+    @Transactional
+    public UpdatedItem adjustSingleItemQuantity(Long userId, String supplyName, double delta) {
+        UpdatedItem item = inventoryRepository.addSingleQuantity(userId, supplyTypeIdOf(userId, supplyName), delta)
+                .orElseThrow(() -> noSuchItem(userId, supplyName));
+        householdUsageInvalidator.evictAfterCommit(userId);
+        return item;
+    }
 
-        return inventoryRepository.save(item);
+    // Update the quantity of the TOTAL UNIT QUANTITY (and the single items with it) in one statement, so a
+    // concurrent update cannot be lost between a read and a save
+    @Transactional
+    public UpdatedItem updateUnitItemQuantity(Long userId, String supplyName, Double newUnitQuantity) {
+        UpdatedItem item = inventoryRepository.setUnitQuantity(userId, supplyTypeIdOf(userId, supplyName), newUnitQuantity)
+                .orElseThrow(() -> noSuchItem(userId, supplyName));
+        householdUsageInvalidator.evictAfterCommit(userId);
+        return item;
     }
+    // Helper Methods
 
-    // Update the quantity of the TOTAL UNIT QUANTITY
-    public Inventory updateUnitItemQuantity(Long userId, String supplyName, Double newUnitQuantity) {
-        Inventory item = getInventoryItemByUserAndSupplyName(userId, supplyName);
-        // Update the total amount of boxes
-        item.setTotalUnitQuantity(newUnitQuantity);
-        // Update the total amount of single diapers
-        double unitConversion = item.getUnitConversion();
-        item.setTotalSingleQuantity(item.getUnitConversion() > 0 ? newUnitQuantity * unitConversion: 0);
+    // A supply nobody has stocked has no type, so no user can have a row for it
+    private Integer supplyTypeIdOf(Long userId, String supplyName) {
+        return supplyTypeService.find(supplyName)
+                .map(SupplyType::getId)
+                .orElseThrow(() -> noSuchItem(userId, supplyName));
+    }
 
-        return inventoryRepository.save(item);
+    private Set<Integer> supplyTypeIdsOf(String... supplyNames) {
+        return Arrays.stream(supplyNames)
+                .map(supplyTypeService::find)
+                .flatMap(Optional::stream)
+                .map(SupplyType::getId)
+                .collect(Collectors.toSet());
     }
-    // Helper Method
+
+    private static RuntimeException noSuchItem(Long userId, String supplyName) {
+        return new RuntimeException("No inventory item found for user ID " + userId + " with supply '" + supplyName + "'");
+    }
+
     private void recalcQuantities(Inventory inv) {
         double conv = inv.getUnitConversion();
         if (conv > 0) {
@@ -145,6 +208,7 @@ public class InventoryService {
                 .orElseThrow(() -> new RuntimeException("Inventory not found with ID: " + inventoryId));
 
         existing.setSupplyName(details.getSupplyName());
+        existing.setSupplyTypeId(supplyTypeService.resolve(details.getSupplyName()).getId());
         existing.setPreferredSupplyMin(details.getPreferredSupplyMin());
 
         // Update quantities
@@ -172,4 +236,5 @@ public class InventoryService {
         }
         return false;
     }
+
 }
@@ -0,0 +1,55 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.JobCheckpoint;
+import com.nestuity.service.repository.JobCheckpointRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keyset checkpoints for batch jobs. A job calls {@link #start} once per run, {@link #advance} after each
+ * fully processed page and {@link #complete} at the end; a rerun with the same key resumes where it stopped.
+ */
+@Service
+public class JobCheckpointService {
+
+    private final JobCheckpointRepository checkpointRepository;
+
+    public JobCheckpointService(JobCheckpointRepository checkpointRepository) {
+        this.checkpointRepository = checkpointRepository;
+    }
+
+    public JobCheckpoint start(String jobName, String runKey) {
+        return checkpointRepository.findByJobNameAndRunKey(jobName, runKey)
+                .orElseGet(() -> create(jobName, runKey));
+    }
+
+    /** Runs of a job that were started since {@code since} but never completed, oldest first. */
+    public List<JobCheckpoint> unfinished(String jobName, LocalDateTime since) {
+        return checkpointRepository.findByJobNameAndCompletedFalseAndUpdatedAtAfterOrderByIdAsc(jobName, since);
+    }
+
+    public JobCheckpoint advance(JobCheckpoint checkpoint, long lastProcessedId, int processed) {
+        checkpoint.setLastProcessedId(lastProcessedId);
+        checkpoint.setProcessedCount(checkpoint.getProcessedCount() + processed);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        return checkpointRepository.save(checkpoint);
+    }
+
+    public JobCheckpoint complete(JobCheckpoint checkpoint) {
+        checkpoint.setCompleted(true);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        return checkpointRepository.save(checkpoint);
+    }
+
+    // Another instance may start the same run at the same moment; the unique key lets exactly one insert win
+    private JobCheckpoint create(String jobName, String runKey) {
+        try {
+            return checkpointRepository.saveAndFlush(new JobCheckpoint(jobName, runKey));
+        } catch (DataIntegrityViolationException e) {
+            return checkpointRepository.findByJobNameAndRunKey(jobName, runKey).orElseThrow(() -> e);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.InputStreamReader;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -19,6 +20,12 @@ import java.util.List;
 public class PriceScraperSchedulerService {
     private static final Logger log = LoggerFactory.getLogger(PriceScraperSchedulerService.class);
 
+    static final String LOCK_NAME = "price-scraper";
+    // Longer than a full scrape; released as soon as the scrape ends
+    private static final Duration LEASE = Duration.ofHours(6);
+
+    private final SchedulerLockService schedulerLock;
+
     @Value("${scraper.python.path:/usr/bin/python3}")
     private String pythonPath;
 
@@ -28,6 +35,10 @@ public class PriceScraperSchedulerService {
     @Value("${scraper.enabled:true}")
     private boolean scraperEnabled;
 
+    public PriceScraperSchedulerService(SchedulerLockService schedulerLock) {
+        this.schedulerLock = schedulerLock;
+    }
+
     // Getters for admin controller
     public String getPythonPath() {
         return pythonPath;
@@ -59,6 +70,13 @@ public class PriceScraperSchedulerService {
             return;
         }
 
+        // Only one instance in the cluster scrapes; the others skip this run
+        if (!schedulerLock.runExclusively(LOCK_NAME, LEASE, this::scrape)) {
+            log.info("Price scraper is already running on another instance. Skipping execution.");
+        }
+    }
+
+    private void scrape() {
         log.info("========================================");
         log.info("Starting scheduled price scraper");
         log.info("========================================");
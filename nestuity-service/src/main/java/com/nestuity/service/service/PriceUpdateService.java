@@ -1,34 +1,68 @@
 package com.nestuity.service.service;
 
+import com.nestuity.service.dto.PriceUpdateBatchResponse;
 import com.nestuity.service.dto.PriceUpdateRequest;
 import com.nestuity.service.dto.PriceUpdateResponse;
 import com.nestuity.service.entity.BabyProduct;
 import com.nestuity.service.entity.PriceHistory;
+import com.nestuity.service.repository.BabyProductBatchRepository.ScrapeDetails;
 import com.nestuity.service.repository.BabyProductRepository;
+import com.nestuity.service.repository.PriceHistoryBatchRepository.NewPrice;
 import com.nestuity.service.repository.PriceHistoryRepository;
+import com.nestuity.service.repository.ProductListingBatchRepository.NewListing;
+import com.nestuity.service.repository.ProductListingRepository.ListedProduct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class PriceUpdateService {
     private static final Logger log = LoggerFactory.getLogger(PriceUpdateService.class);
 
+    // Upper bound on updates per batch request, to keep one call from holding a request thread for long
+    public static final int MAX_UPDATES_PER_BATCH = 10_000;
+
+    // Updates per batch transaction; a database failure fails only the updates of its chunk
+    static final int CHUNK_SIZE = 1000;
+
     private final BabyProductRepository babyProductRepository;
+    private final PriceHistoryRepository priceHistoryRepository;
+    private final ProductListingService listingService;
+    private final ProductPriceSummaryService priceSummaryService;
+    private final TransactionTemplate transactionTemplate;
 
-    public PriceUpdateService(BabyProductRepository babyProductRepository) {
+    public PriceUpdateService(BabyProductRepository babyProductRepository,
+                              PriceHistoryRepository priceHistoryRepository,
+                              ProductListingService listingService,
+                              ProductPriceSummaryService priceSummaryService,
+                              TransactionTemplate transactionTemplate) {
         this.babyProductRepository = babyProductRepository;
+        this.priceHistoryRepository = priceHistoryRepository;
+        this.listingService = listingService;
+        this.priceSummaryService = priceSummaryService;
+        this.transactionTemplate = transactionTemplate;
     }
 
     /**
      * Process a price update from the scraper.
      * If a product with this URL exists, add a new price history entry.
      * If not, create a new product.
+     * The product is found by its listing (one unique-index lookup), updated with one statement and the price
+     * inserted on its own, so the cost stays the same however long the product's price history grows.
      *
      * @param request The price update request from the scraper
      * @return Response indicating success/failure and whether a new product was created
@@ -44,42 +78,53 @@ public class PriceUpdateService {
 
         try {
             // Check if product already exists by URL
-            Optional<BabyProduct> existingProduct = babyProductRepository.findByPriceHistoryProductUrl(request.getProductUrl());
+            Optional<Long> existingProductId = listingService.findProductId(request.getProductUrl());
 
             BabyProduct product;
+            String productName;
             boolean isNewProduct;
 
-            if (existingProduct.isPresent()) {
-                // Update existing product
-                product = existingProduct.get();
+            if (existingProductId.isPresent()) {
+                product = babyProductRepository.getReferenceById(existingProductId.get());
+                productName = applyToExisting(existingProductId.get(), request);
                 isNewProduct = false;
-                log.info("Found existing product: {} (ID: {})", product.getName(), product.getId());
-
-                // Optionally update product details if provided
-                updateProductDetails(product, request);
             } else {
                 // Create new product
-                product = createNewProduct(request);
-                isNewProduct = true;
-                log.info("Creating new product: {}", product.getName());
+                BabyProduct created = babyProductRepository.save(createNewProduct(request));
+                isNewProduct = listingService.register(created.getId(), request.getRetailer(), request.getProductUrl());
+                if (isNewProduct) {
+                    product = created;
+                    productName = created.getName();
+                    log.info("Creating new product: {}", productName);
+                } else {
+                    // A concurrent scrape of the same URL registered its product first: the price goes there
+                    Long winnerId = listingService.findProductId(request.getProductUrl()).orElseThrow();
+                    babyProductRepository.delete(created);
+                    product = babyProductRepository.getReferenceById(winnerId);
+                    productName = applyToExisting(winnerId, request);
+                }
             }
 
-            // Add new price history entry
+            // Add new price history entry: a plain insert against the product reference, so neither the product
+            // nor its history is loaded
             PriceHistory priceHistory = createPriceHistory(request);
-            product.addPriceHistory(priceHistory);
+            priceHistory.setBabyProduct(product);
+            priceHistoryRepository.save(priceHistory);
 
-            // Save product (cascades to price history)
-            BabyProduct savedProduct = babyProductRepository.save(product);
+            // The summary's 30-day average reads price_history, so the new price is written out first
+            babyProductRepository.flush();
+            priceSummaryService.recordPrice(product.getId(), priceHistory.getRetailer(),
+                    priceHistory.getProductUrl(), priceHistory.getPrice(), priceHistory.getDate());
 
             log.info("Successfully {} product: {} (ID: {})",
                     isNewProduct ? "created" : "updated",
-                    savedProduct.getName(),
-                    savedProduct.getId());
+                    productName,
+                    product.getId());
 
             return PriceUpdateResponse.success(
-                    savedProduct.getId(),
+                    product.getId(),
                     isNewProduct,
-                    savedProduct.getName()
+                    productName
             );
 
         } catch (Exception e) {
@@ -88,6 +133,139 @@ public class PriceUpdateService {
         }
     }
 
+    /**
+     * Process many price updates from the scraper, with the same outcome per update as
+     * {@link #processPriceUpdate} applied one by one in order.
+     * Each chunk of {@link #CHUNK_SIZE} updates is one transaction with a fixed number of round trips:
+     * one IN lookup of its URLs, JDBC batches for new products and listings, one lookup of the listings just
+     * claimed, then JDBC batches for the product updates, the price history and the price summaries.
+     *
+     * @param requests The price updates, in the order they were scraped
+     * @return One result per update, in request order
+     */
+    public PriceUpdateBatchResponse processPriceUpdates(List<PriceUpdateRequest> requests) {
+        if (requests.size() > MAX_UPDATES_PER_BATCH) {
+            throw new IllegalArgumentException("At most " + MAX_UPDATES_PER_BATCH + " price updates per batch");
+        }
+        PriceUpdateResponse[] results = new PriceUpdateResponse[requests.size()];
+        List<BatchItem> items = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            PriceUpdateRequest request = requests.get(i);
+            if (!isValidRequest(request)) {
+                results[i] = PriceUpdateResponse.error("Invalid request: missing required fields");
+            } else {
+                String normalized = ProductListingService.normalize(request.getProductUrl());
+                items.add(new BatchItem(i, request, normalized, ProductListingService.hash(normalized)));
+            }
+        }
+
+        for (int from = 0; from < items.size(); from += CHUNK_SIZE) {
+            List<BatchItem> chunk = items.subList(from, Math.min(from + CHUNK_SIZE, items.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> processChunk(chunk, results));
+            } catch (RuntimeException e) {
+                // Rolled back as a whole, so every update of the chunk failed
+                log.error("Error processing {} batched price update(s): {}", chunk.size(), e.getMessage(), e);
+                for (BatchItem item : chunk) {
+                    results[item.index()] = PriceUpdateResponse.error(
+                            "Failed to process price update: " + e.getMessage());
+                }
+            }
+        }
+        log.info("Processed batch of {} price update(s)", requests.size());
+        return PriceUpdateBatchResponse.of(Arrays.asList(results));
+    }
+
+    private void processChunk(List<BatchItem> chunk, PriceUpdateResponse[] results) {
+        Map<String, Long> productIds = new HashMap<>();
+        Map<Long, String> productNames = new HashMap<>();
+        Map<String, ListedProduct> listed = listingService.findListed(chunk.stream().map(BatchItem::urlHash).toList());
+        listed.forEach((hash, product) -> {
+            productIds.put(hash, product.getProductId());
+            productNames.put(product.getProductId(), product.getProductName());
+        });
+
+        // One new product per unlisted URL, from its first update
+        Map<String, BatchItem> firstOfNew = new LinkedHashMap<>();
+        for (BatchItem item : chunk) {
+            if (!listed.containsKey(item.urlHash())) {
+                firstOfNew.putIfAbsent(item.urlHash(), item);
+            }
+        }
+        Set<String> createdHere = firstOfNew.isEmpty() ? Set.of() : createProducts(firstOfNew, productIds, productNames);
+
+        // The first update of a product created here is its creation; every other update adds to its product
+        List<ScrapeDetails> scrapes = new ArrayList<>();
+        List<NewPrice> prices = new ArrayList<>(chunk.size());
+        Set<String> pendingCreations = new HashSet<>(createdHere);
+        for (BatchItem item : chunk) {
+            PriceUpdateRequest request = item.request();
+            Long productId = productIds.get(item.urlHash());
+            if (productId == null) {
+                results[item.index()] = PriceUpdateResponse.error(
+                        "Failed to process price update: no product is listed for " + request.getProductUrl());
+                continue;
+            }
+            boolean isNewProduct = pendingCreations.remove(item.urlHash());
+            if (!isNewProduct) {
+                scrapes.add(new ScrapeDetails(productId, request.getBrand(), request.getCategory(),
+                        request.getDescription(), request.getInStock()));
+            }
+            prices.add(new NewPrice(productId, request.getRetailer(), request.getProductUrl(), request.getPrice(),
+                    parseTimestamp(request.getScrapedAt())));
+            results[item.index()] = PriceUpdateResponse.success(productId, isNewProduct, productNames.get(productId));
+        }
+
+        babyProductRepository.batchApplyScrapes(scrapes, LocalDateTime.now());
+        priceHistoryRepository.batchInsert(prices);
+        priceSummaryService.recordPrices(prices);
+    }
+
+    // Inserts the new products and claims their URLs; returns the URL hashes whose product was created here
+    private Set<String> createProducts(Map<String, BatchItem> firstOfNew, Map<String, Long> productIds,
+                                       Map<Long, String> productNames) {
+        Map<String, BabyProduct> created = new LinkedHashMap<>();
+        firstOfNew.forEach((hash, item) -> created.put(hash, createNewProduct(item.request())));
+        babyProductRepository.batchInsert(new ArrayList<>(created.values()));
+        listingService.registerAll(firstOfNew.entrySet().stream()
+                .map(e -> new NewListing(created.get(e.getKey()).getId(), e.getKey(), e.getValue().normalizedUrl(),
+                        e.getValue().request().getRetailer()))
+                .toList());
+
+        // A concurrent ingestion may have listed some of the URLs first: their prices go to that product
+        Map<String, ListedProduct> owners = listingService.findListed(created.keySet());
+        Set<String> createdHere = new HashSet<>();
+        List<Long> lost = new ArrayList<>();
+        created.forEach((hash, product) -> {
+            ListedProduct owner = owners.get(hash);
+            if (owner == null) {
+                // Lost the claim and the winner was deleted since; its updates fail rather than guess a product
+                lost.add(product.getId());
+                return;
+            }
+            if (owner.getProductId().equals(product.getId())) {
+                createdHere.add(hash);
+            } else {
+                lost.add(product.getId());
+            }
+            productIds.put(hash, owner.getProductId());
+            productNames.put(owner.getProductId(), owner.getProductName());
+        });
+        if (!lost.isEmpty()) {
+            babyProductRepository.deleteAllByIdInBatch(lost);
+        }
+        return createdHere;
+    }
+
+    // Updates the listed product's details and updated_at in one statement and returns its name
+    private String applyToExisting(Long productId, PriceUpdateRequest request) {
+        String name = babyProductRepository.applyScrape(productId, request.getBrand(), request.getCategory(),
+                        request.getDescription(), request.getInStock(), LocalDateTime.now())
+                .orElseThrow(() -> new IllegalStateException("Listed product " + productId + " no longer exists"));
+        log.info("Found existing product: {} (ID: {})", name, productId);
+        return name;
+    }
+
     private boolean isValidRequest(PriceUpdateRequest request) {
         return request != null
                 && request.getProductUrl() != null && !request.getProductUrl().trim().isEmpty()
@@ -107,22 +285,6 @@ public class PriceUpdateService {
         return product;
     }
 
-    private void updateProductDetails(BabyProduct product, PriceUpdateRequest request) {
-        // Update product details if they were provided and are different
-        if (request.getBrand() != null && !request.getBrand().isEmpty()) {
-            product.setBrand(request.getBrand());
-        }
-        if (request.getCategory() != null && !request.getCategory().isEmpty()) {
-            product.setCategory(request.getCategory());
-        }
-        if (request.getDescription() != null && !request.getDescription().isEmpty()) {
-            product.setDescription(request.getDescription());
-        }
-        if (request.getInStock() != null) {
-            product.setInStock(request.getInStock());
-        }
-    }
-
     private PriceHistory createPriceHistory(PriceUpdateRequest request) {
         PriceHistory priceHistory = new PriceHistory();
         priceHistory.setRetailer(request.getRetailer());
@@ -148,4 +310,8 @@ public class PriceUpdateService {
             return LocalDateTime.now();
         }
     }
+
+    // A valid update of a batch and its position in the request
+    private record BatchItem(int index, PriceUpdateRequest request, String normalizedUrl, String urlHash) {
+    }
 }
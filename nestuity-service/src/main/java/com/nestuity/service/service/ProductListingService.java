@@ -0,0 +1,166 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.JobCheckpoint;
+import com.nestuity.service.repository.ProductListingBatchRepository.NewListing;
+import com.nestuity.service.repository.ProductListingRepository;
+import com.nestuity.service.repository.ProductListingRepository.ListedProduct;
+import com.nestuity.service.repository.ProductListingRepository.ListingSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Maps retailer product URLs to products through {@code product_listing}.
+ * <p>
+ * URLs are normalised before hashing, so the same page scraped with a different host case, a fragment or a
+ * trailing slash still finds its product. The first product to claim a URL keeps it. URLs recorded before
+ * listings existed are claimed once from the price history on the first start, oldest price first.
+ */
+@Slf4j
+@Service
+public class ProductListingService {
+
+    static final String BACKFILL_JOB = "product-listing-backfill";
+    static final String BACKFILL_RUN = "initial";
+    static final Duration BACKFILL_LEASE = Duration.ofMinutes(30);
+    static final int BACKFILL_PAGE_SIZE = 500;
+
+    // Hashes per IN list, well under the driver's bind parameter limit
+    static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private final ProductListingRepository listingRepository;
+    private final JobCheckpointService checkpointService;
+    private final SchedulerLockService schedulerLock;
+
+    public ProductListingService(ProductListingRepository listingRepository,
+                                 JobCheckpointService checkpointService,
+                                 SchedulerLockService schedulerLock) {
+        this.listingRepository = listingRepository;
+        this.checkpointService = checkpointService;
+        this.schedulerLock = schedulerLock;
+    }
+
+    // The product the URL belongs to, if any
+    public Optional<Long> findProductId(String productUrl) {
+        return listingRepository.findProductIdByUrlHash(hash(normalize(productUrl)));
+    }
+
+    /**
+     * The listed products of many URL hashes (see {@link #hash}), keyed by hash, with one query per
+     * {@link #LOOKUP_CHUNK_SIZE} hashes. Unlisted hashes are absent.
+     */
+    public Map<String, ListedProduct> findListed(Collection<String> urlHashes) {
+        List<String> hashes = List.copyOf(new LinkedHashSet<>(urlHashes));
+        Map<String, ListedProduct> listed = new HashMap<>();
+        for (int from = 0; from < hashes.size(); from += LOOKUP_CHUNK_SIZE) {
+            for (ListedProduct product : listingRepository.findListedByUrlHashIn(
+                    hashes.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, hashes.size())))) {
+                listed.put(product.getUrlHash(), product);
+            }
+        }
+        return listed;
+    }
+
+    // Claims each listing's URL for its product unless it is taken; read the winners back with findListed
+    public void registerAll(List<NewListing> listings) {
+        listingRepository.batchInsertIfAbsent(listings);
+    }
+
+    /**
+     * Claims the URL for the product. Returns false when it already belongs to a product, which may be this one.
+     */
+    public boolean register(Long productId, String retailer, String productUrl) {
+        String normalized = normalize(productUrl);
+        return listingRepository.insertIfAbsent(productId, hash(normalized), normalized, retailer) == 1;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        schedulerLock.runExclusively(BACKFILL_JOB, BACKFILL_LEASE, () -> {
+            JobCheckpoint checkpoint = checkpointService.start(BACKFILL_JOB, BACKFILL_RUN);
+            if (checkpoint.isCompleted()) {
+                return;
+            }
+            long afterId = checkpoint.getLastProcessedId();
+            List<ListingSource> page;
+            do {
+                page = listingRepository.findListingSourcesAfter(afterId, Limit.of(BACKFILL_PAGE_SIZE));
+                if (page.isEmpty()) break;
+
+                // A URL usually repeats once per scrape; only its first row in the page is tried
+                Set<String> seen = new HashSet<>();
+                for (ListingSource source : page) {
+                    String normalized = normalize(source.getProductUrl());
+                    if (!normalized.isEmpty() && seen.add(normalized)) {
+                        listingRepository.insertIfAbsent(source.getProductId(), hash(normalized), normalized,
+                                source.getRetailer());
+                    }
+                }
+                afterId = page.getLast().getId();
+                checkpoint = checkpointService.advance(checkpoint, afterId, page.size());
+            } while (page.size() == BACKFILL_PAGE_SIZE);
+
+            checkpointService.complete(checkpoint);
+            log.info("Product listing backfill read {} price history row(s)", checkpoint.getProcessedCount());
+        });
+    }
+
+    /**
+     * Canonical form of a product URL: trimmed, scheme and host lower-cased, default port, fragment and trailing
+     * path slash dropped. Path and query are kept as they are, since retailers put product ids in either.
+     * Strings that do not parse as URLs are only trimmed.
+     */
+    static String normalize(String productUrl) {
+        String trimmed = productUrl.trim();
+        try {
+            URI uri = new URI(trimmed);
+            if (uri.getScheme() == null || uri.getRawAuthority() == null) {
+                return trimmed;
+            }
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            String authority = uri.getRawAuthority().toLowerCase(Locale.ROOT);
+            if ((scheme.equals("https") && authority.endsWith(":443"))
+                    || (scheme.equals("http") && authority.endsWith(":80"))) {
+                authority = authority.substring(0, authority.lastIndexOf(':'));
+            }
+            String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+            while (path.endsWith("/")) {
+                path = path.substring(0, path.length() - 1);
+            }
+            String query = uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery();
+            return scheme + "://" + authority + path + query;
+        } catch (URISyntaxException e) {
+            return trimmed;
+        }
+    }
+
+    // Lower-case hex SHA-256 of the UTF-8 bytes
+    static String hash(String normalizedUrl) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalizedUrl.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
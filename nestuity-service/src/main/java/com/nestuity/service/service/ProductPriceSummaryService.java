@@ -0,0 +1,86 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.JobCheckpoint;
+import com.nestuity.service.entity.ProductPriceSummary;
+import com.nestuity.service.repository.PriceHistoryBatchRepository.NewPrice;
+import com.nestuity.service.repository.ProductPriceSummaryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@code product_price_summary}: latest, min, max and 30-day average price per (product, retailer).
+ * <p>
+ * A scraped price folds into its one summary row with a single upsert, so keeping the summaries costs O(1) per
+ * price point rather than a rescan of the history. Admin edits that replace a product's history rebuild that
+ * product's rows. Histories from before the summaries existed are summarised once, on the first start.
+ */
+@Slf4j
+@Service
+public class ProductPriceSummaryService {
+
+    static final String BACKFILL_JOB = "product-price-summary-backfill";
+    static final String BACKFILL_RUN = "initial";
+    static final Duration BACKFILL_LEASE = Duration.ofMinutes(30);
+
+    private final ProductPriceSummaryRepository summaryRepository;
+    private final JobCheckpointService checkpointService;
+    private final SchedulerLockService schedulerLock;
+
+    public ProductPriceSummaryService(ProductPriceSummaryRepository summaryRepository,
+                                      JobCheckpointService checkpointService,
+                                      SchedulerLockService schedulerLock) {
+        this.summaryRepository = summaryRepository;
+        this.checkpointService = checkpointService;
+        this.schedulerLock = schedulerLock;
+    }
+
+    // Folds a price point already written to price_history into its summary
+    public void recordPrice(Long productId, String retailer, String productUrl, BigDecimal price, LocalDateTime date) {
+        summaryRepository.batchRecordPrices(List.of(new NewPrice(productId, retailer, productUrl, price, date)));
+    }
+
+    // Same for many price points, in order, in JDBC batches
+    public void recordPrices(List<NewPrice> prices) {
+        summaryRepository.batchRecordPrices(prices);
+    }
+
+    // Recomputes a product's summaries after its price history was replaced
+    @Transactional
+    public void rebuild(Long productId) {
+        summaryRepository.deleteRetailersWithoutPrices(productId);
+        summaryRepository.rebuildForProduct(productId);
+    }
+
+    // Summaries of the products, grouped by product id and ordered by retailer
+    public Map<Long, List<ProductPriceSummary>> forProducts(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        return summaryRepository.findByProductIdInOrderByProductIdAscRetailerAsc(productIds).stream()
+                .collect(Collectors.groupingBy(ProductPriceSummary::getProductId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        schedulerLock.runExclusively(BACKFILL_JOB, BACKFILL_LEASE, () -> {
+            JobCheckpoint checkpoint = checkpointService.start(BACKFILL_JOB, BACKFILL_RUN);
+            if (checkpoint.isCompleted()) {
+                return;
+            }
+            int inserted = summaryRepository.insertMissing();
+            checkpointService.complete(checkpoint);
+            log.info("Summarised the price history of {} product/retailer pair(s)", inserted);
+        });
+    }
+}
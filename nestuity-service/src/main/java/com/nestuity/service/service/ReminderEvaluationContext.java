@@ -0,0 +1,101 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.Baby;
+import com.nestuity.service.entity.User;
+import com.nestuity.service.entity.UserPreferences;
+
+import java.time.*;
+import java.util.Date;
+
+/**
+ * Inputs shared by every reminder of one baby when computing due dates: the baby's date of birth
+ * and "today" in the owner's timezone, both resolved once and kept as epoch days so the per-reminder
+ * work is plain {@code long} arithmetic.
+ * <p>
+ * Build one per request or batch with {@link #forBaby(Baby)} and pass it to every reminder of that baby.
+ * <p>
+ * A user whose timezone preference is missing, blank or not a valid zone id is evaluated in
+ * {@link #DEFAULT_ZONE}, never in the server zone; {@link #zoneFor} is the only place that decides this.
+ */
+public final class ReminderEvaluationContext {
+
+    /** Zone of every user without a usable timezone preference. */
+    static final ZoneId DEFAULT_ZONE = ZoneId.of("America/Edmonton");
+
+    private static final long NO_DOB = Long.MIN_VALUE;
+
+    private final ZoneId zone;
+    private final LocalDate today;
+    private final long todayEpochDay;
+    private final long dobEpochDay;
+
+    private ReminderEvaluationContext(ZoneId zone, LocalDate today, LocalDate dob) {
+        this.zone = zone;
+        this.today = today;
+        this.todayEpochDay = today.toEpochDay();
+        this.dobEpochDay = (dob != null) ? dob.toEpochDay() : NO_DOB;
+    }
+
+    /** Context for a baby's reminders, with "today" in the owner's {@link #zoneFor zone}. */
+    public static ReminderEvaluationContext forBaby(Baby baby) {
+        ZoneId zone = userZone(baby);
+        return new ReminderEvaluationContext(zone, LocalDate.now(zone), dobOf(baby));
+    }
+
+    public static ReminderEvaluationContext of(LocalDate dob, LocalDate today, ZoneId zone) {
+        return new ReminderEvaluationContext(zone, today, dob);
+    }
+
+    public ZoneId zone() { return zone; }
+    public LocalDate today() { return today; }
+    public long todayEpochDay() { return todayEpochDay; }
+    public boolean hasDob() { return dobEpochDay != NO_DOB; }
+    public long dobEpochDay() { return dobEpochDay; }
+
+    /** Days between the date of birth and today; only meaningful when {@link #hasDob()}. */
+    public long ageInDays() { return todayEpochDay - dobEpochDay; }
+
+    /** Midnight of the given epoch day. */
+    public static LocalDateTime startOfDay(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay).atStartOfDay();
+    }
+
+    /**
+     * Zone a user's reminders and scheduled jobs run in: the preferred timezone, or {@link #DEFAULT_ZONE} when it
+     * is missing, blank or not a valid zone id.
+     */
+    public static ZoneId zoneFor(String timezone) {
+        if (timezone == null || timezone.isBlank()) return DEFAULT_ZONE;
+        try {
+            return ZoneId.of(timezone);
+        } catch (DateTimeException e) {
+            return DEFAULT_ZONE;
+        }
+    }
+
+    /**
+     * Calendar date of a stored date of birth. DOBs carry no zone: JDBC, {@code java.sql.Date.valueOf} and the
+     * seeders all encode the date as a JVM-local midnight, so it is decoded the same way rather than in a user's
+     * zone.
+     */
+    public static LocalDate dateOf(Date dob) {
+        if (dob == null) return null;
+        if (dob instanceof java.sql.Date sqlDate) {
+            return sqlDate.toLocalDate();
+        }
+        if (dob instanceof java.sql.Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toLocalDate();
+        }
+        return LocalDate.ofInstant(dob.toInstant(), ZoneId.systemDefault());
+    }
+
+    private static ZoneId userZone(Baby baby) {
+        User user = (baby != null) ? baby.getUser() : null;
+        UserPreferences prefs = (user != null) ? user.getPreferences() : null;
+        return zoneFor(prefs != null ? prefs.getTimezone() : null);
+    }
+
+    private static LocalDate dobOf(Baby baby) {
+        return dateOf((baby != null) ? baby.getDob() : null);
+    }
+}
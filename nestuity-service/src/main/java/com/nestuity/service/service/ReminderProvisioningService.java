@@ -0,0 +1,99 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.dto.BulkReminderResponse;
+import com.nestuity.service.dto.ReminderProvisioningResult;
+import com.nestuity.service.entity.Baby;
+import com.nestuity.service.entity.BabyReminder;
+import com.nestuity.service.repository.BabyReminderRepository;
+import com.nestuity.service.repository.BabyRepository;
+import com.nestuity.service.type.ProvisioningStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Provisions baseline reminders for many babies at once (migrations, partner imports).
+ * Babies are processed in chunks, each chunk in its own transaction: one query for the babies,
+ * one title projection for duplicate detection and one JDBC batch insert for the new reminders.
+ */
+@Slf4j
+@Service
+public class ReminderProvisioningService {
+
+    static final int MAX_BABIES_PER_REQUEST = 10_000;
+    static final int CHUNK_SIZE = 500;
+
+    private final BabyRepository babyRepository;
+    private final BabyReminderRepository reminderRepository;
+    private final BabyReminderService babyReminderService;
+    private final TransactionTemplate transactionTemplate;
+
+    public ReminderProvisioningService(BabyRepository babyRepository,
+                                       BabyReminderRepository reminderRepository,
+                                       BabyReminderService babyReminderService,
+                                       TransactionTemplate transactionTemplate) {
+        this.babyRepository = babyRepository;
+        this.reminderRepository = reminderRepository;
+        this.babyReminderService = babyReminderService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public BulkReminderResponse provision(List<Long> babyIds) {
+        if (babyIds == null || babyIds.isEmpty()) {
+            throw new IllegalArgumentException("babyIds must not be empty");
+        }
+        if (babyIds.size() > MAX_BABIES_PER_REQUEST) {
+            throw new IllegalArgumentException("At most " + MAX_BABIES_PER_REQUEST + " babies can be provisioned per request");
+        }
+
+        List<Long> ids = babyIds.stream().filter(Objects::nonNull).distinct().toList();
+        List<ReminderProvisioningResult> results = new ArrayList<>(ids.size());
+
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            try {
+                results.addAll(transactionTemplate.execute(status -> provisionChunk(chunk)));
+            } catch (RuntimeException e) {
+                // A failed chunk rolls back on its own; earlier chunks stay committed
+                log.error("Failed to provision reminders for {} babies: {}", chunk.size(), e.getMessage(), e);
+                chunk.forEach(id -> results.add(ReminderProvisioningResult.failed(id, e.getMessage())));
+            }
+        }
+
+        int provisioned = (int) results.stream().filter(r -> r.status() == ProvisioningStatus.CREATED).count();
+        int created = results.stream().mapToInt(ReminderProvisioningResult::remindersCreated).sum();
+        log.info("Bulk provisioning: {} babies requested, {} provisioned, {} reminders created",
+                ids.size(), provisioned, created);
+        return new BulkReminderResponse(provisioned, created, results);
+    }
+
+    private List<ReminderProvisioningResult> provisionChunk(List<Long> chunk) {
+        Map<Long, Baby> babies = babyRepository.findWithUserByIdIn(chunk).stream()
+                .collect(Collectors.toMap(Baby::getId, Function.identity()));
+        Map<Long, Set<String>> titlesByBaby = new HashMap<>();
+        for (BabyReminderRepository.BabyIdAndTitle row : reminderRepository.findTitlesByBabyIdIn(babies.keySet())) {
+            titlesByBaby.computeIfAbsent(row.getBabyId(), id -> new HashSet<>()).add(row.getTitle());
+        }
+
+        List<ReminderProvisioningResult> results = new ArrayList<>(chunk.size());
+        List<BabyReminder> toInsert = new ArrayList<>();
+        for (Long babyId : chunk) {
+            Baby baby = babies.get(babyId);
+            if (baby == null) {
+                results.add(ReminderProvisioningResult.notFound(babyId));
+                continue;
+            }
+            Set<String> existing = titlesByBaby.computeIfAbsent(babyId, id -> new HashSet<>());
+            List<BabyReminder> missing = babyReminderService.buildMissingReminders(baby, existing);
+            toInsert.addAll(missing);
+            results.add(ReminderProvisioningResult.created(babyId, missing.size()));
+        }
+
+        reminderRepository.batchInsert(toInsert);
+        return results;
+    }
+}
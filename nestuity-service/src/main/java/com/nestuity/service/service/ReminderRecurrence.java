@@ -0,0 +1,78 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.type.Frequency;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Constant-time arithmetic over a reminder's recurrence series {@code start, start + 1 interval, ...}.
+ * <p>
+ * Month-based frequencies are anchored on the start date: occurrence {@code k} is {@code start.plusMonths(k * n)},
+ * so a series starting on the 31st lands on the last day of shorter months and returns to the 31st afterwards
+ * instead of drifting to the 28th. Leap days behave the same way (Feb 29 falls back to Feb 28 in common years).
+ */
+public final class ReminderRecurrence {
+
+    private ReminderRecurrence() {
+    }
+
+    /**
+     * Start of the day of the latest occurrence that is not after {@code now}. When the series starts after
+     * {@code now}, the occurrence one interval before {@code start} is returned. Returns {@code null} for
+     * non-repeating frequencies.
+     */
+    public static LocalDateTime lastOccurrenceOnOrBefore(LocalDateTime start, Frequency freq, LocalDateTime now) {
+        if (start == null || freq == null || freq == Frequency.ONCE || now == null) return null;
+
+        long k;
+        if (start.isAfter(now)) {
+            k = -1;
+        } else {
+            int days = intervalDays(freq);
+            if (days > 0) {
+                // DAYS.between counts whole days, so start + k * days <= now holds exactly
+                k = ChronoUnit.DAYS.between(start, now) / days;
+            } else {
+                int months = intervalMonths(freq);
+                k = ChronoUnit.MONTHS.between(start, now) / months;
+                // Month lengths can put the estimate one step off either way
+                if (!occurrence(start, freq, k + 1).isAfter(now)) {
+                    k++;
+                } else if (occurrence(start, freq, k).isAfter(now)) {
+                    k--;
+                }
+            }
+        }
+        return occurrence(start, freq, k).truncatedTo(ChronoUnit.DAYS);
+    }
+
+    /** The {@code k}-th occurrence of the series (negative {@code k} walks backwards). */
+    public static LocalDateTime occurrence(LocalDateTime start, Frequency freq, long k) {
+        return switch (freq) {
+            case DAILY -> start.plusDays(k);
+            case WEEKLY -> start.plusWeeks(k);
+            case MONTHLY -> start.plusMonths(k);
+            case QUARTERLY -> start.plusMonths(k * 3);
+            case ANNUAL -> start.plusYears(k);
+            default -> start;
+        };
+    }
+
+    private static int intervalDays(Frequency freq) {
+        return switch (freq) {
+            case DAILY -> 1;
+            case WEEKLY -> 7;
+            default -> 0;
+        };
+    }
+
+    private static int intervalMonths(Frequency freq) {
+        return switch (freq) {
+            case MONTHLY -> 1;
+            case QUARTERLY -> 3;
+            case ANNUAL -> 12;
+            default -> 0;
+        };
+    }
+}
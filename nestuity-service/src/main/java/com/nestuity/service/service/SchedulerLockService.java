@@ -0,0 +1,69 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.repository.SchedulerLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Cluster-wide mutual exclusion for scheduled jobs, backed by leases in the {@code scheduler_lock} table.
+ * <p>
+ * Every instance keeps {@code @EnableScheduling}; a job (or one shard of it, see {@link #shardName}) runs only on
+ * the instance that wins its lease. Leases expire on their own, so a crashed holder blocks a job for at most one
+ * lease; pick a lease longer than the job's longest expected run.
+ */
+@Slf4j
+@Service
+public class SchedulerLockService {
+
+    private final SchedulerLockRepository lockRepository;
+    private final String owner;
+
+    public SchedulerLockService(SchedulerLockRepository lockRepository) {
+        this.lockRepository = lockRepository;
+        this.owner = hostName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public boolean tryAcquire(String name, Duration lease) {
+        return lockRepository.tryAcquire(name, owner, lease.toSeconds()) == 1;
+    }
+
+    public void release(String name) {
+        lockRepository.release(name, owner);
+    }
+
+    /**
+     * Runs {@code task} if this instance gets the lease, releasing it afterwards.
+     *
+     * @return whether the task ran here
+     */
+    public boolean runExclusively(String name, Duration lease, Runnable task) {
+        if (!tryAcquire(name, lease)) {
+            log.debug("Skipping {}: held by another instance", name);
+            return false;
+        }
+        try {
+            task.run();
+            return true;
+        } finally {
+            release(name);
+        }
+    }
+
+    /** Lock name for one partition of a job, so different instances can work on different shards. */
+    public static String shardName(String job, String shard) {
+        return job + ":" + shard;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown-host";
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.SupplyType;
+import com.nestuity.service.repository.InventoryRepository;
+import com.nestuity.service.repository.SupplyTypeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Supply types and their default consumption. Inventory rows are looked up by (user, supply type id), so a supply
+ * name is resolved to its type once, here, instead of being compared case-insensitively in every query. Types are
+ * never renamed or removed, so resolved types are cached for the life of the process.
+ */
+@Slf4j
+@Service
+public class SupplyTypeService {
+
+    public static final String DIAPERS = "diapers";
+    public static final String WIPES = "wipes";
+    public static final String FORMULA = "formula";
+
+    static final String BACKFILL_LOCK = "supply-type-backfill";
+    static final Duration BACKFILL_LEASE = Duration.ofMinutes(10);
+    static final int BACKFILL_BATCH_SIZE = 1_000;
+
+    // Diapers follow the babies' weight-based usage; formula depends too much on feeding to guess, so it is only
+    // forecast once the household reports usage
+    private static final List<SupplyType> STANDARD_TYPES = List.of(
+            new SupplyType(DIAPERS, "Diapers", null),
+            new SupplyType(WIPES, "Wipes", 10.0),
+            new SupplyType(FORMULA, "Formula", null));
+
+    private final Map<String, SupplyType> byName = new ConcurrentHashMap<>();
+
+    private final SupplyTypeRepository supplyTypeRepository;
+    private final InventoryRepository inventoryRepository;
+    private final SchedulerLockService schedulerLock;
+
+    public SupplyTypeService(SupplyTypeRepository supplyTypeRepository,
+                             InventoryRepository inventoryRepository,
+                             SchedulerLockService schedulerLock) {
+        this.supplyTypeRepository = supplyTypeRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.schedulerLock = schedulerLock;
+    }
+
+    // Canonical form of a supply name: "  Diapers " -> "diapers"
+    public static String normalize(String supplyName) {
+        return supplyName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // The supply's type, or empty when nobody has stocked it yet
+    public Optional<SupplyType> find(String supplyName) {
+        if (supplyName == null || supplyName.isBlank()) {
+            return Optional.empty();
+        }
+        String name = normalize(supplyName);
+        SupplyType cached = byName.get(name);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<SupplyType> type = supplyTypeRepository.findByName(name);
+        type.ifPresent(found -> byName.put(name, found));
+        return type;
+    }
+
+    // The supply's type, created on first use
+    public SupplyType resolve(String supplyName) {
+        if (supplyName == null || supplyName.isBlank()) {
+            throw new IllegalArgumentException("Supply name is required");
+        }
+        return find(supplyName).orElseGet(() -> create(supplyName.trim()));
+    }
+
+    /**
+     * Daily usage of a supply before the household has reported enough of it: the babies' weight-based usage for
+     * diapers, the type's per-baby default for supplies that have one, and none otherwise.
+     */
+    public static double defaultDailyUsage(SupplyType type, double babiesDiaperUsage, long babyCount) {
+        return (type == null)
+                ? babiesDiaperUsage
+                : defaultDailyUsage(type.getName(), type.getDefaultDailyUsage(), babiesDiaperUsage, babyCount);
+    }
+
+    // Same, from the type's columns as read by a projection
+    public static double defaultDailyUsage(String typeName, Double perBabyDefault, double babiesDiaperUsage,
+                                           long babyCount) {
+        if (typeName == null || DIAPERS.equals(typeName)) {
+            return babiesDiaperUsage;
+        }
+        return perBabyDefault != null ? perBabyDefault * babyCount : 0;
+    }
+
+    /**
+     * Creates the standard types and gives every inventory row from before supply types its type. Runs before the
+     * application reports ready, so startup work that joins inventory to its type sees every row.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void backfill() {
+        schedulerLock.runExclusively(BACKFILL_LOCK, BACKFILL_LEASE, () -> {
+            STANDARD_TYPES.forEach(type -> resolveStandard(type));
+            supplyTypeRepository.insertMissingFromInventory();
+            int assigned = 0;
+            for (int batch; (batch = inventoryRepository.assignSupplyTypes(BACKFILL_BATCH_SIZE)) > 0; ) {
+                assigned += batch;
+            }
+            if (assigned > 0) {
+                log.info("Assigned supply types to {} inventory row(s)", assigned);
+            }
+        });
+    }
+
+    private void resolveStandard(SupplyType standard) {
+        if (find(standard.getName()).isEmpty()) {
+            save(new SupplyType(standard.getName(), standard.getDisplayName(), standard.getDefaultDailyUsage()));
+        }
+    }
+
+    private SupplyType create(String displayName) {
+        return save(new SupplyType(normalize(displayName), displayName, null));
+    }
+
+    // Another request may create the same type at the same moment; the unique name lets exactly one insert win
+    private SupplyType save(SupplyType type) {
+        SupplyType saved;
+        try {
+            saved = supplyTypeRepository.saveAndFlush(type);
+        } catch (DataIntegrityViolationException e) {
+            saved = supplyTypeRepository.findByName(type.getName()).orElseThrow(() -> e);
+        }
+        byName.put(saved.getName(), saved);
+        return saved;
+    }
+}
@@ -0,0 +1,97 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.SupplyUsageEstimate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.OptionalDouble;
+
+/**
+ * Reads a household's learned daily usage from its {@link SupplyUsageEstimate}.
+ * <p>
+ * The estimate is an exponentially weighted moving average of daily totals: each closed day moves it
+ * {@link #ALPHA} of the way towards that day's total, so it follows a change in consumption within a few days
+ * while one unusual day barely moves it. Each event flush updates it in O(1) with a single upsert. The stored
+ * average only covers days that had closed by the last flush, so reading it as of today folds in the same way
+ * the last reported day and any days since without usage.
+ */
+public final class SupplyUsageEstimator {
+
+    // Weight of the newest day; older days decay by (1 - ALPHA) per day, a half-life of about three days
+    public static final double ALPHA = 0.2;
+
+    // Closed days needed before the estimate replaces the weight-based norms
+    static final int MIN_OBSERVED_DAYS = 7;
+
+    // Days without any event after which the household is taken to have stopped reporting usage
+    static final int MAX_IDLE_DAYS = 7;
+
+    private SupplyUsageEstimator() {
+    }
+
+    /**
+     * Applies one day's usage the way the batch upsert in {@code SupplyUsageEstimateBatchRepositoryImpl} does, which
+     * runs the same rules in SQL: usage for the current day adds to its total, a newer day closes the current one
+     * into the average (see {@link #dailyUsageOn}) and starts its own total, and usage for a day already closed is
+     * dropped, since that day is part of the average and is not reopened.
+     */
+    static void recordUsage(SupplyUsageEstimate estimate, LocalDate day, double quantity) {
+        LocalDate currentDay = estimate.getCurrentDay();
+        if (day.isBefore(currentDay)) {
+            return;
+        }
+        if (day.equals(currentDay)) {
+            estimate.setCurrentDayTotal(estimate.getCurrentDayTotal() + quantity);
+            return;
+        }
+        if (currentDay.equals(estimate.getStartedOn())) {
+            estimate.setDailyUsage(null);
+            estimate.setObservedDays(0);
+        } else {
+            long daysSince = ChronoUnit.DAYS.between(currentDay, day);
+            double total = estimate.getCurrentDayTotal();
+            Double average = estimate.getDailyUsage();
+            double folded = (average != null) ? ALPHA * total + (1 - ALPHA) * average : total;
+            estimate.setDailyUsage(folded * Math.pow(1 - ALPHA, daysSince - 1));
+            estimate.setObservedDays(estimate.getObservedDays() + (int) daysSince);
+        }
+        estimate.setCurrentDay(day);
+        estimate.setCurrentDayTotal(quantity);
+    }
+
+    /**
+     * Learned daily usage as of {@code today}, or empty while there are too few observed days or the household
+     * has stopped reporting.
+     */
+    public static OptionalDouble dailyUsageOn(SupplyUsageEstimate estimate, LocalDate today) {
+        if (estimate == null) {
+            return OptionalDouble.empty();
+        }
+        return dailyUsageOn(estimate.getStartedOn(), estimate.getCurrentDay(), estimate.getCurrentDayTotal(),
+                estimate.getDailyUsage(), estimate.getObservedDays(), today);
+    }
+
+    // Same, from the estimate's columns as read by a projection
+    public static OptionalDouble dailyUsageOn(LocalDate startedOn, LocalDate currentDay, Double currentDayTotal,
+                                              Double storedDailyUsage, Integer storedObservedDays, LocalDate today) {
+        if (currentDay == null) {
+            return OptionalDouble.empty();
+        }
+        long daysSinceLastReport = ChronoUnit.DAYS.between(currentDay, today);
+        if (daysSinceLastReport > MAX_IDLE_DAYS) {
+            return OptionalDouble.empty();
+        }
+
+        Double dailyUsage = storedDailyUsage;
+        int observedDays = storedObservedDays != null ? storedObservedDays : 0;
+        if (daysSinceLastReport > 0 && !currentDay.equals(startedOn)) {
+            double total = currentDayTotal != null ? currentDayTotal : 0;
+            double folded = (dailyUsage != null) ? ALPHA * total + (1 - ALPHA) * dailyUsage : total;
+            dailyUsage = folded * Math.pow(1 - ALPHA, daysSinceLastReport - 1);
+            observedDays += (int) daysSinceLastReport;
+        }
+        return (dailyUsage != null && observedDays >= MIN_OBSERVED_DAYS)
+                ? OptionalDouble.of(dailyUsage)
+                : OptionalDouble.empty();
+    }
+}
@@ -0,0 +1,140 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.JobCheckpoint;
+import com.nestuity.service.repository.UserPreferencesRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Splits users into cohorts by the local time of their preferred timezone, so daily and weekly jobs can run
+ * for each cohort at its own midnight instead of for everyone at server midnight.
+ * <p>
+ * Jobs tick once per {@link #WINDOW}; every UTC offset in use is a multiple of 15 minutes, so each zone's
+ * midnight falls in exactly one window. A job that must not lose a window to a late or skipped tick runs through
+ * {@link #forEachWindow}, which keeps the last window it finished in a {@link JobCheckpointService} checkpoint and
+ * catches up on every window since.
+ */
+@Service
+public class TimezoneCohorts {
+
+    public static final Duration WINDOW = Duration.ofMinutes(15);
+
+    // Windows missed for longer than this (e.g. a long outage) are not caught up
+    static final Duration MAX_CATCH_UP = Duration.ofDays(2);
+
+    // Run key of a job's window cursor; lastProcessedId holds the epoch second of the last window it finished
+    static final String CURSOR_RUN_KEY = "window-cursor";
+
+    private final UserPreferencesRepository preferencesRepository;
+    private final JobCheckpointService checkpointService;
+
+    public TimezoneCohorts(UserPreferencesRepository preferencesRepository, JobCheckpointService checkpointService) {
+        this.preferencesRepository = preferencesRepository;
+        this.checkpointService = checkpointService;
+    }
+
+    /**
+     * Users whose local midnight falls in the window containing {@code now}.
+     *
+     * @param now     tick time
+     * @param weekday only include zones where the new local day is this weekday; {@code null} for every day
+     */
+    public Cohort atLocalMidnight(Instant now, DayOfWeek weekday) {
+        return cohortOf(windowStart(now), preferencesRepository.findDistinctTimezones(), weekday);
+    }
+
+    /**
+     * The cohort of the window a {@link Cohort#runKey()} names, built from the current timezone preferences;
+     * used to resume a run that did not finish.
+     */
+    public Cohort forRunKey(String runKey, DayOfWeek weekday) {
+        Instant windowStart = OffsetDateTime.parse(runKey).toInstant();
+        return cohortOf(windowStart, preferencesRepository.findDistinctTimezones(), weekday);
+    }
+
+    /**
+     * Runs {@code job} for the cohort of every window after the last one it finished, up to the window containing
+     * {@code now}, oldest first and including empty cohorts. The cursor advances after each window, so a failing
+     * window stops the run and is retried first by the next tick. A job without a cursor starts at {@code now}'s
+     * window, and one that has been stopped for longer than {@link #MAX_CATCH_UP} resumes that far back.
+     *
+     * @param jobName names the job's cursor checkpoint; must not be a job that lists its own unfinished runs
+     */
+    public void forEachWindow(String jobName, Instant now, DayOfWeek weekday, Consumer<Cohort> job) {
+        JobCheckpoint cursor = checkpointService.start(jobName, CURSOR_RUN_KEY);
+        Instant current = windowStart(now);
+        Instant oldest = windowStart(now.minus(MAX_CATCH_UP));
+        Instant next = current;
+        if (cursor.getLastProcessedId() > 0) {
+            Instant afterLast = Instant.ofEpochSecond(cursor.getLastProcessedId()).plus(WINDOW);
+            next = afterLast.isBefore(oldest) ? oldest : afterLast;
+        }
+
+        List<String> timezones = null;
+        for (; !next.isAfter(current); next = next.plus(WINDOW)) {
+            if (timezones == null) {
+                timezones = preferencesRepository.findDistinctTimezones();
+            }
+            job.accept(cohortOf(next, timezones, weekday));
+            cursor = checkpointService.advance(cursor, next.getEpochSecond(), 1);
+        }
+    }
+
+    private static Cohort cohortOf(Instant windowStart, List<String> distinctTimezones, DayOfWeek weekday) {
+        List<String> timezones = new ArrayList<>();
+        for (String timezone : distinctTimezones) {
+            if (isLocalMidnight(ReminderEvaluationContext.zoneFor(timezone), windowStart, weekday)) {
+                timezones.add(timezone);
+            }
+        }
+        // Users without a preference follow the fallback zone
+        boolean includeUnset = isLocalMidnight(ReminderEvaluationContext.zoneFor(null), windowStart, weekday);
+        return new Cohort(windowStart, timezones, includeUnset);
+    }
+
+    static Instant windowStart(Instant now) {
+        long windowSeconds = WINDOW.toSeconds();
+        long epochSecond = now.getEpochSecond();
+        return Instant.ofEpochSecond(epochSecond - Math.floorMod(epochSecond, windowSeconds));
+    }
+
+    static boolean isLocalMidnight(ZoneId zone, Instant windowStart, DayOfWeek weekday) {
+        Instant windowEnd = windowStart.plus(WINDOW);
+        // The local date at the end of the window is the one whose midnight could fall inside it
+        LocalDate date = windowEnd.minusNanos(1).atZone(zone).toLocalDate();
+        Instant midnight = date.atStartOfDay(zone).toInstant();
+        boolean inWindow = !midnight.isBefore(windowStart) && midnight.isBefore(windowEnd);
+        return inWindow && (weekday == null || date.getDayOfWeek() == weekday);
+    }
+
+    /**
+     * Timezone preference values due in one window. {@code includeUnset} covers users with no timezone set.
+     * The window start identifies the cohort run, e.g. for job checkpoints.
+     */
+    public record Cohort(Instant windowStart, List<String> timezones, boolean includeUnset) {
+
+        public boolean isEmpty() {
+            return timezones.isEmpty() && !includeUnset;
+        }
+
+        /** Timezone values for an {@code IN} predicate; never empty, since '' is already treated as unset. */
+        public List<String> timezonesOrPlaceholder() {
+            return timezones.isEmpty() ? List.of("") : timezones;
+        }
+
+        public String runKey() {
+            return windowStart.truncatedTo(ChronoUnit.MINUTES).toString();
+        }
+
+        /** The local day that starts in this window for a timezone preference value ('' for unset). */
+        public LocalDate localDate(String timezone) {
+            return windowStart.plus(WINDOW).minusNanos(1)
+                    .atZone(ReminderEvaluationContext.zoneFor(timezone)).toLocalDate();
+        }
+    }
+}
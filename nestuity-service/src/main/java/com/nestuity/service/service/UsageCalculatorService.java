@@ -10,20 +10,24 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Objects;
+
 /**
  * Service for managing usage calculator operations.
  */
 @Service
 public class UsageCalculatorService {
-    private static final String DIAPERS_SUPPLY_NAME = "Diapers";
     private static final int DEFAULT_PREFERRED_SUPPLY_MIN = 14;
 
     private final BabyRepository babyRepository;
     private final InventoryService inventoryService;
+    private final BabyReminderService babyReminderService;
 
-    public UsageCalculatorService(final BabyRepository babyRepository, final InventoryService inventoryService) {
+    public UsageCalculatorService(final BabyRepository babyRepository, final InventoryService inventoryService,
+                                  final BabyReminderService babyReminderService) {
         this.babyRepository = babyRepository;
         this.inventoryService = inventoryService;
+        this.babyReminderService = babyReminderService;
     }
 
     /**
@@ -45,11 +49,17 @@ public class UsageCalculatorService {
      * Updates baby entity with information from the request.
      */
     private void updateBabyInformation(final Baby baby, final UsageCalculatorRequest request) {
+        // Compared as calendar dates: a loaded Timestamp never equals the request's java.util.Date
+        final boolean dobChanged = !Objects.equals(ReminderEvaluationContext.dateOf(baby.getDob()),
+                ReminderEvaluationContext.dateOf(request.dob()));
         baby.setDob(request.dob());
         baby.setDailyUsage(request.dailyUsage());
         baby.setWeight(request.weight());
         baby.setDiaperSize(request.diaperSize());
         babyRepository.save(baby);
+        if (dobChanged) {
+            babyReminderService.refreshNextDueForBaby(baby.getId());
+        }
     }
 
     /**
@@ -72,7 +82,7 @@ public class UsageCalculatorService {
      */
     private Inventory getOrCreateDiaperInventory(final User user, final Long userId, final UsageCalculatorRequest request) {
         try {
-            return inventoryService.getInventoryItemByUserAndSupplyName(userId, DIAPERS_SUPPLY_NAME);
+            return inventoryService.getInventoryItemByUserAndSupplyName(userId, SupplyTypeService.DIAPERS);
         } catch (RuntimeException e) {
             return createNewDiaperInventory(user, request);
         }
@@ -84,7 +94,7 @@ public class UsageCalculatorService {
     private Inventory createNewDiaperInventory(final User user, final UsageCalculatorRequest request) {
         final Inventory inventory = new Inventory();
         inventory.setUser(user);
-        inventory.setSupplyName(DIAPERS_SUPPLY_NAME);
+        inventory.setSupplyName(SupplyTypeService.DIAPERS);
         inventory.setPreferredSupplyMin(DEFAULT_PREFERRED_SUPPLY_MIN);
         inventory.setTotalSingleQuantity(0.0);
         inventory.setTotalUnitQuantity(0.0);
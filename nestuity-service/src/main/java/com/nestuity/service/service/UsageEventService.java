@@ -0,0 +1,231 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.dto.UsageEventRequest.UsageEvent;
+import com.nestuity.service.dto.UsageEventResponse;
+import com.nestuity.service.entity.SupplyType;
+import com.nestuity.service.repository.InventoryBatchRepository.SingleQuantityDelta;
+import com.nestuity.service.repository.InventoryRepository;
+import com.nestuity.service.repository.SupplyUsageEstimateRepository;
+import com.nestuity.service.repository.UserRepository;
+import com.nestuity.service.repository.UserRepository.UserTimezone;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ingests supply usage events and applies them to inventory in periodic batches.
+ * <p>
+ * Events are summed per (user, supply, local day) in memory as they arrive, so a burst of events for one household
+ * costs one row update at the next flush rather than one write per event. The day is the local date of the event's
+ * own timestamp, so usage reported around midnight counts on the day it happened; an event without one counts on
+ * the current day in the household's timezone (see {@link ReminderEvaluationContext#zoneFor}). Each flush drains
+ * the sums and applies them in one transaction of JDBC batch updates; a failed flush puts its sums back for the next
+ * one. Sums are additive, so every instance can flush its own buffer without coordinating with the others.
+ * The same transaction adds each day's sums to the household's learned daily usage for that day (see
+ * {@link SupplyUsageEstimator}). Inventory always takes usage uploaded late, but the estimate leaves out usage for
+ * a day it has already closed into its average. Events still pending when the process dies uncleanly are lost; a
+ * graceful shutdown flushes them first.
+ */
+@Slf4j
+@Service
+public class UsageEventService {
+
+    // Upper bound on events per request, to keep one call from holding a request thread for long
+    public static final int MAX_EVENTS_PER_REQUEST = 10_000;
+
+    private final Map<Key, Double> pending = new ConcurrentHashMap<>();
+
+    private final InventoryRepository inventoryRepository;
+    private final SupplyUsageEstimateRepository estimateRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final HouseholdUsageCache householdUsageCache;
+    private final InventoryForecastService forecastService;
+    private final SupplyTypeService supplyTypeService;
+    private final UserRepository userRepository;
+
+    public UsageEventService(InventoryRepository inventoryRepository,
+                             SupplyUsageEstimateRepository estimateRepository,
+                             TransactionTemplate transactionTemplate,
+                             HouseholdUsageCache householdUsageCache,
+                             InventoryForecastService forecastService,
+                             SupplyTypeService supplyTypeService,
+                             UserRepository userRepository) {
+        this.inventoryRepository = inventoryRepository;
+        this.estimateRepository = estimateRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.householdUsageCache = householdUsageCache;
+        this.forecastService = forecastService;
+        this.supplyTypeService = supplyTypeService;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Queues valid events for the next flush. An event needs a user id, the name of a supply someone stocks, a
+     * positive, finite quantity (1 when omitted) and a timestamp no later than tomorrow in the household's timezone
+     * (now when omitted); anything
+     * else is counted as rejected. Events for users without
+     * an inventory row for the supply are accepted and dropped at flush time.
+     */
+    public UsageEventResponse record(List<UsageEvent> events) {
+        if (events.size() > MAX_EVENTS_PER_REQUEST) {
+            throw new IllegalArgumentException("At most " + MAX_EVENTS_PER_REQUEST + " events per request");
+        }
+        Map<Long, LocalDate> todays = todaysOf(events);
+        int accepted = 0;
+        for (UsageEvent event : events) {
+            double quantity = quantityOf(event);
+            if (quantity <= 0) {
+                continue;
+            }
+            LocalDate today = todays.get(event.userId());
+            LocalDate day = (event.occurredAt() != null) ? event.occurredAt().toLocalDate() : today;
+            if (day.isAfter(today.plusDays(1))) {
+                continue;
+            }
+            SupplyType type = supplyTypeService.find(event.supplyName()).orElse(null);
+            if (type == null) {
+                continue;
+            }
+            Key key = new Key(event.userId(), type.getId(), type.getName(), day);
+            // merge is atomic per key, so concurrent requests for one household never lose an event
+            pending.merge(key, quantity, Double::sum);
+            accepted++;
+        }
+        return new UsageEventResponse(accepted, events.size() - accepted);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.usage-events.flush-interval-ms:5000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Applies every pending sum to inventory and returns how many (user, supply) rows were updated.
+     */
+    public synchronized int flush() {
+        Map<Key, Double> drained = drain();
+        if (drained.isEmpty()) {
+            return 0;
+        }
+        // The estimates learn each day's sums oldest day first; inventory takes one total per (user, supply)
+        Map<LocalDate, List<SingleQuantityDelta>> byDay = new TreeMap<>();
+        Map<Key, Double> totals = new LinkedHashMap<>();
+        drained.forEach((key, quantity) -> {
+            byDay.computeIfAbsent(key.day(), day -> new ArrayList<>()).add(key.delta(quantity));
+            totals.merge(key.withoutDay(), quantity, Double::sum);
+        });
+        List<SingleQuantityDelta> deltas = new ArrayList<>(totals.size());
+        totals.forEach((key, quantity) -> deltas.add(key.delta(quantity)));
+
+        int matched;
+        try {
+            matched = transactionTemplate.execute(status -> {
+                byDay.forEach((day, dayDeltas) ->
+                        estimateRepository.batchRecordUsage(dayDeltas, day, SupplyUsageEstimator.ALPHA));
+                return inventoryRepository.batchAddSingleQuantity(deltas);
+            });
+        } catch (RuntimeException e) {
+            // Nothing was committed: the sums go back and ride along with the next flush
+            drained.forEach((key, quantity) -> pending.merge(key, quantity, Double::sum));
+            log.error("Usage event flush of {} supply total(s) failed, retrying next flush: {}",
+                    deltas.size(), e.getMessage(), e);
+            return 0;
+        }
+
+        // The batch bypasses the entity listeners, so the cached days left are evicted and the forecasts marked here
+        Set<Long> users = new HashSet<>();
+        for (SingleQuantityDelta delta : deltas) {
+            if (users.add(delta.userId())) {
+                householdUsageCache.evictUser(delta.userId());
+            }
+        }
+        try {
+            forecastService.markStale(users);
+        } catch (RuntimeException e) {
+            // The inventory is committed; the forecasts catch up with the households' next change
+            log.error("Marking {} household forecast(s) stale failed: {}", users.size(), e.getMessage(), e);
+        }
+        if (matched < deltas.size()) {
+            log.info("Usage event flush: {} supply total(s) had no inventory row and were dropped",
+                    deltas.size() - matched);
+        }
+        log.debug("Usage event flush applied {} supply total(s)", matched);
+        return matched;
+    }
+
+    // Number of (user, supply) sums waiting for the next flush
+    int pendingCount() {
+        return pending.size();
+    }
+
+    private Map<Key, Double> drain() {
+        Map<Key, Double> drained = new HashMap<>(pending.size());
+        for (Key key : pending.keySet()) {
+            // remove hands over the sum atomically; events merged afterwards start a new sum
+            Double quantity = pending.remove(key);
+            if (quantity != null) {
+                drained.put(key, quantity);
+            }
+        }
+        return drained;
+    }
+
+    // Positive quantity of a valid event, or 0 when the event is invalid
+    // Today in each event user's timezone, from one query per request; unknown users get the fallback zone's date
+    private Map<Long, LocalDate> todaysOf(List<UsageEvent> events) {
+        Set<Long> userIds = new HashSet<>();
+        for (UsageEvent event : events) {
+            if (event != null && event.userId() != null) {
+                userIds.add(event.userId());
+            }
+        }
+        Map<Long, LocalDate> todays = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return todays;
+        }
+        for (UserTimezone user : userRepository.findTimezonesByIdIn(userIds)) {
+            todays.put(user.getUserId(), LocalDate.now(ReminderEvaluationContext.zoneFor(user.getTimezone())));
+        }
+        LocalDate fallback = LocalDate.now(ReminderEvaluationContext.zoneFor(null));
+        userIds.forEach(userId -> todays.putIfAbsent(userId, fallback));
+        return todays;
+    }
+
+    private static double quantityOf(UsageEvent event) {
+        if (event == null || event.userId() == null || event.supplyName() == null || event.supplyName().isBlank()) {
+            return 0;
+        }
+        double quantity = (event.quantity() != null) ? event.quantity() : 1;
+        return (Double.isFinite(quantity) && quantity > 0) ? quantity : 0;
+    }
+
+    // day is null on the per-(user, supply) totals applied to inventory
+    private record Key(Long userId, Integer supplyTypeId, String supplyName, LocalDate day) {
+
+        Key withoutDay() {
+            return new Key(userId, supplyTypeId, supplyName, null);
+        }
+
+        SingleQuantityDelta delta(double quantity) {
+            return new SingleQuantityDelta(userId, supplyTypeId, supplyName, -quantity);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.JobCheckpoint;
+import com.nestuity.service.repository.BabyReminderRepository;
+import com.nestuity.service.repository.BabyReminderRepository.PastDueReminder;
+import com.nestuity.service.repository.BabyRepository;
+import com.nestuity.service.repository.BabyRepository.WeeklySummaryRecipient;
+import com.nestuity.service.type.Frequency;
+import com.nestuity.service.type.ReminderType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Weekly overdue-reminder summary emails, sent per timezone cohort at the cohort's local Sunday midnight.
+ * <p>
+ * Babies whose parent opted in are read in keyset pages (projections only, no long-lived persistence context),
+ * each page's past-due reminders come from one IN query, and the emails are composed and sent on a bounded
+ * worker pool. The checkpoint advances once a page has been sent, so a restarted run picks up after it.
+ */
+@Slf4j
+@Service
+public class WeeklySummaryService {
+
+    static final String JOB_NAME = "weekly-summary";
+    // Runs left unfinished longer than this (e.g. a long outage) are not resumed
+    static final Duration RESUME_WINDOW = Duration.ofDays(2);
+    private static final List<ReminderType> SUMMARY_TYPES = List.of(ReminderType.TASK, ReminderType.VACCINATION);
+
+    private final BabyRepository babyRepository;
+    private final BabyReminderRepository reminderRepository;
+    private final EmailService emailService;
+    private final JobCheckpointService checkpointService;
+    private final Executor executor;
+    private final int pageSize;
+
+    public WeeklySummaryService(BabyRepository babyRepository,
+                                BabyReminderRepository reminderRepository,
+                                EmailService emailService,
+                                JobCheckpointService checkpointService,
+                                @Qualifier("weeklySummaryExecutor") Executor executor,
+                                @Value("${reminders.weekly-summary.page-size:1000}") int pageSize) {
+        this.babyRepository = babyRepository;
+        this.reminderRepository = reminderRepository;
+        this.emailService = emailService;
+        this.checkpointService = checkpointService;
+        this.executor = executor;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Sends the summaries for one timezone cohort. Calling it again for the same cohort window resumes
+     * an interrupted run and does nothing once the run has completed.
+     */
+    public void sendWeeklySummaries(TimezoneCohorts.Cohort cohort) {
+        if (cohort.isEmpty()) return;
+        String runKey = cohort.runKey();
+        JobCheckpoint checkpoint = checkpointService.start(JOB_NAME, runKey);
+        if (checkpoint.isCompleted()) {
+            log.info("Weekly summary for {} already sent, skipping", runKey);
+            return;
+        }
+
+        long afterId = checkpoint.getLastProcessedId();
+        AtomicInteger failures = new AtomicInteger();
+        List<WeeklySummaryRecipient> page;
+        do {
+            page = babyRepository.findWeeklySummaryRecipientsAfter(afterId, cohort.timezonesOrPlaceholder(),
+                    cohort.includeUnset(), Limit.of(pageSize));
+            if (page.isEmpty()) break;
+
+            // next_due is kept on the parent's wall clock, so overdue is judged against the parent's local now
+            Map<Long, LocalDateTime> nowByBaby = page.stream().collect(Collectors.toMap(
+                    WeeklySummaryRecipient::getBabyId,
+                    recipient -> LocalDateTime.now(ReminderEvaluationContext.zoneFor(recipient.getTimezone()))));
+            Map<Long, List<PastDueReminder>> remindersByBaby = reminderRepository
+                    .findPastDueByBabyIdIn(nowByBaby.keySet(), Collections.max(nowByBaby.values()), SUMMARY_TYPES)
+                    .stream()
+                    .collect(Collectors.groupingBy(PastDueReminder::getBabyId));
+
+            CompletableFuture<?>[] sends = page.stream()
+                    .map(recipient -> CompletableFuture.runAsync(() -> send(recipient,
+                            remindersByBaby.getOrDefault(recipient.getBabyId(), List.of()),
+                            nowByBaby.get(recipient.getBabyId()), failures), executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(sends).join();
+
+            afterId = page.getLast().getBabyId();
+            checkpoint = checkpointService.advance(checkpoint, afterId, page.size());
+        } while (page.size() == pageSize);
+
+        checkpointService.complete(checkpoint);
+        log.info("Weekly summary for {} ({}) finished: {} babies, {} failed sends",
+                runKey, cohort.timezones(), checkpoint.getProcessedCount(), failures.get());
+    }
+
+    /** Run keys of cohort runs that were started but never completed, e.g. because the instance died, oldest first. */
+    public List<String> unfinishedRuns() {
+        return checkpointService.unfinished(JOB_NAME, LocalDateTime.now().minus(RESUME_WINDOW)).stream()
+                .map(JobCheckpoint::getRunKey)
+                .toList();
+    }
+
+    private void send(WeeklySummaryRecipient recipient, List<PastDueReminder> reminders,
+                      LocalDateTime now, AtomicInteger failures) {
+        try {
+            emailService.sendWeeklySummaryEmail(
+                    recipient.getEmail(),
+                    recipient.getFirstName(),
+                    overdueTasks(reminders, now),
+                    overdueVaccinations(reminders, now)
+            );
+        } catch (IOException | RuntimeException e) {
+            // One bad address must not stop the run
+            failures.incrementAndGet();
+            log.warn("Failed to send weekly summary for baby {}: {}", recipient.getBabyId(), e.getMessage());
+        }
+    }
+
+    // --- ONLY OVERDUE TASKS (daily tasks skipped) ---
+    static List<Map<String, String>> overdueTasks(List<PastDueReminder> reminders, LocalDateTime now) {
+        return reminders.stream()
+                .filter(r -> r.getType() == ReminderType.TASK)
+                .filter(r -> r.getFrequency() != Frequency.DAILY)
+                .filter(r -> r.getNextDue() != null && r.getNextDue().isBefore(now))
+                .map(r -> {
+                    Map<String, String> task = new HashMap<>();
+                    task.put("taskName", r.getTitle());
+                    task.put("daysOverdue", String.valueOf(ChronoUnit.DAYS.between(r.getNextDue(), now)));
+                    return task;
+                })
+                .collect(Collectors.toList());
+    }
+
+    // --- ONLY OVERDUE VACCINATIONS ---
+    static List<Map<String, String>> overdueVaccinations(List<PastDueReminder> reminders, LocalDateTime now) {
+        return reminders.stream()
+                .filter(r -> r.getType() == ReminderType.VACCINATION)
+                .filter(r -> r.getNextDue() != null && r.getNextDue().isBefore(now) && r.getCompletedOn() == null)
+                .map(r -> Map.of(
+                        "vaccinationName", r.getTitle(),
+                        "daysOverdue", String.valueOf(ChronoUnit.DAYS.between(r.getNextDue(), now))
+                ))
+                .collect(Collectors.toList());
+    }
+}
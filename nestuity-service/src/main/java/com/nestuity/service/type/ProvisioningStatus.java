@@ -0,0 +1,8 @@
+package com.nestuity.service.type;
+
+public enum ProvisioningStatus {
+    CREATED,
+    ALREADY_PROVISIONED,
+    NOT_FOUND,
+    FAILED
+}
@@ -2,6 +2,7 @@ package com.nestuity.service.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.nestuity.service.dto.BabyProductPage;
 import com.nestuity.service.dto.BabyProductResponse;
 import com.nestuity.service.dto.CreateBabyProductRequest;
 import com.nestuity.service.dto.PriceHistoryDTO;
@@ -20,8 +21,11 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -190,6 +194,46 @@ class BabyProductControllerTest {
                 .andExpect(jsonPath("$.length()").value(0));
     }
 
+    @Test
+    void getCatalogueReturnsPageWithNextCursorTest() throws Exception {
+        // Given
+        when(babyProductService.findCatalogue("Feeding", null, true, "MQ", 20, false))
+                .thenReturn(new BabyProductPage(List.of(testResponse), "Mg"));
+
+        // When & Then
+        mockMvc.perform(get("/api/baby-products/catalogue")
+                        .param("category", "Feeding")
+                        .param("inStock", "true")
+                        .param("cursor", "MQ")
+                        .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("Mg"));
+    }
+
+    @Test
+    void getCatalogueDefaultsToLatestPricesTest() throws Exception {
+        // Given
+        when(babyProductService.findCatalogue(null, null, null, null, BabyProductService.DEFAULT_PAGE_SIZE, false))
+                .thenReturn(new BabyProductPage(List.of(), null));
+
+        // When & Then
+        mockMvc.perform(get("/api/baby-products/catalogue"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void getCatalogueRejectsUnknownPricesModeTest() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/baby-products/catalogue").param("prices", "cheapest"))
+                .andExpect(status().isBadRequest());
+
+        verify(babyProductService, never()).findCatalogue(any(), any(), any(), any(), anyInt(), anyBoolean());
+    }
+
     // ==================== UPDATE TESTS ====================
 
     @Test
@@ -3,8 +3,13 @@ package com.nestuity.service.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.nestuity.service.dto.BabyReminderDto;
+import com.nestuity.service.dto.BulkReminderResponse;
+import com.nestuity.service.dto.ReminderDashboardDto;
+import com.nestuity.service.dto.ReminderProvisioningResult;
 import com.nestuity.service.service.BabyReminderService;
+import com.nestuity.service.service.ReminderProvisioningService;
 import com.nestuity.service.type.Frequency;
+import com.nestuity.service.type.ReminderRange;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,7 +21,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -37,6 +44,9 @@ class BabyReminderControllerTest {
     @MockBean
     private BabyReminderService reminderService;
 
+    @MockBean
+    private ReminderProvisioningService provisioningService;
+
     private ObjectMapper objectMapper;
     private BabyReminderDto testDto;
 
@@ -67,6 +77,39 @@ class BabyReminderControllerTest {
         verify(reminderService, times(1)).createReminder(1L);
     }
 
+    @Test
+    void createRemindersForBabiesReturnsPerBabyResultsTest() throws Exception {
+        BulkReminderResponse response = new BulkReminderResponse(1, 32, List.of(
+                ReminderProvisioningResult.created(1L, 32),
+                ReminderProvisioningResult.notFound(2L)));
+        when(provisioningService.provision(List.of(1L, 2L))).thenReturn(response);
+
+        mockMvc.perform(post("/api/reminders/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"babyIds\": [1, 2]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.remindersCreated").value(32))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[1].status").value("NOT_FOUND"));
+
+        verify(reminderService, never()).createReminder(any());
+    }
+
+    @Test
+    void getDashboardReturnsAllSectionsTest() throws Exception {
+        Map<ReminderRange, List<BabyReminderDto>> upcoming = new EnumMap<>(ReminderRange.class);
+        upcoming.put(ReminderRange.TODAY, List.of(testDto));
+        when(reminderService.getDashboard(1L))
+                .thenReturn(new ReminderDashboardDto(1L, upcoming, List.of(), List.of(testDto), null));
+
+        mockMvc.perform(get("/api/reminders/baby/1/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.babyId").value(1))
+                .andExpect(jsonPath("$.upcoming.TODAY.length()").value(1))
+                .andExpect(jsonPath("$.overdue.length()").value(1))
+                .andExpect(jsonPath("$.currentMilestone").doesNotExist());
+    }
+
     // ==================== READ TESTS ====================
 
     @Test
@@ -1,8 +1,14 @@
 package com.nestuity.service.controller;
 
+import com.nestuity.service.dto.InventorySummaryResponse;
+import com.nestuity.service.dto.UsageEventRequest;
+import com.nestuity.service.dto.UsageEventRequest.UsageEvent;
+import com.nestuity.service.dto.UsageEventResponse;
 import com.nestuity.service.entity.Inventory;
 import com.nestuity.service.entity.User;
+import com.nestuity.service.repository.InventoryRepository.UpdatedItem;
 import com.nestuity.service.service.InventoryService;
+import com.nestuity.service.service.UsageEventService;
 import com.nestuity.service.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,7 +17,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,6 +38,9 @@ class InventoryControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private UsageEventService usageEventService;
+
     @InjectMocks
     private InventoryController inventoryController;
 
@@ -67,6 +82,37 @@ class InventoryControllerTest {
         verify(inventoryService).saveInventory(any(Inventory.class));
     }
 
+    @Test
+    void getInventorySummary_ReturnsSummaryWithVersionAsETag() {
+        InventorySummaryResponse summary = new InventorySummaryResponse(1L, LocalDate.now(), List.of());
+        when(inventoryService.getSummaryVersion(1L)).thenReturn("1-7-3-2-2026-10-18");
+        when(inventoryService.getInventorySummary(1L)).thenReturn(summary);
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<InventorySummaryResponse> response = inventoryController.getInventorySummary(1L,
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/api/inventory/user/1/summary"),
+                        servletResponse));
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertSame(summary, response.getBody());
+        assertEquals("\"1-7-3-2-2026-10-18\"", servletResponse.getHeader("ETag"));
+    }
+
+    @Test
+    void getInventorySummary_MatchingIfNoneMatchSkipsSummary() {
+        when(inventoryService.getSummaryVersion(1L)).thenReturn("1-7-3-2-2026-10-18");
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/inventory/user/1/summary");
+        servletRequest.addHeader("If-None-Match", "\"1-7-3-2-2026-10-18\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<InventorySummaryResponse> response = inventoryController.getInventorySummary(1L,
+                new ServletWebRequest(servletRequest, servletResponse));
+
+        assertNull(response);
+        assertEquals(304, servletResponse.getStatus());
+        verify(inventoryService, never()).getInventorySummary(anyLong());
+    }
+
     @Test
     void createInventoryItem_UsesProvidedPreferredSupplyMin() {
         inventory.setPreferredSupplyMin(20);
@@ -90,4 +136,67 @@ class InventoryControllerTest {
         assertEquals(404, response.getStatusCodeValue());
         verify(inventoryService, never()).saveInventory(any());
     }
+
+    @Test
+    void updateUnitQuantity_ReturnsTheRowTheUpdateWrote() {
+        when(userService.getUserById(1L)).thenReturn(Optional.of(user));
+        UpdatedItem row = mock(UpdatedItem.class);
+        when(row.getTotalSingleQuantity()).thenReturn(80.0);
+        when(inventoryService.updateUnitItemQuantity(1L, "diapers", 2.0)).thenReturn(row);
+
+        ResponseEntity<UpdatedItem> response =
+                inventoryController.updateUnitQuantity(1L, "diapers", Map.of("totalUnitQuantity", 2.0));
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(80.0, response.getBody().getTotalSingleQuantity());
+    }
+
+    @Test
+    void adjustSingleQuantity_AppliesDelta() {
+        UpdatedItem row = mock(UpdatedItem.class);
+        when(row.getTotalSingleQuantity()).thenReturn(47.0);
+        when(inventoryService.adjustSingleItemQuantity(1L, "diapers", -3.0)).thenReturn(row);
+
+        ResponseEntity<UpdatedItem> response = inventoryController.adjustSingleQuantity(1L, "diapers", Map.of("delta", -3.0));
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(47.0, response.getBody().getTotalSingleQuantity());
+    }
+
+    @Test
+    void adjustSingleQuantity_MissingDeltaIsBadRequest() {
+        ResponseEntity<UpdatedItem> response = inventoryController.adjustSingleQuantity(1L, "diapers", Map.of());
+
+        assertEquals(400, response.getStatusCodeValue());
+        verifyNoInteractions(inventoryService);
+    }
+
+    @Test
+    void adjustSingleQuantity_NoItemIsNotFound() {
+        when(inventoryService.adjustSingleItemQuantity(1L, "wipes", 5.0))
+                .thenThrow(new RuntimeException("No inventory item found"));
+
+        ResponseEntity<UpdatedItem> response = inventoryController.adjustSingleQuantity(1L, "wipes", Map.of("delta", 5.0));
+
+        assertEquals(404, response.getStatusCodeValue());
+    }
+
+    @Test
+    void recordUsageEvents_QueuesEvents() {
+        List<UsageEvent> events = List.of(new UsageEvent(1L, "diapers", null, null));
+        when(usageEventService.record(events)).thenReturn(new UsageEventResponse(1, 0));
+
+        ResponseEntity<UsageEventResponse> response = inventoryController.recordUsageEvents(new UsageEventRequest(events));
+
+        assertEquals(202, response.getStatusCodeValue());
+        assertEquals(1, response.getBody().accepted());
+    }
+
+    @Test
+    void recordUsageEvents_MissingEventsIsBadRequest() {
+        ResponseEntity<UsageEventResponse> response = inventoryController.recordUsageEvents(new UsageEventRequest(null));
+
+        assertEquals(400, response.getStatusCodeValue());
+        verifyNoInteractions(usageEventService);
+    }
 }
@@ -1,6 +1,7 @@
 package com.nestuity.service.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nestuity.service.dto.PriceUpdateBatchResponse;
 import com.nestuity.service.dto.PriceUpdateRequest;
 import com.nestuity.service.dto.PriceUpdateResponse;
 import com.nestuity.service.service.PriceUpdateService;
@@ -13,8 +14,12 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -92,4 +97,37 @@ class PriceUpdateControllerTest {
                 .andExpect(jsonPath("$.success").value(false))
                 .andExpect(jsonPath("$.message").value("Invalid data"));
     }
+
+    @Test
+    void updatePricesAcceptsJsonArray() throws Exception {
+        PriceUpdateBatchResponse response = PriceUpdateBatchResponse.of(List.of(
+                new PriceUpdateResponse(true, "Created new product", 2L, true),
+                new PriceUpdateResponse(false, "Invalid data", null, false)));
+        when(priceUpdateService.processPriceUpdates(anyList())).thenReturn(response);
+
+        mockMvc.perform(post("/api/price-updates/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(request, request))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[0].productId").value(2));
+    }
+
+    @Test
+    void updatePricesAcceptsNdjsonAndReportsMalformedLines() throws Exception {
+        when(priceUpdateService.processPriceUpdates(anyList())).thenReturn(PriceUpdateBatchResponse.of(List.of()));
+        String body = objectMapper.writeValueAsString(request) + "\n\n{not json\n"
+                + objectMapper.writeValueAsString(request) + "\n";
+
+        mockMvc.perform(post("/api/price-updates/batch")
+                        .contentType(PriceUpdateController.APPLICATION_NDJSON_VALUE)
+                        .content(body))
+                .andExpect(status().isOk());
+
+        // Blank line skipped; the malformed one is passed on as null, to be reported invalid
+        verify(priceUpdateService).processPriceUpdates(argThat(requests -> requests.size() == 3
+                && requests.get(0) != null && requests.get(1) == null && requests.get(2) != null));
+    }
 }
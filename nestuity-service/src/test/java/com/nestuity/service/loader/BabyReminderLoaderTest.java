@@ -0,0 +1,81 @@
+package com.nestuity.service.loader;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nestuity.service.entity.BabyReminder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BabyReminderLoaderTest {
+
+    private static final String ONE_TEMPLATE = """
+            [{"babyId": null, "type": "TASK", "title": "Bathing", "frequency": "DAILY", "occurrence": 1}]
+            """;
+
+    private static final String TWO_TEMPLATES = """
+            [{"type": "TASK", "title": "Bathing", "frequency": "DAILY", "occurrence": 1},
+             {"type": "MILESTONE", "title": "First smile", "frequency": "ONCE", "occurrence": 42}]
+            """;
+
+    @Test
+    void loadReminders_parsesClasspathCatalogueOnce() {
+        BabyReminderLoader loader = new BabyReminderLoader(new ObjectMapper(), new DefaultResourceLoader(),
+                "classpath:baby_reminders.json");
+
+        assertFalse(loader.getTemplates().isEmpty());
+        assertEquals(loader.getTemplates().size(), loader.loadReminders().size());
+        assertSame(loader.getTemplates(), loader.getTemplates());
+    }
+
+    @Test
+    void loadReminders_returnsFreshEntitiesOnEveryCall() {
+        BabyReminderLoader loader = new BabyReminderLoader(new ObjectMapper(), new DefaultResourceLoader(),
+                "classpath:baby_reminders.json");
+
+        List<BabyReminder> first = loader.loadReminders();
+        List<BabyReminder> second = loader.loadReminders();
+        first.get(0).setTitle("changed");
+
+        assertNotSame(first.get(0), second.get(0));
+        assertNotEquals("changed", second.get(0).getTitle());
+        assertNotEquals("changed", loader.getTemplates().get(0).title());
+    }
+
+    @Test
+    void reloadIfChanged_picksUpEditedFile(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("reminders.json");
+        Files.writeString(file, ONE_TEMPLATE);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_000_000L));
+        BabyReminderLoader loader = new BabyReminderLoader(new ObjectMapper(), new DefaultResourceLoader(),
+                file.toUri().toString());
+        assertEquals(1, loader.getTemplates().size());
+
+        Files.writeString(file, TWO_TEMPLATES);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(2_000_000L));
+        loader.reloadIfChanged();
+
+        assertEquals(2, loader.getTemplates().size());
+    }
+
+    @Test
+    void reloadIfChanged_keepsPreviousCatalogueWhenEditIsBroken(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("reminders.json");
+        Files.writeString(file, ONE_TEMPLATE);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_000_000L));
+        BabyReminderLoader loader = new BabyReminderLoader(new ObjectMapper(), new DefaultResourceLoader(),
+                file.toUri().toString());
+
+        Files.writeString(file, "[{ not json");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(2_000_000L));
+        loader.reloadIfChanged();
+
+        assertEquals(1, loader.getTemplates().size());
+    }
+}
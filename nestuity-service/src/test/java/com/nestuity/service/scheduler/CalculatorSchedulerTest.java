@@ -1,25 +1,26 @@
 package com.nestuity.service.scheduler;
 
-import com.nestuity.service.entity.Baby;
-import com.nestuity.service.entity.Inventory;
-import com.nestuity.service.entity.User;
-import com.nestuity.service.entity.UserPreferences;
-import com.nestuity.service.service.BabyService;
-import com.nestuity.service.service.DiaperUsageCalculatorService;
+import com.nestuity.service.repository.InventoryForecastRepository.DueCrossing;
 import com.nestuity.service.service.EmailService;
-import com.nestuity.service.service.InventoryService;
-import com.nestuity.service.dto.DiaperUsageResponse;
+import com.nestuity.service.service.DiaperConsumptionService;
+import com.nestuity.service.service.InventoryForecastService;
+import com.nestuity.service.service.TimezoneCohorts;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
 
-import java.util.Arrays;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -28,183 +29,124 @@ import static org.mockito.Mockito.*;
 class CalculatorSchedulerInventoryTest {
 
     @Mock
-    private BabyService babyService;
+    private EmailService emailService;
 
     @Mock
-    private EmailService emailService;
+    private DiaperConsumptionService diaperConsumptionService;
 
     @Mock
-    private InventoryService inventoryService;
+    private InventoryForecastService inventoryForecastService;
 
     @Mock
-    private DiaperUsageCalculatorService diaperUsageCalculatorService;
+    private TimezoneCohorts timezoneCohorts;
 
     @InjectMocks
     private CalculatorScheduler calculatorScheduler;
 
-    private User parent;
-    private Baby baby;
-    private Inventory diaperInventory;
+    private TimezoneCohorts.Cohort cohort;
 
     @BeforeEach
     void setUp() {
-        parent = new User();
-        parent.setId(1L);
-        parent.setFirstName("Jane");
-        parent.setLastName("Doe");
-        parent.setEmail("jane@example.com");
-
-        // Set up user preferences with email notifications enabled
-        UserPreferences preferences = new UserPreferences();
-        preferences.setEmailNotificationsEnabled(true);
-        parent.setPreferences(preferences);
-
-        baby = new Baby();
-        baby.setId(1L);
-        baby.setUser(parent);
-        baby.setDailyUsage(10);
-
-        diaperInventory = new Inventory();
-        diaperInventory.setId(1L);
-        diaperInventory.setSupplyName("diapers");
-        diaperInventory.setTotalSingleQuantity(50.0);
-        diaperInventory.setTotalUnitQuantity(5.0);
-        diaperInventory.setUnitConversion(10.0); // 10 singles per box
-        diaperInventory.setUser(parent);
+        cohort = new TimezoneCohorts.Cohort(Instant.parse("2026-10-18T06:00:00Z"), List.of("America/Edmonton"), false);
+        lenient().doAnswer(windows(cohort)).when(timezoneCohorts)
+                .forEachWindow(eq(CalculatorScheduler.WINDOW_CURSOR), any(Instant.class), isNull(), any());
     }
 
     @Test
-    void testRunTask_UpdatesInventoryAndSendsEmail() throws Exception {
-        double originalSingles = diaperInventory.getTotalSingleQuantity();
-        double unitConversion = diaperInventory.getUnitConversion();
-
-        when(babyService.getAllBabies()).thenReturn(Collections.singletonList(baby));
-        when(inventoryService.getInventoryItemByUserAndSupplyName(parent.getId(), "diapers"))
-                .thenReturn(diaperInventory);
-        when(diaperUsageCalculatorService.calculateUsage(baby.getId()))
-                .thenReturn(DiaperUsageResponse.builder().daysLeft(5).build());
-        when(inventoryService.updateInventory(anyLong(), any(Inventory.class))).thenReturn(diaperInventory);
+    void testRunTask_ConsumesCohortThenSendsDueReminders() throws Exception {
+        when(inventoryForecastService.dueReminders(cohort))
+                .thenReturn(List.of(due(1L, "jane@example.com", "Jane", "Doe", 5)));
 
         calculatorScheduler.runTask();
 
-        double expectedSingles = originalSingles - baby.getDailyUsage();
-        double expectedUnits = expectedSingles / unitConversion;
+        InOrder order = inOrder(diaperConsumptionService, inventoryForecastService, emailService);
+        order.verify(diaperConsumptionService).consume(cohort);
+        order.verify(inventoryForecastService).dueReminders(cohort);
+        order.verify(emailService).sendDiaperReminderEmail("jane@example.com", "Jane Doe", 5);
+    }
 
-        verify(inventoryService).updateInventory(eq(diaperInventory.getId()), argThat(inv ->
-                inv.getTotalSingleQuantity() == expectedSingles &&
-                        inv.getTotalUnitQuantity() == expectedUnits
-        ));
+    @Test
+    void testRunTask_HandlesMultipleHouseholds() throws Exception {
+        when(inventoryForecastService.dueReminders(cohort)).thenReturn(List.of(
+                due(1L, "jane@example.com", "Jane", "Doe", 3),
+                due(2L, "john@example.com", "John", "Smith", 0)));
 
-        verify(emailService).sendDiaperReminderEmail(
-                parent.getEmail(),
-                parent.getFirstName() + " " + parent.getLastName(),
-                5
-        );
+        calculatorScheduler.runTask();
+
+        verify(emailService).sendDiaperReminderEmail("jane@example.com", "Jane Doe", 3);
+        verify(emailService).sendDiaperReminderEmail("john@example.com", "John Smith", 0);
     }
 
     @Test
-    void testRunTask_PreventsNegativeInventory() throws Exception {
-        baby.setDailyUsage(60); // larger than current singles
-        double originalSingles = diaperInventory.getTotalSingleQuantity();
-        double unitConversion = diaperInventory.getUnitConversion();
-
-        when(babyService.getAllBabies()).thenReturn(Collections.singletonList(baby));
-        when(inventoryService.getInventoryItemByUserAndSupplyName(parent.getId(), "diapers"))
-                .thenReturn(diaperInventory);
-        when(diaperUsageCalculatorService.calculateUsage(baby.getId()))
-                .thenReturn(DiaperUsageResponse.builder().daysLeft(2).build());
-        when(inventoryService.updateInventory(anyLong(), any(Inventory.class))).thenReturn(diaperInventory);
+    void testRunTask_EmailFailureDoesNotStopOthers() throws Exception {
+        when(inventoryForecastService.dueReminders(cohort)).thenReturn(List.of(
+                due(1L, "jane@example.com", "Jane", "Doe", 3),
+                due(2L, "john@example.com", "John", "Smith", 2)));
+        doThrow(new IOException("down")).when(emailService).sendDiaperReminderEmail(eq("jane@example.com"), anyString(), anyInt());
 
         calculatorScheduler.runTask();
 
-        verify(inventoryService).updateInventory(eq(diaperInventory.getId()), argThat(inv ->
-                inv.getTotalSingleQuantity() == Math.max(0, originalSingles - baby.getDailyUsage()) &&
-                        inv.getTotalUnitQuantity() == Math.max(0, (originalSingles - baby.getDailyUsage()) / unitConversion)
-        ));
-
-        verify(emailService).sendDiaperReminderEmail(
-                parent.getEmail(),
-                parent.getFirstName() + " " + parent.getLastName(),
-                2
-        );
+        verify(emailService).sendDiaperReminderEmail("john@example.com", "John Smith", 2);
     }
 
     @Test
-    void testRunTask_HandlesMultipleBabies() throws Exception {
-        User parent2 = new User();
-        parent2.setId(2L);
-        parent2.setFirstName("John");
-        parent2.setLastName("Smith");
-        parent2.setEmail("john@example.com");
-
-        Baby baby2 = new Baby();
-        baby2.setUser(parent2);
-        baby2.setDailyUsage(5);
-
-        Inventory inventory2 = new Inventory();
-        inventory2.setId(2L);
-        inventory2.setSupplyName("diapers");
-        inventory2.setTotalSingleQuantity(20.0);
-        inventory2.setUnitConversion(10.0);
-        inventory2.setUser(parent2);
-
-        UserPreferences prefs1 = new UserPreferences();
-        prefs1.setEmailNotificationsEnabled(true);
-        parent.setPreferences(prefs1);
-
-        UserPreferences prefs2 = new UserPreferences();
-        prefs2.setEmailNotificationsEnabled(true);
-        parent2.setPreferences(prefs2);
-
-        List<Baby> babies = Arrays.asList(baby, baby2);
-
-        double originalSingles1 = diaperInventory.getTotalSingleQuantity();
-        double unitConversion1 = diaperInventory.getUnitConversion();
-        double originalSingles2 = inventory2.getTotalSingleQuantity();
-        double unitConversion2 = inventory2.getUnitConversion();
-
-        when(babyService.getAllBabies()).thenReturn(babies);
-        when(inventoryService.getInventoryItemByUserAndSupplyName(parent.getId(), "diapers"))
-                .thenReturn(diaperInventory);
-        when(inventoryService.getInventoryItemByUserAndSupplyName(parent2.getId(), "diapers"))
-                .thenReturn(inventory2);
-        when(diaperUsageCalculatorService.calculateUsage(baby.getId()))
-                .thenReturn(DiaperUsageResponse.builder().daysLeft(3).build());
-        when(diaperUsageCalculatorService.calculateUsage(baby2.getId()))
-                .thenReturn(DiaperUsageResponse.builder().daysLeft(5).build());
-        when(inventoryService.updateInventory(anyLong(), any(Inventory.class)))
-                .thenReturn(diaperInventory)
-                .thenReturn(inventory2);
+    void testRunTask_HandlesNoReminders() throws Exception {
+        when(inventoryForecastService.dueReminders(cohort)).thenReturn(Collections.emptyList());
 
         calculatorScheduler.runTask();
 
-        verify(inventoryService).updateInventory(eq(diaperInventory.getId()), argThat(inv ->
-                inv.getTotalSingleQuantity() == originalSingles1 - baby.getDailyUsage() &&
-                        inv.getTotalUnitQuantity() == (originalSingles1 - baby.getDailyUsage()) / unitConversion1
-        ));
+        verify(emailService, never()).sendDiaperReminderEmail(anyString(), anyString(), anyInt());
+    }
 
-        verify(inventoryService).updateInventory(eq(inventory2.getId()), argThat(inv ->
-                inv.getTotalSingleQuantity() == originalSingles2 - baby2.getDailyUsage() &&
-                        inv.getTotalUnitQuantity() == (originalSingles2 - baby2.getDailyUsage()) / unitConversion2
-        ));
+    @Test
+    void testRunTask_EmptyCohort_StillResumesUnfinishedPartitions() {
+        TimezoneCohorts.Cohort empty = new TimezoneCohorts.Cohort(Instant.EPOCH, List.of(), false);
+        doAnswer(windows(empty)).when(timezoneCohorts)
+                .forEachWindow(eq(CalculatorScheduler.WINDOW_CURSOR), any(Instant.class), isNull(), any());
 
-        verify(emailService).sendDiaperReminderEmail(parent.getEmail(),
-                parent.getFirstName() + " " + parent.getLastName(),
-                3);
+        calculatorScheduler.runTask();
 
-        verify(emailService).sendDiaperReminderEmail(parent2.getEmail(),
-                parent2.getFirstName() + " " + parent2.getLastName(),
-                5
-        );
+        verify(diaperConsumptionService).consume(empty);
     }
 
     @Test
-    void testRunTask_HandlesEmptyBabyList() throws Exception {
-        when(babyService.getAllBabies()).thenReturn(Collections.emptyList());
+    void testRunTask_CatchesUpEveryMissedWindow() throws Exception {
+        TimezoneCohorts.Cohort missed =
+                new TimezoneCohorts.Cohort(Instant.parse("2026-10-18T05:45:00Z"), List.of("Asia/Kathmandu"), false);
+        doAnswer(windows(missed, cohort)).when(timezoneCohorts)
+                .forEachWindow(eq(CalculatorScheduler.WINDOW_CURSOR), any(Instant.class), isNull(), any());
+        when(inventoryForecastService.dueReminders(missed))
+                .thenReturn(List.of(due(2L, "john@example.com", "John", "Smith", 4)));
+        when(inventoryForecastService.dueReminders(cohort)).thenReturn(Collections.emptyList());
 
         calculatorScheduler.runTask();
 
-        verify(inventoryService, never()).updateInventory(anyLong(), any());
-        verify(emailService, never()).sendDiaperReminderEmail(anyString(), anyString(), anyInt());
+        InOrder order = inOrder(diaperConsumptionService, emailService);
+        order.verify(diaperConsumptionService).consume(missed);
+        order.verify(emailService).sendDiaperReminderEmail("john@example.com", "John Smith", 4);
+        order.verify(diaperConsumptionService).consume(cohort);
+    }
+
+    // Stands in for the cursor walk: hands each given window's cohort to the job, oldest first
+    private static Answer<Void> windows(TimezoneCohorts.Cohort... cohorts) {
+        return inv -> {
+            Consumer<TimezoneCohorts.Cohort> job = inv.getArgument(3);
+            for (TimezoneCohorts.Cohort c : cohorts) job.accept(c);
+            return null;
+        };
+    }
+
+    private static DueCrossing due(Long userId, String email, String firstName, String lastName, int daysLeft) {
+        return new DueCrossing() {
+            public Long getForecastId() { return userId; }
+            public Long getUserId() { return userId; }
+            public String getEmail() { return email; }
+            public String getFirstName() { return firstName; }
+            public String getLastName() { return lastName; }
+            public LocalDate getDepletionDate() { return LocalDate.of(2026, 10, 18).plusDays(daysLeft); }
+            public LocalDate getNextCrossingDate() { return LocalDate.of(2026, 10, 18); }
+            public Integer getDaysLeft() { return daysLeft; }
+            public boolean getNotify() { return true; }
+        };
     }
 }
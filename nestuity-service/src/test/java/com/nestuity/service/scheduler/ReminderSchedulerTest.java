@@ -0,0 +1,135 @@
+package com.nestuity.service.scheduler;
+
+import com.nestuity.service.service.BabyReminderService;
+import com.nestuity.service.service.SchedulerLockService;
+import com.nestuity.service.service.TimezoneCohorts;
+import com.nestuity.service.service.WeeklySummaryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderSchedulerTest {
+
+    @Mock
+    private BabyReminderService babyReminderService;
+
+    @Mock
+    private WeeklySummaryService weeklySummaryService;
+
+    @Mock
+    private TimezoneCohorts timezoneCohorts;
+
+    @Mock
+    private SchedulerLockService schedulerLock;
+
+    @InjectMocks
+    private ReminderScheduler reminderScheduler;
+
+    @BeforeEach
+    void setUp() {
+        // Lock that is always free, so jobs run in-line
+        lenient().when(schedulerLock.runExclusively(anyString(), any(Duration.class), any(Runnable.class)))
+                .thenAnswer(inv -> {
+                    inv.<Runnable>getArgument(2).run();
+                    return true;
+                });
+    }
+
+    @Test
+    void sendWeeklyReport_runsSummaryJobForSundayCohort() {
+        TimezoneCohorts.Cohort cohort =
+                new TimezoneCohorts.Cohort(Instant.parse("2026-10-18T06:00:00Z"), List.of("America/Edmonton"), false);
+        sundayWindows(cohort);
+
+        reminderScheduler.sendWeeklyReport();
+
+        verify(weeklySummaryService).sendWeeklySummaries(cohort);
+        verify(schedulerLock).runExclusively(eq("weekly-summary:" + cohort.runKey()), any(Duration.class), any(Runnable.class));
+    }
+
+    @Test
+    void sendWeeklyReport_skipsWhenAnotherInstanceHoldsTheRun() {
+        TimezoneCohorts.Cohort cohort =
+                new TimezoneCohorts.Cohort(Instant.parse("2026-10-18T06:00:00Z"), List.of("America/Edmonton"), false);
+        sundayWindows(cohort);
+        when(schedulerLock.runExclusively(anyString(), any(Duration.class), any(Runnable.class))).thenReturn(false);
+
+        reminderScheduler.sendWeeklyReport();
+
+        verify(weeklySummaryService, never()).sendWeeklySummaries(any());
+    }
+
+    @Test
+    void sendWeeklyReport_resumesARunAnotherInstanceLeftUnfinished() {
+        sundayWindows(new TimezoneCohorts.Cohort(Instant.parse("2026-10-18T06:15:00Z"), List.of(), false));
+        TimezoneCohorts.Cohort abandoned =
+                new TimezoneCohorts.Cohort(Instant.parse("2026-10-18T06:00:00Z"), List.of("America/Edmonton"), false);
+        when(weeklySummaryService.unfinishedRuns()).thenReturn(List.of(abandoned.runKey()));
+        when(timezoneCohorts.forRunKey(abandoned.runKey(), DayOfWeek.SUNDAY)).thenReturn(abandoned);
+
+        reminderScheduler.sendWeeklyReport();
+
+        verify(schedulerLock).runExclusively(eq("weekly-summary:" + abandoned.runKey()), any(Duration.class),
+                any(Runnable.class));
+        verify(weeklySummaryService).sendWeeklySummaries(abandoned);
+    }
+
+    @Test
+    void sendWeeklyReport_emptyCohortTakesNoLock() {
+        sundayWindows(new TimezoneCohorts.Cohort(Instant.EPOCH, List.of(), false));
+
+        reminderScheduler.sendWeeklyReport();
+
+        verifyNoInteractions(schedulerLock);
+        verify(weeklySummaryService, never()).sendWeeklySummaries(any());
+    }
+
+    @Test
+    void sendWeeklyReport_catchesUpMissedCohortWindows() {
+        TimezoneCohorts.Cohort missed =
+                new TimezoneCohorts.Cohort(Instant.parse("2026-10-18T04:00:00Z"), List.of("America/Toronto"), false);
+        TimezoneCohorts.Cohort empty =
+                new TimezoneCohorts.Cohort(Instant.parse("2026-10-18T04:15:00Z"), List.of(), false);
+        sundayWindows(missed, empty);
+
+        reminderScheduler.sendWeeklyReport();
+
+        verify(weeklySummaryService).sendWeeklySummaries(missed);
+        verify(schedulerLock).runExclusively(eq("weekly-summary:" + missed.runKey()), any(Duration.class),
+                any(Runnable.class));
+        verify(weeklySummaryService).unfinishedRuns();
+        verifyNoMoreInteractions(weeklySummaryService, schedulerLock);
+    }
+
+    @Test
+    void rollForwardNextDue_delegatesToReminderService() {
+        reminderScheduler.rollForwardNextDue();
+
+        verify(babyReminderService).rollForwardNextDue();
+    }
+
+    // Stands in for the cursor walk: hands each given window's cohort to the job, oldest first
+    private void sundayWindows(TimezoneCohorts.Cohort... cohorts) {
+        doAnswer(inv -> {
+            Consumer<TimezoneCohorts.Cohort> job = inv.getArgument(3);
+            for (TimezoneCohorts.Cohort c : cohorts) job.accept(c);
+            return null;
+        }).when(timezoneCohorts).forEachWindow(eq(ReminderScheduler.WEEKLY_SUMMARY_CURSOR), any(Instant.class),
+                eq(DayOfWeek.SUNDAY), any());
+    }
+}
@@ -1,12 +1,18 @@
 package com.nestuity.service.service;
 
+import com.nestuity.service.dto.BabyProductPage;
 import com.nestuity.service.dto.BabyProductResponse;
 import com.nestuity.service.dto.CreateBabyProductRequest;
 import com.nestuity.service.dto.PriceHistoryDTO;
 import com.nestuity.service.dto.UpdateBabyProductRequest;
 import com.nestuity.service.entity.BabyProduct;
+import com.nestuity.service.entity.ProductPriceSummary;
 import com.nestuity.service.exception.ResourceNotFoundException;
+import com.nestuity.service.repository.BabyProductCatalogueRepository.CatalogueFilter;
+import com.nestuity.service.repository.BabyProductCatalogueRepository.CatalogueProduct;
 import com.nestuity.service.repository.BabyProductRepository;
+import com.nestuity.service.repository.PriceHistoryRepository;
+import com.nestuity.service.repository.PriceHistoryRepository.ProductPrice;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,6 +25,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,6 +38,15 @@ class BabyProductServiceTest {
     @Mock
     private BabyProductRepository babyProductRepository;
 
+    @Mock
+    private PriceHistoryRepository priceHistoryRepository;
+
+    @Mock
+    private ProductPriceSummaryService priceSummaryService;
+
+    @Mock
+    private ProductListingService listingService;
+
     @InjectMocks
     private BabyProductService babyProductService;
 
@@ -102,6 +118,8 @@ class BabyProductServiceTest {
         // Then
         assertNotNull(response);
         verify(babyProductRepository, times(1)).save(any(BabyProduct.class));
+        verify(listingService).register(1L, "Amazon", "https://amazon.ca/product/123");
+        verify(priceSummaryService).rebuild(1L);
     }
 
     @Test
@@ -180,6 +198,8 @@ class BabyProductServiceTest {
     void findByIdWithValidIdReturnsProductTest() {
         // Given
         when(babyProductRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(priceSummaryService.forProducts(List.of(1L)))
+                .thenReturn(Map.of(1L, List.of(priceSummary(1L, "Amazon", "29.99", "24.99"))));
 
         // When
         BabyProductResponse response = babyProductService.findById(1L);
@@ -188,6 +208,7 @@ class BabyProductServiceTest {
         assertNotNull(response);
         assertEquals(testProduct.getId(), response.getId());
         assertEquals(testProduct.getName(), response.getName());
+        assertEquals(new BigDecimal("24.99"), response.getPriceSummary().get(0).getMinPrice());
         verify(babyProductRepository, times(1)).findById(1L);
     }
 
@@ -316,6 +337,10 @@ class BabyProductServiceTest {
         // Then
         assertNotNull(response);
         verify(babyProductRepository).save(any(BabyProduct.class));
+        verify(babyProductRepository).flush();
+        verify(priceSummaryService).rebuild(1L);
+        verify(babyProductRepository).flush();
+        verify(priceSummaryService).rebuild(1L);
     }
 
     // ==================== DELETE TESTS ====================
@@ -423,5 +448,85 @@ class BabyProductServiceTest {
         );
         assertEquals("Request cannot be null", exception.getMessage());
     }
-}
 
+    // ==================== CATALOGUE TESTS ====================
+
+    @Test
+    void findCatalogueReturnsPageWithLatestPricesTest() {
+        // Given: one more row than the limit, so another page follows
+        when(babyProductRepository.findCataloguePage(new CatalogueFilter("Feeding", null, true), 0L, 3))
+                .thenReturn(List.of(catalogueProduct(4L), catalogueProduct(7L), catalogueProduct(9L)));
+        when(priceSummaryService.forProducts(List.of(4L, 7L)))
+                .thenReturn(Map.of(4L, List.of(priceSummary(4L, "Walmart", "12.99", "10.99"))));
+
+        // When
+        BabyProductPage page = babyProductService.findCatalogue("Feeding", " ", true, null, 2, false);
+
+        // Then
+        assertEquals(2, page.items().size());
+        assertEquals(1, page.items().get(0).getPriceHistory().size());
+        assertEquals(new BigDecimal("12.99"), page.items().get(0).getPriceHistory().get(0).getPrice());
+        assertEquals(new BigDecimal("10.99"), page.items().get(0).getPriceSummary().get(0).getMinPrice());
+        assertTrue(page.items().get(1).getPriceHistory().isEmpty());
+        assertEquals(7L, BabyProductService.decodeCursor(page.nextCursor()));
+        verifyNoInteractions(priceHistoryRepository);
+    }
+
+    @Test
+    void findCatalogueResumesAfterCursorTest() {
+        // Given
+        when(babyProductRepository.findCataloguePage(new CatalogueFilter(null, null, null), 7L, 3))
+                .thenReturn(List.of(catalogueProduct(9L)));
+        when(priceSummaryService.forProducts(List.of(9L)))
+                .thenReturn(Map.of(9L, List.of(priceSummary(9L, "Amazon", "8.50", "8.50"))));
+        ProductPrice older = productPrice(9L, "Amazon", "9.00");
+        ProductPrice newer = productPrice(9L, "Amazon", "8.50");
+        when(priceHistoryRepository.findAllByProductIds(List.of(9L))).thenReturn(List.of(older, newer));
+
+        // When
+        BabyProductPage page = babyProductService.findCatalogue(null, null, null,
+                BabyProductService.encodeCursor(7L), 2, true);
+
+        // Then
+        assertEquals(1, page.items().size());
+        assertEquals(2, page.items().get(0).getPriceHistory().size());
+        assertEquals(1, page.items().get(0).getPriceSummary().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void findCatalogueRejectsBadLimitAndCursorTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> babyProductService.findCatalogue(null, null, null, null, 0, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> babyProductService.findCatalogue(null, null, null, null, BabyProductService.MAX_PAGE_SIZE + 1, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> babyProductService.findCatalogue(null, null, null, "not a cursor!", 10, false));
+        verifyNoInteractions(babyProductRepository, priceHistoryRepository, priceSummaryService);
+    }
+
+    private static CatalogueProduct catalogueProduct(Long id) {
+        return new CatalogueProduct(id, "Product " + id, "Brand", "Feeding", null, "CAD", true,
+                LocalDateTime.now(), LocalDateTime.now());
+    }
+
+    private static ProductPrice productPrice(Long productId, String retailer, String price) {
+        ProductPrice productPrice = mock(ProductPrice.class);
+        when(productPrice.getProductId()).thenReturn(productId);
+        when(productPrice.getRetailer()).thenReturn(retailer);
+        when(productPrice.getPrice()).thenReturn(new BigDecimal(price));
+        return productPrice;
+    }
+
+    private static ProductPriceSummary priceSummary(Long productId, String retailer, String latest, String min) {
+        ProductPriceSummary summary = new ProductPriceSummary();
+        summary.setProductId(productId);
+        summary.setRetailer(retailer);
+        summary.setLatestPrice(new BigDecimal(latest));
+        summary.setLatestPriceAt(LocalDateTime.now());
+        summary.setMinPrice(new BigDecimal(min));
+        summary.setMaxPrice(new BigDecimal(latest));
+        summary.setAvgPrice30d(new BigDecimal(latest));
+        return summary;
+    }
+}
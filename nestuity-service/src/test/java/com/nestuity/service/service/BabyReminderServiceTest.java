@@ -1,18 +1,25 @@
 package com.nestuity.service.service;
 
 import com.nestuity.service.dto.BabyReminderDto;
+import com.nestuity.service.dto.ReminderDashboardDto;
 import com.nestuity.service.entity.Baby;
 import com.nestuity.service.entity.BabyReminder;
+import com.nestuity.service.entity.User;
+import com.nestuity.service.entity.UserPreferences;
 import com.nestuity.service.loader.BabyReminderLoader;
+import com.nestuity.service.loader.ReminderTemplate;
 import com.nestuity.service.repository.BabyReminderRepository;
 import com.nestuity.service.repository.BabyRepository;
+import com.nestuity.service.repository.UserPreferencesRepository;
 import com.nestuity.service.type.Frequency;
+import com.nestuity.service.type.ReminderRange;
 import com.nestuity.service.type.ReminderType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.*;
 import java.util.*;
@@ -27,10 +34,12 @@ class BabyReminderServiceTest {
     @Mock private BabyReminderRepository reminderRepository;
     @Mock private BabyRepository babyRepository;
     @Mock private BabyReminderLoader reminderLoader;
+    @Mock private UserPreferencesRepository preferencesRepository;
     @InjectMocks private BabyReminderService babyReminderService;
 
     private Baby testBaby;
     private BabyReminder testReminder;
+    private ReminderTemplate testTemplate;
 
     @BeforeEach
     void setUp() {
@@ -47,6 +56,9 @@ class BabyReminderServiceTest {
         testReminder.setOccurrence(60);
         testReminder.setRequiresAction(true);
         testReminder.setNotes("Initial dose");
+
+        testTemplate = new ReminderTemplate(ReminderType.VACCINATION, "Vaccination A", null,
+                Frequency.MONTHLY, 60, true, "Initial dose");
     }
 
     // ==================== CREATE TESTS ====================
@@ -54,11 +66,10 @@ class BabyReminderServiceTest {
     @Test
     void createReminder_savesLoadedRemindersWithoutDuplicates() {
         // Given
-        List<BabyReminder> loaded = List.of(testReminder);
         when(babyRepository.findById(1L)).thenReturn(Optional.of(testBaby));
-        when(reminderLoader.loadReminders()).thenReturn(loaded);
-        when(reminderRepository.findByBabyId(1L)).thenReturn(List.of());
-        when(reminderRepository.saveAll(anyList())).thenReturn(loaded);
+        when(reminderLoader.getTemplates()).thenReturn(List.of(testTemplate));
+        when(reminderRepository.findTitlesByBabyId(1L)).thenReturn(List.of());
+        when(reminderRepository.saveAll(anyList())).thenReturn(List.of(testReminder));
 
         // When
         babyReminderService.createReminder(1L);
@@ -75,9 +86,9 @@ class BabyReminderServiceTest {
     void createReminder_doesNotSaveDuplicateTitles() {
         // Given
         when(babyRepository.findById(1L)).thenReturn(Optional.of(testBaby));
-        when(reminderLoader.loadReminders()).thenReturn(List.of(testReminder));
-        when(reminderRepository.findByBabyId(1L))
-                .thenReturn(List.of(testReminder)); // duplicate already exists
+        when(reminderLoader.getTemplates()).thenReturn(List.of(testTemplate));
+        when(reminderRepository.findTitlesByBabyId(1L))
+                .thenReturn(List.of(testReminder.getTitle())); // duplicate already exists
 
         // When
         babyReminderService.createReminder(1L);
@@ -86,6 +97,21 @@ class BabyReminderServiceTest {
         verify(reminderRepository, never()).saveAll(anyList());
     }
 
+    @Test
+    void createReminder_skipsRepeatedTemplateTitles() {
+        when(babyRepository.findById(1L)).thenReturn(Optional.of(testBaby));
+        when(reminderLoader.getTemplates()).thenReturn(List.of(testTemplate, testTemplate));
+        when(reminderRepository.findTitlesByBabyId(1L)).thenReturn(List.of());
+
+        babyReminderService.createReminder(1L);
+
+        verify(reminderRepository).saveAll(argThat(iterable -> {
+            List<BabyReminder> list = new ArrayList<>();
+            iterable.forEach(list::add);
+            return list.size() == 1;
+        }));
+    }
+
     @Test
     void createReminder_throwsIfBabyNotFound() {
         when(babyRepository.findById(999L)).thenReturn(Optional.empty());
@@ -118,8 +144,9 @@ class BabyReminderServiceTest {
 
     @Test
     void getRemindersForToday_filtersDueTodayOrDaily() {
+        when(babyRepository.findWithUserById(1L)).thenReturn(Optional.of(testBaby));
         BabyReminder dueToday = makeReminder(ReminderType.TASK, Frequency.DAILY, LocalDateTime.now().minusDays(1));
-        when(reminderRepository.findByBabyId(1L)).thenReturn(List.of(dueToday));
+        when(reminderRepository.findByBabyIdAndNextDueBefore(eq(1L), any())).thenReturn(List.of(dueToday));
 
         List<BabyReminderDto> result = babyReminderService.getRemindersForToday(1L);
 
@@ -128,9 +155,11 @@ class BabyReminderServiceTest {
 
     @Test
     void getMedicalReminders_filtersVaccinationsWithin30Days() {
+        when(babyRepository.findWithUserById(1L)).thenReturn(Optional.of(testBaby));
         BabyReminder vacc = makeReminder(ReminderType.VACCINATION, Frequency.ONCE,
                 LocalDateTime.now().plusDays(10));
-        when(reminderRepository.findByBabyId(1L)).thenReturn(List.of(vacc));
+        when(reminderRepository.findDueBetweenByType(eq(1L), eq(ReminderType.VACCINATION), any(), any()))
+                .thenReturn(List.of(vacc));
 
         List<BabyReminderDto> result = babyReminderService.getMedicalReminders(1L);
         assertEquals(1, result.size());
@@ -139,14 +168,134 @@ class BabyReminderServiceTest {
 
     @Test
     void getOverdueRecurring_returnsPastDueRecurringTasks() {
+        when(babyRepository.findWithUserById(1L)).thenReturn(Optional.of(testBaby));
         BabyReminder pastDue = makeReminder(ReminderType.TASK, Frequency.DAILY,
                 LocalDateTime.now().minusDays(2));
-        when(reminderRepository.findByBabyId(1L)).thenReturn(List.of(pastDue));
+        when(reminderRepository.findByBabyIdAndNextDueBefore(eq(1L), any())).thenReturn(List.of(pastDue));
 
         List<BabyReminderDto> result = babyReminderService.getOverdueRecurring(1L);
         assertEquals(1, result.size());
     }
 
+    @Test
+    void getUpcomingReminders_withWindowQueriesByNextDue() {
+        when(babyRepository.findWithUserById(1L)).thenReturn(Optional.of(testBaby));
+        BabyReminder vacc = makeReminder(ReminderType.VACCINATION, Frequency.ONCE,
+                LocalDateTime.now().plusDays(3));
+        when(reminderRepository.findDueBetweenExcludingType(eq(1L), any(), any(), eq(ReminderType.MILESTONE),
+                eq(ReminderType.TASK), eq(Frequency.DAILY))).thenReturn(List.of(vacc));
+
+        List<BabyReminderDto> result = babyReminderService.getUpcomingReminders(1L, 7);
+
+        assertEquals(1, result.size());
+        verify(reminderRepository, never()).findByBabyId(anyLong());
+    }
+
+    @Test
+    void getUpcomingReminders_includesDailyTaskNotRolledForwardYet() {
+        when(babyRepository.findWithUserById(1L)).thenReturn(Optional.of(testBaby));
+        LocalDate today = LocalDate.now(ReminderEvaluationContext.DEFAULT_ZONE);
+        BabyReminder daily = makeReminder(ReminderType.TASK, Frequency.DAILY, null);
+        daily.setNextDue(today.minusDays(1).atStartOfDay());
+        when(reminderRepository.findDueBetweenExcludingType(1L, today.atStartOfDay(), today.plusDays(8).atStartOfDay(),
+                ReminderType.MILESTONE, ReminderType.TASK, Frequency.DAILY)).thenReturn(List.of(daily));
+
+        List<BabyReminderDto> result = babyReminderService.getUpcomingReminders(1L, 7);
+
+        assertEquals(1, result.size());
+        assertEquals(today.atStartOfDay(), result.get(0).nextDue);
+        assertEquals(ReminderRange.TODAY, result.get(0).getRange());
+    }
+
+    @Test
+    void getUpcomingReminders_emptyWindowForUnknownBabyThrows() {
+        when(reminderRepository.findDueBetweenExcludingType(eq(99L), any(), any(), any(), any(), any()))
+                .thenReturn(List.of());
+        when(reminderRepository.existsByBabyId(99L)).thenReturn(false);
+
+        assertThrows(ResponseStatusException.class, () -> babyReminderService.getUpcomingReminders(99L, 7));
+    }
+
+    @Test
+    void getRemindersByBabyId_rollsStaleDailyNextDueToToday() {
+        BabyReminder daily = makeReminder(ReminderType.TASK, Frequency.DAILY, null);
+        // The baby has no owner timezone, so "today" is in the fallback zone
+        LocalDate today = LocalDate.now(ReminderEvaluationContext.DEFAULT_ZONE);
+        daily.setNextDue(today.minusDays(3).atStartOfDay());
+        when(reminderRepository.findByBabyId(1L)).thenReturn(List.of(daily));
+
+        List<BabyReminderDto> result = babyReminderService.getRemindersByBabyId(1L);
+
+        assertEquals(today.atStartOfDay(), result.get(0).nextDue);
+    }
+
+    // ==================== NEXT DUE MAINTENANCE ====================
+
+    @Test
+    void createReminder_storesNextDue() {
+        when(babyRepository.findById(1L)).thenReturn(Optional.of(testBaby));
+        when(reminderLoader.getTemplates()).thenReturn(List.of(testTemplate));
+        when(reminderRepository.findTitlesByBabyId(1L)).thenReturn(List.of());
+
+        babyReminderService.createReminder(1L);
+
+        verify(reminderRepository).saveAll(argThat(iterable -> {
+            BabyReminder saved = iterable.iterator().next();
+            return saved.getNextDue() != null;
+        }));
+    }
+
+    @Test
+    void rollForwardNextDue_updatesDailyTasksAndBackfillsMissingRows() {
+        BabyReminder missing = makeReminder(ReminderType.VACCINATION, Frequency.ONCE,
+                LocalDateTime.now().plusDays(5));
+        when(reminderRepository.rollForwardNextDue(eq(ReminderType.TASK), eq(Frequency.DAILY), any(), any(),
+                eq(true))).thenReturn(4);
+        when(reminderRepository.findByNextDueIsNullAndIdGreaterThanOrderByIdAsc(eq(0L), any()))
+                .thenReturn(List.of(missing));
+
+        int touched = babyReminderService.rollForwardNextDue();
+
+        assertEquals(5, touched);
+        assertNotNull(missing.getNextDue());
+        verify(reminderRepository).saveAll(List.of(missing));
+    }
+
+    @Test
+    void rollForwardNextDue_rollsEachTimezoneToItsOwnToday() {
+        // UTC+14 and UTC-11 never share a calendar date
+        when(preferencesRepository.findDistinctTimezones())
+                .thenReturn(List.of("Pacific/Kiritimati", "Pacific/Pago_Pago"));
+        when(reminderRepository.findByNextDueIsNullAndIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(List.of());
+
+        babyReminderService.rollForwardNextDue();
+
+        verify(reminderRepository).rollForwardNextDue(eq(ReminderType.TASK), eq(Frequency.DAILY),
+                eq(LocalDate.now(ZoneId.of("Pacific/Kiritimati")).atStartOfDay()), eq(List.of("Pacific/Kiritimati")),
+                anyBoolean());
+        verify(reminderRepository).rollForwardNextDue(eq(ReminderType.TASK), eq(Frequency.DAILY),
+                eq(LocalDate.now(ZoneId.of("Pacific/Pago_Pago")).atStartOfDay()), eq(List.of("Pacific/Pago_Pago")),
+                anyBoolean());
+        // Users without a timezone are rolled exactly once, with the date in the fallback zone
+        verify(reminderRepository).rollForwardNextDue(eq(ReminderType.TASK), eq(Frequency.DAILY),
+                eq(LocalDate.now(ReminderEvaluationContext.zoneFor(null)).atStartOfDay()), any(), eq(true));
+    }
+
+    @Test
+    void getRemindersForToday_usesTheOwnersToday() {
+        UserPreferences prefs = new UserPreferences();
+        prefs.setTimezone("Pacific/Kiritimati");
+        User owner = new User();
+        owner.setPreferences(prefs);
+        testBaby.setUser(owner);
+        when(babyRepository.findWithUserById(1L)).thenReturn(Optional.of(testBaby));
+
+        babyReminderService.getRemindersForToday(1L);
+
+        verify(reminderRepository).findByBabyIdAndNextDueBefore(1L,
+                LocalDate.now(ZoneId.of("Pacific/Kiritimati")).plusDays(1).atStartOfDay());
+    }
+
     // ==================== UPDATE TESTS ====================
 
     public BabyReminderDto updateReminder(Long id, BabyReminderDto dto) {
@@ -205,7 +354,7 @@ class BabyReminderServiceTest {
 
         babyReminderService.markAsCompleted(10L, true);
 
-        verify(reminderRepository).save(argThat(r -> r.getCompletedOn() != null));
+        verify(reminderRepository).save(argThat(r -> r.getCompletedOn() != null && r.getNextDue() != null));
     }
 
     @Test
@@ -241,6 +390,51 @@ class BabyReminderServiceTest {
         assertTrue(result.isEmpty());
     }
 
+    // ==================== DASHBOARD ====================
+
+    @Test
+    void getDashboard_bucketsAllViewsFromSingleFetch() {
+        BabyReminder vaccination = makeReminder(ReminderType.VACCINATION, Frequency.ONCE,
+                LocalDate.now().plusDays(3).atStartOfDay());
+        BabyReminder overdueTask = makeReminder(ReminderType.TASK, Frequency.ONCE,
+                LocalDate.now().minusDays(2).atStartOfDay());
+        BabyReminder milestone = makeReminder(ReminderType.MILESTONE, null,
+                LocalDate.now().minusDays(10).atStartOfDay());
+        when(reminderRepository.findByBabyId(1L)).thenReturn(List.of(vaccination, overdueTask, milestone));
+
+        ReminderDashboardDto dashboard = babyReminderService.getDashboard(1L);
+
+        assertEquals(ReminderRange.values().length, dashboard.upcoming().size());
+        assertEquals(1, dashboard.upcoming().get(ReminderRange.UPCOMING_WEEK).size());
+        assertEquals(1, dashboard.upcoming().get(ReminderRange.OVERDUE).size());
+        assertEquals(1, dashboard.medical().size());
+        assertEquals(ReminderType.VACCINATION, dashboard.medical().getFirst().type);
+        assertEquals(2, dashboard.overdue().size());
+        assertEquals(ReminderType.MILESTONE, dashboard.currentMilestone().type);
+        verify(reminderRepository, times(1)).findByBabyId(1L);
+        verifyNoInteractions(babyRepository);
+    }
+
+    @Test
+    void getDashboard_unknownBabyThrowsNotFound() {
+        when(reminderRepository.findByBabyId(99L)).thenReturn(List.of());
+        when(babyRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(ResponseStatusException.class, () -> babyReminderService.getDashboard(99L));
+    }
+
+    @Test
+    void getDashboard_babyWithoutRemindersReturnsEmptyBuckets() {
+        when(reminderRepository.findByBabyId(1L)).thenReturn(List.of());
+        when(babyRepository.findById(1L)).thenReturn(Optional.of(testBaby));
+
+        ReminderDashboardDto dashboard = babyReminderService.getDashboard(1L);
+
+        assertTrue(dashboard.upcoming().values().stream().allMatch(List::isEmpty));
+        assertTrue(dashboard.medical().isEmpty());
+        assertNull(dashboard.currentMilestone());
+    }
+
     // ==================== UTIL ====================
 
     private BabyReminder makeReminder(ReminderType type, Frequency freq, LocalDateTime due) {
@@ -254,7 +448,7 @@ class BabyReminderServiceTest {
 
         // FIX HERE — prevent NPE for DAILY reminders
         if (freq == Frequency.DAILY) {
-            r.setCompletedOn(LocalDateTime.now().minusDays(1));
+            r.setCompletedOn(LocalDateTime.now(ReminderEvaluationContext.DEFAULT_ZONE).minusDays(1));
         } else {
             r.setCompletedOn(null);
         }
@@ -0,0 +1,142 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.JobCheckpoint;
+import com.nestuity.service.entity.SupplyType;
+import com.nestuity.service.repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DiaperConsumptionServiceTest {
+
+    // Midnight in Edmonton on 2026-10-18, which consumes the 17th
+    private static final TimezoneCohorts.Cohort COHORT =
+            new TimezoneCohorts.Cohort(Instant.parse("2026-10-18T06:00:00Z"), List.of("America/Edmonton"), false);
+    private static final String EDMONTON_KEY = "2026-10-17|America/Edmonton";
+    private static final int DIAPERS_ID = 3;
+    private static final double ALPHA = SupplyUsageEstimator.ALPHA;
+    private static final int MIN_DAYS = SupplyUsageEstimator.MIN_OBSERVED_DAYS;
+    private static final int IDLE_DAYS = SupplyUsageEstimator.MAX_IDLE_DAYS;
+
+    @Mock private InventoryRepository inventoryRepository;
+    @Mock private JobCheckpointService checkpointService;
+    @Mock private TransactionTemplate transactionTemplate;
+    @Mock private SchedulerLockService schedulerLock;
+    @Mock private HouseholdUsageCache householdUsageCache;
+    @Mock private SupplyTypeService supplyTypeService;
+    @InjectMocks private DiaperConsumptionService consumptionService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(schedulerLock.tryAcquire(anyString(), any())).thenReturn(true);
+        SupplyType diapers = new SupplyType(SupplyTypeService.DIAPERS, SupplyTypeService.DIAPERS, null);
+        diapers.setId(DIAPERS_ID);
+        lenient().when(supplyTypeService.find(SupplyTypeService.DIAPERS)).thenReturn(Optional.of(diapers));
+    }
+
+    @Test
+    void consume_registersAndAppliesCohortPartitions() {
+        JobCheckpoint checkpoint = new JobCheckpoint(DiaperConsumptionService.JOB_NAME, EDMONTON_KEY);
+        when(checkpointService.unfinished(eq(DiaperConsumptionService.JOB_NAME), any())).thenReturn(List.of(checkpoint));
+        when(inventoryRepository.consumeDailyDiapers(DIAPERS_ID, List.of("America/Edmonton"), false,
+                LocalDate.of(2026, 10, 17), ALPHA, MIN_DAYS, IDLE_DAYS))
+                .thenReturn(12);
+
+        int consumed = consumptionService.consume(COHORT);
+
+        assertEquals(12, consumed);
+        verify(checkpointService).start(DiaperConsumptionService.JOB_NAME, EDMONTON_KEY);
+        verify(checkpointService).complete(checkpoint);
+        verify(householdUsageCache).evictAll();
+    }
+
+    @Test
+    void consume_unsetPartitionMatchesUsersWithoutTimezone() {
+        TimezoneCohorts.Cohort unsetOnly = new TimezoneCohorts.Cohort(Instant.parse("2026-10-18T06:00:00Z"), List.of(), true);
+        JobCheckpoint checkpoint = new JobCheckpoint(DiaperConsumptionService.JOB_NAME, "2026-10-17|");
+        when(checkpointService.unfinished(eq(DiaperConsumptionService.JOB_NAME), any())).thenReturn(List.of(checkpoint));
+
+        consumptionService.consume(unsetOnly);
+
+        // Users without a timezone follow the server zone
+        verify(checkpointService).start(DiaperConsumptionService.JOB_NAME,
+                DiaperConsumptionService.runKey(unsetOnly.localDate("").minusDays(1), ""));
+        verify(inventoryRepository).consumeDailyDiapers(DIAPERS_ID, List.of(""), true, LocalDate.of(2026, 10, 17),
+                ALPHA, MIN_DAYS, IDLE_DAYS);
+    }
+
+    @Test
+    void consume_resumesPartitionLeftByEarlierRun() {
+        TimezoneCohorts.Cohort empty = new TimezoneCohorts.Cohort(Instant.parse("2026-10-18T07:00:00Z"), List.of(), false);
+        JobCheckpoint leftover = new JobCheckpoint(DiaperConsumptionService.JOB_NAME, EDMONTON_KEY);
+        when(checkpointService.unfinished(eq(DiaperConsumptionService.JOB_NAME), any())).thenReturn(List.of(leftover));
+        when(inventoryRepository.consumeDailyDiapers(anyInt(), any(), anyBoolean(), any(), anyDouble(), anyInt(), anyInt()))
+                .thenReturn(0);
+
+        consumptionService.consume(empty);
+
+        verify(checkpointService, never()).start(any(), any());
+        verify(inventoryRepository).consumeDailyDiapers(DIAPERS_ID, List.of("America/Edmonton"), false,
+                LocalDate.of(2026, 10, 17), ALPHA, MIN_DAYS, IDLE_DAYS);
+        verify(checkpointService).complete(leftover);
+    }
+
+    @Test
+    void consume_failedPartitionStaysOpenAndOthersContinue() {
+        JobCheckpoint failing = new JobCheckpoint(DiaperConsumptionService.JOB_NAME, "2026-10-16|Asia/Kathmandu");
+        JobCheckpoint next = new JobCheckpoint(DiaperConsumptionService.JOB_NAME, EDMONTON_KEY);
+        when(checkpointService.unfinished(eq(DiaperConsumptionService.JOB_NAME), any())).thenReturn(List.of(failing, next));
+        when(inventoryRepository.consumeDailyDiapers(eq(DIAPERS_ID), eq(List.of("Asia/Kathmandu")), anyBoolean(), any(),
+                anyDouble(), anyInt(), anyInt()))
+                .thenThrow(new IllegalStateException("deadlock"));
+        when(inventoryRepository.consumeDailyDiapers(eq(DIAPERS_ID), eq(List.of("America/Edmonton")), anyBoolean(), any(),
+                anyDouble(), anyInt(), anyInt()))
+                .thenReturn(0);
+
+        consumptionService.consume(COHORT);
+
+        verify(checkpointService, never()).complete(failing);
+        verify(checkpointService).complete(next);
+    }
+
+    @Test
+    void consume_skipsPartitionLeasedByAnotherInstance() {
+        JobCheckpoint taken = new JobCheckpoint(DiaperConsumptionService.JOB_NAME, "2026-10-16|Asia/Kathmandu");
+        JobCheckpoint free = new JobCheckpoint(DiaperConsumptionService.JOB_NAME, EDMONTON_KEY);
+        when(checkpointService.unfinished(eq(DiaperConsumptionService.JOB_NAME), any())).thenReturn(List.of(taken, free));
+        when(schedulerLock.tryAcquire(eq("diaper-consumption:2026-10-16|Asia/Kathmandu"), any())).thenReturn(false);
+        when(inventoryRepository.consumeDailyDiapers(anyInt(), any(), anyBoolean(), any(), anyDouble(), anyInt(), anyInt()))
+                .thenReturn(0);
+
+        consumptionService.consume(COHORT);
+
+        verify(inventoryRepository, times(1))
+                .consumeDailyDiapers(anyInt(), any(), anyBoolean(), any(), anyDouble(), anyInt(), anyInt());
+        verify(checkpointService, never()).complete(taken);
+        verify(schedulerLock).release("diaper-consumption:" + EDMONTON_KEY);
+        verify(schedulerLock, never()).release("diaper-consumption:2026-10-16|Asia/Kathmandu");
+    }
+
+    @Test
+    void runKey_joinsDateAndTimezone() {
+        assertEquals(EDMONTON_KEY, DiaperConsumptionService.runKey(LocalDate.of(2026, 10, 17), "America/Edmonton"));
+        assertEquals("2026-10-18|", DiaperConsumptionService.runKey(LocalDate.of(2026, 10, 18), ""));
+    }
+}
@@ -0,0 +1,120 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.dto.DiaperUsageResponse;
+import com.nestuity.service.entity.Baby;
+import com.nestuity.service.entity.Inventory;
+import com.nestuity.service.entity.SupplyType;
+import com.nestuity.service.entity.User;
+import com.nestuity.service.entity.UserPreferences;
+import com.nestuity.service.repository.BabyRepository;
+import com.nestuity.service.repository.InventoryBatchRepository.SingleQuantityDelta;
+import com.nestuity.service.repository.InventoryRepository;
+import com.nestuity.service.repository.SupplyUsageEstimateRepository;
+import com.nestuity.service.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DiaperUsageCalculatorServiceTest {
+
+    @Mock private BabyRepository babyRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private InventoryRepository inventoryRepository;
+    @Mock private SupplyUsageEstimateRepository estimateRepository;
+    @Mock private SupplyTypeService supplyTypeService;
+    @Mock private ObjectProvider<InventoryForecastService> forecastService;
+
+    private DiaperUsageCalculatorService calculatorService;
+    private Baby baby;
+
+    @BeforeEach
+    void setUp() {
+        HouseholdUsageCache cache = new HouseholdUsageCache(Duration.ofMinutes(5));
+        HouseholdUsageService householdUsageService = new HouseholdUsageService(babyRepository, inventoryRepository,
+                estimateRepository, supplyTypeService, cache);
+        calculatorService = new DiaperUsageCalculatorService(babyRepository, userRepository, inventoryRepository,
+                householdUsageService, new HouseholdUsageInvalidator(cache, forecastService), estimateRepository,
+                supplyTypeService);
+
+        SupplyType diapers = new SupplyType("diapers", "diapers", null);
+        diapers.setId(1);
+        lenient().when(supplyTypeService.find(anyString())).thenReturn(Optional.of(diapers));
+        lenient().when(supplyTypeService.resolve(anyString())).thenReturn(diapers);
+
+        User parent = new User();
+        parent.setId(7L);
+        baby = new Baby();
+        baby.setId(3L);
+        baby.setUser(parent);
+        baby.setWeight(5.0);
+        when(babyRepository.findById(3L)).thenReturn(Optional.of(baby));
+        when(babyRepository.sumDailyUsageByUserId(7L)).thenReturn(new BabyRepository.HouseholdDailyUsage() {
+            public long getBabyCount() { return 1; }
+            public long getDailyUsage() { return 8; }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void updateUsage_returnsSupplyAfterTheDecrementEvenWithAWarmCache() {
+        when(inventoryRepository.findFirstByUserIdAndSupplyTypeIdOrderByIdAsc(7L, 1))
+                .thenReturn(Optional.of(diapers(80.0)))
+                .thenReturn(Optional.of(diapers(70.0)));
+        assertEquals(80.0, calculatorService.calculateUsage(3L).getRemainingSupply());
+
+        // As inside the @Transactional method: the cache eviction is deferred until the commit
+        TransactionSynchronizationManager.initSynchronization();
+        DiaperUsageResponse response = calculatorService.updateUsage(3L, 10);
+
+        verify(inventoryRepository).addSingleQuantity(7L, 1, -10);
+        assertEquals(70.0, response.getRemainingSupply());
+        assertEquals(8, response.getDaysLeft());
+    }
+
+    @Test
+    void updateUsage_recordsUsageOnTheHouseholdsLocalDay() {
+        UserPreferences prefs = new UserPreferences();
+        prefs.setTimezone("Pacific/Kiritimati");
+        baby.getUser().setPreferences(prefs);
+        when(inventoryRepository.findFirstByUserIdAndSupplyTypeIdOrderByIdAsc(7L, 1))
+                .thenReturn(Optional.of(diapers(70.0)));
+
+        calculatorService.updateUsage(3L, 10);
+
+        verify(estimateRepository).batchRecordUsage(
+                List.of(new SingleQuantityDelta(7L, 1, SupplyTypeService.DIAPERS, -10)),
+                LocalDate.now(ZoneId.of("Pacific/Kiritimati")), SupplyUsageEstimator.ALPHA);
+    }
+
+    private static Inventory diapers(double singles) {
+        Inventory inventory = new Inventory();
+        inventory.setSupplyName("diapers");
+        inventory.setTotalSingleQuantity(singles);
+        inventory.setUnitConversion(40.0);
+        inventory.setTotalUnitQuantity(singles / 40.0);
+        inventory.setPreferredSupplyMin(14);
+        return inventory;
+    }
+}
@@ -0,0 +1,123 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.Baby;
+import com.nestuity.service.entity.Inventory;
+import com.nestuity.service.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class HouseholdUsageCacheTest {
+
+    private final HouseholdUsage usage = new HouseholdUsage(1L, "diapers", true, 100, 10, 50, 14, 1);
+    private final InventoryForecastService forecastService = mock(InventoryForecastService.class);
+
+    @Test
+    void get_reloadsAfterTtl() {
+        MutableClock clock = new MutableClock(Instant.parse("2026-10-18T00:00:00Z"));
+        HouseholdUsageCache cache = new HouseholdUsageCache(Duration.ofMinutes(5), clock);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, "diapers", () -> { loads.incrementAndGet(); return usage; });
+        clock.now = clock.now.plus(Duration.ofMinutes(4));
+        cache.get(1L, "diapers", () -> { loads.incrementAndGet(); return usage; });
+        assertEquals(1, loads.get());
+
+        clock.now = clock.now.plus(Duration.ofMinutes(2));
+        cache.get(1L, "diapers", () -> { loads.incrementAndGet(); return usage; });
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictUser_dropsOnlyThatHousehold() {
+        HouseholdUsageCache cache = new HouseholdUsageCache(Duration.ofMinutes(5));
+        cache.get(1L, "diapers", () -> usage);
+        cache.get(1L, "wipes", () -> usage);
+        cache.get(2L, "diapers", () -> usage);
+
+        cache.evictUser(1L);
+
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void invalidator_evictsOwnerOfChangedBabyOrInventory() {
+        HouseholdUsageCache cache = new HouseholdUsageCache(Duration.ofMinutes(5));
+        HouseholdUsageInvalidator invalidator = new HouseholdUsageInvalidator(cache, forecasts());
+        cache.get(1L, "diapers", () -> usage);
+        cache.get(2L, "diapers", () -> usage);
+
+        Baby baby = new Baby();
+        baby.setUser(user(1L));
+        invalidator.changed(baby);
+        assertEquals(1, cache.size());
+
+        Inventory inventory = new Inventory();
+        inventory.setUser(user(2L));
+        invalidator.changed(inventory);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void invalidator_waitsForCommitInsideTransaction() {
+        HouseholdUsageCache cache = new HouseholdUsageCache(Duration.ofMinutes(5));
+        HouseholdUsageInvalidator invalidator = new HouseholdUsageInvalidator(cache, forecasts());
+        cache.get(1L, "diapers", () -> usage);
+        Baby baby = new Baby();
+        baby.setUser(user(1L));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            invalidator.changed(baby);
+            assertEquals(1, cache.size());
+            verifyNoInteractions(forecastService);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(0, cache.size());
+            verify(forecastService).markStale(List.of(1L));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // Hands the mocked forecast service to the invalidator, as the application context would
+    @SuppressWarnings("unchecked")
+    private ObjectProvider<InventoryForecastService> forecasts() {
+        ObjectProvider<InventoryForecastService> provider = mock(ObjectProvider.class);
+        doAnswer(inv -> {
+            inv.<Consumer<InventoryForecastService>>getArgument(0).accept(forecastService);
+            return null;
+        }).when(provider).ifAvailable(any());
+        return provider;
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private static final class MutableClock extends Clock {
+        Instant now;
+
+        MutableClock(Instant now) { this.now = now; }
+
+        @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+}
@@ -0,0 +1,164 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.Inventory;
+import com.nestuity.service.entity.SupplyType;
+import com.nestuity.service.entity.SupplyUsageEstimate;
+import com.nestuity.service.repository.BabyRepository;
+import com.nestuity.service.repository.InventoryRepository;
+import com.nestuity.service.repository.SupplyUsageEstimateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HouseholdUsageServiceTest {
+
+    private static final SupplyType DIAPERS = supplyType(1, "diapers", null);
+    private static final SupplyType WIPES = supplyType(2, "wipes", 10.0);
+
+    @Mock private BabyRepository babyRepository;
+    @Mock private InventoryRepository inventoryRepository;
+    @Mock private SupplyUsageEstimateRepository estimateRepository;
+    @Mock private SupplyTypeService supplyTypeService;
+
+    private HouseholdUsageCache cache;
+    private HouseholdUsageService householdUsageService;
+
+    @BeforeEach
+    void setUp() {
+        cache = new HouseholdUsageCache(Duration.ofMinutes(5));
+        householdUsageService = new HouseholdUsageService(babyRepository, inventoryRepository, estimateRepository,
+                supplyTypeService, cache);
+        lenient().when(supplyTypeService.find(anyString())).thenAnswer(inv -> switch (
+                SupplyTypeService.normalize(inv.getArgument(0))) {
+            case "diapers" -> Optional.of(DIAPERS);
+            case "wipes" -> Optional.of(WIPES);
+            default -> Optional.empty();
+        });
+    }
+
+    @Test
+    void usageFor_twinsShareOneDiaperRow() {
+        // Twins using 8 a day each against 160 diapers last 10 days, not 20
+        when(babyRepository.sumDailyUsageByUserId(1L)).thenReturn(babies(2, 16));
+        when(inventoryRepository.findFirstByUserIdAndSupplyTypeIdOrderByIdAsc(1L, 1))
+                .thenReturn(Optional.of(diapers(160.0, 40.0, 14)));
+
+        HouseholdUsage usage = householdUsageService.usageFor(1L, "diapers");
+
+        assertEquals(16, usage.dailyUsage());
+        assertEquals(2, usage.babyCount());
+        assertEquals(10, usage.daysLeft());
+        // (14 - 10) days * 16 a day = 64 diapers = 2 boxes of 40
+        assertEquals(2, usage.recommendedPurchase());
+    }
+
+    @Test
+    void usageFor_isCachedUntilEvicted() {
+        when(babyRepository.sumDailyUsageByUserId(1L)).thenReturn(babies(1, 8));
+        when(inventoryRepository.findFirstByUserIdAndSupplyTypeIdOrderByIdAsc(1L, 1))
+                .thenReturn(Optional.of(diapers(80.0, 40.0, 14)));
+
+        householdUsageService.usageFor(1L, "diapers");
+        householdUsageService.usageFor(1L, "Diapers");
+        verify(babyRepository, times(1)).sumDailyUsageByUserId(1L);
+
+        cache.evictUser(1L);
+        householdUsageService.usageFor(1L, "diapers");
+        verify(babyRepository, times(2)).sumDailyUsageByUserId(1L);
+    }
+
+    @Test
+    void usageFor_withoutInventoryHasNothingLeft() {
+        when(babyRepository.sumDailyUsageByUserId(1L)).thenReturn(babies(1, 8));
+        when(inventoryRepository.findFirstByUserIdAndSupplyTypeIdOrderByIdAsc(1L, 1)).thenReturn(Optional.empty());
+
+        HouseholdUsage usage = householdUsageService.usageFor(1L, "diapers");
+
+        assertFalse(usage.hasInventory());
+        assertEquals(0, usage.daysLeft());
+        assertEquals(0, usage.recommendedPurchase());
+    }
+
+    @Test
+    void usageFor_prefersLearnedUsageOnceEstablished() {
+        // The norms say 8 a day, but two weeks of reported usage say 10
+        SupplyUsageEstimate estimate = new SupplyUsageEstimate();
+        estimate.setStartedOn(LocalDate.now().minusDays(15));
+        estimate.setCurrentDay(LocalDate.now());
+        estimate.setCurrentDayTotal(4.0);
+        estimate.setDailyUsage(10.0);
+        estimate.setObservedDays(14);
+        when(babyRepository.sumDailyUsageByUserId(1L)).thenReturn(babies(1, 8));
+        when(inventoryRepository.findFirstByUserIdAndSupplyTypeIdOrderByIdAsc(1L, 1))
+                .thenReturn(Optional.of(diapers(100.0, 40.0, 14)));
+        when(estimateRepository.findByUserIdAndSupplyName(1L, "diapers")).thenReturn(Optional.of(estimate));
+
+        HouseholdUsage usage = householdUsageService.usageFor(1L, "Diapers");
+
+        assertEquals(10.0, usage.dailyUsage());
+        assertEquals(10, usage.daysLeft());
+    }
+
+    @Test
+    void usageFor_otherSuppliesUseTheTypeDefaultPerBaby() {
+        // Wipes default to 10 a baby a day: twins go through 200 wipes in 10 days
+        when(babyRepository.sumDailyUsageByUserId(1L)).thenReturn(babies(2, 16));
+        when(inventoryRepository.findFirstByUserIdAndSupplyTypeIdOrderByIdAsc(1L, 2))
+                .thenReturn(Optional.of(diapers(200.0, 80.0, 14)));
+
+        HouseholdUsage usage = householdUsageService.usageFor(1L, "Wipes");
+
+        assertEquals(20.0, usage.dailyUsage());
+        assertEquals(10, usage.daysLeft());
+    }
+
+    @Test
+    void usageFor_unknownSupplyHasNoInventory() {
+        when(babyRepository.sumDailyUsageByUserId(1L)).thenReturn(babies(1, 8));
+
+        HouseholdUsage usage = householdUsageService.usageFor(1L, "teething rings");
+
+        assertFalse(usage.hasInventory());
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    @Test
+    void recommendedPurchase_neverNegativeAndGuardsEmptyBoxSize() {
+        assertEquals(0, new HouseholdUsage(1L, "diapers", true, 400, 8, 40, 14, 1).recommendedPurchase());
+        assertEquals(0, new HouseholdUsage(1L, "diapers", true, 10, 8, 0, 14, 1).recommendedPurchase());
+    }
+
+    private static BabyRepository.HouseholdDailyUsage babies(long count, long dailyUsage) {
+        return new BabyRepository.HouseholdDailyUsage() {
+            public long getBabyCount() { return count; }
+            public long getDailyUsage() { return dailyUsage; }
+        };
+    }
+
+    private static Inventory diapers(double singles, double perBox, int preferredMin) {
+        Inventory inventory = new Inventory();
+        inventory.setSupplyName("diapers");
+        inventory.setTotalSingleQuantity(singles);
+        inventory.setUnitConversion(perBox);
+        inventory.setTotalUnitQuantity(singles / perBox);
+        inventory.setPreferredSupplyMin(preferredMin);
+        return inventory;
+    }
+
+    private static SupplyType supplyType(int id, String name, Double defaultDailyUsage) {
+        SupplyType type = new SupplyType(name, name, defaultDailyUsage);
+        type.setId(id);
+        return type;
+    }
+}
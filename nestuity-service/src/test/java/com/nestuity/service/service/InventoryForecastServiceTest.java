@@ -0,0 +1,178 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.SupplyType;
+import com.nestuity.service.repository.InventoryForecastRepository;
+import com.nestuity.service.repository.InventoryForecastRepository.DueCrossing;
+import com.nestuity.service.repository.InventoryForecastRepository.StaleForecast;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryForecastServiceTest {
+
+    // 18:00 in Edmonton on 2026-10-17, already the 18th in UTC
+    private static final Instant NOW = Instant.parse("2026-10-18T00:00:00Z");
+    private static final LocalDate EDMONTON_TODAY = LocalDate.of(2026, 10, 17);
+    private static final int DIAPERS_ID = 3;
+
+    @Mock private InventoryForecastRepository forecastRepository;
+    @Mock private HouseholdUsageService householdUsageService;
+    @Mock private SchedulerLockService schedulerLock;
+    @Mock private SupplyTypeService supplyTypeService;
+
+    private InventoryForecastService forecastService;
+
+    @BeforeEach
+    void setUp() {
+        forecastService = new InventoryForecastService(forecastRepository, householdUsageService, schedulerLock,
+                supplyTypeService, Clock.fixed(NOW, ZoneOffset.UTC));
+        SupplyType diapers = new SupplyType(SupplyTypeService.DIAPERS, SupplyTypeService.DIAPERS, null);
+        diapers.setId(DIAPERS_ID);
+        lenient().when(supplyTypeService.find(SupplyTypeService.DIAPERS)).thenReturn(Optional.of(diapers));
+    }
+
+    @Test
+    void nextCrossing_isTheEarliestThresholdStillAhead() {
+        LocalDate today = LocalDate.of(2026, 10, 18);
+
+        // 10 days left: the 7-day threshold in 3 days
+        assertEquals(new InventoryForecastService.Crossing(today.plusDays(3), 7),
+                InventoryForecastService.nextCrossing(today.plusDays(10), today, null));
+        // 4 days left: 7 and 5 are behind, 3 is tomorrow
+        assertEquals(new InventoryForecastService.Crossing(today.plusDays(1), 3),
+                InventoryForecastService.nextCrossing(today.plusDays(4), today, null));
+        // 3 days left is due today, unless today's reminder already went out
+        assertEquals(new InventoryForecastService.Crossing(today, 3),
+                InventoryForecastService.nextCrossing(today.plusDays(3), today, null));
+        assertEquals(new InventoryForecastService.Crossing(today.plusDays(1), 2),
+                InventoryForecastService.nextCrossing(today.plusDays(3), today, today));
+        // Run out yesterday, or not used at all: nothing ahead
+        assertNull(InventoryForecastService.nextCrossing(today.minusDays(1), today, null));
+        assertNull(InventoryForecastService.nextCrossing(null, today, null));
+    }
+
+    @Test
+    void refresh_storesProjectionInHouseholdsLocalDate() {
+        StaleForecast stale = stale(5L, 1L, "America/Edmonton");
+        when(forecastRepository.findStale(anyInt())).thenReturn(List.of(stale));
+        // 100 diapers at 10 a day: 10 days left
+        when(householdUsageService.load(1L, "diapers"))
+                .thenReturn(new HouseholdUsage(1L, "diapers", true, 100, 10, 40, 14, 1));
+        when(forecastRepository.storeProjection(anyLong(), anyLong(), any(), any(), any())).thenReturn(1);
+
+        assertEquals(1, forecastService.refreshBatches());
+
+        verify(forecastRepository).storeProjection(5L, 3L, EDMONTON_TODAY.plusDays(10), EDMONTON_TODAY.plusDays(3), 7);
+    }
+
+    @Test
+    void refresh_withoutUsageHasNoDepletionOrCrossing() {
+        when(forecastRepository.findStale(anyInt())).thenReturn(List.of(stale(5L, 1L, null)));
+        when(householdUsageService.load(1L, "diapers"))
+                .thenReturn(new HouseholdUsage(1L, "diapers", true, 100, 0, 40, 14, 0));
+
+        forecastService.refreshBatches();
+
+        verify(forecastRepository).storeProjection(5L, 3L, null, null, null);
+    }
+
+    @Test
+    void refresh_removesForecastOfSupplyNoLongerStocked() {
+        when(forecastRepository.findStale(anyInt())).thenReturn(List.of(stale(5L, 1L, null)));
+        when(householdUsageService.load(1L, "diapers"))
+                .thenReturn(new HouseholdUsage(1L, "diapers", false, 0, 8, 0, 0, 1));
+
+        forecastService.refreshBatches();
+
+        verify(forecastRepository).deleteIfUnchanged(5L, 3L);
+        verify(forecastRepository, never()).storeProjection(anyLong(), anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void refresh_failureLeavesOthersRefreshed() {
+        when(forecastRepository.findStale(anyInt())).thenReturn(List.of(stale(5L, 1L, null), stale(6L, 2L, null)));
+        when(householdUsageService.load(1L, "diapers")).thenThrow(new IllegalStateException("timeout"));
+        when(householdUsageService.load(2L, "diapers"))
+                .thenReturn(new HouseholdUsage(2L, "diapers", true, 80, 8, 40, 14, 1));
+        when(forecastRepository.storeProjection(eq(6L), anyLong(), any(), any(), any())).thenReturn(1);
+
+        assertEquals(1, forecastService.refreshBatches());
+    }
+
+    @Test
+    void dueReminders_claimsEachCrossingAndAdvancesIt() {
+        TimezoneCohorts.Cohort cohort = new TimezoneCohorts.Cohort(
+                Instant.parse("2026-10-18T06:00:00Z"), List.of("America/Edmonton"), false);
+        LocalDate today = LocalDate.of(2026, 10, 18);
+        DueCrossing due = due(9L, today.plusDays(3), today, true);
+        when(forecastRepository.findDueCrossings(DIAPERS_ID, List.of("America/Edmonton"), false, today)).thenReturn(List.of(due));
+        when(forecastRepository.advanceCrossing(9L, today, today.plusDays(1), 2, today)).thenReturn(1);
+
+        List<DueCrossing> reminders = forecastService.dueReminders(cohort);
+
+        assertEquals(List.of(due), reminders);
+    }
+
+    @Test
+    void dueReminders_skipsCrossingsClaimedElsewhereOrWithoutNotifications() {
+        TimezoneCohorts.Cohort cohort = new TimezoneCohorts.Cohort(
+                Instant.parse("2026-10-18T06:00:00Z"), List.of("America/Edmonton"), false);
+        LocalDate today = LocalDate.of(2026, 10, 18);
+        DueCrossing claimedElsewhere = due(9L, today.plusDays(3), today, true);
+        DueCrossing muted = due(10L, today, today, false);
+        when(forecastRepository.findDueCrossings(DIAPERS_ID, List.of("America/Edmonton"), false, today))
+                .thenReturn(List.of(claimedElsewhere, muted));
+        when(forecastRepository.advanceCrossing(eq(9L), any(), any(), any(), any())).thenReturn(0);
+        when(forecastRepository.advanceCrossing(10L, today, null, null, today)).thenReturn(1);
+
+        assertTrue(forecastService.dueReminders(cohort).isEmpty());
+        // The muted household's crossing still moved on, so it is not due again tomorrow
+        verify(forecastRepository).advanceCrossing(10L, today, null, null, today);
+    }
+
+    @Test
+    void markStale_withNoUsersDoesNothing() {
+        forecastService.markStale(List.of());
+
+        verifyNoInteractions(forecastRepository);
+    }
+
+    private static StaleForecast stale(Long id, Long userId, String timezone) {
+        return new StaleForecast() {
+            public Long getId() { return id; }
+            public Long getUserId() { return userId; }
+            public String getSupplyName() { return "diapers"; }
+            public long getRevision() { return 3L; }
+            public LocalDate getNotifiedOn() { return null; }
+            public String getTimezone() { return timezone; }
+        };
+    }
+
+    private static DueCrossing due(Long forecastId, LocalDate depletion, LocalDate crossing, boolean notify) {
+        return new DueCrossing() {
+            public Long getForecastId() { return forecastId; }
+            public Long getUserId() { return forecastId; }
+            public String getEmail() { return "parent@example.com"; }
+            public String getFirstName() { return "Jane"; }
+            public String getLastName() { return "Doe"; }
+            public LocalDate getDepletionDate() { return depletion; }
+            public LocalDate getNextCrossingDate() { return crossing; }
+            public Integer getDaysLeft() { return 3; }
+            public boolean getNotify() { return notify; }
+        };
+    }
+}
@@ -1,8 +1,12 @@
 package com.nestuity.service.service;
 
+import com.nestuity.service.dto.InventorySummaryResponse;
 import com.nestuity.service.entity.Inventory;
+import com.nestuity.service.entity.SupplyType;
 import com.nestuity.service.entity.User;
+import com.nestuity.service.exception.ResourceNotFoundException;
 import com.nestuity.service.repository.InventoryRepository;
+import com.nestuity.service.repository.InventoryRepository.UpdatedItem;
 import com.nestuity.service.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +15,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Optional;
@@ -23,12 +28,21 @@ import static org.junit.jupiter.api.Assertions.*;
 @ExtendWith(MockitoExtension.class)
 class InventoryServiceTest {
 
+    private static final SupplyType DIAPERS = supplyType(1, "diapers", null);
+    private static final SupplyType WIPES = supplyType(2, "wipes", 10.0);
+
     @Mock
     private InventoryRepository inventoryRepository;
 
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private HouseholdUsageInvalidator householdUsageInvalidator;
+
+    @Mock
+    private SupplyTypeService supplyTypeService;
+
     @InjectMocks
     private InventoryService inventoryService;
 
@@ -45,22 +59,33 @@ class InventoryServiceTest {
         inventory = new Inventory();
         inventory.setId(1L);
         inventory.setSupplyName("diapers");
+        inventory.setSupplyTypeId(DIAPERS.getId());
         inventory.setTotalSingleQuantity(50.0);
         inventory.setTotalUnitQuantity(5.0);
         inventory.setUnitConversion(10.0);
         inventory.setUser(user);
+
+        lenient().when(supplyTypeService.find(anyString())).thenAnswer(inv -> switch (
+                SupplyTypeService.normalize(inv.getArgument(0))) {
+            case "diapers" -> Optional.of(DIAPERS);
+            case "wipes" -> Optional.of(WIPES);
+            default -> Optional.empty();
+        });
     }
 
     // ---------------- CREATE ----------------
     @Test
     void testSaveInventory_Success() {
+        inventory.setSupplyTypeId(null);
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(supplyTypeService.resolve("diapers")).thenReturn(DIAPERS);
         when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
 
         Inventory saved = inventoryService.saveInventory(inventory);
 
         assertNotNull(saved);
         assertEquals(user, saved.getUser());
+        assertEquals(DIAPERS.getId(), saved.getSupplyTypeId());
         verify(inventoryRepository).save(inventory);
     }
 
@@ -119,17 +144,17 @@ class InventoryServiceTest {
     @Test
     void testGetInventoryItemByUserAndSupplyName_Success() {
         when(userRepository.existsById(user.getId())).thenReturn(true);
-        when(inventoryRepository.findByUserIdAndSupplyNameIgnoreCase(user.getId(), "diapers"))
+        when(inventoryRepository.findFirstByUserIdAndSupplyTypeIdOrderByIdAsc(user.getId(), DIAPERS.getId()))
                 .thenReturn(Optional.of(inventory));
 
-        Inventory result = inventoryService.getInventoryItemByUserAndSupplyName(user.getId(), "diapers");
+        Inventory result = inventoryService.getInventoryItemByUserAndSupplyName(user.getId(), "Diapers");
         assertEquals(inventory, result);
     }
 
     @Test
     void testGetInventoryItemByUserAndSupplyName_NotFound() {
         when(userRepository.existsById(user.getId())).thenReturn(true);
-        when(inventoryRepository.findByUserIdAndSupplyNameIgnoreCase(user.getId(), "wipes"))
+        when(inventoryRepository.findFirstByUserIdAndSupplyTypeIdOrderByIdAsc(user.getId(), WIPES.getId()))
                 .thenReturn(Optional.empty());
 
         RuntimeException ex = assertThrows(RuntimeException.class, () ->
@@ -137,10 +162,61 @@ class InventoryServiceTest {
         assertTrue(ex.getMessage().contains("No inventory item found"));
     }
 
+    @Test
+    void testGetInventoryItemByUserAndSupplyName_UnknownSupplySkipsQuery() {
+        when(userRepository.existsById(user.getId())).thenReturn(true);
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () ->
+                inventoryService.getInventoryItemByUserAndSupplyName(user.getId(), "teething rings"));
+        assertTrue(ex.getMessage().contains("No inventory item found"));
+        verify(inventoryRepository, never()).findFirstByUserIdAndSupplyTypeIdOrderByIdAsc(anyLong(), anyInt());
+    }
+
+    @Test
+    void testGetSummaryVersion_ChangesWithTheDate() {
+        InventoryRepository.SummaryVersion version = mock(InventoryRepository.SummaryVersion.class);
+        when(version.getItemCount()).thenReturn(2L);
+        when(version.getIdSum()).thenReturn(3L);
+        when(version.getVersionSum()).thenReturn(9L);
+        when(version.getForecastRevisionSum()).thenReturn(4L);
+        when(inventoryRepository.findSummaryVersion(user.getId())).thenReturn(Optional.of(version));
+
+        assertEquals("2-3-9-4-" + LocalDate.now(), inventoryService.getSummaryVersion(user.getId()));
+    }
+
+    @Test
+    void testGetSummaryVersion_UserNotFound() {
+        when(inventoryRepository.findSummaryVersion(2L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> inventoryService.getSummaryVersion(2L));
+    }
+
+    @Test
+    void testGetInventorySummary_ComputesDaysLeftPerSupply() {
+        // Twins: diapers follow their summed usage of 16 a day, wipes the default of 10 a baby a day
+        InventoryRepository.SummaryRow diapers = summaryRow(1L, "diapers", 1, null, 160.0, 40.0, 14);
+        InventoryRepository.SummaryRow wipes = summaryRow(2L, "Wipes", 2, 10.0, 100.0, 80.0, 14);
+        when(inventoryRepository.findSummaryRows(user.getId())).thenReturn(List.of(diapers, wipes));
+
+        InventorySummaryResponse summary = inventoryService.getInventorySummary(user.getId());
+
+        assertEquals(2, summary.items().size());
+        InventorySummaryResponse.Item diaperItem = summary.items().get(0);
+        assertEquals(16.0, diaperItem.dailyUsage());
+        assertEquals(10, diaperItem.daysLeft());
+        // (14 - 10) days * 16 a day = 64 diapers = 2 boxes of 40
+        assertEquals(2, diaperItem.recommendedPurchase());
+        InventorySummaryResponse.Item wipesItem = summary.items().get(1);
+        assertEquals(20.0, wipesItem.dailyUsage());
+        assertEquals(5, wipesItem.daysLeft());
+        verifyNoMoreInteractions(inventoryRepository);
+    }
+
     @Test
     void testGetTotalItemQuantity() {
         Inventory other = new Inventory();
         other.setSupplyName("wipes");
+        other.setSupplyTypeId(WIPES.getId());
         other.setTotalSingleQuantity(20.0);
         when(userRepository.existsById(user.getId())).thenReturn(true);
         when(inventoryRepository.findByUserId(user.getId())).thenReturn(Arrays.asList(inventory, other));
@@ -152,13 +228,69 @@ class InventoryServiceTest {
     // ---------------- UPDATE ----------------
     @Test
     void testSetSingleItemQuantity() {
-        when(userRepository.existsById(user.getId())).thenReturn(true);
-        when(inventoryRepository.findByUserIdAndSupplyNameIgnoreCase(user.getId(), "diapers"))
-                .thenReturn(Optional.of(inventory));
-        when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
+        UpdatedItem row = mock(UpdatedItem.class);
+        when(row.getTotalSingleQuantity()).thenReturn(100.0);
+        when(inventoryRepository.setSingleQuantity(user.getId(), DIAPERS.getId(), 100.0)).thenReturn(Optional.of(row));
 
-        Inventory updated = inventoryService.setSingleItemQuantity(user.getId(), "diapers", 100.0);
+        UpdatedItem updated = inventoryService.setSingleItemQuantity(user.getId(), "diapers", 100.0);
         assertEquals(100.0, updated.getTotalSingleQuantity());
+        verify(inventoryRepository, never()).save(any());
+    }
+
+    @Test
+    void testUpdateUnitItemQuantity_SingleStatement() {
+        UpdatedItem row = mock(UpdatedItem.class);
+        when(inventoryRepository.setUnitQuantity(user.getId(), DIAPERS.getId(), 2.0)).thenReturn(Optional.of(row));
+
+        UpdatedItem updated = inventoryService.updateUnitItemQuantity(user.getId(), "diapers", 2.0);
+
+        assertSame(row, updated);
+        verify(inventoryRepository, never()).findFirstByUserIdAndSupplyTypeIdOrderByIdAsc(anyLong(), anyInt());
+        verify(inventoryRepository, never()).save(any());
+        verify(householdUsageInvalidator).evictAfterCommit(user.getId());
+    }
+
+    @Test
+    void testUpdateUnitItemQuantity_NoItemThrows() {
+        when(inventoryRepository.setUnitQuantity(user.getId(), DIAPERS.getId(), 2.0)).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> inventoryService.updateUnitItemQuantity(user.getId(), "diapers", 2.0));
+        verify(householdUsageInvalidator, never()).evictAfterCommit(anyLong());
+    }
+
+    @Test
+    void testUpdateSingleItemQuantity_SingleStatement() {
+        UpdatedItem row = mock(UpdatedItem.class);
+        when(inventoryRepository.setSingleQuantity(user.getId(), DIAPERS.getId(), 30.0)).thenReturn(Optional.of(row));
+
+        UpdatedItem updated = inventoryService.updateSingleItemQuantity(user.getId(), "diapers", 30.0);
+
+        assertSame(row, updated);
+        verify(inventoryRepository, never()).save(any());
+        verify(householdUsageInvalidator).evictAfterCommit(user.getId());
+    }
+
+    @Test
+    void testAdjustSingleItemQuantity_AppliesDeltaInDatabase() {
+        UpdatedItem row = mock(UpdatedItem.class);
+        when(inventoryRepository.addSingleQuantity(user.getId(), DIAPERS.getId(), -3.0)).thenReturn(Optional.of(row));
+
+        UpdatedItem updated = inventoryService.adjustSingleItemQuantity(user.getId(), "diapers", -3.0);
+
+        assertSame(row, updated);
+        verify(inventoryRepository, never()).findFirstByUserIdAndSupplyTypeIdOrderByIdAsc(anyLong(), anyInt());
+        verify(inventoryRepository, never()).save(any());
+        verify(householdUsageInvalidator).evictAfterCommit(user.getId());
+    }
+
+    @Test
+    void testAdjustSingleItemQuantity_NoItem() {
+        when(inventoryRepository.addSingleQuantity(user.getId(), WIPES.getId(), 2.0)).thenReturn(Optional.empty());
+
+        RuntimeException ex = assertThrows(RuntimeException.class,
+                () -> inventoryService.adjustSingleItemQuantity(user.getId(), "wipes", 2.0));
+        assertTrue(ex.getMessage().contains("wipes"));
+        verifyNoInteractions(householdUsageInvalidator);
     }
 
     @Test
@@ -171,12 +303,14 @@ class InventoryServiceTest {
         newDetails.setUser(user);
 
         when(inventoryRepository.findById(1L)).thenReturn(Optional.of(inventory));
+        when(supplyTypeService.resolve("wipes")).thenReturn(WIPES);
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
         when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
 
         Inventory result = inventoryService.updateInventory(1L, newDetails);
 
         assertEquals("wipes", result.getSupplyName());
+        assertEquals(WIPES.getId(), result.getSupplyTypeId());
         assertEquals(30, result.getTotalSingleQuantity());
         verify(inventoryRepository).save(any());
     }
@@ -197,4 +331,28 @@ class InventoryServiceTest {
         assertFalse(deleted);
         verify(inventoryRepository, never()).deleteById(2L);
     }
+
+    private static SupplyType supplyType(int id, String name, Double defaultDailyUsage) {
+        SupplyType type = new SupplyType(name, name, defaultDailyUsage);
+        type.setId(id);
+        return type;
+    }
+
+    private static InventoryRepository.SummaryRow summaryRow(Long id, String supplyName, int supplyTypeId,
+                                                             Double defaultDailyUsage, double singles,
+                                                             double perBox, int preferredMin) {
+        InventoryRepository.SummaryRow row = mock(InventoryRepository.SummaryRow.class);
+        lenient().when(row.getInventoryId()).thenReturn(id);
+        lenient().when(row.getSupplyName()).thenReturn(supplyName);
+        lenient().when(row.getSupplyTypeId()).thenReturn(supplyTypeId);
+        lenient().when(row.getSupplyType()).thenReturn(SupplyTypeService.normalize(supplyName));
+        lenient().when(row.getDefaultDailyUsage()).thenReturn(defaultDailyUsage);
+        lenient().when(row.getTotalSingleQuantity()).thenReturn(singles);
+        lenient().when(row.getTotalUnitQuantity()).thenReturn(singles / perBox);
+        lenient().when(row.getUnitConversion()).thenReturn(perBox);
+        lenient().when(row.getPreferredSupplyMin()).thenReturn(preferredMin);
+        lenient().when(row.getBabyCount()).thenReturn(2L);
+        lenient().when(row.getBabiesDailyUsage()).thenReturn(16L);
+        return row;
+    }
 }
@@ -25,7 +25,14 @@ class PriceScraperSchedulerServiceTest {
 
     @BeforeEach
     void setUp() {
-        service = new PriceScraperSchedulerService();
+        // Lock that is always free, so the scrape runs in-line
+        SchedulerLockService schedulerLock = Mockito.mock(SchedulerLockService.class);
+        Mockito.lenient().when(schedulerLock.runExclusively(Mockito.anyString(), Mockito.any(), Mockito.any()))
+                .thenAnswer(inv -> {
+                    inv.<Runnable>getArgument(2).run();
+                    return true;
+                });
+        service = new PriceScraperSchedulerService(schedulerLock);
 
         // Inject fake values to avoid actual process execution
         ReflectionTestUtils.setField(service, "pythonPath", "/usr/bin/python3");
@@ -1,14 +1,29 @@
 package com.nestuity.service.service;
 
+import com.nestuity.service.dto.PriceUpdateBatchResponse;
 import com.nestuity.service.dto.PriceUpdateRequest;
 import com.nestuity.service.dto.PriceUpdateResponse;
 import com.nestuity.service.entity.BabyProduct;
+import com.nestuity.service.entity.PriceHistory;
+import com.nestuity.service.repository.BabyProductBatchRepository.ScrapeDetails;
 import com.nestuity.service.repository.BabyProductRepository;
+import com.nestuity.service.repository.PriceHistoryBatchRepository.NewPrice;
+import com.nestuity.service.repository.PriceHistoryRepository;
+import com.nestuity.service.repository.ProductListingBatchRepository.NewListing;
+import com.nestuity.service.repository.ProductListingRepository.ListedProduct;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -19,12 +34,24 @@ import static org.mockito.Mockito.*;
 class PriceUpdateServiceTest {
 
     private BabyProductRepository babyProductRepository;
+    private PriceHistoryRepository priceHistoryRepository;
+    private ProductListingService listingService;
+    private ProductPriceSummaryService priceSummaryService;
     private PriceUpdateService priceUpdateService;
 
     @BeforeEach
     void setUp() {
         babyProductRepository = mock(BabyProductRepository.class);
-        priceUpdateService = new PriceUpdateService(babyProductRepository);
+        priceHistoryRepository = mock(PriceHistoryRepository.class);
+        listingService = mock(ProductListingService.class);
+        priceSummaryService = mock(ProductPriceSummaryService.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        priceUpdateService = new PriceUpdateService(babyProductRepository, priceHistoryRepository, listingService,
+                priceSummaryService, transactionTemplate);
     }
 
     @Test
@@ -38,14 +65,14 @@ class PriceUpdateServiceTest {
         request.setCategory("Feeding");
         request.setBrand("Philips");
 
-        when(babyProductRepository.findByPriceHistoryProductUrl(request.getProductUrl()))
-                .thenReturn(Optional.empty());
+        when(listingService.findProductId(request.getProductUrl())).thenReturn(Optional.empty());
 
         BabyProduct saved = new BabyProduct();
         saved.setId(1L);
         saved.setName("Baby Bottle");
 
         when(babyProductRepository.save(any(BabyProduct.class))).thenReturn(saved);
+        when(listingService.register(1L, "Walmart", request.getProductUrl())).thenReturn(true);
 
         // Act
         PriceUpdateResponse response = priceUpdateService.processPriceUpdate(request);
@@ -56,6 +83,40 @@ class PriceUpdateServiceTest {
         assertEquals(1L, response.getProductId());
         assertTrue(response.getMessage().toLowerCase().contains("baby bottle"));
         verify(babyProductRepository, times(1)).save(any(BabyProduct.class));
+        verify(priceHistoryRepository).save(argThat(price -> price.getBabyProduct() == saved));
+    }
+
+    @Test
+    void processPriceUpdate_ShouldAddToConcurrentlyCreatedProduct_WhenListingTaken() {
+        // Arrange: another scrape lists the URL between the lookup and the insert
+        PriceUpdateRequest request = new PriceUpdateRequest();
+        request.setProductUrl("http://example.com/product3");
+        request.setProductName("Baby Bath");
+        request.setRetailer("Walmart");
+        request.setPrice(BigDecimal.valueOf(24.99));
+
+        BabyProduct ours = new BabyProduct();
+        ours.setId(5L);
+        BabyProduct winner = new BabyProduct();
+        winner.setId(4L);
+
+        when(listingService.findProductId(request.getProductUrl()))
+                .thenReturn(Optional.empty()).thenReturn(Optional.of(4L));
+        when(babyProductRepository.save(any(BabyProduct.class))).thenReturn(ours);
+        when(listingService.register(5L, "Walmart", request.getProductUrl())).thenReturn(false);
+        when(babyProductRepository.getReferenceById(4L)).thenReturn(winner);
+        when(babyProductRepository.applyScrape(eq(4L), isNull(), isNull(), isNull(), isNull(), any()))
+                .thenReturn(Optional.of("Baby Bath"));
+
+        // Act
+        PriceUpdateResponse response = priceUpdateService.processPriceUpdate(request);
+
+        // Assert
+        assertTrue(response.isSuccess());
+        assertFalse(response.isNewProduct());
+        assertEquals(4L, response.getProductId());
+        verify(babyProductRepository).delete(ours);
+        verify(priceHistoryRepository).save(argThat(price -> price.getBabyProduct() == winner));
     }
 
     @Test
@@ -71,10 +132,10 @@ class PriceUpdateServiceTest {
         existing.setId(2L);
         existing.setName("Baby Wipes");
 
-        when(babyProductRepository.findByPriceHistoryProductUrl(request.getProductUrl()))
-                .thenReturn(Optional.of(existing));
-
-        when(babyProductRepository.save(any(BabyProduct.class))).thenReturn(existing);
+        when(listingService.findProductId(request.getProductUrl())).thenReturn(Optional.of(2L));
+        when(babyProductRepository.getReferenceById(2L)).thenReturn(existing);
+        when(babyProductRepository.applyScrape(eq(2L), isNull(), isNull(), isNull(), isNull(), any()))
+                .thenReturn(Optional.of("Baby Wipes"));
 
         // Act
         PriceUpdateResponse response = priceUpdateService.processPriceUpdate(request);
@@ -83,7 +144,17 @@ class PriceUpdateServiceTest {
         assertTrue(response.isSuccess());
         assertFalse(response.isNewProduct());
         assertEquals(2L, response.getProductId());
-        verify(babyProductRepository, times(1)).save(any(BabyProduct.class));
+        assertTrue(response.getMessage().contains("Baby Wipes"));
+        // One targeted update and one insert: neither the product nor its history is loaded
+        verify(babyProductRepository, never()).findById(any());
+        verify(babyProductRepository, never()).save(any(BabyProduct.class));
+        verify(priceHistoryRepository).save(any(PriceHistory.class));
+        verify(listingService, never()).register(any(), any(), any());
+        // Written out before the summary reads the history
+        var order = inOrder(babyProductRepository, priceSummaryService);
+        order.verify(babyProductRepository).flush();
+        order.verify(priceSummaryService).recordPrice(eq(2L), eq("Amazon"), eq("http://example.com/product2"),
+                eq(BigDecimal.valueOf(9.49)), any());
     }
 
     @Test
@@ -98,6 +169,7 @@ class PriceUpdateServiceTest {
         // Assert
         assertFalse(response.isSuccess());
         assertTrue(response.getMessage().contains("Invalid request"));
+        verifyNoInteractions(priceSummaryService);
         verify(babyProductRepository, never()).save(any());
     }
 
@@ -110,7 +182,7 @@ class PriceUpdateServiceTest {
         request.setRetailer("Target");
         request.setPrice(BigDecimal.valueOf(15.00));
 
-        when(babyProductRepository.findByPriceHistoryProductUrl(request.getProductUrl()))
+        when(listingService.findProductId(request.getProductUrl()))
                 .thenThrow(new RuntimeException("DB error"));
 
         // Act
@@ -120,4 +192,142 @@ class PriceUpdateServiceTest {
         assertFalse(response.isSuccess());
         assertTrue(response.getMessage().contains("Failed to process price update"));
     }
+
+    // ==================== BATCH TESTS ====================
+
+    @Test
+    void processPriceUpdates_ShouldCreateOncePerNewUrlAndUpdateListedProducts() {
+        // Arrange: a listed URL, a new URL scraped twice, and an invalid update
+        PriceUpdateRequest listed = batchRequest("http://example.com/listed", "Listed", "9.99");
+        PriceUpdateRequest fresh = batchRequest("http://example.com/new", "Fresh", "5.00");
+        PriceUpdateRequest freshAgain = batchRequest("http://example.com/new/", "Fresh", "4.50");
+        PriceUpdateRequest invalid = new PriceUpdateRequest();
+        String listedHash = hashOf(listed);
+        String freshHash = hashOf(fresh);
+
+        when(listingService.findListed(anyCollection())).thenAnswer(inv -> {
+            Collection<String> hashes = inv.getArgument(0);
+            return hashes.contains(listedHash)
+                    ? Map.of(listedHash, listedProduct(listedHash, 2L, "Listed"))
+                    : Map.of(freshHash, listedProduct(freshHash, 7L, "Fresh"));
+        });
+        doAnswer(inv -> {
+            inv.<List<BabyProduct>>getArgument(0).forEach(product -> product.setId(7L));
+            return null;
+        }).when(babyProductRepository).batchInsert(anyList());
+
+        // Act
+        PriceUpdateBatchResponse response = priceUpdateService.processPriceUpdates(
+                Arrays.asList(listed, invalid, fresh, freshAgain));
+
+        // Assert
+        assertEquals(4, response.received());
+        assertEquals(1, response.created());
+        assertEquals(2, response.updated());
+        assertEquals(1, response.failed());
+        assertEquals(2L, response.results().get(0).getProductId());
+        assertFalse(response.results().get(1).isSuccess());
+        assertTrue(response.results().get(2).isNewProduct());
+        assertEquals(7L, response.results().get(3).getProductId());
+        assertFalse(response.results().get(3).isNewProduct());
+
+        verify(babyProductRepository).batchInsert(argThat(products -> products.size() == 1));
+        verify(listingService).registerAll(List.of(new NewListing(7L, freshHash, "http://example.com/new", "Walmart")));
+        verify(babyProductRepository).batchApplyScrapes(
+                argThat((List<ScrapeDetails> scrapes) -> scrapes.stream().map(ScrapeDetails::productId).toList()
+                        .equals(List.of(2L, 7L))), any());
+        verify(priceHistoryRepository).batchInsert(argThat((List<NewPrice> prices) -> prices.size() == 3));
+        verify(priceSummaryService).recordPrices(argThat((List<NewPrice> prices) -> prices.size() == 3));
+        verify(babyProductRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void processPriceUpdates_ShouldDropOwnProduct_WhenUrlListedConcurrently() {
+        // Arrange: the URL is unlisted at lookup but owned by product 4 once claimed
+        PriceUpdateRequest request = batchRequest("http://example.com/race", "Race", "3.00");
+        String hash = hashOf(request);
+        ListedProduct owner = listedProduct(hash, 4L, "Race");
+        when(listingService.findListed(anyCollection())).thenReturn(Map.of()).thenReturn(Map.of(hash, owner));
+        doAnswer(inv -> {
+            inv.<List<BabyProduct>>getArgument(0).forEach(product -> product.setId(9L));
+            return null;
+        }).when(babyProductRepository).batchInsert(anyList());
+
+        // Act
+        PriceUpdateBatchResponse response = priceUpdateService.processPriceUpdates(List.of(request));
+
+        // Assert
+        assertEquals(1, response.updated());
+        assertEquals(4L, response.results().get(0).getProductId());
+        verify(babyProductRepository).deleteAllByIdInBatch(List.of(9L));
+        verify(priceHistoryRepository).batchInsert(argThat((List<NewPrice> prices) -> prices.get(0).productId() == 4L));
+    }
+
+    @Test
+    void processPriceUpdates_ShouldFailItem_WhenListingVanishes() {
+        // Arrange: the claim lost to another product that was deleted before the read-back
+        PriceUpdateRequest request = batchRequest("http://example.com/gone", "Gone", "3.00");
+        when(listingService.findListed(anyCollection())).thenReturn(Map.of());
+        doAnswer(inv -> {
+            inv.<List<BabyProduct>>getArgument(0).forEach(product -> product.setId(9L));
+            return null;
+        }).when(babyProductRepository).batchInsert(anyList());
+
+        // Act
+        PriceUpdateBatchResponse response = priceUpdateService.processPriceUpdates(List.of(request));
+
+        // Assert
+        assertEquals(1, response.failed());
+        assertFalse(response.results().get(0).isSuccess());
+        verify(babyProductRepository).deleteAllByIdInBatch(List.of(9L));
+        verify(priceHistoryRepository).batchInsert(List.of());
+    }
+
+    @Test
+    void processPriceUpdates_ShouldFailChunk_WhenDatabaseFails() {
+        // Arrange
+        PriceUpdateRequest request = batchRequest("http://example.com/error", "Error", "1.00");
+        when(listingService.findListed(anyCollection())).thenThrow(new RuntimeException("DB error"));
+
+        // Act
+        PriceUpdateBatchResponse response = priceUpdateService.processPriceUpdates(
+                Arrays.asList(request, null));
+
+        // Assert
+        assertEquals(2, response.failed());
+        assertTrue(response.results().get(0).getMessage().contains("Failed to process price update"));
+        assertTrue(response.results().get(1).getMessage().contains("Invalid request"));
+    }
+
+    @Test
+    void processPriceUpdates_ShouldRejectOversizedBatch() {
+        List<PriceUpdateRequest> requests = new ArrayList<>();
+        for (int i = 0; i <= PriceUpdateService.MAX_UPDATES_PER_BATCH; i++) {
+            requests.add(new PriceUpdateRequest());
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> priceUpdateService.processPriceUpdates(requests));
+        verifyNoInteractions(listingService);
+    }
+
+    private static PriceUpdateRequest batchRequest(String url, String name, String price) {
+        PriceUpdateRequest request = new PriceUpdateRequest();
+        request.setProductUrl(url);
+        request.setProductName(name);
+        request.setRetailer("Walmart");
+        request.setPrice(new BigDecimal(price));
+        return request;
+    }
+
+    private static String hashOf(PriceUpdateRequest request) {
+        return ProductListingService.hash(ProductListingService.normalize(request.getProductUrl()));
+    }
+
+    private static ListedProduct listedProduct(String hash, Long productId, String name) {
+        ListedProduct product = mock(ListedProduct.class);
+        when(product.getUrlHash()).thenReturn(hash);
+        when(product.getProductId()).thenReturn(productId);
+        when(product.getProductName()).thenReturn(name);
+        return product;
+    }
 }
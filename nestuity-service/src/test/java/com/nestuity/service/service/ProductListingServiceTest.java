@@ -0,0 +1,100 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.JobCheckpoint;
+import com.nestuity.service.repository.ProductListingRepository;
+import com.nestuity.service.repository.ProductListingRepository.ListingSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductListingServiceTest {
+
+    @Mock private ProductListingRepository listingRepository;
+    @Mock private JobCheckpointService checkpointService;
+    @Mock private SchedulerLockService schedulerLock;
+    @InjectMocks private ProductListingService listingService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(schedulerLock.runExclusively(anyString(), any(), any())).thenAnswer(inv -> {
+            inv.<Runnable>getArgument(2).run();
+            return true;
+        });
+        lenient().when(checkpointService.advance(any(), anyLong(), anyInt()))
+                .thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    void normalize_canonicalisesCaseFragmentPortAndTrailingSlash() {
+        String expected = "https://www.walmart.ca/en/ip/Pampers-Swaddlers/6000?size=1";
+        assertEquals(expected, ProductListingService.normalize(" HTTPS://WWW.Walmart.ca:443/en/ip/Pampers-Swaddlers/6000/?size=1#reviews "));
+        assertEquals(expected, ProductListingService.normalize(expected));
+        assertEquals("not a url", ProductListingService.normalize(" not a url "));
+    }
+
+    @Test
+    void hash_isHexSha256() {
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", ProductListingService.hash(""));
+        assertEquals(ProductListingService.hash("https://a.ca/p"), ProductListingService.hash("https://a.ca/p"));
+    }
+
+    @Test
+    void findProductId_looksUpNormalisedHash() {
+        String hash = ProductListingService.hash("https://a.ca/p");
+        when(listingRepository.findProductIdByUrlHash(hash)).thenReturn(Optional.of(4L));
+
+        assertEquals(Optional.of(4L), listingService.findProductId("https://A.ca/p/"));
+    }
+
+    @Test
+    void register_reportsWhetherUrlWasClaimed() {
+        String hash = ProductListingService.hash("https://a.ca/p");
+        when(listingRepository.insertIfAbsent(4L, hash, "https://a.ca/p", "Amazon")).thenReturn(1);
+        when(listingRepository.insertIfAbsent(5L, hash, "https://a.ca/p", "Amazon")).thenReturn(0);
+
+        assertTrue(listingService.register(4L, "Amazon", "https://a.ca/p"));
+        assertFalse(listingService.register(5L, "Amazon", "https://a.ca/p#top"));
+    }
+
+    @Test
+    void backfill_listsEachUrlOfThePageOnceAndCompletes() {
+        JobCheckpoint checkpoint = new JobCheckpoint(ProductListingService.BACKFILL_JOB,
+                ProductListingService.BACKFILL_RUN);
+        when(checkpointService.start(ProductListingService.BACKFILL_JOB, ProductListingService.BACKFILL_RUN))
+                .thenReturn(checkpoint);
+        List<ListingSource> page = List.of(source(10L, 4L, "https://a.ca/p"), source(11L, 4L, "https://a.ca/p/"),
+                source(12L, 7L, "https://b.ca/q"));
+        when(listingRepository.findListingSourcesAfter(0L, Limit.of(ProductListingService.BACKFILL_PAGE_SIZE)))
+                .thenReturn(page);
+
+        listingService.backfill();
+
+        verify(listingRepository).insertIfAbsent(eq(4L), anyString(), eq("https://a.ca/p"), eq("Amazon"));
+        verify(listingRepository).insertIfAbsent(eq(7L), anyString(), eq("https://b.ca/q"), eq("Amazon"));
+        verify(listingRepository, times(2)).insertIfAbsent(any(), any(), any(), any());
+        verify(checkpointService).advance(checkpoint, 12L, 3);
+        verify(checkpointService).complete(checkpoint);
+    }
+
+    private static ListingSource source(Long id, Long productId, String url) {
+        // Rows repeating a URL are skipped before their other columns are read
+        ListingSource source = mock(ListingSource.class);
+        lenient().when(source.getId()).thenReturn(id);
+        lenient().when(source.getProductId()).thenReturn(productId);
+        lenient().when(source.getRetailer()).thenReturn("Amazon");
+        when(source.getProductUrl()).thenReturn(url);
+        return source;
+    }
+}
@@ -0,0 +1,96 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.JobCheckpoint;
+import com.nestuity.service.entity.ProductPriceSummary;
+import com.nestuity.service.repository.ProductPriceSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductPriceSummaryServiceTest {
+
+    @Mock private ProductPriceSummaryRepository summaryRepository;
+    @Mock private JobCheckpointService checkpointService;
+    @Mock private SchedulerLockService schedulerLock;
+    @InjectMocks private ProductPriceSummaryService summaryService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(schedulerLock.runExclusively(anyString(), any(), any())).thenAnswer(inv -> {
+            inv.<Runnable>getArgument(2).run();
+            return true;
+        });
+    }
+
+    @Test
+    void rebuild_dropsGoneRetailersThenRecomputes() {
+        summaryService.rebuild(4L);
+
+        InOrder order = inOrder(summaryRepository);
+        order.verify(summaryRepository).deleteRetailersWithoutPrices(4L);
+        order.verify(summaryRepository).rebuildForProduct(4L);
+    }
+
+    @Test
+    void forProducts_groupsByProduct() {
+        when(summaryRepository.findByProductIdInOrderByProductIdAscRetailerAsc(List.of(4L, 7L)))
+                .thenReturn(List.of(summary(4L, "Amazon"), summary(4L, "Walmart"), summary(7L, "Amazon")));
+
+        Map<Long, List<ProductPriceSummary>> summaries = summaryService.forProducts(List.of(4L, 7L));
+
+        assertEquals(2, summaries.get(4L).size());
+        assertEquals(1, summaries.get(7L).size());
+    }
+
+    @Test
+    void forProducts_skipsQueryForNoProducts() {
+        assertTrue(summaryService.forProducts(List.of()).isEmpty());
+        verifyNoInteractions(summaryRepository);
+    }
+
+    @Test
+    void backfill_summarisesExistingHistoryOnce() {
+        JobCheckpoint checkpoint = new JobCheckpoint(ProductPriceSummaryService.BACKFILL_JOB,
+                ProductPriceSummaryService.BACKFILL_RUN);
+        when(checkpointService.start(ProductPriceSummaryService.BACKFILL_JOB, ProductPriceSummaryService.BACKFILL_RUN))
+                .thenReturn(checkpoint);
+
+        summaryService.backfill();
+
+        verify(summaryRepository).insertMissing();
+        verify(checkpointService).complete(checkpoint);
+    }
+
+    @Test
+    void backfill_skipsWhenAlreadyDone() {
+        JobCheckpoint checkpoint = new JobCheckpoint(ProductPriceSummaryService.BACKFILL_JOB,
+                ProductPriceSummaryService.BACKFILL_RUN);
+        checkpoint.setCompleted(true);
+        when(checkpointService.start(ProductPriceSummaryService.BACKFILL_JOB, ProductPriceSummaryService.BACKFILL_RUN))
+                .thenReturn(checkpoint);
+
+        summaryService.backfill();
+
+        verifyNoInteractions(summaryRepository);
+        verify(checkpointService, never()).complete(any());
+    }
+
+    private static ProductPriceSummary summary(Long productId, String retailer) {
+        ProductPriceSummary summary = new ProductPriceSummary();
+        summary.setProductId(productId);
+        summary.setRetailer(retailer);
+        return summary;
+    }
+}
@@ -0,0 +1,87 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.Baby;
+import com.nestuity.service.entity.User;
+import com.nestuity.service.entity.UserPreferences;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReminderEvaluationContextTest {
+
+    @Test
+    void forBaby_usesPreferredTimezoneForToday() {
+        Baby baby = babyWithTimezone("Pacific/Kiritimati");
+
+        ReminderEvaluationContext ctx = ReminderEvaluationContext.forBaby(baby);
+
+        assertEquals(ZoneId.of("Pacific/Kiritimati"), ctx.zone());
+        assertEquals(LocalDate.now(ZoneId.of("Pacific/Kiritimati")), ctx.today());
+    }
+
+    @Test
+    void forBaby_fallsBackToDefaultZoneWithoutPreference() {
+        ZoneId fallback = ReminderEvaluationContext.DEFAULT_ZONE;
+
+        assertEquals(fallback, ReminderEvaluationContext.forBaby(babyWithTimezone(null)).zone());
+        assertEquals(fallback, ReminderEvaluationContext.forBaby(babyWithTimezone(" ")).zone());
+        assertEquals(fallback, ReminderEvaluationContext.forBaby(null).zone());
+    }
+
+    @Test
+    void forBaby_invalidPreferenceUsesDefaultZone() {
+        Baby baby = babyWithTimezone("Not/AZone");
+
+        assertEquals(ReminderEvaluationContext.DEFAULT_ZONE, ReminderEvaluationContext.forBaby(baby).zone());
+    }
+
+    @Test
+    void forBaby_readsDobAsEpochDay() {
+        LocalDate dob = LocalDate.now(ReminderEvaluationContext.DEFAULT_ZONE).minusDays(45);
+        Baby baby = babyWithTimezone(null);
+        baby.setDob(Date.from(dob.atStartOfDay(ZoneId.systemDefault()).toInstant()));
+
+        ReminderEvaluationContext ctx = ReminderEvaluationContext.forBaby(baby);
+
+        assertTrue(ctx.hasDob());
+        assertEquals(dob.toEpochDay(), ctx.dobEpochDay());
+        assertEquals(45, ctx.ageInDays());
+    }
+
+    @Test
+    void forBaby_acceptsSqlDateDob() {
+        LocalDate dob = LocalDate.of(2024, 2, 29);
+        Baby baby = babyWithTimezone(null);
+        baby.setDob(java.sql.Date.valueOf(dob));
+
+        assertEquals(dob.toEpochDay(), ReminderEvaluationContext.forBaby(baby).dobEpochDay());
+    }
+
+    @Test
+    void forBaby_acceptsTimestampDob() {
+        LocalDate dob = LocalDate.of(2025, 4, 1);
+        Baby baby = babyWithTimezone("Pacific/Kiritimati");
+        baby.setDob(java.sql.Timestamp.valueOf(dob.atStartOfDay()));
+
+        assertEquals(dob.toEpochDay(), ReminderEvaluationContext.forBaby(baby).dobEpochDay());
+    }
+
+    @Test
+    void forBaby_withoutDobHasNoAge() {
+        assertFalse(ReminderEvaluationContext.forBaby(new Baby()).hasDob());
+    }
+
+    private Baby babyWithTimezone(String timezone) {
+        UserPreferences preferences = new UserPreferences();
+        preferences.setTimezone(timezone);
+        User user = new User();
+        user.setPreferences(preferences);
+        Baby baby = new Baby();
+        baby.setUser(user);
+        return baby;
+    }
+}
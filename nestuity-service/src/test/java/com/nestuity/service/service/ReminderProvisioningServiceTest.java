@@ -0,0 +1,94 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.dto.BulkReminderResponse;
+import com.nestuity.service.entity.Baby;
+import com.nestuity.service.entity.BabyReminder;
+import com.nestuity.service.repository.BabyReminderRepository;
+import com.nestuity.service.repository.BabyRepository;
+import com.nestuity.service.type.ProvisioningStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderProvisioningServiceTest {
+
+    @Mock private BabyRepository babyRepository;
+    @Mock private BabyReminderRepository reminderRepository;
+    @Mock private BabyReminderService babyReminderService;
+    @Mock private TransactionTemplate transactionTemplate;
+    @InjectMocks private ReminderProvisioningService provisioningService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void provision_reportsCreatedAndMissingBabies() {
+        Baby baby = baby(1L);
+        BabyReminder reminder = new BabyReminder();
+        when(babyRepository.findWithUserByIdIn(List.of(1L, 2L))).thenReturn(List.of(baby));
+        when(reminderRepository.findTitlesByBabyIdIn(any())).thenReturn(List.of());
+        when(babyReminderService.buildMissingReminders(eq(baby), anySet())).thenReturn(List.of(reminder));
+
+        BulkReminderResponse response = provisioningService.provision(List.of(1L, 2L, 1L));
+
+        assertEquals(1, response.babiesProvisioned());
+        assertEquals(1, response.remindersCreated());
+        assertEquals(2, response.results().size());
+        assertEquals(ProvisioningStatus.CREATED, response.results().get(0).status());
+        assertEquals(ProvisioningStatus.NOT_FOUND, response.results().get(1).status());
+        verify(reminderRepository).batchInsert(List.of(reminder));
+    }
+
+    @Test
+    void provision_processesLargeRequestsInChunks() {
+        List<Long> ids = LongStream.rangeClosed(1, ReminderProvisioningService.CHUNK_SIZE + 1).boxed().toList();
+        when(babyRepository.findWithUserByIdIn(anyList())).thenReturn(List.of());
+
+        BulkReminderResponse response = provisioningService.provision(ids);
+
+        assertEquals(ids.size(), response.results().size());
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(reminderRepository, times(2)).batchInsert(Collections.emptyList());
+    }
+
+    @Test
+    void provision_marksFailedChunkWithoutAbortingRun() {
+        when(babyRepository.findWithUserByIdIn(anyList())).thenThrow(new IllegalStateException("db down"));
+
+        BulkReminderResponse response = provisioningService.provision(List.of(5L));
+
+        assertEquals(ProvisioningStatus.FAILED, response.results().get(0).status());
+        assertEquals("db down", response.results().get(0).message());
+    }
+
+    @Test
+    void provision_rejectsEmptyAndOversizedRequests() {
+        assertThrows(IllegalArgumentException.class, () -> provisioningService.provision(List.of()));
+        List<Long> tooMany = LongStream.rangeClosed(1, ReminderProvisioningService.MAX_BABIES_PER_REQUEST + 1)
+                .boxed().toList();
+        assertThrows(IllegalArgumentException.class, () -> provisioningService.provision(tooMany));
+    }
+
+    private Baby baby(Long id) {
+        Baby baby = new Baby();
+        baby.setId(id);
+        return baby;
+    }
+}
@@ -0,0 +1,152 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.type.Frequency;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReminderRecurrenceTest {
+
+    private static final Frequency[] REPEATING =
+            {Frequency.DAILY, Frequency.WEEKLY, Frequency.MONTHLY, Frequency.QUARTERLY, Frequency.ANNUAL};
+
+    // ==================== PROPERTIES ====================
+
+    @Test
+    void matchesSteppingLoopWhenNoMonthEndClampingOccurs() {
+        Random random = new Random(20240229L);
+        for (int i = 0; i < 5_000; i++) {
+            // Day-of-month <= 28 never clamps, so the anchored series and the stepped series coincide
+            LocalDateTime start = randomDateTime(random, 28);
+            LocalDateTime now = start.plusMinutes(random.nextLong(-400L * 24 * 60, 6L * 365 * 24 * 60));
+            Frequency freq = REPEATING[random.nextInt(REPEATING.length)];
+
+            assertEquals(steppingLoop(start, freq, now), ReminderRecurrence.lastOccurrenceOnOrBefore(start, freq, now),
+                    () -> "start=" + start + " freq=" + freq + " now=" + now);
+        }
+    }
+
+    @Test
+    void matchesSteppingLoopForDayBasedFrequenciesOnAnyDay() {
+        Random random = new Random(7L);
+        for (int i = 0; i < 5_000; i++) {
+            LocalDateTime start = randomDateTime(random, 31);
+            LocalDateTime now = start.plusMinutes(random.nextLong(-30L * 24 * 60, 6L * 365 * 24 * 60));
+            Frequency freq = random.nextBoolean() ? Frequency.DAILY : Frequency.WEEKLY;
+
+            assertEquals(steppingLoop(start, freq, now), ReminderRecurrence.lastOccurrenceOnOrBefore(start, freq, now),
+                    () -> "start=" + start + " freq=" + freq + " now=" + now);
+        }
+    }
+
+    @Test
+    void resultIsLatestOccurrenceNotAfterNow() {
+        Random random = new Random(42L);
+        for (int i = 0; i < 5_000; i++) {
+            LocalDateTime start = randomDateTime(random, 31);
+            LocalDateTime now = start.plusMinutes(random.nextLong(0, 20L * 365 * 24 * 60));
+            Frequency freq = REPEATING[random.nextInt(REPEATING.length)];
+
+            LocalDateTime last = ReminderRecurrence.lastOccurrenceOnOrBefore(start, freq, now);
+            long k = indexOf(start, freq, last);
+            assertFalse(ReminderRecurrence.occurrence(start, freq, k).isAfter(now));
+            assertTrue(ReminderRecurrence.occurrence(start, freq, k + 1).isAfter(now));
+        }
+    }
+
+    // ==================== EDGE CASES ====================
+
+    @Test
+    void monthlyFromMonthEndReturnsToAnchorDay() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 31, 9, 0);
+
+        assertEquals(LocalDateTime.of(2025, 2, 28, 0, 0),
+                ReminderRecurrence.lastOccurrenceOnOrBefore(start, Frequency.MONTHLY, LocalDateTime.of(2025, 3, 1, 12, 0)));
+        assertEquals(LocalDateTime.of(2025, 3, 31, 0, 0),
+                ReminderRecurrence.lastOccurrenceOnOrBefore(start, Frequency.MONTHLY, LocalDateTime.of(2025, 4, 15, 12, 0)));
+    }
+
+    @Test
+    void annualFromLeapDayUsesFeb28InCommonYears() {
+        LocalDateTime start = LocalDateTime.of(2024, 2, 29, 0, 0);
+
+        assertEquals(LocalDateTime.of(2025, 2, 28, 0, 0),
+                ReminderRecurrence.lastOccurrenceOnOrBefore(start, Frequency.ANNUAL, LocalDateTime.of(2025, 3, 1, 0, 0)));
+        assertEquals(LocalDateTime.of(2028, 2, 29, 0, 0),
+                ReminderRecurrence.lastOccurrenceOnOrBefore(start, Frequency.ANNUAL, LocalDateTime.of(2028, 3, 1, 0, 0)));
+    }
+
+    @Test
+    void quarterlyAcrossShortMonthsCountsWholeQuarters() {
+        LocalDateTime start = LocalDateTime.of(2023, 11, 30, 8, 0);
+
+        // Nov 30 + 3 months clamps to Feb 29 in a leap year
+        assertEquals(LocalDateTime.of(2024, 2, 29, 0, 0),
+                ReminderRecurrence.lastOccurrenceOnOrBefore(start, Frequency.QUARTERLY, LocalDateTime.of(2024, 2, 29, 8, 0)));
+        assertEquals(LocalDateTime.of(2023, 11, 30, 0, 0),
+                ReminderRecurrence.lastOccurrenceOnOrBefore(start, Frequency.QUARTERLY, LocalDateTime.of(2024, 2, 29, 7, 59)));
+    }
+
+    @Test
+    void occurrenceExactlyAtNowCounts() {
+        LocalDateTime start = LocalDateTime.of(2020, 5, 1, 6, 30);
+
+        assertEquals(LocalDateTime.of(2020, 5, 15, 0, 0),
+                ReminderRecurrence.lastOccurrenceOnOrBefore(start, Frequency.WEEKLY, LocalDateTime.of(2020, 5, 15, 6, 30)));
+    }
+
+    @Test
+    void futureStartReturnsOneIntervalBeforeStart() {
+        LocalDateTime start = LocalDateTime.of(2030, 3, 31, 0, 0);
+
+        assertEquals(LocalDateTime.of(2030, 2, 28, 0, 0),
+                ReminderRecurrence.lastOccurrenceOnOrBefore(start, Frequency.MONTHLY, LocalDateTime.of(2026, 1, 1, 0, 0)));
+    }
+
+    @Test
+    void decadesOldDailyStartIsComputedDirectly() {
+        LocalDateTime start = LocalDateTime.of(1990, 1, 1, 23, 0);
+        LocalDateTime now = LocalDateTime.of(2026, 10, 18, 22, 59);
+
+        assertEquals(LocalDateTime.of(2026, 10, 17, 0, 0),
+                ReminderRecurrence.lastOccurrenceOnOrBefore(start, Frequency.DAILY, now));
+    }
+
+    @Test
+    void nonRepeatingOrMissingInputReturnsNull() {
+        LocalDateTime now = LocalDateTime.now();
+        assertNull(ReminderRecurrence.lastOccurrenceOnOrBefore(now, Frequency.ONCE, now));
+        assertNull(ReminderRecurrence.lastOccurrenceOnOrBefore(null, Frequency.DAILY, now));
+        assertNull(ReminderRecurrence.lastOccurrenceOnOrBefore(now, null, now));
+    }
+
+    // ==================== UTIL ====================
+
+    // The previous implementation: step one interval at a time past now, then step back once
+    private static LocalDateTime steppingLoop(LocalDateTime start, Frequency freq, LocalDateTime now) {
+        LocalDateTime next = start;
+        while (!next.isAfter(now)) {
+            next = ReminderRecurrence.occurrence(next, freq, 1);
+        }
+        return ReminderRecurrence.occurrence(next, freq, -1).truncatedTo(ChronoUnit.DAYS);
+    }
+
+    private static long indexOf(LocalDateTime start, Frequency freq, LocalDateTime lastDay) {
+        long k = 0;
+        while (ReminderRecurrence.occurrence(start, freq, k + 1).truncatedTo(ChronoUnit.DAYS).compareTo(lastDay) <= 0) {
+            k++;
+        }
+        return k;
+    }
+
+    private static LocalDateTime randomDateTime(Random random, int maxDay) {
+        int year = 2000 + random.nextInt(30);
+        int month = 1 + random.nextInt(12);
+        int day = 1 + random.nextInt(Math.min(maxDay, java.time.YearMonth.of(year, month).lengthOfMonth()));
+        return LocalDateTime.of(year, month, day, random.nextInt(24), random.nextInt(60));
+    }
+}
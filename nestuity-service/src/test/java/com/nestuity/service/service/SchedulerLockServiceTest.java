@@ -0,0 +1,71 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.repository.SchedulerLockRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SchedulerLockServiceTest {
+
+    @Mock private SchedulerLockRepository lockRepository;
+    @InjectMocks private SchedulerLockService schedulerLock;
+
+    @Test
+    void runExclusively_runsAndReleasesWhenAcquired() {
+        when(lockRepository.tryAcquire(eq("job"), anyString(), eq(60L))).thenReturn(1);
+        Runnable task = mock(Runnable.class);
+
+        assertTrue(schedulerLock.runExclusively("job", Duration.ofMinutes(1), task));
+
+        verify(task).run();
+        verify(lockRepository).release(eq("job"), anyString());
+    }
+
+    @Test
+    void runExclusively_skipsWhenHeldElsewhere() {
+        when(lockRepository.tryAcquire(eq("job"), anyString(), anyLong())).thenReturn(0);
+        Runnable task = mock(Runnable.class);
+
+        assertFalse(schedulerLock.runExclusively("job", Duration.ofMinutes(1), task));
+
+        verifyNoInteractions(task);
+        verify(lockRepository, never()).release(any(), any());
+    }
+
+    @Test
+    void runExclusively_releasesWhenTaskFails() {
+        when(lockRepository.tryAcquire(eq("job"), anyString(), anyLong())).thenReturn(1);
+
+        assertThrows(IllegalStateException.class, () -> schedulerLock.runExclusively("job", Duration.ofMinutes(1),
+                () -> { throw new IllegalStateException("boom"); }));
+
+        verify(lockRepository).release(eq("job"), anyString());
+    }
+
+    @Test
+    void sameOwnerAcrossCalls() {
+        when(lockRepository.tryAcquire(anyString(), anyString(), anyLong())).thenReturn(1);
+
+        schedulerLock.tryAcquire("a", Duration.ofSeconds(5));
+        schedulerLock.release("a");
+
+        ArgumentCaptor<String> owner = ArgumentCaptor.forClass(String.class);
+        verify(lockRepository).tryAcquire(eq("a"), owner.capture(), eq(5L));
+        verify(lockRepository).release("a", owner.getValue());
+    }
+
+    @Test
+    void shardName_joinsJobAndShard() {
+        assertEquals("diaper-consumption:2026-10-18|UTC", SchedulerLockService.shardName("diaper-consumption", "2026-10-18|UTC"));
+    }
+}
@@ -0,0 +1,113 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.SupplyType;
+import com.nestuity.service.repository.InventoryRepository;
+import com.nestuity.service.repository.SupplyTypeRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SupplyTypeServiceTest {
+
+    @Mock private SupplyTypeRepository supplyTypeRepository;
+    @Mock private InventoryRepository inventoryRepository;
+    @Mock private SchedulerLockService schedulerLock;
+    @InjectMocks private SupplyTypeService supplyTypeService;
+
+    @Test
+    void find_normalizesAndCachesTheType() {
+        SupplyType wipes = supplyType(2, "wipes");
+        when(supplyTypeRepository.findByName("wipes")).thenReturn(Optional.of(wipes));
+
+        assertSame(wipes, supplyTypeService.find(" Wipes ").orElseThrow());
+        assertSame(wipes, supplyTypeService.find("WIPES").orElseThrow());
+        verify(supplyTypeRepository, times(1)).findByName("wipes");
+    }
+
+    @Test
+    void find_unknownSupplyIsNotCached() {
+        when(supplyTypeRepository.findByName("formula")).thenReturn(Optional.empty());
+
+        assertTrue(supplyTypeService.find("formula").isEmpty());
+        assertTrue(supplyTypeService.find("formula").isEmpty());
+        assertTrue(supplyTypeService.find(" ").isEmpty());
+        verify(supplyTypeRepository, times(2)).findByName("formula");
+    }
+
+    @Test
+    void resolve_createsMissingTypeUnderItsCanonicalName() {
+        when(supplyTypeRepository.findByName("bibs")).thenReturn(Optional.empty());
+        when(supplyTypeRepository.saveAndFlush(any(SupplyType.class))).thenAnswer(inv -> {
+            SupplyType type = inv.getArgument(0);
+            type.setId(7);
+            return type;
+        });
+
+        SupplyType bibs = supplyTypeService.resolve(" Bibs");
+
+        assertEquals("bibs", bibs.getName());
+        assertEquals("Bibs", bibs.getDisplayName());
+        assertSame(bibs, supplyTypeService.find("bibs").orElseThrow());
+    }
+
+    @Test
+    void resolve_concurrentCreateUsesTheWinnersRow() {
+        SupplyType winner = supplyType(7, "bibs");
+        when(supplyTypeRepository.findByName("bibs")).thenReturn(Optional.empty()).thenReturn(Optional.of(winner));
+        when(supplyTypeRepository.saveAndFlush(any(SupplyType.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_supply_type_name"));
+
+        assertSame(winner, supplyTypeService.resolve("bibs"));
+    }
+
+    @Test
+    void resolve_rejectsBlankName() {
+        assertThrows(IllegalArgumentException.class, () -> supplyTypeService.resolve(" "));
+        verifyNoInteractions(supplyTypeRepository);
+    }
+
+    @Test
+    void defaultDailyUsage_diapersFollowBabiesAndOthersScalePerBaby() {
+        SupplyType diapers = new SupplyType(SupplyTypeService.DIAPERS, "Diapers", null);
+        SupplyType wipes = new SupplyType(SupplyTypeService.WIPES, "Wipes", 10.0);
+        SupplyType formula = new SupplyType(SupplyTypeService.FORMULA, "Formula", null);
+
+        assertEquals(16.0, SupplyTypeService.defaultDailyUsage(diapers, 16, 2));
+        assertEquals(20.0, SupplyTypeService.defaultDailyUsage(wipes, 16, 2));
+        assertEquals(0.0, SupplyTypeService.defaultDailyUsage(formula, 16, 2));
+    }
+
+    @Test
+    void backfill_assignsTypesInBatchesUntilNoneLeft() {
+        when(schedulerLock.runExclusively(eq(SupplyTypeService.BACKFILL_LOCK), any(), any())).thenAnswer(inv -> {
+            inv.<Runnable>getArgument(2).run();
+            return true;
+        });
+        when(supplyTypeRepository.findByName(anyString()))
+                .thenAnswer(inv -> Optional.of(supplyType(1, inv.getArgument(0))));
+        when(inventoryRepository.assignSupplyTypes(SupplyTypeService.BACKFILL_BATCH_SIZE))
+                .thenReturn(SupplyTypeService.BACKFILL_BATCH_SIZE, 3, 0);
+
+        supplyTypeService.backfill();
+
+        verify(supplyTypeRepository).insertMissingFromInventory();
+        verify(inventoryRepository, times(3)).assignSupplyTypes(SupplyTypeService.BACKFILL_BATCH_SIZE);
+        verify(supplyTypeRepository, never()).saveAndFlush(any());
+    }
+
+    private static SupplyType supplyType(int id, String name) {
+        SupplyType type = new SupplyType(name, name, null);
+        type.setId(id);
+        return type;
+    }
+}
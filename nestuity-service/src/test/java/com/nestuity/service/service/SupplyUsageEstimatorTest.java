@@ -0,0 +1,108 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.SupplyUsageEstimate;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.OptionalDouble;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SupplyUsageEstimatorTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 18);
+
+    @Test
+    void dailyUsageOn_sameDayReturnsStoredAverage() {
+        OptionalDouble usage = SupplyUsageEstimator.dailyUsageOn(estimate(TODAY, 3.0, 8.0, 10), TODAY);
+
+        assertEquals(8.0, usage.getAsDouble(), 1e-9);
+    }
+
+    @Test
+    void dailyUsageOn_foldsTheLastReportedDay() {
+        // Yesterday's 13 closes: 0.2 * 13 + 0.8 * 8 = 9
+        OptionalDouble usage = SupplyUsageEstimator.dailyUsageOn(estimate(TODAY.minusDays(1), 13.0, 8.0, 10), TODAY);
+
+        assertEquals(9.0, usage.getAsDouble(), 1e-9);
+    }
+
+    @Test
+    void dailyUsageOn_daysWithoutUsageDecayTheAverage() {
+        // 13 three days ago closes to 9, then two days without usage: 9 * 0.8^2
+        OptionalDouble usage = SupplyUsageEstimator.dailyUsageOn(estimate(TODAY.minusDays(3), 13.0, 8.0, 10), TODAY);
+
+        assertEquals(9.0 * 0.64, usage.getAsDouble(), 1e-9);
+    }
+
+    @Test
+    void dailyUsageOn_needsEnoughObservedDays() {
+        assertTrue(SupplyUsageEstimator.dailyUsageOn(estimate(TODAY, 3.0, 8.0, 6), TODAY).isEmpty());
+        // Closing yesterday makes the seventh day
+        assertTrue(SupplyUsageEstimator.dailyUsageOn(estimate(TODAY.minusDays(1), 8.0, 8.0, 6), TODAY).isPresent());
+    }
+
+    @Test
+    void dailyUsageOn_ignoresHouseholdsThatStoppedReporting() {
+        LocalDate lastReport = TODAY.minusDays(SupplyUsageEstimator.MAX_IDLE_DAYS + 1);
+
+        assertTrue(SupplyUsageEstimator.dailyUsageOn(estimate(lastReport, 8.0, 8.0, 30), TODAY).isEmpty());
+    }
+
+    @Test
+    void dailyUsageOn_neverCountsThePartialFirstDay() {
+        SupplyUsageEstimate estimate = estimate(TODAY.minusDays(1), 2.0, null, 0);
+        estimate.setStartedOn(TODAY.minusDays(1));
+
+        assertTrue(SupplyUsageEstimator.dailyUsageOn(estimate, TODAY).isEmpty());
+        assertTrue(SupplyUsageEstimator.dailyUsageOn(null, TODAY).isEmpty());
+    }
+
+    @Test
+    void recordUsage_addsToTheCurrentDay() {
+        SupplyUsageEstimate estimate = estimate(TODAY, 3.0, 8.0, 10);
+
+        SupplyUsageEstimator.recordUsage(estimate, TODAY, 2.0);
+
+        assertEquals(5.0, estimate.getCurrentDayTotal(), 1e-9);
+        assertEquals(8.0, estimate.getDailyUsage(), 1e-9);
+    }
+
+    @Test
+    void recordUsage_newDayClosesTheCurrentOne() {
+        SupplyUsageEstimate estimate = estimate(TODAY.minusDays(1), 13.0, 8.0, 10);
+
+        SupplyUsageEstimator.recordUsage(estimate, TODAY, 4.0);
+
+        // Same fold as reading it: 0.2 * 13 + 0.8 * 8 = 9
+        assertEquals(9.0, estimate.getDailyUsage(), 1e-9);
+        assertEquals(11, estimate.getObservedDays());
+        assertEquals(TODAY, estimate.getCurrentDay());
+        assertEquals(4.0, estimate.getCurrentDayTotal(), 1e-9);
+    }
+
+    @Test
+    void recordUsage_dropsLateUsageForAClosedDay() {
+        SupplyUsageEstimate estimate = estimate(TODAY.minusDays(1), 13.0, 8.0, 10);
+        SupplyUsageEstimator.recordUsage(estimate, TODAY, 4.0);
+
+        // Usage for yesterday arrives after today's: yesterday is already in the average
+        SupplyUsageEstimator.recordUsage(estimate, TODAY.minusDays(1), 6.0);
+
+        assertEquals(TODAY, estimate.getCurrentDay());
+        assertEquals(4.0, estimate.getCurrentDayTotal(), 1e-9);
+        assertEquals(9.0, estimate.getDailyUsage(), 1e-9);
+        assertEquals(11, estimate.getObservedDays());
+    }
+
+    private static SupplyUsageEstimate estimate(LocalDate currentDay, double currentDayTotal, Double dailyUsage,
+                                                int observedDays) {
+        SupplyUsageEstimate estimate = new SupplyUsageEstimate();
+        estimate.setStartedOn(currentDay.minusDays(observedDays + 1L));
+        estimate.setCurrentDay(currentDay);
+        estimate.setCurrentDayTotal(currentDayTotal);
+        estimate.setDailyUsage(dailyUsage);
+        estimate.setObservedDays(observedDays);
+        return estimate;
+    }
+}
@@ -0,0 +1,202 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.JobCheckpoint;
+import com.nestuity.service.repository.UserPreferencesRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TimezoneCohortsTest {
+
+    @Mock private UserPreferencesRepository preferencesRepository;
+    @Mock private JobCheckpointService checkpointService;
+    @InjectMocks private TimezoneCohorts timezoneCohorts;
+
+    @Test
+    void atLocalMidnight_picksZonesWhoseDayStartsInWindow() {
+        when(preferencesRepository.findDistinctTimezones())
+                .thenReturn(List.of("America/Edmonton", "America/Toronto", "Asia/Kathmandu"));
+
+        // 06:00Z is midnight in Edmonton (MDT, UTC-6) on Sunday 2026-10-18; tick fires slightly late
+        TimezoneCohorts.Cohort cohort = timezoneCohorts.atLocalMidnight(Instant.parse("2026-10-18T06:00:07Z"), null);
+
+        assertEquals(List.of("America/Edmonton"), cohort.timezones());
+        assertEquals(Instant.parse("2026-10-18T06:00:00Z"), cohort.windowStart());
+    }
+
+    @Test
+    void atLocalMidnight_handlesQuarterHourOffsets() {
+        when(preferencesRepository.findDistinctTimezones()).thenReturn(List.of("Asia/Kathmandu"));
+
+        // Kathmandu is UTC+05:45, so its midnight is 18:15Z the previous day
+        TimezoneCohorts.Cohort cohort = timezoneCohorts.atLocalMidnight(Instant.parse("2026-10-17T18:20:00Z"), null);
+
+        assertEquals(List.of("Asia/Kathmandu"), cohort.timezones());
+    }
+
+    @Test
+    void atLocalMidnight_weekdayFilterUsesLocalDate() {
+        when(preferencesRepository.findDistinctTimezones()).thenReturn(List.of("America/Edmonton"));
+
+        Instant sundayInEdmonton = Instant.parse("2026-10-18T06:00:00Z");
+        Instant mondayInEdmonton = Instant.parse("2026-10-19T06:00:00Z");
+
+        assertEquals(List.of("America/Edmonton"),
+                timezoneCohorts.atLocalMidnight(sundayInEdmonton, DayOfWeek.SUNDAY).timezones());
+        assertTrue(timezoneCohorts.atLocalMidnight(mondayInEdmonton, DayOfWeek.SUNDAY).timezones().isEmpty());
+    }
+
+    @Test
+    void atLocalMidnight_invalidZoneFollowsDefaultZone() {
+        when(preferencesRepository.findDistinctTimezones()).thenReturn(Arrays.asList("Not/AZone"));
+
+        Instant defaultMidnight = Instant.parse("2026-10-18T06:00:00Z");
+        assertEquals(ZoneId.of("America/Edmonton"), ReminderEvaluationContext.DEFAULT_ZONE);
+
+        assertEquals(List.of("Not/AZone"), timezoneCohorts.atLocalMidnight(defaultMidnight, null).timezones());
+    }
+
+    @Test
+    void atLocalMidnight_unsetTimezoneFollowsDefaultZone() {
+        when(preferencesRepository.findDistinctTimezones()).thenReturn(List.of());
+
+        // 06:00Z is midnight in the default zone (Edmonton, UTC-6); 00:00Z is only midnight in UTC
+        assertTrue(timezoneCohorts.atLocalMidnight(Instant.parse("2026-10-18T06:00:00Z"), null).includeUnset());
+        assertFalse(timezoneCohorts.atLocalMidnight(Instant.parse("2026-10-18T00:00:00Z"), null).includeUnset());
+    }
+
+    @Test
+    void forEachWindow_catchesUpEveryWindowAfterTheCursor() {
+        when(preferencesRepository.findDistinctTimezones()).thenReturn(List.of("America/Edmonton"));
+        JobCheckpoint cursor = cursorAt(Instant.parse("2026-10-18T05:30:00Z"));
+        when(checkpointService.advance(eq(cursor), anyLong(), eq(1))).thenReturn(cursor);
+        List<TimezoneCohorts.Cohort> seen = new ArrayList<>();
+
+        // Two ticks were skipped; this one fires at 06:00
+        timezoneCohorts.forEachWindow("job", Instant.parse("2026-10-18T06:00:04Z"), null, seen::add);
+
+        assertEquals(List.of(Instant.parse("2026-10-18T05:45:00Z"), Instant.parse("2026-10-18T06:00:00Z")),
+                seen.stream().map(TimezoneCohorts.Cohort::windowStart).toList());
+        assertEquals(List.of("America/Edmonton"), seen.get(1).timezones());
+        InOrder order = inOrder(checkpointService);
+        order.verify(checkpointService).advance(cursor, Instant.parse("2026-10-18T05:45:00Z").getEpochSecond(), 1);
+        order.verify(checkpointService).advance(cursor, Instant.parse("2026-10-18T06:00:00Z").getEpochSecond(), 1);
+        verify(preferencesRepository, times(1)).findDistinctTimezones();
+    }
+
+    @Test
+    void forEachWindow_skipsWindowsAlreadyProcessed() {
+        cursorAt(Instant.parse("2026-10-18T06:00:00Z"));
+        List<TimezoneCohorts.Cohort> seen = new ArrayList<>();
+
+        timezoneCohorts.forEachWindow("job", Instant.parse("2026-10-18T06:10:00Z"), null, seen::add);
+
+        assertTrue(seen.isEmpty());
+        verifyNoInteractions(preferencesRepository);
+        verify(checkpointService, never()).advance(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void forEachWindow_newCursorStartsAtTheCurrentWindow() {
+        JobCheckpoint cursor = cursorAt(null);
+        when(checkpointService.advance(eq(cursor), anyLong(), eq(1))).thenReturn(cursor);
+        List<TimezoneCohorts.Cohort> seen = new ArrayList<>();
+
+        timezoneCohorts.forEachWindow("job", Instant.parse("2026-10-18T06:07:00Z"), null, seen::add);
+
+        assertEquals(1, seen.size());
+        assertEquals(Instant.parse("2026-10-18T06:00:00Z"), seen.get(0).windowStart());
+    }
+
+    @Test
+    void forEachWindow_boundsCatchUpAfterALongOutage() {
+        JobCheckpoint cursor = cursorAt(Instant.parse("2026-09-01T00:00:00Z"));
+        when(checkpointService.advance(eq(cursor), anyLong(), eq(1))).thenReturn(cursor);
+        List<TimezoneCohorts.Cohort> seen = new ArrayList<>();
+
+        timezoneCohorts.forEachWindow("job", Instant.parse("2026-10-18T06:00:00Z"), null, seen::add);
+
+        assertEquals(Instant.parse("2026-10-16T06:00:00Z"), seen.get(0).windowStart());
+        assertEquals(TimezoneCohorts.MAX_CATCH_UP.dividedBy(TimezoneCohorts.WINDOW) + 1, seen.size());
+    }
+
+    @Test
+    void forEachWindow_failedWindowIsNotCheckpointed() {
+        JobCheckpoint cursor = cursorAt(Instant.parse("2026-10-18T05:30:00Z"));
+        when(checkpointService.advance(eq(cursor), anyLong(), eq(1))).thenReturn(cursor);
+        Instant failing = Instant.parse("2026-10-18T06:00:00Z");
+
+        assertThrows(IllegalStateException.class, () -> timezoneCohorts.forEachWindow("job", failing, null, c -> {
+            if (c.windowStart().equals(failing)) throw new IllegalStateException("down");
+        }));
+
+        verify(checkpointService).advance(cursor, Instant.parse("2026-10-18T05:45:00Z").getEpochSecond(), 1);
+        verify(checkpointService, never()).advance(cursor, failing.getEpochSecond(), 1);
+    }
+
+    @Test
+    void forRunKey_rebuildsTheCohortOfTheRunsWindow() {
+        when(preferencesRepository.findDistinctTimezones()).thenReturn(List.of("America/Edmonton", "America/Toronto"));
+        Instant window = Instant.parse("2026-10-18T06:00:00Z");
+        String runKey = new TimezoneCohorts.Cohort(window, List.of(), false).runKey();
+
+        TimezoneCohorts.Cohort cohort = timezoneCohorts.forRunKey(runKey, DayOfWeek.SUNDAY);
+
+        assertEquals(window, cohort.windowStart());
+        assertEquals(List.of("America/Edmonton"), cohort.timezones());
+        assertEquals(runKey, cohort.runKey());
+    }
+
+    @Test
+    void isLocalMidnight_handlesDstTransitionDays() {
+        ZoneId edmonton = ZoneId.of("America/Edmonton");
+
+        // 2026-03-08 is the spring-forward day; midnight itself is still MST (UTC-7)
+        assertTrue(TimezoneCohorts.isLocalMidnight(edmonton, Instant.parse("2026-03-08T07:00:00Z"), null));
+        // 2026-11-01 is the fall-back day; midnight is still MDT (UTC-6)
+        assertTrue(TimezoneCohorts.isLocalMidnight(edmonton, Instant.parse("2026-11-01T06:00:00Z"), null));
+        assertFalse(TimezoneCohorts.isLocalMidnight(edmonton, Instant.parse("2026-11-01T07:00:00Z"), null));
+    }
+
+    @Test
+    void cohort_placeholderKeepsInPredicateNonEmpty() {
+        TimezoneCohorts.Cohort unsetOnly = new TimezoneCohorts.Cohort(Instant.EPOCH, List.of(), true);
+
+        assertFalse(unsetOnly.isEmpty());
+        assertEquals(List.of(""), unsetOnly.timezonesOrPlaceholder());
+        assertTrue(new TimezoneCohorts.Cohort(Instant.EPOCH, List.of(), false).isEmpty());
+    }
+
+    @Test
+    void cohort_localDateIsTheDayStartingInWindow() {
+        // 18:15Z is 00:00 in Kathmandu on the 18th but still the 17th in Edmonton
+        TimezoneCohorts.Cohort cohort = new TimezoneCohorts.Cohort(Instant.parse("2026-10-17T18:15:00Z"),
+                List.of("Asia/Kathmandu"), false);
+
+        assertEquals(LocalDate.of(2026, 10, 18), cohort.localDate("Asia/Kathmandu"));
+        assertEquals(LocalDate.of(2026, 10, 17), cohort.localDate("America/Edmonton"));
+    }
+
+    private JobCheckpoint cursorAt(Instant lastWindow) {
+        JobCheckpoint cursor = new JobCheckpoint("job", TimezoneCohorts.CURSOR_RUN_KEY);
+        if (lastWindow != null) cursor.setLastProcessedId(lastWindow.getEpochSecond());
+        lenient().when(checkpointService.start("job", TimezoneCohorts.CURSOR_RUN_KEY)).thenReturn(cursor);
+        return cursor;
+    }
+}
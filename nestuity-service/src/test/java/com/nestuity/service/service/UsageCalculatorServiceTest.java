@@ -0,0 +1,62 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.dto.UsageCalculatorRequest;
+import com.nestuity.service.entity.Baby;
+import com.nestuity.service.repository.BabyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UsageCalculatorServiceTest {
+
+    private static final LocalDate DOB = LocalDate.of(2026, 1, 5);
+
+    @Mock private BabyRepository babyRepository;
+    @Mock private InventoryService inventoryService;
+    @Mock private BabyReminderService babyReminderService;
+
+    @InjectMocks private UsageCalculatorService usageCalculatorService;
+
+    private Baby baby;
+
+    @BeforeEach
+    void setUp() {
+        baby = new Baby();
+        baby.setId(3L);
+        // As loaded by Hibernate: a Timestamp, which never equals a java.util.Date
+        baby.setDob(Timestamp.valueOf(DOB.atStartOfDay()));
+        when(babyRepository.findById(3L)).thenReturn(Optional.of(baby));
+    }
+
+    @Test
+    void updateUsageCalculator_sameDobKeepsNextDue() {
+        usageCalculatorService.updateUsageCalculator(request(DOB));
+
+        verify(babyRepository).save(baby);
+        verifyNoInteractions(babyReminderService);
+    }
+
+    @Test
+    void updateUsageCalculator_changedDobRefreshesNextDue() {
+        usageCalculatorService.updateUsageCalculator(request(DOB.minusDays(1)));
+
+        verify(babyReminderService).refreshNextDueForBaby(3L);
+    }
+
+    private static UsageCalculatorRequest request(LocalDate dob) {
+        Date date = Date.from(dob.atStartOfDay(ZoneId.systemDefault()).toInstant());
+        return new UsageCalculatorRequest(3L, date, 5.0, "1", null, null, null);
+    }
+}
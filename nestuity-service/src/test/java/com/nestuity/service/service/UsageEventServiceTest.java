@@ -0,0 +1,260 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.dto.UsageEventRequest.UsageEvent;
+import com.nestuity.service.dto.UsageEventResponse;
+import com.nestuity.service.entity.SupplyType;
+import com.nestuity.service.repository.InventoryBatchRepository.SingleQuantityDelta;
+import com.nestuity.service.repository.InventoryRepository;
+import com.nestuity.service.repository.SupplyUsageEstimateRepository;
+import com.nestuity.service.repository.UserRepository;
+import com.nestuity.service.repository.UserRepository.UserTimezone;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UsageEventServiceTest {
+
+    private static final SupplyType DIAPERS = supplyType(1, "diapers", null);
+    private static final SupplyType WIPES = supplyType(2, "wipes", 10.0);
+
+    @Mock private InventoryRepository inventoryRepository;
+    @Mock private SupplyUsageEstimateRepository estimateRepository;
+    @Mock private TransactionTemplate transactionTemplate;
+    @Mock private HouseholdUsageCache householdUsageCache;
+    @Mock private InventoryForecastService forecastService;
+    @Mock private SupplyTypeService supplyTypeService;
+    @Mock private UserRepository userRepository;
+    @InjectMocks private UsageEventService usageEventService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(supplyTypeService.find(anyString())).thenAnswer(inv -> switch (
+                SupplyTypeService.normalize(inv.getArgument(0))) {
+            case "diapers" -> Optional.of(DIAPERS);
+            case "wipes" -> Optional.of(WIPES);
+            default -> Optional.empty();
+        });
+    }
+
+    @Test
+    void record_coalescesEventsPerUserAndSupply() {
+        UsageEventResponse response = usageEventService.record(List.of(
+                new UsageEvent(1L, "diapers", null, null),
+                new UsageEvent(1L, "Diapers", 2.0, null),
+                new UsageEvent(1L, "wipes", 3.0, null),
+                new UsageEvent(2L, "diapers", null, null)));
+
+        assertEquals(new UsageEventResponse(4, 0), response);
+        assertEquals(3, usageEventService.pendingCount());
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    @Test
+    void record_rejectsInvalidEvents() {
+        List<UsageEvent> events = new ArrayList<>();
+        events.add(new UsageEvent(null, "diapers", 1.0, null));
+        events.add(new UsageEvent(1L, " ", 1.0, null));
+        events.add(new UsageEvent(1L, "diapers", -1.0, null));
+        events.add(new UsageEvent(1L, "diapers", Double.NaN, null));
+        events.add(null);
+        events.add(new UsageEvent(1L, "diapers", 1.0, null));
+
+        UsageEventResponse response = usageEventService.record(events);
+
+        assertEquals(new UsageEventResponse(1, 5), response);
+    }
+
+    @Test
+    void record_rejectsSuppliesNobodyStocks() {
+        UsageEventResponse response = usageEventService.record(List.of(
+                new UsageEvent(1L, "teething rings", 1.0, null),
+                new UsageEvent(1L, " Wipes ", 1.0, null)));
+
+        assertEquals(new UsageEventResponse(1, 1), response);
+        assertEquals(1, usageEventService.pendingCount());
+    }
+
+    @Test
+    void record_rejectsOversizedRequest() {
+        List<UsageEvent> events = Collections.nCopies(UsageEventService.MAX_EVENTS_PER_REQUEST + 1,
+                new UsageEvent(1L, "diapers", null, null));
+
+        assertThrows(IllegalArgumentException.class, () -> usageEventService.record(events));
+        assertEquals(0, usageEventService.pendingCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_appliesSummedDeltasInOneBatch() {
+        usageEventService.record(List.of(
+                new UsageEvent(1L, "diapers", null, null),
+                new UsageEvent(1L, "diapers", 2.0, null),
+                new UsageEvent(2L, "wipes", 4.0, null)));
+        when(inventoryRepository.batchAddSingleQuantity(anyList())).thenReturn(2);
+
+        assertEquals(2, usageEventService.flush());
+
+        ArgumentCaptor<List<SingleQuantityDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(inventoryRepository).batchAddSingleQuantity(captor.capture());
+        assertEquals(Set.of(new SingleQuantityDelta(1L, 1, "diapers", -3.0), new SingleQuantityDelta(2L, 2, "wipes", -4.0)),
+                Set.copyOf(captor.getValue()));
+        verify(estimateRepository).batchRecordUsage(eq(captor.getValue()), any(), eq(SupplyUsageEstimator.ALPHA));
+        verify(householdUsageCache).evictUser(1L);
+        verify(householdUsageCache).evictUser(2L);
+        verify(forecastService).markStale(Set.of(1L, 2L));
+        assertEquals(0, usageEventService.pendingCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_creditsUsageToTheDayItHappened() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        ZoneOffset mountain = ZoneOffset.ofHours(-6);
+        usageEventService.record(List.of(
+                new UsageEvent(1L, "diapers", 2.0, yesterday.atTime(23, 50).atOffset(mountain)),
+                new UsageEvent(1L, "diapers", 1.0, yesterday.plusDays(1).atTime(0, 10).atOffset(mountain))));
+        when(inventoryRepository.batchAddSingleQuantity(anyList())).thenReturn(1);
+
+        usageEventService.flush();
+
+        // Each day's sum goes to the estimate on its own date, the inventory takes the total once
+        verify(estimateRepository).batchRecordUsage(List.of(new SingleQuantityDelta(1L, 1, "diapers", -2.0)),
+                yesterday, SupplyUsageEstimator.ALPHA);
+        verify(estimateRepository).batchRecordUsage(List.of(new SingleQuantityDelta(1L, 1, "diapers", -1.0)),
+                yesterday.plusDays(1), SupplyUsageEstimator.ALPHA);
+        ArgumentCaptor<List<SingleQuantityDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(inventoryRepository).batchAddSingleQuantity(captor.capture());
+        assertEquals(List.of(new SingleQuantityDelta(1L, 1, "diapers", -3.0)), captor.getValue());
+    }
+
+    @Test
+    void record_rejectsEventsDatedAfterTomorrow() {
+        OffsetDateTime nextWeek = OffsetDateTime.now().plusDays(7);
+
+        UsageEventResponse response = usageEventService.record(List.of(new UsageEvent(1L, "diapers", 1.0, nextWeek)));
+
+        assertEquals(new UsageEventResponse(0, 1), response);
+        assertEquals(0, usageEventService.pendingCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void record_datesUntimedEventsInTheHouseholdsZone() {
+        // UTC+14, a calendar day ahead of most server zones for most of the day
+        ZoneId kiritimati = ZoneId.of("Pacific/Kiritimati");
+        when(userRepository.findTimezonesByIdIn(anyCollection()))
+                .thenReturn(List.of(timezone(1L, "Pacific/Kiritimati")));
+        usageEventService.record(List.of(new UsageEvent(1L, "diapers", 2.0, null)));
+        when(inventoryRepository.batchAddSingleQuantity(anyList())).thenReturn(1);
+
+        usageEventService.flush();
+
+        verify(estimateRepository).batchRecordUsage(List.of(new SingleQuantityDelta(1L, 1, "diapers", -2.0)),
+                LocalDate.now(kiritimati), SupplyUsageEstimator.ALPHA);
+    }
+
+    @Test
+    void record_tomorrowIsTheHouseholdsTomorrow() {
+        // Kiritimati (UTC+14) is always one or two calendar days ahead of Pago Pago (UTC-11)
+        OffsetDateTime kiritimatiTomorrow = LocalDate.now(ZoneId.of("Pacific/Kiritimati")).plusDays(1)
+                .atTime(12, 0).atOffset(ZoneOffset.ofHours(14));
+        when(userRepository.findTimezonesByIdIn(anyCollection())).thenReturn(List.of(
+                timezone(1L, "Pacific/Kiritimati"), timezone(2L, "Pacific/Pago_Pago")));
+
+        UsageEventResponse response = usageEventService.record(List.of(
+                new UsageEvent(1L, "diapers", 1.0, kiritimatiTomorrow),
+                new UsageEvent(2L, "diapers", 1.0, kiritimatiTomorrow)));
+
+        assertEquals(new UsageEventResponse(1, 1), response);
+    }
+
+    @Test
+    void flush_withNothingPendingDoesNotTouchTheDatabase() {
+        assertEquals(0, usageEventService.flush());
+
+        verifyNoInteractions(transactionTemplate, inventoryRepository, estimateRepository, householdUsageCache);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_failureKeepsDeltasForNextFlush() {
+        usageEventService.record(List.of(new UsageEvent(1L, "diapers", 2.0, null)));
+        when(inventoryRepository.batchAddSingleQuantity(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"))
+                .thenReturn(1);
+
+        assertEquals(0, usageEventService.flush());
+        verifyNoInteractions(householdUsageCache, forecastService);
+        assertEquals(1, usageEventService.pendingCount());
+
+        // Events arriving in between are added to the retried total
+        usageEventService.record(List.of(new UsageEvent(1L, "diapers", 1.0, null)));
+        assertEquals(1, usageEventService.flush());
+
+        ArgumentCaptor<List<SingleQuantityDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(inventoryRepository, times(2)).batchAddSingleQuantity(captor.capture());
+        assertEquals(List.of(new SingleQuantityDelta(1L, 1, "diapers", -3.0)), captor.getAllValues().get(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void record_concurrentEventsAreAllCounted() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            pool.submit(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    usageEventService.record(List.of(new UsageEvent(1L, "diapers", null, null)));
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        when(inventoryRepository.batchAddSingleQuantity(anyList())).thenReturn(1);
+
+        usageEventService.flush();
+
+        ArgumentCaptor<List<SingleQuantityDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(inventoryRepository).batchAddSingleQuantity(captor.capture());
+        assertEquals(List.of(new SingleQuantityDelta(1L, 1, "diapers", -8000.0)), captor.getValue());
+    }
+
+    private static UserTimezone timezone(Long userId, String timezone) {
+        return new UserTimezone() {
+            public Long getUserId() { return userId; }
+            public String getTimezone() { return timezone; }
+        };
+    }
+
+    private static SupplyType supplyType(int id, String name, Double defaultDailyUsage) {
+        SupplyType type = new SupplyType(name, name, defaultDailyUsage);
+        type.setId(id);
+        return type;
+    }
+}
@@ -0,0 +1,191 @@
+package com.nestuity.service.service;
+
+import com.nestuity.service.entity.JobCheckpoint;
+import com.nestuity.service.repository.BabyReminderRepository;
+import com.nestuity.service.repository.BabyReminderRepository.PastDueReminder;
+import com.nestuity.service.repository.BabyRepository;
+import com.nestuity.service.repository.BabyRepository.WeeklySummaryRecipient;
+import com.nestuity.service.type.Frequency;
+import com.nestuity.service.type.ReminderType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WeeklySummaryServiceTest {
+
+    private static final TimezoneCohorts.Cohort COHORT =
+            new TimezoneCohorts.Cohort(Instant.parse("2026-10-18T06:00:00Z"), List.of("America/Edmonton"), false);
+
+    @Mock private BabyRepository babyRepository;
+    @Mock private BabyReminderRepository reminderRepository;
+    @Mock private EmailService emailService;
+    @Mock private JobCheckpointService checkpointService;
+
+    private WeeklySummaryService weeklySummaryService;
+    private JobCheckpoint checkpoint;
+
+    @BeforeEach
+    void setUp() {
+        // Run sends inline so assertions see them
+        weeklySummaryService = new WeeklySummaryService(babyRepository, reminderRepository, emailService,
+                checkpointService, Runnable::run, 2);
+        checkpoint = new JobCheckpoint(WeeklySummaryService.JOB_NAME, COHORT.runKey());
+        lenient().when(checkpointService.start(WeeklySummaryService.JOB_NAME, COHORT.runKey())).thenReturn(checkpoint);
+        lenient().when(checkpointService.advance(any(), anyLong(), anyInt())).thenAnswer(inv -> {
+            JobCheckpoint cp = inv.getArgument(0);
+            cp.setLastProcessedId(inv.getArgument(1));
+            cp.setProcessedCount(cp.getProcessedCount() + inv.<Integer>getArgument(2));
+            return cp;
+        });
+    }
+
+    @Test
+    void sendWeeklySummaries_pagesByKeysetAndCheckpointsEachPage() throws Exception {
+        when(babyRepository.findWeeklySummaryRecipientsAfter(eq(0L), eq(COHORT.timezones()), eq(false), any(Limit.class)))
+                .thenReturn(List.of(recipient(1L, "a@example.com"), recipient(2L, "b@example.com")));
+        when(babyRepository.findWeeklySummaryRecipientsAfter(eq(2L), eq(COHORT.timezones()), eq(false), any(Limit.class)))
+                .thenReturn(List.of(recipient(5L, "c@example.com")));
+        when(reminderRepository.findPastDueByBabyIdIn(anyCollection(), any(), anyCollection())).thenReturn(List.of());
+
+        weeklySummaryService.sendWeeklySummaries(COHORT);
+
+        verify(emailService, times(3)).sendWeeklySummaryEmail(anyString(), anyString(), anyList(), anyList());
+        verify(checkpointService).advance(checkpoint, 2L, 2);
+        verify(checkpointService).advance(checkpoint, 5L, 1);
+        verify(checkpointService).complete(checkpoint);
+        verify(reminderRepository, times(2)).findPastDueByBabyIdIn(anyCollection(), any(), anyCollection());
+    }
+
+    @Test
+    void sendWeeklySummaries_resumesAfterCheckpoint() {
+        checkpoint.setLastProcessedId(40L);
+        when(babyRepository.findWeeklySummaryRecipientsAfter(eq(40L), eq(COHORT.timezones()), eq(false), any(Limit.class))).thenReturn(List.of());
+
+        weeklySummaryService.sendWeeklySummaries(COHORT);
+
+        verify(babyRepository, never()).findWeeklySummaryRecipientsAfter(eq(0L), any(), anyBoolean(), any());
+        verify(checkpointService).complete(checkpoint);
+    }
+
+    @Test
+    void sendWeeklySummaries_emptyCohortDoesNothing() {
+        weeklySummaryService.sendWeeklySummaries(
+                new TimezoneCohorts.Cohort(Instant.parse("2026-10-18T06:15:00Z"), List.of(), false));
+
+        verifyNoInteractions(babyRepository, checkpointService, emailService);
+    }
+
+    @Test
+    void sendWeeklySummaries_skipsCompletedRun() {
+        checkpoint.setCompleted(true);
+
+        weeklySummaryService.sendWeeklySummaries(COHORT);
+
+        verifyNoInteractions(babyRepository, reminderRepository, emailService);
+    }
+
+    @Test
+    void sendWeeklySummaries_failedSendDoesNotStopRun() throws Exception {
+        when(babyRepository.findWeeklySummaryRecipientsAfter(eq(0L), eq(COHORT.timezones()), eq(false), any(Limit.class)))
+                .thenReturn(List.of(recipient(1L, "bad@example.com")));
+        when(reminderRepository.findPastDueByBabyIdIn(anyCollection(), any(), anyCollection())).thenReturn(List.of());
+        doThrow(new IOException("rejected")).when(emailService)
+                .sendWeeklySummaryEmail(eq("bad@example.com"), anyString(), anyList(), anyList());
+
+        weeklySummaryService.sendWeeklySummaries(COHORT);
+
+        verify(checkpointService).advance(checkpoint, 1L, 1);
+        verify(checkpointService).complete(checkpoint);
+    }
+
+    @Test
+    void sendWeeklySummaries_judgesOverdueOnEachParentsLocalClock() throws Exception {
+        ZoneId kiritimati = ZoneId.of("Pacific/Kiritimati");
+        ZoneId pagoPago = ZoneId.of("Pacific/Pago_Pago");
+        when(babyRepository.findWeeklySummaryRecipientsAfter(eq(0L), eq(COHORT.timezones()), eq(false), any(Limit.class)))
+                .thenReturn(List.of(recipient(1L, "east@example.com", kiritimati.getId()),
+                        recipient(2L, "west@example.com", pagoPago.getId())));
+        // Both an hour from their parent's local now, whatever the server's zone
+        LocalDateTime anHourAgoEast = LocalDateTime.now(kiritimati).minusHours(1);
+        LocalDateTime inAnHourWest = LocalDateTime.now(pagoPago).plusHours(1);
+        List<PastDueReminder> reminders = List.of(
+                pastDue(1L, ReminderType.TASK, Frequency.WEEKLY, "Bath", anHourAgoEast, null),
+                pastDue(2L, ReminderType.TASK, Frequency.WEEKLY, "Nails", inAnHourWest, null));
+        when(reminderRepository.findPastDueByBabyIdIn(anyCollection(), any(), anyCollection())).thenReturn(reminders);
+
+        weeklySummaryService.sendWeeklySummaries(COHORT);
+
+        verify(emailService).sendWeeklySummaryEmail("east@example.com", "Parent",
+                List.of(Map.of("taskName", "Bath", "daysOverdue", "0")), List.of());
+        verify(emailService).sendWeeklySummaryEmail("west@example.com", "Parent", List.of(), List.of());
+    }
+
+    @Test
+    void unfinishedRuns_listsRunKeysOfOpenCheckpoints() {
+        when(checkpointService.unfinished(eq(WeeklySummaryService.JOB_NAME), any(LocalDateTime.class)))
+                .thenReturn(List.of(checkpoint));
+
+        assertEquals(List.of(COHORT.runKey()), weeklySummaryService.unfinishedRuns());
+    }
+
+    @Test
+    void overdueLists_keepPreviousFilteringRules() {
+        LocalDateTime now = LocalDateTime.of(2026, 10, 18, 0, 0);
+        List<PastDueReminder> reminders = List.of(
+                pastDue(ReminderType.TASK, Frequency.WEEKLY, "Bath", now.minusDays(3), null),
+                pastDue(ReminderType.TASK, Frequency.DAILY, "Feed", now.minusDays(1), null),
+                pastDue(ReminderType.VACCINATION, Frequency.ONCE, "MMR", now.minusDays(10), null),
+                pastDue(ReminderType.VACCINATION, Frequency.ONCE, "Hep B", now.minusDays(10), now.minusDays(20)));
+
+        List<Map<String, String>> tasks = WeeklySummaryService.overdueTasks(reminders, now);
+        List<Map<String, String>> vaccinations = WeeklySummaryService.overdueVaccinations(reminders, now);
+
+        assertEquals(List.of(Map.of("taskName", "Bath", "daysOverdue", "3")), tasks);
+        assertEquals(List.of(Map.of("vaccinationName", "MMR", "daysOverdue", "10")), vaccinations);
+    }
+
+    private WeeklySummaryRecipient recipient(Long babyId, String email) {
+        return recipient(babyId, email, "America/Edmonton");
+    }
+
+    private WeeklySummaryRecipient recipient(Long babyId, String email, String timezone) {
+        return new WeeklySummaryRecipient() {
+            public Long getBabyId() { return babyId; }
+            public String getEmail() { return email; }
+            public String getFirstName() { return "Parent"; }
+            public String getTimezone() { return timezone; }
+        };
+    }
+
+    private PastDueReminder pastDue(ReminderType type, Frequency frequency, String title,
+                                    LocalDateTime nextDue, LocalDateTime completedOn) {
+        return pastDue(1L, type, frequency, title, nextDue, completedOn);
+    }
+
+    private PastDueReminder pastDue(Long babyId, ReminderType type, Frequency frequency, String title,
+                                    LocalDateTime nextDue, LocalDateTime completedOn) {
+        return new PastDueReminder() {
+            public Long getBabyId() { return babyId; }
+            public ReminderType getType() { return type; }
+            public Frequency getFrequency() { return frequency; }
+            public String getTitle() { return title; }
+            public LocalDateTime getNextDue() { return nextDue; }
+            public LocalDateTime getCompletedOn() { return completedOn; }
+        };
+    }
+}